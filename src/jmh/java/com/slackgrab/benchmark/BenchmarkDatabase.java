@@ -0,0 +1,229 @@
+package com.slackgrab.benchmark;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.util.Modules;
+import com.slackgrab.core.ApplicationModule;
+import com.slackgrab.core.ConfigurationManager;
+import com.slackgrab.core.ErrorHandler;
+import com.slackgrab.data.ConnectionPool;
+import com.slackgrab.data.CounterRepository;
+import com.slackgrab.data.DatabaseManager;
+import com.slackgrab.data.IdDictionary;
+import com.slackgrab.data.SnapshotService;
+import com.slackgrab.data.StatisticsRepository;
+import com.slackgrab.data.model.SlackMessage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Temp-directory SQLite database for benchmarks
+ *
+ * Wires the real data layer (ApplicationModule) against a scratch
+ * directory and a chosen PRAGMA profile. Seeded databases are generated
+ * once per row count and kept as snapshots (see SnapshotService), so
+ * later trials warm-start from a file copy instead of re-inserting
+ * millions of rows. Fixtures live in java.io.tmpdir unless the
+ * slackgrab.benchmark.fixtures system property points elsewhere.
+ */
+public final class BenchmarkDatabase implements AutoCloseable {
+
+    public static final int CHANNELS = 50;
+    public static final int USERS = 500;
+
+    private static final String FIXTURE_VERSION = "v1";   // Bump when the schema or seed data changes
+    private static final int SEED_BATCH_SIZE = 10_000;
+    private static final long SEED_SPAN_SECONDS = 13L * 24 * 3600;   // Inside the hot tier
+
+    private static final String INSERT_SQL = """
+        INSERT INTO messages (
+            id, channel_key, user_key, text, timestamp, thread_ts,
+            has_attachments, has_reactions, importance_score, importance_level, created_at
+        ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private final Path directory;
+    private final Injector injector;
+
+    private BenchmarkDatabase(Path directory, ConfigurationManager config, PragmaProfile profile) throws Exception {
+        this.directory = directory;
+
+        ErrorHandler errorHandler = new ErrorHandler();
+        ConnectionPool pool = new ConnectionPool(config, errorHandler, profile.pragmas());
+
+        this.injector = Guice.createInjector(Modules.override(new ApplicationModule()).with(binder -> {
+            binder.bind(ConfigurationManager.class).toInstance(config);
+            binder.bind(ErrorHandler.class).toInstance(errorHandler);
+            binder.bind(ConnectionPool.class).toInstance(pool);
+        }));
+
+        get(DatabaseManager.class).start();
+        get(StatisticsRepository.class).start();
+    }
+
+    /**
+     * Open a scratch database holding the given number of messages
+     *
+     * @param profile PRAGMA profile for all pooled connections
+     * @param rows Number of seeded messages (0 for an empty database)
+     * @return Open database; close it to delete the directory
+     */
+    public static BenchmarkDatabase open(PragmaProfile profile, int rows) throws Exception {
+        Path directory = Files.createTempDirectory("slackgrab-bench-");
+        ConfigurationManager config = new ConfigurationManager(directory);
+
+        Path fixture = fixturePath(rows);
+        boolean warmStart = rows > 0 && Files.isDirectory(fixture);
+        if (warmStart) {
+            SnapshotService.restoreInto(fixture, config.getDatabasePath());
+        }
+
+        BenchmarkDatabase database = new BenchmarkDatabase(directory, config, profile);
+        if (rows > 0 && !warmStart) {
+            database.seed(rows);
+            database.saveFixture(fixture);
+        }
+        return database;
+    }
+
+    public <T> T get(Class<T> type) {
+        return injector.getInstance(type);
+    }
+
+    public static String channelId(int index) {
+        return String.format(Locale.ROOT, "C%08d", index % CHANNELS);
+    }
+
+    public static String userId(int index) {
+        return String.format(Locale.ROOT, "U%08d", index % USERS);
+    }
+
+    /**
+     * ID of the n-th seeded message
+     */
+    public static String messageId(long n) {
+        return String.format(Locale.ROOT, "seed-%d", n);
+    }
+
+    /**
+     * A new unscored message (ingest path)
+     */
+    public static SlackMessage newMessage(String id, int index) {
+        double ts = Instant.now().getEpochSecond() + (index % 1_000_000) / 1_000_000.0;
+        return SlackMessage.createNew(
+            id,
+            channelId(index),
+            userId(index),
+            "Benchmark message " + index + ": could you please take a look at the deploy pipeline?",
+            String.format(Locale.ROOT, "%.6f", ts),
+            null,
+            index % 10 == 0,
+            index % 4 == 0
+        );
+    }
+
+    @Override
+    public void close() throws Exception {
+        get(StatisticsRepository.class).stop();
+        get(DatabaseManager.class).stop();
+
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * Insert scored messages spread over the hot tier in large transactions
+     */
+    private void seed(int rows) throws SQLException {
+        IdDictionary dictionary = get(IdDictionary.class);
+        int[] channelKeys = new int[CHANNELS];
+        int[] userKeys = new int[USERS];
+        for (int i = 0; i < CHANNELS; i++) {
+            channelKeys[i] = dictionary.encode(channelId(i));
+        }
+        for (int i = 0; i < USERS; i++) {
+            userKeys[i] = dictionary.encode(userId(i));
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        double newest = Instant.now().getEpochSecond();
+        long createdAt = Instant.now().toEpochMilli();
+
+        for (int start = 0; start < rows; start += SEED_BATCH_SIZE) {
+            int from = start;
+            int to = Math.min(rows, start + SEED_BATCH_SIZE);
+
+            get(DatabaseManager.class).executeInTransaction(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL)) {
+                    for (int i = from; i < to; i++) {
+                        double score = random.nextDouble();
+                        double ts = newest - (double) i * SEED_SPAN_SECONDS / rows;
+
+                        stmt.setString(1, messageId(i));
+                        stmt.setInt(2, channelKeys[random.nextInt(CHANNELS)]);
+                        stmt.setInt(3, userKeys[random.nextInt(USERS)]);
+                        stmt.setString(4, "Seeded message " + i + " about release " + random.nextInt(100));
+                        stmt.setString(5, String.format(Locale.ROOT, "%.6f", ts));
+                        stmt.setString(6, i % 7 == 0 ? messageId(Math.max(0, i - 1)) : null);
+                        stmt.setBoolean(7, i % 10 == 0);
+                        stmt.setBoolean(8, i % 4 == 0);
+                        stmt.setDouble(9, score);
+                        stmt.setString(10, score >= 0.7 ? "HIGH" : score >= 0.4 ? "MEDIUM" : "LOW");
+                        stmt.setLong(11, createdAt);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                    return null;
+                }
+            });
+        }
+
+        get(StatisticsRepository.class).markAllDirty();
+        get(CounterRepository.class).markDirty();
+    }
+
+    private void saveFixture(Path fixture) throws IOException {
+        Path snapshot = get(SnapshotService.class).createSnapshot();
+        if (snapshot == null) {
+            return;   // Logged by the service; the next trial seeds again
+        }
+
+        Path staging = fixture.resolveSibling(fixture.getFileName() + ".tmp");
+        Files.createDirectories(staging);
+        try (Stream<Path> files = Files.list(snapshot)) {
+            for (Path file : files.toList()) {
+                Files.copy(file, staging.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(staging, fixture, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static Path fixturePath(int rows) {
+        String root = System.getProperty(
+            "slackgrab.benchmark.fixtures",
+            Path.of(System.getProperty("java.io.tmpdir"), "slackgrab-benchmark-fixtures").toString());
+        return Path.of(root, "messages-" + rows + "-" + FIXTURE_VERSION);
+    }
+
+    /**
+     * Reproducible random sample of seeded message IDs (point lookups)
+     */
+    public static List<String> seededIds(int rows, int count) {
+        SplittableRandom random = new SplittableRandom(7);
+        return random.ints(count, 0, rows).mapToObj(BenchmarkDatabase::messageId).toList();
+    }
+}
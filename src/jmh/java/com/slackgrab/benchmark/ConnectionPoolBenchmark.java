@@ -0,0 +1,101 @@
+package com.slackgrab.benchmark;
+
+import com.slackgrab.data.ConnectionPool;
+import com.slackgrab.data.MessageRepository;
+import com.slackgrab.data.model.SlackMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool checkout, statement preparation (cached vs uncached) and point lookups
+ *
+ * Run with -PjmhThreads=N to measure contention on the pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConnectionPoolBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPoolBenchmark.class);
+
+    private static final int ROWS = 100_000;
+
+    private static final String LOOKUP_SQL = "SELECT text FROM messages WHERE id = ?";
+
+    private BenchmarkDatabase database;
+    private ConnectionPool connectionPool;
+    private MessageRepository messageRepository;
+    private List<String> messageIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.open(PragmaProfile.DEFAULT, ROWS);
+        connectionPool = database.get(ConnectionPool.class);
+        messageRepository = database.get(MessageRepository.class);
+        messageIds = BenchmarkDatabase.seededIds(ROWS, 10_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        logger.info("Statement cache: {}", connectionPool.getStatementCacheStats());
+        database.close();
+    }
+
+    @Benchmark
+    public boolean acquireRelease() throws SQLException {
+        try (Connection conn = connectionPool.getConnection()) {
+            return conn.getAutoCommit();
+        }
+    }
+
+    @Benchmark
+    public String lookupCachedStatement() throws SQLException {
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(LOOKUP_SQL)) {
+            return lookup(stmt);
+        }
+    }
+
+    @Benchmark
+    public String lookupUncachedStatement() throws SQLException {
+        // The explicit result set options bypass the statement cache
+        try (Connection conn = connectionPool.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                 LOOKUP_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            return lookup(stmt);
+        }
+    }
+
+    @Benchmark
+    public Optional<SlackMessage> repositoryGetMessage() {
+        return messageRepository.getMessage(randomMessageId());
+    }
+
+    private String lookup(PreparedStatement stmt) throws SQLException {
+        stmt.setString(1, randomMessageId());
+        try (ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    private String randomMessageId() {
+        return messageIds.get(ThreadLocalRandom.current().nextInt(messageIds.size()));
+    }
+}
@@ -0,0 +1,81 @@
+package com.slackgrab.benchmark;
+
+import com.slackgrab.data.DatabaseManager;
+import com.slackgrab.data.InteractionRepository;
+import com.slackgrab.data.MessageRepository;
+import com.slackgrab.data.StatisticsRepository;
+import com.slackgrab.data.model.ActivityStats;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * COUNT paths: trigger-maintained counters and statistics vs a table scan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CountBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private BenchmarkDatabase database;
+    private DatabaseManager databaseManager;
+    private MessageRepository messageRepository;
+    private InteractionRepository interactionRepository;
+    private StatisticsRepository statisticsRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.open(PragmaProfile.DEFAULT, rows);
+        databaseManager = database.get(DatabaseManager.class);
+        messageRepository = database.get(MessageRepository.class);
+        interactionRepository = database.get(InteractionRepository.class);
+        statisticsRepository = database.get(StatisticsRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+
+    @Benchmark
+    public int totalMessagesFromCounters() {
+        return messageRepository.getTotalMessageCount();
+    }
+
+    @Benchmark
+    public int totalInteractionsFromCounters() {
+        return interactionRepository.getTotalInteractionCount();
+    }
+
+    @Benchmark
+    public ActivityStats channelStats() {
+        int channel = ThreadLocalRandom.current().nextInt(BenchmarkDatabase.CHANNELS);
+        return statisticsRepository.getChannelStats(BenchmarkDatabase.channelId(channel));
+    }
+
+    @Benchmark
+    public long totalMessagesByScan() throws SQLException {
+        try (Connection conn = databaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM messages")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+}
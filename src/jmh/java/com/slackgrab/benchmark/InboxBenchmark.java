@@ -0,0 +1,79 @@
+package com.slackgrab.benchmark;
+
+import com.slackgrab.data.MessageRepository;
+import com.slackgrab.data.model.InboxPage;
+import com.slackgrab.data.model.InboxQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inbox queries (importance-ordered pages) at increasing table sizes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InboxBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"DEFAULT", "WAL_NORMAL_MMAP"})
+    public PragmaProfile profile;
+
+    private BenchmarkDatabase database;
+    private MessageRepository messageRepository;
+
+    private InboxQuery firstPage;
+    private InboxQuery secondPage;
+    private InboxQuery channelPage;
+    private InboxQuery highScorePage;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.open(profile, rows);
+        messageRepository = database.get(MessageRepository.class);
+
+        firstPage = new InboxQuery.Builder().build();
+        secondPage = firstPage.withCursor(messageRepository.getInbox(firstPage).nextCursor());
+        channelPage = new InboxQuery.Builder()
+            .withChannels(Set.of(BenchmarkDatabase.channelId(3), BenchmarkDatabase.channelId(17)))
+            .build();
+        highScorePage = new InboxQuery.Builder().withMinScore(0.9).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+
+    @Benchmark
+    public InboxPage firstPage() {
+        return messageRepository.getInbox(firstPage);
+    }
+
+    @Benchmark
+    public InboxPage secondPage() {
+        return messageRepository.getInbox(secondPage);
+    }
+
+    @Benchmark
+    public InboxPage channelFilteredPage() {
+        return messageRepository.getInbox(channelPage);
+    }
+
+    @Benchmark
+    public InboxPage minScorePage() {
+        return messageRepository.getInbox(highScorePage);
+    }
+}
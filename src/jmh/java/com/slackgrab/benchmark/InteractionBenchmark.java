@@ -0,0 +1,87 @@
+package com.slackgrab.benchmark;
+
+import com.slackgrab.data.InteractionBuffer;
+import com.slackgrab.data.InteractionRepository;
+import com.slackgrab.data.model.InteractionEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interaction recording: direct inserts, batched inserts and buffered capture
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class InteractionBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(InteractionBenchmark.class);
+
+    private static final int ROWS = 10_000;
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"DEFAULT", "WAL_FULL", "WAL_NORMAL"})
+    public PragmaProfile profile;
+
+    private BenchmarkDatabase database;
+    private InteractionRepository interactionRepository;
+    private InteractionBuffer interactionBuffer;
+    private List<String> messageIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.open(profile, ROWS);
+        interactionRepository = database.get(InteractionRepository.class);
+        interactionBuffer = database.get(InteractionBuffer.class);
+        interactionBuffer.start();
+        messageIds = BenchmarkDatabase.seededIds(ROWS, 1_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        interactionBuffer.stop();
+        if (interactionBuffer.getDroppedCount() > 0) {
+            logger.warn("Interaction buffer dropped {} events", interactionBuffer.getDroppedCount());
+        }
+        database.close();
+    }
+
+    @Benchmark
+    public boolean singleRecord() {
+        return interactionRepository.recordInteraction(randomMessageId(), "READ", 3_000L);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int batchedRecord() {
+        long now = System.currentTimeMillis();
+        List<InteractionEvent> events = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            events.add(new InteractionEvent(randomMessageId(), "READ", now, 3_000L, 1));
+        }
+        return interactionRepository.recordInteractions(events);
+    }
+
+    @Benchmark
+    public boolean bufferedCapture() {
+        return interactionBuffer.record(randomMessageId(), "READ", 3_000L);
+    }
+
+    private String randomMessageId() {
+        return messageIds.get(ThreadLocalRandom.current().nextInt(messageIds.size()));
+    }
+}
@@ -0,0 +1,108 @@
+package com.slackgrab.benchmark;
+
+import com.slackgrab.data.DatabaseManager;
+import com.slackgrab.data.IdDictionary;
+import com.slackgrab.data.MessageRepository;
+import com.slackgrab.data.model.SlackMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Message ingest: one autocommit insert per message vs batched
+ * transactions, and the ON CONFLICT update path for re-delivered messages
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MessageWriteBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+    private static final int UPSERT_TARGETS = 1_000;
+
+    private static final String INSERT_SQL = """
+        INSERT INTO messages (
+            id, channel_key, user_key, text, timestamp, thread_ts,
+            has_attachments, has_reactions, importance_score, importance_level, created_at
+        ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, NULL, NULL, ?)
+        """;
+
+    @Param({"DEFAULT", "WAL_FULL", "WAL_NORMAL", "ROLLBACK_FULL"})
+    public PragmaProfile profile;
+
+    private BenchmarkDatabase database;
+    private MessageRepository messageRepository;
+    private DatabaseManager databaseManager;
+    private IdDictionary idDictionary;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = BenchmarkDatabase.open(profile, 0);
+        messageRepository = database.get(MessageRepository.class);
+        databaseManager = database.get(DatabaseManager.class);
+        idDictionary = database.get(IdDictionary.class);
+
+        for (int i = 0; i < UPSERT_TARGETS; i++) {
+            messageRepository.saveMessage(BenchmarkDatabase.newMessage("upsert-" + i, i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        database.close();
+    }
+
+    @Benchmark
+    public boolean singleInsert() {
+        long n = sequence.incrementAndGet();
+        return messageRepository.saveMessage(BenchmarkDatabase.newMessage("single-" + n, (int) n));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int batchedInsert() throws SQLException {
+        long first = sequence.getAndAdd(BATCH_SIZE);
+
+        return databaseManager.executeInTransaction(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL)) {
+                for (int i = 0; i < BATCH_SIZE; i++) {
+                    long n = first + i;
+                    SlackMessage message = BenchmarkDatabase.newMessage("batch-" + n, (int) n);
+
+                    stmt.setString(1, message.id());
+                    stmt.setInt(2, idDictionary.encode(message.channelId()));
+                    stmt.setInt(3, idDictionary.encode(message.userId()));
+                    stmt.setString(4, message.text());
+                    stmt.setString(5, message.timestamp());
+                    stmt.setString(6, message.threadTs());
+                    stmt.setBoolean(7, message.hasAttachments());
+                    stmt.setBoolean(8, message.hasReactions());
+                    stmt.setLong(9, message.createdAt().toEpochMilli());
+                    stmt.addBatch();
+                }
+                return stmt.executeBatch().length;
+            }
+        });
+    }
+
+    @Benchmark
+    public boolean upsertExisting() {
+        int i = ThreadLocalRandom.current().nextInt(UPSERT_TARGETS);
+        return messageRepository.saveMessage(BenchmarkDatabase.newMessage("upsert-" + i, i));
+    }
+}
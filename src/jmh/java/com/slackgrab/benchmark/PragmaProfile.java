@@ -0,0 +1,64 @@
+package com.slackgrab.benchmark;
+
+import com.slackgrab.data.ConnectionPool;
+
+import java.util.Map;
+
+/**
+ * SQLite PRAGMA profiles compared by the data layer benchmarks
+ */
+public enum PragmaProfile {
+
+    /**
+     * What the application ships with
+     */
+    DEFAULT(ConnectionPool.DEFAULT_PRAGMAS),
+
+    /**
+     * WAL with an fsync on every commit
+     */
+    WAL_FULL(Map.of(
+        "journal_mode", "WAL",
+        "synchronous", "FULL",
+        "temp_store", "MEMORY"
+    )),
+
+    /**
+     * WAL without an fsync per commit, temp storage in memory
+     */
+    WAL_NORMAL(Map.of(
+        "journal_mode", "WAL",
+        "synchronous", "NORMAL",
+        "temp_store", "MEMORY"
+    )),
+
+    /**
+     * WAL_NORMAL plus memory-mapped I/O and a 64 MB page cache
+     */
+    WAL_NORMAL_MMAP(Map.of(
+        "journal_mode", "WAL",
+        "synchronous", "NORMAL",
+        "temp_store", "MEMORY",
+        "mmap_size", "268435456",
+        "cache_size", "-65536"
+    )),
+
+    /**
+     * Rollback journal (SQLite's out-of-the-box behaviour)
+     */
+    ROLLBACK_FULL(Map.of(
+        "journal_mode", "DELETE",
+        "synchronous", "FULL",
+        "temp_store", "MEMORY"
+    ));
+
+    private final Map<String, String> pragmas;
+
+    PragmaProfile(Map<String, String> pragmas) {
+        this.pragmas = pragmas;
+    }
+
+    public Map<String, String> pragmas() {
+        return pragmas;
+    }
+}
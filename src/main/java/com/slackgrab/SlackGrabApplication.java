@@ -3,10 +3,14 @@ package com.slackgrab;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 import com.slackgrab.core.ApplicationModule;
+import com.slackgrab.core.ConfigurationManager;
 import com.slackgrab.core.ServiceCoordinator;
+import com.slackgrab.data.SnapshotService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
+
 /**
  * SlackGrab Application Entry Point
  *
@@ -22,6 +26,8 @@ import org.slf4j.LoggerFactory;
 public class SlackGrabApplication {
     private static final Logger logger = LoggerFactory.getLogger(SlackGrabApplication.class);
 
+    private static final String RESTORE_SNAPSHOT_ARG = "--restore-snapshot";
+
     private final Injector injector;
     private final ServiceCoordinator serviceCoordinator;
 
@@ -71,6 +77,11 @@ public class SlackGrabApplication {
         logger.info("SlackGrab starting...");
 
         try {
+            // Optional: --restore-snapshot <snapshot directory>
+            if (args.length == 2 && RESTORE_SNAPSHOT_ARG.equals(args[0])) {
+                SnapshotService.restoreInto(Path.of(args[1]), new ConfigurationManager().getDatabasePath());
+            }
+
             SlackGrabApplication app = new SlackGrabApplication();
 
             // Add shutdown hook for graceful termination
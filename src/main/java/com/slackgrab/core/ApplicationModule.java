@@ -2,10 +2,25 @@ package com.slackgrab.core;
 
 import com.google.inject.AbstractModule;
 import com.google.inject.Singleton;
+import com.slackgrab.data.ActivitySketches;
+import com.slackgrab.data.AsyncRepositories;
 import com.slackgrab.data.ChannelRepository;
 import com.slackgrab.data.ConnectionPool;
+import com.slackgrab.data.CounterRepository;
 import com.slackgrab.data.DatabaseManager;
+import com.slackgrab.data.FeatureRepository;
+import com.slackgrab.data.IdDictionary;
+import com.slackgrab.data.InteractionBuffer;
+import com.slackgrab.data.MessageCache;
 import com.slackgrab.data.MessageRepository;
+import com.slackgrab.data.RetentionService;
+import com.slackgrab.data.SnapshotService;
+import com.slackgrab.data.StatisticsRepository;
+import com.slackgrab.data.TextCompressionJob;
+import com.slackgrab.data.ThreadIndex;
+import com.slackgrab.data.TieringService;
+import com.slackgrab.data.VacuumConversionJob;
+import com.slackgrab.ml.MLModule;
 import com.slackgrab.oauth.OAuthManager;
 import com.slackgrab.security.CredentialManager;
 import com.slackgrab.slack.MessageCollector;
@@ -32,8 +47,26 @@ public class ApplicationModule extends AbstractModule {
         // Data layer
         bind(ConnectionPool.class).in(Singleton.class);
         bind(DatabaseManager.class).in(Singleton.class);
+        bind(IdDictionary.class).in(Singleton.class);
+        bind(MessageCache.class).in(Singleton.class);
         bind(MessageRepository.class).in(Singleton.class);
         bind(ChannelRepository.class).in(Singleton.class);
+        bind(StatisticsRepository.class).in(Singleton.class);
+        bind(CounterRepository.class).in(Singleton.class);
+        bind(FeatureRepository.class).in(Singleton.class);
+        bind(ActivitySketches.class).in(Singleton.class);
+        bind(ThreadIndex.class).in(Singleton.class);
+        bind(AsyncRepositories.class).in(Singleton.class);
+        bind(InteractionBuffer.class).in(Singleton.class);
+        bind(TieringService.class).in(Singleton.class);
+        bind(RetentionService.class).in(Singleton.class);
+        bind(SnapshotService.class).in(Singleton.class);
+        bind(TextCompressionJob.class).in(Singleton.class);
+        bind(VacuumConversionJob.class).in(Singleton.class);
+
+        // Machine learning (scoring context, features, training); its services
+        // are started as optional so a failure there does not stop the app
+        install(new MLModule());
 
         // Security
         bind(CredentialManager.class).in(Singleton.class);
@@ -49,15 +49,22 @@ public class ConfigurationManager {
     private final long apiResponseMs = 100; // < 100ms
 
     public ConfigurationManager() {
+        this(resolveAppDataPath());
+    }
+
+    /**
+     * Create a configuration rooted at an explicit directory
+     *
+     * Used by benchmarks and tools that run against a scratch copy of the
+     * application data instead of %LOCALAPPDATA%.
+     *
+     * @param appDataPath Application data directory
+     */
+    public ConfigurationManager(Path appDataPath) {
         logger.info("Initializing configuration manager...");
 
         // Initialize application directories
-        String localAppData = System.getenv("LOCALAPPDATA");
-        if (localAppData == null) {
-            throw new IllegalStateException("LOCALAPPDATA environment variable not set - requires Windows 11+");
-        }
-
-        this.appDataPath = Paths.get(localAppData, "SlackGrab");
+        this.appDataPath = appDataPath;
         this.logsPath = appDataPath.resolve("logs");
         this.databasePath = appDataPath.resolve("database");
         this.cachePath = appDataPath.resolve("cache");
@@ -68,6 +75,14 @@ public class ConfigurationManager {
         logger.info("Configuration initialized. App data path: {}", appDataPath);
     }
 
+    private static Path resolveAppDataPath() {
+        String localAppData = System.getenv("LOCALAPPDATA");
+        if (localAppData == null) {
+            throw new IllegalStateException("LOCALAPPDATA environment variable not set - requires Windows 11+");
+        }
+        return Paths.get(localAppData, "SlackGrab");
+    }
+
     private void createDirectories() {
         try {
             Files.createDirectories(appDataPath);
@@ -1,7 +1,21 @@
 package com.slackgrab.core;
 
 import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.slackgrab.data.ActivitySketches;
+import com.slackgrab.data.AsyncRepositories;
 import com.slackgrab.data.DatabaseManager;
+import com.slackgrab.data.InteractionBuffer;
+import com.slackgrab.data.RetentionService;
+import com.slackgrab.data.SnapshotService;
+import com.slackgrab.data.StatisticsRepository;
+import com.slackgrab.data.TextCompressionJob;
+import com.slackgrab.data.ThreadIndex;
+import com.slackgrab.data.TieringService;
+import com.slackgrab.data.VacuumConversionJob;
+import com.slackgrab.ml.ScoringContextProvider;
+import com.slackgrab.ml.training.InteractionTrainingFeed;
+import com.slackgrab.ml.training.TrainingScheduler;
 import com.slackgrab.ui.SystemTrayManager;
 import com.slackgrab.webhook.WebhookServer;
 import org.slf4j.Logger;
@@ -13,7 +27,10 @@ import java.util.List;
 /**
  * Coordinates the lifecycle of all application services
  *
- * Manages startup and shutdown order to ensure proper dependency initialization
+ * Manages startup and shutdown order to ensure proper dependency initialization.
+ * Optional services (training) are constructed and started inside their
+ * start step; if either fails, the error is reported and the application
+ * runs without them.
  */
 public class ServiceCoordinator {
     private static final Logger logger = LoggerFactory.getLogger(ServiceCoordinator.class);
@@ -21,6 +38,19 @@ public class ServiceCoordinator {
     private final ConfigurationManager configurationManager;
     private final ErrorHandler errorHandler;
     private final DatabaseManager databaseManager;
+    private final StatisticsRepository statisticsRepository;
+    private final ScoringContextProvider scoringContextProvider;
+    private final ActivitySketches activitySketches;
+    private final ThreadIndex threadIndex;
+    private final AsyncRepositories asyncRepositories;
+    private final InteractionBuffer interactionBuffer;
+    private final Provider<TrainingScheduler> trainingScheduler;
+    private final Provider<InteractionTrainingFeed> interactionTrainingFeed;
+    private final TieringService tieringService;
+    private final RetentionService retentionService;
+    private final SnapshotService snapshotService;
+    private final TextCompressionJob textCompressionJob;
+    private final VacuumConversionJob vacuumConversionJob;
     private final WebhookServer webhookServer;
     private final SystemTrayManager systemTrayManager;
 
@@ -32,11 +62,37 @@ public class ServiceCoordinator {
             ConfigurationManager configurationManager,
             ErrorHandler errorHandler,
             DatabaseManager databaseManager,
+            StatisticsRepository statisticsRepository,
+            ScoringContextProvider scoringContextProvider,
+            ActivitySketches activitySketches,
+            ThreadIndex threadIndex,
+            AsyncRepositories asyncRepositories,
+            InteractionBuffer interactionBuffer,
+            Provider<TrainingScheduler> trainingScheduler,
+            Provider<InteractionTrainingFeed> interactionTrainingFeed,
+            TieringService tieringService,
+            RetentionService retentionService,
+            SnapshotService snapshotService,
+            TextCompressionJob textCompressionJob,
+            VacuumConversionJob vacuumConversionJob,
             WebhookServer webhookServer,
             SystemTrayManager systemTrayManager) {
         this.configurationManager = configurationManager;
         this.errorHandler = errorHandler;
         this.databaseManager = databaseManager;
+        this.statisticsRepository = statisticsRepository;
+        this.scoringContextProvider = scoringContextProvider;
+        this.activitySketches = activitySketches;
+        this.threadIndex = threadIndex;
+        this.asyncRepositories = asyncRepositories;
+        this.interactionBuffer = interactionBuffer;
+        this.trainingScheduler = trainingScheduler;
+        this.interactionTrainingFeed = interactionTrainingFeed;
+        this.tieringService = tieringService;
+        this.retentionService = retentionService;
+        this.snapshotService = snapshotService;
+        this.textCompressionJob = textCompressionJob;
+        this.vacuumConversionJob = vacuumConversionJob;
         this.webhookServer = webhookServer;
         this.systemTrayManager = systemTrayManager;
 
@@ -44,6 +100,20 @@ public class ServiceCoordinator {
         // System tray should start last so UI is ready after all services
         this.services = new ArrayList<>();
         services.add(databaseManager);
+        services.add(statisticsRepository);
+        services.add(scoringContextProvider);   // Learns from the loaded statistics
+        services.add(activitySketches);
+        services.add(threadIndex);
+        services.add(asyncRepositories);
+        services.add(interactionBuffer);
+        // Starts the online trainer the feed enqueues to
+        services.add(new OptionalService("TrainingScheduler", trainingScheduler, errorHandler));
+        services.add(new OptionalService("InteractionTrainingFeed", interactionTrainingFeed, errorHandler));
+        services.add(tieringService);
+        services.add(retentionService);
+        services.add(snapshotService);
+        services.add(textCompressionJob);
+        services.add(vacuumConversionJob);
         services.add(webhookServer);
         services.add(systemTrayManager);
     }
@@ -61,14 +131,14 @@ public class ServiceCoordinator {
 
         for (ManagedService service : services) {
             try {
-                String serviceName = service.getClass().getSimpleName();
+                String serviceName = nameOf(service);
                 logger.info("Starting service: {}", serviceName);
 
                 service.start();
 
                 logger.info("Service started successfully: {}", serviceName);
             } catch (Exception e) {
-                errorHandler.handleError("Failed to start service: " + service.getClass().getSimpleName(), e);
+                errorHandler.handleError("Failed to start service: " + nameOf(service), e);
                 throw e;
             }
         }
@@ -92,14 +162,14 @@ public class ServiceCoordinator {
         for (int i = services.size() - 1; i >= 0; i--) {
             ManagedService service = services.get(i);
             try {
-                String serviceName = service.getClass().getSimpleName();
+                String serviceName = nameOf(service);
                 logger.info("Stopping service: {}", serviceName);
 
                 service.stop();
 
                 logger.info("Service stopped successfully: {}", serviceName);
             } catch (Exception e) {
-                errorHandler.handleError("Error stopping service: " + service.getClass().getSimpleName(), e);
+                errorHandler.handleError("Error stopping service: " + nameOf(service), e);
                 // Continue shutting down other services
             }
         }
@@ -111,4 +181,49 @@ public class ServiceCoordinator {
     public boolean isStarted() {
         return started;
     }
+
+    private static String nameOf(ManagedService service) {
+        return service instanceof OptionalService optional ? optional.name : service.getClass().getSimpleName();
+    }
+
+    /**
+     * Service whose failure to construct or start is reported, not fatal
+     *
+     * The delegate is only provisioned in start(), so a failing dependency
+     * (e.g. a model that cannot be loaded) surfaces here rather than when
+     * the coordinator is injected. A service that did not start is not
+     * stopped.
+     */
+    private static final class OptionalService implements ManagedService {
+        private final String name;
+        private final Provider<? extends ManagedService> provider;
+        private final ErrorHandler errorHandler;
+        private ManagedService started;
+
+        OptionalService(String name, Provider<? extends ManagedService> provider, ErrorHandler errorHandler) {
+            this.name = name;
+            this.provider = provider;
+            this.errorHandler = errorHandler;
+        }
+
+        @Override
+        public void start() {
+            try {
+                ManagedService service = provider.get();
+                service.start();
+                started = service;
+            } catch (Exception e) {
+                errorHandler.handleError("Optional service " + name + " failed to start; continuing without it", e);
+            }
+        }
+
+        @Override
+        public void stop() throws Exception {
+            if (started != null) {
+                ManagedService service = started;
+                started = null;
+                service.stop();
+            }
+        }
+    }
 }
@@ -0,0 +1,408 @@
+package com.slackgrab.data;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.slackgrab.core.ConfigurationManager;
+import com.slackgrab.core.ErrorHandler;
+import com.slackgrab.core.ManagedService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming sender and channel activity statistics
+ *
+ * Fixed-size decayed count-min sketches (see DecayedSketch) updated on
+ * the write paths, so per-sender features are O(1) to read and memory
+ * stays bounded at any workspace size:
+ * - Message rate per sender, per channel and per sender and UTC hour of day
+ * - Interaction rate per sender (interactions on their messages)
+ * - Running mean and variance of importance scores per sender
+ *
+ * Observations decay with a mean lifetime of 7 days, so a decayed count
+ * approximates the count over the last week. Unlike StatisticsRepository
+ * these are approximations (count-min overestimates under collisions),
+ * traded for never touching the database on read.
+ *
+ * The sketches are saved to activity-sketches.bin every few minutes and
+ * on stop. Without a usable file they are rebuilt from recent rows.
+ */
+@Singleton
+public class ActivitySketches implements ManagedService {
+    private static final Logger logger = LoggerFactory.getLogger(ActivitySketches.class);
+
+    public static final String SNAPSHOT_FILE_NAME = "activity-sketches.bin";
+
+    private static final int SNAPSHOT_MAGIC = 0x534B5431;   // "SKT1"
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private static final long TAU_MILLIS = TimeUnit.DAYS.toMillis(7);
+    // Older observations weigh under e^-8 and are skipped when rebuilding
+    private static final long REBUILD_WINDOW_MILLIS = 8 * TAU_MILLIS;
+    private static final long SNAPSHOT_INTERVAL_MINUTES = 10;
+
+    private static final int KEY_WIDTH = 4096;
+    private static final int HOUR_WIDTH = 16384;
+    private static final long MILLIS_PER_HOUR = 3_600_000L;
+
+    // Below this decayed message count a sender has no meaningful interaction rate
+    private static final double MIN_MESSAGES_FOR_RATE = 0.5;
+
+    private final ConfigurationManager configurationManager;
+    private final DatabaseManager databaseManager;
+    private final IdDictionary idDictionary;
+    private final ErrorHandler errorHandler;
+
+    private final DecayedSketch senderMessages;
+    private final DecayedSketch channelMessages;
+    private final DecayedSketch senderHourMessages;
+    private final DecayedSketch senderInteractions;
+    private final DecayedSketch senderImportance;
+
+    private ScheduledExecutorService scheduler;
+
+    @Inject
+    public ActivitySketches(
+        ConfigurationManager configurationManager,
+        DatabaseManager databaseManager,
+        IdDictionary idDictionary,
+        ErrorHandler errorHandler
+    ) {
+        this.configurationManager = configurationManager;
+        this.databaseManager = databaseManager;
+        this.idDictionary = idDictionary;
+        this.errorHandler = errorHandler;
+
+        long now = System.currentTimeMillis();
+        this.senderMessages = new DecayedSketch(KEY_WIDTH, TAU_MILLIS, false, now);
+        this.channelMessages = new DecayedSketch(KEY_WIDTH, TAU_MILLIS, false, now);
+        this.senderHourMessages = new DecayedSketch(HOUR_WIDTH, TAU_MILLIS, false, now);
+        this.senderInteractions = new DecayedSketch(KEY_WIDTH, TAU_MILLIS, false, now);
+        this.senderImportance = new DecayedSketch(KEY_WIDTH, TAU_MILLIS, true, now);
+    }
+
+    @Override
+    public void start() throws Exception {
+        if (!load()) {
+            rebuild();
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r);
+            t.setName("ActivitySketches");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+
+        scheduler.scheduleWithFixedDelay(
+            this::saveSafely,
+            SNAPSHOT_INTERVAL_MINUTES,
+            SNAPSHOT_INTERVAL_MINUTES,
+            TimeUnit.MINUTES
+        );
+
+        logger.info("Activity sketches started");
+    }
+
+    @Override
+    public void stop() throws Exception {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        saveSafely();
+    }
+
+    /**
+     * Record a newly stored message
+     *
+     * @param userId Sender user ID
+     * @param channelId Channel ID
+     * @param timestampMillis Message time (Slack ts in milliseconds)
+     */
+    public void recordMessage(String userId, String channelId, long timestampMillis) {
+        long time = Math.min(timestampMillis, System.currentTimeMillis());
+        if (userId != null) {
+            long sender = DecayedSketch.hash(userId);
+            senderMessages.add(sender, time, 1.0);
+            senderHourMessages.add(DecayedSketch.hash(sender, utcHour(time)), time, 1.0);
+        }
+        if (channelId != null) {
+            channelMessages.add(DecayedSketch.hash(channelId), time, 1.0);
+        }
+    }
+
+    /**
+     * Record an interaction with one of a sender's messages
+     *
+     * @param userId Sender of the message interacted with
+     * @param timestampMillis Interaction time
+     */
+    public void recordInteraction(String userId, long timestampMillis) {
+        recordInteractions(userId, timestampMillis, 1);
+    }
+
+    /**
+     * Record a coalesced group of interactions with one of a sender's messages
+     *
+     * @param userId Sender of the message interacted with
+     * @param timestampMillis Time of the latest interaction in the group
+     * @param count Number of interactions in the group
+     */
+    public void recordInteractions(String userId, long timestampMillis, int count) {
+        if (userId != null) {
+            senderInteractions.add(DecayedSketch.hash(userId), Math.min(timestampMillis, System.currentTimeMillis()), count);
+        }
+    }
+
+    /**
+     * Record an importance score assigned to one of a sender's messages
+     *
+     * Called once per message, with its first score; re-scores are not
+     * new observations, which keeps live updates in line with a rebuild.
+     *
+     * @param userId Sender user ID
+     * @param score Importance score (0.0-1.0)
+     * @param timestampMillis Message time
+     */
+    public void recordImportance(String userId, double score, long timestampMillis) {
+        if (userId != null) {
+            senderImportance.add(DecayedSketch.hash(userId), Math.min(timestampMillis, System.currentTimeMillis()), score);
+        }
+    }
+
+    /**
+     * Decayed message count of a sender (about the last 7 days)
+     */
+    public double getSenderMessageRate(String userId) {
+        return userId != null ? senderMessages.count(DecayedSketch.hash(userId), System.currentTimeMillis()) : 0.0;
+    }
+
+    /**
+     * Decayed message count of a channel (about the last 7 days)
+     */
+    public double getChannelMessageRate(String channelId) {
+        return channelId != null ? channelMessages.count(DecayedSketch.hash(channelId), System.currentTimeMillis()) : 0.0;
+    }
+
+    /**
+     * Share of a sender's recent messages posted in a UTC hour of day
+     *
+     * @param userId Sender user ID
+     * @param utcHour Hour of day 0-23 (UTC)
+     * @return Share 0.0-1.0, 0.0 if the sender has no recent messages
+     */
+    public double getSenderHourShare(String userId, int utcHour) {
+        if (userId == null) {
+            return 0.0;
+        }
+        long now = System.currentTimeMillis();
+        long sender = DecayedSketch.hash(userId);
+        double total = senderMessages.count(sender, now);
+        if (total < MIN_MESSAGES_FOR_RATE) {
+            return 0.0;
+        }
+        return Math.min(1.0, senderHourMessages.count(DecayedSketch.hash(sender, utcHour), now) / total);
+    }
+
+    /**
+     * Interactions per recent message of a sender
+     *
+     * @return Rate 0.0-1.0, 0.5 (neutral) if the sender has no recent messages
+     */
+    public double getSenderInteractionRate(String userId) {
+        if (userId == null) {
+            return 0.5;
+        }
+        long now = System.currentTimeMillis();
+        long sender = DecayedSketch.hash(userId);
+        double messages = senderMessages.count(sender, now);
+        if (messages < MIN_MESSAGES_FOR_RATE) {
+            return 0.5;
+        }
+        return Math.min(1.0, senderInteractions.count(sender, now) / messages);
+    }
+
+    /**
+     * Decayed mean importance score of a sender's messages
+     *
+     * @return Mean 0.0-1.0, 0.5 (neutral) if nothing has been scored
+     */
+    public double getSenderImportanceMean(String userId) {
+        return userId != null ? senderImportance.mean(DecayedSketch.hash(userId), 0.5) : 0.5;
+    }
+
+    /**
+     * Decayed variance of importance scores of a sender's messages
+     *
+     * @return Variance, 0.0 if nothing has been scored
+     */
+    public double getSenderImportanceVariance(String userId) {
+        return userId != null ? senderImportance.variance(DecayedSketch.hash(userId), 0.0) : 0.0;
+    }
+
+    /**
+     * Save the sketches to disk now
+     *
+     * @throws IOException If writing fails
+     */
+    public synchronized void save() throws IOException {
+        Path target = getSnapshotPath();
+        Path partial = target.resolveSibling(SNAPSHOT_FILE_NAME + ".partial");
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(partial)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(TAU_MILLIS);
+            for (DecayedSketch sketch : sketches()) {
+                sketch.writeTo(out);
+            }
+        }
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Load the sketches from disk
+     *
+     * @return true if a compatible snapshot was loaded
+     */
+    private boolean load() {
+        Path file = getSnapshotPath();
+        if (!Files.exists(file)) {
+            return false;
+        }
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION || in.readLong() != TAU_MILLIS) {
+                logger.info("Activity sketch snapshot has an old format, rebuilding");
+                return false;
+            }
+            for (DecayedSketch sketch : sketches()) {
+                sketch.readFrom(in);
+            }
+            logger.info("Activity sketches loaded from {}", file);
+            return true;
+
+        } catch (IOException e) {
+            errorHandler.handleError("Failed to load activity sketches, rebuilding", e);
+            return false;
+        }
+    }
+
+    /**
+     * Rebuild the sketches from recent messages, scores and interactions
+     *
+     * The rebuild window reaches past the hot horizon, so both tiers are read.
+     */
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        long since = start - REBUILD_WINDOW_MILLIS;
+        for (DecayedSketch sketch : sketches()) {
+            sketch.clear(start);
+        }
+
+        String messagesSql = """
+            SELECT user_key, channel_key, timestamp, importance_score
+            FROM messages
+            WHERE timestamp >= ?1
+            UNION ALL
+            SELECT user_key, channel_key, timestamp, importance_score
+            FROM archive.messages
+            WHERE timestamp >= ?1
+            """;
+
+        String interactionsSql = """
+            SELECT m.user_key, i.interaction_timestamp, i.event_count
+            FROM user_interactions i
+            JOIN messages m ON m.id = i.message_id
+            WHERE i.interaction_timestamp >= ?1
+            UNION ALL
+            SELECT m.user_key, i.interaction_timestamp, i.event_count
+            FROM user_interactions i
+            JOIN archive.messages m ON m.id = i.message_id
+            WHERE i.interaction_timestamp >= ?1
+            """;
+
+        int messages = 0;
+        int interactions = 0;
+
+        try (Connection conn = databaseManager.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(messagesSql)) {
+                stmt.setDouble(1, since / 1000.0);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        String userId = idDictionary.decode(rs.getInt("user_key"));
+                        long time = (long) (rs.getDouble("timestamp") * 1000);
+                        recordMessage(userId, idDictionary.decode(rs.getInt("channel_key")), time);
+
+                        double score = rs.getDouble("importance_score");
+                        if (!rs.wasNull()) {
+                            recordImportance(userId, score, time);
+                        }
+                        messages++;
+                    }
+                }
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(interactionsSql)) {
+                stmt.setLong(1, since);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        recordInteractions(idDictionary.decode(rs.getInt(1)), rs.getLong(2), rs.getInt(3));
+                        interactions += rs.getInt(3);
+                    }
+                }
+            }
+
+            logger.info("Activity sketches rebuilt from {} messages and {} interactions in {} ms",
+                messages, interactions, System.currentTimeMillis() - start);
+
+        } catch (SQLException e) {
+            errorHandler.handleError("Failed to rebuild activity sketches", e);
+        }
+    }
+
+    private void saveSafely() {
+        try {
+            save();
+        } catch (Exception e) {
+            errorHandler.handleError("Failed to save activity sketches", e);
+        }
+    }
+
+    private DecayedSketch[] sketches() {
+        return new DecayedSketch[] {
+            senderMessages, channelMessages, senderHourMessages, senderInteractions, senderImportance
+        };
+    }
+
+    private Path getSnapshotPath() {
+        return configurationManager.getDatabasePath().resolve(SNAPSHOT_FILE_NAME);
+    }
+
+    private static int utcHour(long timeMillis) {
+        return (int) Math.floorMod(Math.floorDiv(timeMillis, MILLIS_PER_HOUR), 24L);
+    }
+}
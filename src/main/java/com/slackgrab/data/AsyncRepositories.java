@@ -0,0 +1,207 @@
+package com.slackgrab.data;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.slackgrab.core.ManagedService;
+import com.slackgrab.data.model.InboxPage;
+import com.slackgrab.data.model.InboxQuery;
+import com.slackgrab.data.model.SlackChannel;
+import com.slackgrab.data.model.SlackMessage;
+import com.slackgrab.ml.model.FeedbackType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous facade over the repositories
+ *
+ * Every call runs on its own virtual thread and returns a
+ * CompletableFuture, so UI and HTTP threads never wait on disk and callers
+ * can issue several queries at once and combine the results.
+ *
+ * Concurrency is bounded to fit the connection pool: one writer (SQLite
+ * serializes writes anyway, so more would only spin on the busy lock) and
+ * a fixed number of readers. The permits leave connections free for the
+ * writer's nested checkout (IdDictionary.encode inside saveMessage takes a
+ * second connection) and for synchronous callers outside this facade
+ * (collector, trainers, scheduled jobs), so a burst of async reads cannot
+ * starve them into HikariCP's connection timeout. Excess calls park their
+ * virtual thread on a permit instead of queuing inside HikariCP.
+ *
+ * Interaction capture is the exception: it goes through InteractionBuffer
+ * and completes immediately, leaving the write to the buffer's flush.
+ */
+@Singleton
+public class AsyncRepositories implements ManagedService {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncRepositories.class);
+
+    private static final int WRITER_PERMITS = 1;
+    // Connections a writer may hold at once (its own plus a nested IdDictionary.encode)
+    private static final int CONNECTIONS_PER_WRITER = 2;
+    // Connections left for synchronous repository users
+    private static final int RESERVED_CONNECTIONS = 3;
+    private static final int READER_PERMITS =
+        ConnectionPool.MAX_POOL_SIZE - WRITER_PERMITS * CONNECTIONS_PER_WRITER - RESERVED_CONNECTIONS;
+
+    private final MessageRepository messageRepository;
+    private final ChannelRepository channelRepository;
+    private final InteractionRepository interactionRepository;
+    private final FeedbackRepository feedbackRepository;
+    private final InteractionBuffer interactionBuffer;
+
+    private final ExecutorService executor;
+    private final Semaphore readers;
+    private final Semaphore writers;
+
+    @Inject
+    public AsyncRepositories(
+            MessageRepository messageRepository,
+            ChannelRepository channelRepository,
+            InteractionRepository interactionRepository,
+            FeedbackRepository feedbackRepository,
+            InteractionBuffer interactionBuffer) {
+        this.messageRepository = messageRepository;
+        this.channelRepository = channelRepository;
+        this.interactionRepository = interactionRepository;
+        this.feedbackRepository = feedbackRepository;
+        this.interactionBuffer = interactionBuffer;
+
+        this.executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("repository-", 0).factory());
+        this.readers = new Semaphore(READER_PERMITS, true);
+        this.writers = new Semaphore(WRITER_PERMITS, true);
+    }
+
+    @Override
+    public void start() throws Exception {
+        logger.info("Async repositories ready. Readers: {}, Writers: {}", READER_PERMITS, WRITER_PERMITS);
+    }
+
+    @Override
+    public void stop() throws Exception {
+        logger.info("Stopping async repositories...");
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        logger.info("Async repositories stopped");
+    }
+
+    /**
+     * Run a read-only repository call asynchronously
+     *
+     * @param query Blocking read
+     * @return Future completed with the result
+     */
+    public <T> CompletableFuture<T> read(Supplier<T> query) {
+        return submit(readers, query);
+    }
+
+    /**
+     * Run a writing repository call asynchronously
+     *
+     * @param update Blocking write
+     * @return Future completed with the result
+     */
+    public <T> CompletableFuture<T> write(Supplier<T> update) {
+        return submit(writers, update);
+    }
+
+    // Messages
+
+    public CompletableFuture<Optional<SlackMessage>> getMessage(String messageId) {
+        return read(() -> messageRepository.getMessage(messageId));
+    }
+
+    public CompletableFuture<List<SlackMessage>> getChannelMessages(String channelId, int limit) {
+        return read(() -> messageRepository.getChannelMessages(channelId, limit));
+    }
+
+    public CompletableFuture<InboxPage> getInbox(InboxQuery query) {
+        return read(() -> messageRepository.getInbox(query));
+    }
+
+    public CompletableFuture<Integer> getTotalMessageCount() {
+        return read(messageRepository::getTotalMessageCount);
+    }
+
+    public CompletableFuture<Boolean> saveMessage(SlackMessage message) {
+        return write(() -> messageRepository.saveMessage(message));
+    }
+
+    public CompletableFuture<Integer> updateImportanceScores(Map<String, Double> scores, String modelVersion) {
+        return write(() -> messageRepository.updateImportanceScores(scores, modelVersion));
+    }
+
+    // Channels
+
+    public CompletableFuture<List<SlackChannel>> getAllChannels() {
+        return read(channelRepository::getAllChannels);
+    }
+
+    public CompletableFuture<Integer> getChannelCount() {
+        return read(channelRepository::getChannelCount);
+    }
+
+    // Interactions and feedback
+
+    /**
+     * Capture an interaction through InteractionBuffer
+     *
+     * Completes immediately; the event is written (and fed to the online
+     * trainer) with the next flush.
+     *
+     * @return true if buffered, false if the buffer was full and the event dropped
+     */
+    public CompletableFuture<Boolean> recordInteraction(String messageId, String interactionType, Long readingTimeMs) {
+        return CompletableFuture.completedFuture(
+            interactionBuffer.record(messageId, interactionType, readingTimeMs != null ? readingTimeMs : -1));
+    }
+
+    /**
+     * Insert an interaction directly, bypassing the buffer
+     *
+     * For callers that need the row written before they continue.
+     *
+     * @return true if the row was inserted
+     */
+    public CompletableFuture<Boolean> recordInteractionNow(String messageId, String interactionType, Long readingTimeMs) {
+        return write(() -> interactionRepository.recordInteraction(messageId, interactionType, readingTimeMs));
+    }
+
+    public CompletableFuture<Long> recordFeedback(String messageId, FeedbackType feedbackType, double originalScore) {
+        return write(() -> feedbackRepository.recordFeedback(messageId, feedbackType, originalScore));
+    }
+
+    public CompletableFuture<FeedbackRepository.FeedbackStats> getFeedbackStats() {
+        return read(feedbackRepository::getStats);
+    }
+
+    private <T> CompletableFuture<T> submit(Semaphore permits, Supplier<T> work) {
+        return CompletableFuture.supplyAsync(() -> {
+            // Parking a virtual thread is cheap; this bounds connections in use
+            permits.acquireUninterruptibly();
+            try {
+                return work.get();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+}
@@ -25,11 +25,17 @@ public class ChannelRepository {
     private static final Logger logger = LoggerFactory.getLogger(ChannelRepository.class);
 
     private final DatabaseManager databaseManager;
+    private final CounterRepository counterRepository;
     private final ErrorHandler errorHandler;
 
     @Inject
-    public ChannelRepository(DatabaseManager databaseManager, ErrorHandler errorHandler) {
+    public ChannelRepository(
+        DatabaseManager databaseManager,
+        CounterRepository counterRepository,
+        ErrorHandler errorHandler
+    ) {
         this.databaseManager = databaseManager;
+        this.counterRepository = counterRepository;
         this.errorHandler = errorHandler;
     }
 
@@ -66,6 +72,7 @@ public class ChannelRepository {
             }
 
             int rows = stmt.executeUpdate();
+            counterRepository.markDirty();
             return rows > 0;
 
         } catch (SQLException e) {
@@ -204,25 +211,12 @@ public class ChannelRepository {
     /**
      * Get channel count
      *
+     * Served from the counters table (constant time at any database size).
+     *
      * @return Total number of channels
      */
     public int getChannelCount() {
-        String sql = "SELECT COUNT(*) as count FROM channels";
-
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt("count");
-            }
-
-            return 0;
-
-        } catch (SQLException e) {
-            errorHandler.handleError("Failed to get channel count", e);
-            return 0;
-        }
+        return (int) counterRepository.get(CounterRepository.CHANNELS);
     }
 
     /**
@@ -240,6 +234,10 @@ public class ChannelRepository {
             stmt.setString(1, channelId);
             int rows = stmt.executeUpdate();
 
+            if (rows > 0) {
+                counterRepository.markDirty();
+            }
+
             return rows > 0;
 
         } catch (SQLException e) {
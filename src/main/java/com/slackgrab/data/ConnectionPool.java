@@ -9,8 +9,10 @@ import com.zaxxer.hikari.HikariDataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Map;
 
 /**
  * Connection pool manager using HikariCP
@@ -28,23 +30,55 @@ import java.sql.SQLException;
 public class ConnectionPool {
     private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
 
+    // SQLite is single-writer, so keep the pool small
+    public static final int MAX_POOL_SIZE = 10;
+
     private final HikariDataSource dataSource;
+    private final StatementCache statementCache;
     private final ErrorHandler errorHandler;
 
+    // Applied by the driver to every connection it opens. Only WAL: the
+    // former init SQL ran just its first PRAGMA, and the other settings
+    // (durability, temp storage) stay at SQLite's defaults.
+    public static final Map<String, String> DEFAULT_PRAGMAS = Map.of(
+        "journal_mode", "WAL"
+    );
+
     @Inject
     public ConnectionPool(ConfigurationManager config, ErrorHandler errorHandler) {
+        this(config, errorHandler, DEFAULT_PRAGMAS);
+    }
+
+    /**
+     * Create a pool with an explicit PRAGMA profile (benchmarks)
+     *
+     * @param config Configuration (database directory)
+     * @param errorHandler Error handler
+     * @param pragmas SQLite PRAGMA name to value, applied to each new connection
+     */
+    public ConnectionPool(ConfigurationManager config, ErrorHandler errorHandler, Map<String, String> pragmas) {
         this.errorHandler = errorHandler;
+        this.statementCache = new StatementCache(StatementCache.DEFAULT_MAX_STATEMENTS_PER_CONNECTION);
 
         logger.info("Initializing connection pool...");
 
+        // A scheduled snapshot restore must replace the files before they are opened
+        try {
+            if (SnapshotService.applyPendingRestore(config.getDatabasePath())) {
+                logger.info("Database restored from snapshot");
+            }
+        } catch (IOException e) {
+            errorHandler.handleError("Failed to restore database snapshot", e);
+        }
+
         HikariConfig hikariConfig = new HikariConfig();
 
         // Database connection
-        String jdbcUrl = "jdbc:sqlite:" + config.getDatabasePath().resolve("slackgrab.db").toAbsolutePath();
+        String jdbcUrl = "jdbc:sqlite:" + config.getDatabasePath().resolve(DatabaseManager.DATABASE_FILE_NAME).toAbsolutePath();
         hikariConfig.setJdbcUrl(jdbcUrl);
 
         // Pool sizing - SQLite is single-writer, so keep pool small
-        hikariConfig.setMaximumPoolSize(10);
+        hikariConfig.setMaximumPoolSize(MAX_POOL_SIZE);
         hikariConfig.setMinimumIdle(2);
 
         // Timeouts (in milliseconds)
@@ -61,8 +95,9 @@ public class ConnectionPool {
         // Disable auto-commit for better performance
         hikariConfig.setAutoCommit(true);
 
-        // SQLite-specific: Set connection initialization SQL
-        hikariConfig.setConnectionInitSql("PRAGMA journal_mode=WAL; PRAGMA synchronous=NORMAL; PRAGMA temp_store=MEMORY;");
+        // SQLite-specific: PRAGMAs as driver properties. Connection init SQL
+        // is run with Statement.execute, which only runs its first statement.
+        pragmas.forEach(hikariConfig::addDataSourceProperty);
 
         try {
             this.dataSource = new HikariDataSource(hikariConfig);
@@ -83,12 +118,15 @@ public class ConnectionPool {
      * Closing the connection does NOT close the underlying physical connection - it
      * returns it to the pool for reuse.
      *
+     * Statements prepared with prepareStatement(sql) are cached per physical
+     * connection (see StatementCache); closing them returns them to the cache.
+     *
      * @return Database connection from pool
      * @throws SQLException If connection cannot be obtained
      */
     public Connection getConnection() throws SQLException {
         try {
-            return dataSource.getConnection();
+            return statementCache.wrap(dataSource.getConnection());
         } catch (SQLException e) {
             errorHandler.handleError("Failed to get connection from pool", e);
             throw e;
@@ -105,6 +143,7 @@ public class ConnectionPool {
 
         try {
             if (dataSource != null && !dataSource.isClosed()) {
+                logger.info("Statement cache: {}", getStatementCacheStats());
                 dataSource.close();
                 logger.info("Connection pool closed successfully");
             }
@@ -132,11 +171,35 @@ public class ConnectionPool {
             return "Pool is closed";
         }
 
-        return String.format("Pool: %s | Active: %d | Idle: %d | Total: %d | Waiting: %d",
+        return String.format("Pool: %s | Active: %d | Idle: %d | Total: %d | Waiting: %d | Statements: %s",
                 dataSource.getPoolName(),
                 dataSource.getHikariPoolMXBean().getActiveConnections(),
                 dataSource.getHikariPoolMXBean().getIdleConnections(),
                 dataSource.getHikariPoolMXBean().getTotalConnections(),
-                dataSource.getHikariPoolMXBean().getThreadsAwaitingConnection());
+                dataSource.getHikariPoolMXBean().getThreadsAwaitingConnection(),
+                getStatementCacheStats());
+    }
+
+    /**
+     * Get prepared statement cache statistics for monitoring
+     *
+     * @return String with hit rate, hits, misses, evictions and cached statements
+     */
+    public String getStatementCacheStats() {
+        return String.format("hit rate %.1f%% (%d hits, %d misses, %d evictions, %d cached)",
+                statementCache.getHitRate() * 100,
+                statementCache.getHits(),
+                statementCache.getMisses(),
+                statementCache.getEvictions(),
+                statementCache.getCachedCount());
+    }
+
+    /**
+     * Get the fraction of prepareStatement calls served from the statement cache
+     *
+     * @return Hit rate between 0.0 and 1.0
+     */
+    public double getStatementCacheHitRate() {
+        return statementCache.getHitRate();
     }
 }
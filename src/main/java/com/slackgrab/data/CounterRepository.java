@@ -0,0 +1,128 @@
+package com.slackgrab.data;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.slackgrab.core.ErrorHandler;
+import com.slackgrab.ml.model.FeedbackType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Constant-time row counts backed by the 'counters' table
+ *
+ * Counters are maintained by triggers (see DatabaseManager), so they are
+ * exact and updated in the same transaction as each insert or delete.
+ * This repository keeps an in-memory mirror of the (tiny) table; write
+ * paths mark it dirty and the next read reloads it with a single query,
+ * independent of database size.
+ *
+ * Counter names:
+ * - messages, interactions, feedback, channels
+ * - messages.archived (archive row count, refreshed by DatabaseManager)
+ * - interactions.{TYPE} (per interaction type)
+ * - feedback.{TYPE} (per feedback type)
+ */
+@Singleton
+public class CounterRepository {
+    private static final Logger logger = LoggerFactory.getLogger(CounterRepository.class);
+
+    public static final String MESSAGES = "messages";
+    public static final String ARCHIVED_MESSAGES = DatabaseManager.ARCHIVED_MESSAGES_COUNTER;
+    public static final String INTERACTIONS = "interactions";
+    public static final String FEEDBACK = "feedback";
+    public static final String CHANNELS = "channels";
+
+    private final DatabaseManager databaseManager;
+    private final ErrorHandler errorHandler;
+
+    private volatile Map<String, Long> counters;
+    private final AtomicBoolean dirty;
+
+    @Inject
+    public CounterRepository(DatabaseManager databaseManager, ErrorHandler errorHandler) {
+        this.databaseManager = databaseManager;
+        this.errorHandler = errorHandler;
+        this.counters = Map.of();
+        this.dirty = new AtomicBoolean(true);
+    }
+
+    /**
+     * Get a counter value
+     *
+     * @param name Counter name
+     * @return Current value, 0 if the counter does not exist
+     */
+    public long get(String name) {
+        return snapshot().getOrDefault(name, 0L);
+    }
+
+    /**
+     * Get the per-type feedback counter
+     */
+    public long getFeedbackCount(FeedbackType feedbackType) {
+        return get(FEEDBACK + "." + feedbackType.name());
+    }
+
+    /**
+     * Get the per-type interaction counter
+     */
+    public long getInteractionCount(String interactionType) {
+        return get(INTERACTIONS + "." + interactionType);
+    }
+
+    /**
+     * Get all counters
+     *
+     * @return Map of counter name to value
+     */
+    public Map<String, Long> getAll() {
+        return snapshot();
+    }
+
+    /**
+     * Mark the mirror stale after a write to a counted table
+     */
+    public void markDirty() {
+        dirty.set(true);
+    }
+
+    /**
+     * Get the mirror, reloading it first if a write happened since the last read
+     */
+    private Map<String, Long> snapshot() {
+        if (dirty.getAndSet(false)) {
+            reload();
+        }
+        return counters;
+    }
+
+    private void reload() {
+        String sql = "SELECT name, value FROM counters";
+
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            ResultSet rs = stmt.executeQuery();
+            Map<String, Long> loaded = new HashMap<>();
+
+            while (rs.next()) {
+                loaded.put(rs.getString("name"), rs.getLong("value"));
+            }
+
+            counters = Map.copyOf(loaded);
+            logger.debug("Counters reloaded: {}", counters);
+
+        } catch (SQLException e) {
+            dirty.set(true);
+            errorHandler.handleError("Failed to load counters", e);
+        }
+    }
+}
@@ -9,30 +9,81 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.file.Path;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
 
 /**
  * SQLite database manager with connection pooling
  *
  * Provides schema management and connection access for local data storage.
  * Uses HikariCP connection pooling for efficient database operations.
+ *
+ * Messages are split across two files: recent messages live in
+ * slackgrab.db, older ones are moved by TieringService into
+ * slackgrab-archive.db, which is attached to every pooled connection
+ * as schema "archive".
  */
 public class DatabaseManager implements ManagedService {
     private static final Logger logger = LoggerFactory.getLogger(DatabaseManager.class);
 
+    static final int AUTO_VACUUM_INCREMENTAL = 2;
+
+    public static final String DATABASE_FILE_NAME = "slackgrab.db";
+    public static final String ARCHIVE_FILE_NAME = "slackgrab-archive.db";
+    public static final String ARCHIVE_SCHEMA = "archive";
+    public static final String ARCHIVED_MESSAGES_COUNTER = "messages.archived";
+
+    // Hot and archived messages share one layout. Channel and user are
+    // integer keys into id_dictionary rather than repeated Slack ID strings.
+    private static final String MESSAGES_TABLE_DDL = """
+        CREATE TABLE IF NOT EXISTS %s (
+            id TEXT PRIMARY KEY,
+            channel_key INTEGER NOT NULL,
+            user_key INTEGER NOT NULL,
+            text TEXT,
+            timestamp REAL NOT NULL,
+            thread_ts TEXT,
+            has_attachments BOOLEAN DEFAULT FALSE,
+            has_reactions BOOLEAN DEFAULT FALSE,
+            importance_score REAL,
+            importance_level TEXT,
+            score_model_version TEXT,
+            created_at INTEGER NOT NULL
+        )
+        """;
+
+    // Statistics dimensions: {totals table, day-bucket table, key column}
+    private static final String[][] STATISTICS_DIMENSIONS = {
+        {"sender_stats", "sender_activity", "user_key"},
+        {"channel_stats", "channel_activity", "channel_key"}
+    };
+
     private final ConfigurationManager configurationManager;
     private final ErrorHandler errorHandler;
     private final ConnectionPool connectionPool;
 
     private final Path databaseFile;
+    private final Path archiveFile;
+
+    // Physical connections that already have the archive attached
+    private final Set<Connection> attachedConnections =
+        Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    // Newest message timestamp (Slack seconds) in the archive; 0 when empty
+    private volatile double archiveWatermark;
 
     @Inject
     public DatabaseManager(ConfigurationManager configurationManager, ErrorHandler errorHandler, ConnectionPool connectionPool) {
         this.configurationManager = configurationManager;
         this.errorHandler = errorHandler;
         this.connectionPool = connectionPool;
-        this.databaseFile = configurationManager.getDatabasePath().resolve("slackgrab.db");
+        this.databaseFile = configurationManager.getDatabasePath().resolve(DATABASE_FILE_NAME);
+        this.archiveFile = configurationManager.getDatabasePath().resolve(ARCHIVE_FILE_NAME);
 
         logger.info("Database manager initialized. Database file: {}", databaseFile);
     }
@@ -50,8 +101,12 @@ public class DatabaseManager implements ManagedService {
                 throw new SQLException("Connection pool is not ready");
             }
 
+            // Switch to incremental auto-vacuum before creating tables
+            requestIncrementalVacuum();
+
             // Initialize database schema using a connection from the pool
             initializeSchema();
+            initializeArchiveSchema();
 
             logger.info("Database manager started successfully");
         } catch (Exception e) {
@@ -74,34 +129,55 @@ public class DatabaseManager implements ManagedService {
         }
     }
 
+    /**
+     * Request incremental auto-vacuum
+     *
+     * Lets the retention service return free pages to the file system in
+     * small paced steps instead of a blocking full VACUUM. This takes
+     * effect on a new database; one created without it needs a full VACUUM
+     * to convert, which VacuumConversionJob runs in the background rather
+     * than blocking startup.
+     */
+    private void requestIncrementalVacuum() throws SQLException {
+        try (Connection conn = connectionPool.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            stmt.execute("PRAGMA auto_vacuum = INCREMENTAL");
+
+            try (ResultSet rs = stmt.executeQuery("PRAGMA auto_vacuum")) {
+                if (rs.next() && rs.getInt(1) != AUTO_VACUUM_INCREMENTAL) {
+                    logger.info("Database predates incremental auto-vacuum; conversion will run in the background");
+                }
+            }
+        }
+    }
+
     /**
      * Initialize database schema
      */
     private void initializeSchema() throws SQLException {
         logger.info("Initializing database schema...");
 
-        try (Connection conn = connectionPool.getConnection();
+        try (Connection conn = getConnection();
              Statement stmt = conn.createStatement()) {
-            // Messages table
+            // Slack channel/user ID dictionary (see IdDictionary)
             stmt.execute("""
-                CREATE TABLE IF NOT EXISTS messages (
-                    id TEXT PRIMARY KEY,
-                    channel_id TEXT NOT NULL,
-                    user_id TEXT NOT NULL,
-                    text TEXT,
-                    timestamp REAL NOT NULL,
-                    thread_ts TEXT,
-                    has_attachments BOOLEAN DEFAULT FALSE,
-                    has_reactions BOOLEAN DEFAULT FALSE,
-                    importance_score REAL,
-                    importance_level TEXT,
-                    created_at INTEGER NOT NULL
+                CREATE TABLE IF NOT EXISTS id_dictionary (
+                    id INTEGER PRIMARY KEY,
+                    slack_id TEXT NOT NULL UNIQUE
                 )
             """);
 
+            // Messages table
+            stmt.execute(MESSAGES_TABLE_DDL.formatted("messages"));
+
+            // Columns added after the initial schema
+            addColumnIfMissing(conn, "messages", "score_model_version", "TEXT");
+            migrateToDictionaryKeys(conn, "main");
+
             stmt.execute("""
                 CREATE INDEX IF NOT EXISTS idx_channel_timestamp
-                ON messages (channel_id, timestamp)
+                ON messages (channel_key, timestamp)
             """);
 
             stmt.execute("""
@@ -109,6 +185,42 @@ public class DatabaseManager implements ManagedService {
                 ON messages (importance_level, timestamp)
             """);
 
+            // Retention deletes by storage time
+            stmt.execute("""
+                CREATE INDEX IF NOT EXISTS idx_messages_created_at
+                ON messages (created_at)
+            """);
+
+            // Ordered time-range scans (streaming reads)
+            stmt.execute("""
+                CREATE INDEX IF NOT EXISTS idx_messages_timestamp
+                ON messages (timestamp)
+            """);
+
+            // Partial re-scoring (MessageRepository.getMessageIdsWithStaleScores)
+            stmt.execute("""
+                CREATE INDEX IF NOT EXISTS idx_messages_score_version
+                ON messages (score_model_version)
+            """);
+
+            // Inbox keyset query (MessageRepository.getInbox), scored rows only. The
+            // index holds the sort key, not the selected columns: a page is read in
+            // index order and only the rows returned are looked up in the table.
+            // The trailing channel_key lets a wide channel filter be checked
+            // before that lookup.
+            stmt.execute("""
+                CREATE INDEX IF NOT EXISTS idx_inbox
+                ON messages (importance_score DESC, timestamp DESC, id DESC, channel_key)
+                WHERE importance_score IS NOT NULL
+            """);
+
+            // Channel-filtered inbox pages: one index range per channel, in sort order
+            stmt.execute("""
+                CREATE INDEX IF NOT EXISTS idx_inbox_channel
+                ON messages (channel_key, importance_score DESC, timestamp DESC, id DESC)
+                WHERE importance_score IS NOT NULL
+            """);
+
             // User interactions table (for learning)
             stmt.execute("""
                 CREATE TABLE IF NOT EXISTS user_interactions (
@@ -117,10 +229,22 @@ public class DatabaseManager implements ManagedService {
                     interaction_type TEXT NOT NULL,
                     interaction_timestamp INTEGER NOT NULL,
                     reading_time_ms INTEGER,
+                    event_count INTEGER NOT NULL DEFAULT 1,
                     FOREIGN KEY (message_id) REFERENCES messages(id)
                 )
             """);
 
+            // Rows coalesced by InteractionBuffer carry their capture count. Triggers
+            // from before the column existed add one per row, so they are recreated.
+            if (addColumnIfMissing(conn, "user_interactions", "event_count", "INTEGER NOT NULL DEFAULT 1")) {
+                for (String trigger : new String[] {
+                    "trg_stats_interaction_insert", "trg_stats_interaction_delete",
+                    "trg_count_user_interactions_insert", "trg_count_user_interactions_delete"
+                }) {
+                    stmt.execute("DROP TRIGGER IF EXISTS " + trigger);
+                }
+            }
+
             stmt.execute("""
                 CREATE INDEX IF NOT EXISTS idx_interactions_message_id
                 ON user_interactions (message_id)
@@ -178,10 +302,543 @@ public class DatabaseManager implements ManagedService {
                 )
             """);
 
+            // Extracted feature vectors (see FeatureRepository), kept while their message is hot or archived
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS message_features (
+                    message_id TEXT PRIMARY KEY,
+                    schema_version INTEGER NOT NULL,
+                    input_hash INTEGER NOT NULL,
+                    features BLOB NOT NULL,
+                    terms BLOB,
+                    created_at INTEGER NOT NULL
+                ) WITHOUT ROWID
+            """);
+
+            // Rows stored before terms were persisted are re-extracted on next use
+            addColumnIfMissing(conn, "message_features", "terms", "BLOB");
+
+            // Tiering deletes from messages too, so features are dropped by retention
+            // (FeatureRepository.deleteOrphanedFeatures) rather than by a delete trigger
+            stmt.execute("DROP TRIGGER IF EXISTS trg_features_message_delete");
+
+            initializeStatisticsSchema(conn);
+            initializeCounterSchema(conn);
+
             logger.info("Database schema initialized successfully");
         }
     }
 
+    /**
+     * Initialize the archive database
+     *
+     * The archive holds messages with the same columns as the hot table,
+     * text stored compressed (see TextCodec). Nothing in the archive is
+     * covered by the statistics or counter triggers; its row count is kept
+     * in the "messages.archived" counter by {@link #recountArchivedMessages()}.
+     */
+    private void initializeArchiveSchema() throws SQLException {
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            // Only takes effect on a new (empty) archive file
+            stmt.execute("PRAGMA archive.auto_vacuum = INCREMENTAL");
+
+            stmt.execute(MESSAGES_TABLE_DDL.formatted("archive.messages"));
+            migrateToDictionaryKeys(conn, ARCHIVE_SCHEMA);
+
+            stmt.execute("""
+                CREATE INDEX IF NOT EXISTS archive.idx_archive_channel_timestamp
+                ON messages (channel_key, timestamp)
+            """);
+
+            stmt.execute("""
+                CREATE INDEX IF NOT EXISTS archive.idx_archive_timestamp
+                ON messages (timestamp)
+            """);
+
+            stmt.execute("""
+                CREATE INDEX IF NOT EXISTS archive.idx_archive_created_at
+                ON messages (created_at)
+            """);
+
+            stmt.execute("""
+                CREATE INDEX IF NOT EXISTS archive.idx_archive_score_version
+                ON messages (score_model_version)
+            """);
+
+            stmt.execute("""
+                CREATE INDEX IF NOT EXISTS archive.idx_archive_inbox
+                ON messages (importance_score DESC, timestamp DESC, id DESC, channel_key)
+                WHERE importance_score IS NOT NULL
+            """);
+
+            stmt.execute("""
+                CREATE INDEX IF NOT EXISTS archive.idx_archive_inbox_channel
+                ON messages (channel_key, importance_score DESC, timestamp DESC, id DESC)
+                WHERE importance_score IS NOT NULL
+            """);
+
+            try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(timestamp), 0) FROM archive.messages")) {
+                archiveWatermark = rs.next() ? rs.getDouble(1) : 0;
+            }
+        }
+
+        recountArchivedMessages();
+        logger.info("Archive database attached: {}", archiveFile);
+    }
+
+    /**
+     * Initialize sender/channel statistics tables
+     *
+     * Aggregates are maintained by triggers on messages, user_interactions
+     * and feedback, so they are updated in the same transaction as every
+     * write path (including bulk updates and retention deletes).
+     * Tables created for an existing database are backfilled once.
+     */
+    private void initializeStatisticsSchema(Connection conn) throws SQLException {
+        boolean backfill = !tableExists(conn, "sender_stats");
+
+        try (Statement stmt = conn.createStatement()) {
+            for (String[] dimension : STATISTICS_DIMENSIONS) {
+                String stats = dimension[0];
+                String activity = dimension[1];
+                String key = dimension[2];
+
+                // Totals per sender/channel
+                stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS %1$s (
+                        %2$s INTEGER PRIMARY KEY,
+                        message_count INTEGER NOT NULL DEFAULT 0,
+                        interaction_count INTEGER NOT NULL DEFAULT 0,
+                        feedback_count INTEGER NOT NULL DEFAULT 0,
+                        importance_sum REAL NOT NULL DEFAULT 0,
+                        scored_count INTEGER NOT NULL DEFAULT 0,
+                        last_message_ts REAL
+                    )
+                """.formatted(stats, key));
+
+                // Message counts per sender/channel per day bucket
+                stmt.execute("""
+                    CREATE TABLE IF NOT EXISTS %1$s (
+                        %2$s INTEGER NOT NULL,
+                        bucket INTEGER NOT NULL,
+                        message_count INTEGER NOT NULL DEFAULT 0,
+                        PRIMARY KEY (%2$s, bucket)
+                    ) WITHOUT ROWID
+                """.formatted(activity, key));
+            }
+
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_stats_message_insert
+                AFTER INSERT ON messages
+                BEGIN
+                    INSERT INTO sender_stats (user_key, message_count, importance_sum, scored_count, last_message_ts)
+                    VALUES (NEW.user_key, 1, COALESCE(NEW.importance_score, 0), NEW.importance_score IS NOT NULL, NEW.timestamp)
+                    ON CONFLICT(user_key) DO UPDATE SET
+                        message_count = message_count + 1,
+                        importance_sum = importance_sum + excluded.importance_sum,
+                        scored_count = scored_count + excluded.scored_count,
+                        last_message_ts = MAX(COALESCE(last_message_ts, 0), excluded.last_message_ts);
+
+                    INSERT INTO channel_stats (channel_key, message_count, importance_sum, scored_count, last_message_ts)
+                    VALUES (NEW.channel_key, 1, COALESCE(NEW.importance_score, 0), NEW.importance_score IS NOT NULL, NEW.timestamp)
+                    ON CONFLICT(channel_key) DO UPDATE SET
+                        message_count = message_count + 1,
+                        importance_sum = importance_sum + excluded.importance_sum,
+                        scored_count = scored_count + excluded.scored_count,
+                        last_message_ts = MAX(COALESCE(last_message_ts, 0), excluded.last_message_ts);
+
+                    INSERT INTO sender_activity (user_key, bucket, message_count)
+                    VALUES (NEW.user_key, CAST(NEW.timestamp / 86400 AS INTEGER), 1)
+                    ON CONFLICT(user_key, bucket) DO UPDATE SET message_count = message_count + 1;
+
+                    INSERT INTO channel_activity (channel_key, bucket, message_count)
+                    VALUES (NEW.channel_key, CAST(NEW.timestamp / 86400 AS INTEGER), 1)
+                    ON CONFLICT(channel_key, bucket) DO UPDATE SET message_count = message_count + 1;
+                END
+            """);
+
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_stats_message_score
+                AFTER UPDATE OF importance_score ON messages
+                WHEN OLD.importance_score IS NOT NEW.importance_score
+                BEGIN
+                    UPDATE sender_stats SET
+                        importance_sum = importance_sum + COALESCE(NEW.importance_score, 0) - COALESCE(OLD.importance_score, 0),
+                        scored_count = scored_count + (NEW.importance_score IS NOT NULL) - (OLD.importance_score IS NOT NULL)
+                    WHERE user_key = NEW.user_key;
+
+                    UPDATE channel_stats SET
+                        importance_sum = importance_sum + COALESCE(NEW.importance_score, 0) - COALESCE(OLD.importance_score, 0),
+                        scored_count = scored_count + (NEW.importance_score IS NOT NULL) - (OLD.importance_score IS NOT NULL)
+                    WHERE channel_key = NEW.channel_key;
+                END
+            """);
+
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_stats_message_delete
+                AFTER DELETE ON messages
+                BEGIN
+                    UPDATE sender_stats SET
+                        message_count = message_count - 1,
+                        importance_sum = importance_sum - COALESCE(OLD.importance_score, 0),
+                        scored_count = scored_count - (OLD.importance_score IS NOT NULL)
+                    WHERE user_key = OLD.user_key;
+
+                    UPDATE channel_stats SET
+                        message_count = message_count - 1,
+                        importance_sum = importance_sum - COALESCE(OLD.importance_score, 0),
+                        scored_count = scored_count - (OLD.importance_score IS NOT NULL)
+                    WHERE channel_key = OLD.channel_key;
+
+                    UPDATE sender_activity SET message_count = message_count - 1
+                    WHERE user_key = OLD.user_key AND bucket = CAST(OLD.timestamp / 86400 AS INTEGER);
+
+                    UPDATE channel_activity SET message_count = message_count - 1
+                    WHERE channel_key = OLD.channel_key AND bucket = CAST(OLD.timestamp / 86400 AS INTEGER);
+                END
+            """);
+
+            // Interaction and feedback counts are attributed to the message's sender and channel.
+            // {table, stats column, trigger name, amount per row (%s = NEW or OLD)}
+            for (String[] source : new String[][] {
+                {"user_interactions", "interaction_count", "interaction", "%s.event_count"},
+                {"feedback", "feedback_count", "feedback", "1"}
+            }) {
+                stmt.execute("""
+                    CREATE TRIGGER IF NOT EXISTS trg_stats_%3$s_insert
+                    AFTER INSERT ON %1$s
+                    BEGIN
+                        UPDATE sender_stats SET %2$s = %2$s + %4$s
+                        WHERE user_key = (SELECT user_key FROM messages WHERE id = NEW.message_id);
+
+                        UPDATE channel_stats SET %2$s = %2$s + %4$s
+                        WHERE channel_key = (SELECT channel_key FROM messages WHERE id = NEW.message_id);
+                    END
+                """.formatted(source[0], source[1], source[2], source[3].formatted("NEW")));
+
+                stmt.execute("""
+                    CREATE TRIGGER IF NOT EXISTS trg_stats_%3$s_delete
+                    AFTER DELETE ON %1$s
+                    BEGIN
+                        UPDATE sender_stats SET %2$s = %2$s - %4$s
+                        WHERE user_key = (SELECT user_key FROM messages WHERE id = OLD.message_id);
+
+                        UPDATE channel_stats SET %2$s = %2$s - %4$s
+                        WHERE channel_key = (SELECT channel_key FROM messages WHERE id = OLD.message_id);
+                    END
+                """.formatted(source[0], source[1], source[2], source[3].formatted("OLD")));
+            }
+
+            if (backfill) {
+                backfillStatistics(stmt);
+            }
+        }
+    }
+
+    /**
+     * Initialize row counters
+     *
+     * Keeps per-table and per-category row counts in a small table so
+     * status and metrics reads never scan. Counters are maintained by
+     * triggers in the same transaction as the insert or delete; a counter
+     * table created for an existing database is seeded once.
+     */
+    private void initializeCounterSchema(Connection conn) throws SQLException {
+        boolean seed = !tableExists(conn, "counters");
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS counters (
+                    name TEXT PRIMARY KEY,
+                    value INTEGER NOT NULL DEFAULT 0
+                ) WITHOUT ROWID
+            """);
+
+            // {table, counter name, category counter expression (or null), count column (or null = 1 per row)}
+            String[][] counted = {
+                {"messages", "'messages'", null, null},
+                {"user_interactions", "'interactions'", "'interactions.' || %s.interaction_type", "event_count"},
+                {"feedback", "'feedback'", "'feedback.' || %s.feedback_type", null},
+                {"channels", "'channels'", null, null}
+            };
+
+            for (String[] counter : counted) {
+                String table = counter[0];
+                String total = counter[1];
+                String inserted = counter[3] == null ? "1" : "NEW." + counter[3];
+                String deleted = counter[3] == null ? "1" : "OLD." + counter[3];
+
+                String insertCategory = counter[2] == null ? "" : """
+                    INSERT INTO counters (name, value) VALUES (%s, %s)
+                    ON CONFLICT(name) DO UPDATE SET value = value + excluded.value;
+                    """.formatted(counter[2].formatted("NEW"), inserted);
+
+                String deleteCategory = counter[2] == null ? "" : """
+                    UPDATE counters SET value = value - %s WHERE name = %s;
+                    """.formatted(deleted, counter[2].formatted("OLD"));
+
+                stmt.execute("""
+                    CREATE TRIGGER IF NOT EXISTS trg_count_%1$s_insert
+                    AFTER INSERT ON %1$s
+                    BEGIN
+                        INSERT INTO counters (name, value) VALUES (%2$s, %4$s)
+                        ON CONFLICT(name) DO UPDATE SET value = value + excluded.value;
+                        %3$s
+                    END
+                """.formatted(table, total, insertCategory, inserted));
+
+                stmt.execute("""
+                    CREATE TRIGGER IF NOT EXISTS trg_count_%1$s_delete
+                    AFTER DELETE ON %1$s
+                    BEGIN
+                        UPDATE counters SET value = value - %4$s WHERE name = %2$s;
+                        %3$s
+                    END
+                """.formatted(table, total, deleteCategory, deleted));
+
+                if (seed) {
+                    String amount = counter[3] == null ? "COUNT(*)" : "COALESCE(SUM(" + counter[3] + "), 0)";
+                    stmt.execute("INSERT INTO counters (name, value) SELECT %s, %s FROM %s"
+                        .formatted(total, amount, table));
+
+                    if (counter[2] != null) {
+                        String category = counter[2].formatted(table);
+                        stmt.execute("INSERT INTO counters (name, value) SELECT %1$s, %3$s FROM %2$s GROUP BY 1"
+                            .formatted(category, table, amount));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Populate statistics tables from existing rows (first run after upgrade)
+     */
+    private void backfillStatistics(Statement stmt) throws SQLException {
+        logger.info("Backfilling sender/channel statistics...");
+
+        for (String[] dimension : STATISTICS_DIMENSIONS) {
+            String stats = dimension[0];
+            String activity = dimension[1];
+            String key = dimension[2];
+
+            stmt.execute("""
+                INSERT INTO %1$s (%2$s, message_count, importance_sum, scored_count, last_message_ts)
+                SELECT %2$s, COUNT(*), COALESCE(SUM(importance_score), 0), COUNT(importance_score), MAX(timestamp)
+                FROM messages
+                GROUP BY %2$s
+            """.formatted(stats, key));
+
+            stmt.execute("""
+                INSERT INTO %1$s (%2$s, bucket, message_count)
+                SELECT %2$s, CAST(timestamp / 86400 AS INTEGER), COUNT(*)
+                FROM messages
+                GROUP BY 1, 2
+            """.formatted(activity, key));
+
+            stmt.execute("""
+                UPDATE %1$s SET
+                    interaction_count = (SELECT COALESCE(SUM(i.event_count), 0) FROM user_interactions i
+                                         JOIN messages m ON m.id = i.message_id
+                                         WHERE m.%2$s = %1$s.%2$s),
+                    feedback_count = (SELECT COUNT(*) FROM feedback f
+                                      JOIN messages m ON m.id = f.message_id
+                                      WHERE m.%2$s = %1$s.%2$s)
+            """.formatted(stats, key));
+        }
+    }
+
+    /**
+     * Re-key a messages table from Slack ID strings to dictionary keys
+     *
+     * Tables created before dictionary encoding store channel_id/user_id
+     * as TEXT. SQLite cannot change column types in place, so the table is
+     * copied into the new layout in one transaction. For the main schema,
+     * the statistics tables and the triggers that read messages.user_id /
+     * channel_id are dropped too; they are recreated and backfilled by
+     * initializeStatisticsSchema.
+     */
+    private void migrateToDictionaryKeys(Connection conn, String schema) throws SQLException {
+        if (!hasColumn(conn, schema, "messages", "channel_id")) {
+            return;
+        }
+
+        logger.info("Migrating {}.messages to dictionary-encoded channel and user IDs...", schema);
+
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                INSERT OR IGNORE INTO main.id_dictionary (slack_id)
+                SELECT channel_id FROM %1$s.messages
+                UNION
+                SELECT user_id FROM %1$s.messages
+            """.formatted(schema));
+
+            if ("main".equals(schema)) {
+                for (String source : new String[] {"interaction", "feedback"}) {
+                    stmt.execute("DROP TRIGGER IF EXISTS trg_stats_" + source + "_insert");
+                    stmt.execute("DROP TRIGGER IF EXISTS trg_stats_" + source + "_delete");
+                }
+                for (String[] dimension : STATISTICS_DIMENSIONS) {
+                    stmt.execute("DROP TABLE IF EXISTS " + dimension[0]);
+                    stmt.execute("DROP TABLE IF EXISTS " + dimension[1]);
+                }
+            }
+
+            stmt.execute(MESSAGES_TABLE_DDL.formatted(schema + ".messages_keyed"));
+
+            stmt.execute("""
+                INSERT INTO %1$s.messages_keyed (
+                    id, channel_key, user_key, text, timestamp, thread_ts,
+                    has_attachments, has_reactions, importance_score, importance_level,
+                    score_model_version, created_at
+                )
+                SELECT m.id, c.id, u.id, m.text, m.timestamp, m.thread_ts,
+                       m.has_attachments, m.has_reactions, m.importance_score, m.importance_level,
+                       m.score_model_version, m.created_at
+                FROM %1$s.messages m
+                JOIN main.id_dictionary c ON c.slack_id = m.channel_id
+                JOIN main.id_dictionary u ON u.slack_id = m.user_id
+            """.formatted(schema));
+
+            // Dropping the table also drops its indexes and triggers; both are recreated
+            stmt.execute("DROP TABLE %s.messages".formatted(schema));
+            stmt.execute("ALTER TABLE %s.messages_keyed RENAME TO messages".formatted(schema));
+
+            conn.commit();
+            logger.info("Migrated {}.messages to dictionary-encoded IDs", schema);
+
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Check if a table has a column
+     */
+    private boolean hasColumn(Connection conn, String schema, String table, String column) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA " + schema + ".table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if a table exists
+     */
+    private boolean tableExists(Connection conn, String table) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+            stmt.setString(1, table);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * Add a column to an existing table if it is not present yet
+     *
+     * SQLite has no ADD COLUMN IF NOT EXISTS, and CREATE TABLE IF NOT EXISTS
+     * leaves tables created by older versions untouched.
+     *
+     * @return true if the column was added
+     */
+    private boolean addColumnIfMissing(Connection conn, String table, String column, String definition)
+        throws SQLException {
+        if (hasColumn(conn, "main", table, column)) {
+            return false;
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+            logger.info("Added column {}.{}", table, column);
+        }
+        return true;
+    }
+
+    /**
+     * Run work inside a single transaction on a pooled connection
+     *
+     * Commits if the callback returns normally, rolls back if it throws.
+     * Auto-commit is restored before the connection returns to the pool.
+     *
+     * @param callback Work to run with the transactional connection
+     * @return Value returned by the callback
+     * @throws SQLException If the work or commit fails
+     */
+    public <T> T executeInTransaction(TransactionCallback<T> callback) throws SQLException {
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                T result = callback.execute(conn);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Delete rows older than a cutoff in bounded chunks
+     *
+     * Each chunk is its own short transaction, with a pause in between so
+     * other writers (message ingest) can take the write lock. Stops early
+     * if the calling thread is interrupted.
+     *
+     * @param table Table to delete from (may be schema-qualified, e.g. archive.messages)
+     * @param timeColumn Indexed epoch-millisecond column compared to the cutoff
+     * @param cutoffMillis Delete rows with timeColumn before this time
+     * @param chunkSize Maximum rows per chunk
+     * @param pauseMs Pause between chunks
+     * @return Total number of rows deleted
+     * @throws SQLException If a chunk fails
+     */
+    public int deleteInChunks(String table, String timeColumn, long cutoffMillis, int chunkSize, long pauseMs)
+        throws SQLException {
+        String sql = """
+            DELETE FROM %1$s
+            WHERE rowid IN (SELECT rowid FROM %1$s WHERE %2$s < ? LIMIT ?)
+            """.formatted(table, timeColumn);
+
+        int total = 0;
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int rows;
+            do {
+                stmt.setLong(1, cutoffMillis);
+                stmt.setInt(2, chunkSize);
+                rows = stmt.executeUpdate();
+                total += rows;
+
+                if (rows == chunkSize && pauseMs > 0) {
+                    Thread.sleep(pauseMs);
+                }
+            } while (rows == chunkSize);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.info("Chunked delete from {} interrupted after {} rows", table, total);
+        }
+
+        return total;
+    }
+
     /**
      * Get a database connection from the pool
      *
@@ -193,7 +850,87 @@ public class DatabaseManager implements ManagedService {
      * @throws SQLException If connection cannot be obtained
      */
     public Connection getConnection() throws SQLException {
-        return connectionPool.getConnection();
+        Connection conn = connectionPool.getConnection();
+        try {
+            attachArchive(conn);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        return conn;
+    }
+
+    /**
+     * Get the file of the hot database
+     */
+    public Path getDatabaseFile() {
+        return databaseFile;
+    }
+
+    /**
+     * Get the file of the attached archive database
+     */
+    public Path getArchiveFile() {
+        return archiveFile;
+    }
+
+    /**
+     * Get the newest message timestamp held in the archive
+     *
+     * Queries whose time range starts at or after this point never need to
+     * read the archive.
+     *
+     * @return Slack timestamp seconds, or 0 if the archive is empty
+     */
+    public double getArchiveWatermark() {
+        return archiveWatermark;
+    }
+
+    /**
+     * Record that messages up to the given timestamp were archived
+     *
+     * @param timestamp Newest archived message timestamp (Slack seconds)
+     */
+    public synchronized void advanceArchiveWatermark(double timestamp) {
+        if (timestamp > archiveWatermark) {
+            archiveWatermark = timestamp;
+        }
+    }
+
+    /**
+     * Recount archived messages into the "messages.archived" counter
+     *
+     * Called after archive moves and purges; the archive is cold, so a
+     * count over its smallest index is cheap at that cadence.
+     *
+     * @throws SQLException If the count fails
+     */
+    public void recountArchivedMessages() throws SQLException {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement("""
+                 INSERT INTO counters (name, value)
+                 SELECT ?, COUNT(*) FROM archive.messages WHERE true
+                 ON CONFLICT(name) DO UPDATE SET value = excluded.value
+                 """)) {
+            stmt.setString(1, ARCHIVED_MESSAGES_COUNTER);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Attach the archive database to a pooled connection (once per physical connection)
+     */
+    private void attachArchive(Connection conn) throws SQLException {
+        Connection physical = conn.unwrap(Connection.class);
+        if (attachedConnections.contains(physical)) {
+            return;
+        }
+
+        String path = archiveFile.toAbsolutePath().toString().replace("'", "''");
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ATTACH DATABASE '" + path + "' AS " + ARCHIVE_SCHEMA);
+        }
+        attachedConnections.add(physical);
     }
 
     /**
@@ -204,4 +941,12 @@ public class DatabaseManager implements ManagedService {
     public boolean isReady() {
         return connectionPool.isReady();
     }
+
+    /**
+     * Unit of work executed by {@link #executeInTransaction(TransactionCallback)}
+     */
+    @FunctionalInterface
+    public interface TransactionCallback<T> {
+        T execute(Connection conn) throws SQLException;
+    }
 }
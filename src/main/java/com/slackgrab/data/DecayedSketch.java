@@ -0,0 +1,287 @@
+package com.slackgrab.data;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Count-min sketch of exponentially decayed counts, with optional moments
+ *
+ * Each observation adds weight exp((t - landmark) / tau) to one cell per
+ * row (forward decay), so a cell never has to be aged on read: dividing
+ * by exp((now - landmark) / tau) gives the decayed value at any time.
+ * With a steady rate, the decayed count approximates the number of
+ * observations in the last tau. When the exponent grows large the
+ * landmark moves forward and all cells are rescaled once.
+ *
+ * With moments enabled, cells also accumulate weighted sums of a value
+ * and its square; the decayed mean and variance of a key are read from
+ * its least-collided row (the one with the smallest weight).
+ *
+ * Memory is fixed at depth x width cells regardless of the number of keys.
+ * Writes are serialized; reads are lock-free unless they race a write.
+ */
+final class DecayedSketch {
+
+    private static final int DEPTH = 4;
+
+    // Rescale before exp() of the landmark distance leaves comfortable double range
+    private static final double MAX_EXPONENT = 40.0;
+
+    private final int width;
+    private final int mask;
+    private final double tauMillis;
+    private final boolean moments;
+
+    private final double[] weights;
+    private final double[] sums;
+    private final double[] squares;
+
+    private long landmarkMillis;
+
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * @param width Cells per row (power of two)
+     * @param tauMillis Mean lifetime of an observation
+     * @param moments Whether to track mean and variance of observed values
+     * @param landmarkMillis Initial landmark (typically now)
+     */
+    DecayedSketch(int width, double tauMillis, boolean moments, long landmarkMillis) {
+        if (Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Sketch width must be a power of two: " + width);
+        }
+        this.width = width;
+        this.mask = width - 1;
+        this.tauMillis = tauMillis;
+        this.moments = moments;
+        this.weights = new double[DEPTH * width];
+        this.sums = moments ? new double[DEPTH * width] : null;
+        this.squares = moments ? new double[DEPTH * width] : null;
+        this.landmarkMillis = landmarkMillis;
+    }
+
+    /**
+     * Record one observation
+     *
+     * @param keyHash 64-bit hash of the key
+     * @param timeMillis Time of the observation
+     * @param value Observed value (ignored without moments)
+     */
+    void add(long keyHash, long timeMillis, double value) {
+        long stamp = lock.writeLock();
+        try {
+            double exponent = (timeMillis - landmarkMillis) / tauMillis;
+            if (exponent > MAX_EXPONENT) {
+                rescale(timeMillis);
+                exponent = 0.0;
+            }
+            double weight = Math.exp(exponent);
+
+            for (int row = 0; row < DEPTH; row++) {
+                int cell = cell(keyHash, row);
+                weights[cell] += weight;
+                if (moments) {
+                    sums[cell] += weight * value;
+                    squares[cell] += weight * value * value;
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Decayed number of observations of a key (an upper bound, count-min style)
+     *
+     * @param keyHash 64-bit hash of the key
+     * @param nowMillis Time to evaluate the decay at
+     * @return Decayed count
+     */
+    double count(long keyHash, long nowMillis) {
+        long stamp = lock.tryOptimisticRead();
+        double count = readCount(keyHash, nowMillis);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                count = readCount(keyHash, nowMillis);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Decayed mean of the values observed for a key
+     *
+     * @param keyHash 64-bit hash of the key
+     * @param defaultValue Returned if the key has no observations
+     * @return Weighted mean
+     */
+    double mean(long keyHash, double defaultValue) {
+        return moment(keyHash, false, defaultValue);
+    }
+
+    /**
+     * Decayed variance of the values observed for a key
+     *
+     * @param keyHash 64-bit hash of the key
+     * @param defaultValue Returned if the key has no observations
+     * @return Weighted (population) variance
+     */
+    double variance(long keyHash, double defaultValue) {
+        return moment(keyHash, true, defaultValue);
+    }
+
+    private double moment(long keyHash, boolean variance, double defaultValue) {
+        if (!moments) {
+            throw new IllegalStateException("Sketch does not track moments");
+        }
+
+        long stamp = lock.tryOptimisticRead();
+        double result = readMoment(keyHash, variance, defaultValue);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = readMoment(keyHash, variance, defaultValue);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    private double readCount(long keyHash, long nowMillis) {
+        double min = Double.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            min = Math.min(min, weights[cell(keyHash, row)]);
+        }
+        return min * Math.exp(-(nowMillis - landmarkMillis) / tauMillis);
+    }
+
+    private double readMoment(long keyHash, boolean variance, double defaultValue) {
+        int best = cell(keyHash, 0);
+        for (int row = 1; row < DEPTH; row++) {
+            int cell = cell(keyHash, row);
+            if (weights[cell] < weights[best]) {
+                best = cell;
+            }
+        }
+
+        double weight = weights[best];
+        if (!(weight > 0.0)) {
+            return defaultValue;
+        }
+        double mean = sums[best] / weight;
+        if (!variance) {
+            return mean;
+        }
+        return Math.max(0.0, squares[best] / weight - mean * mean);
+    }
+
+    /**
+     * Move the landmark forward, rescaling every cell (caller holds the write lock)
+     */
+    private void rescale(long newLandmarkMillis) {
+        double factor = Math.exp(-(newLandmarkMillis - landmarkMillis) / tauMillis);
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] *= factor;
+            if (moments) {
+                sums[i] *= factor;
+                squares[i] *= factor;
+            }
+        }
+        landmarkMillis = newLandmarkMillis;
+    }
+
+    private int cell(long keyHash, int row) {
+        // Double hashing: row i uses h1 + i * h2 (h2 odd so rows differ)
+        int h1 = (int) keyHash;
+        int h2 = (int) (keyHash >>> 32) | 1;
+        return row * width + ((h1 + row * h2) & mask);
+    }
+
+    /**
+     * Clear all cells
+     */
+    void clear(long landmarkMillis) {
+        long stamp = lock.writeLock();
+        try {
+            Arrays.fill(weights, 0.0);
+            if (moments) {
+                Arrays.fill(sums, 0.0);
+                Arrays.fill(squares, 0.0);
+            }
+            this.landmarkMillis = landmarkMillis;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        long stamp = lock.readLock();
+        try {
+            out.writeInt(width);
+            out.writeBoolean(moments);
+            out.writeLong(landmarkMillis);
+            for (int i = 0; i < weights.length; i++) {
+                out.writeDouble(weights[i]);
+                if (moments) {
+                    out.writeDouble(sums[i]);
+                    out.writeDouble(squares[i]);
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    void readFrom(DataInput in) throws IOException {
+        int storedWidth = in.readInt();
+        boolean storedMoments = in.readBoolean();
+        if (storedWidth != width || storedMoments != moments) {
+            throw new IOException("Sketch layout changed: width " + storedWidth + ", moments " + storedMoments);
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            landmarkMillis = in.readLong();
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = in.readDouble();
+                if (moments) {
+                    sums[i] = in.readDouble();
+                    squares[i] = in.readDouble();
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 64-bit hash of a key (FNV-1a with a final avalanche)
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Combine a key hash with a small discriminator (such as an hour of day)
+     */
+    static long hash(long keyHash, int discriminator) {
+        return mix(keyHash ^ (discriminator + 1) * 0x9E3779B97F4A7C15L);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,282 @@
+package com.slackgrab.data;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.slackgrab.core.ErrorHandler;
+import com.slackgrab.data.model.StoredFeatures;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repository for persisted message feature vectors
+ *
+ * Each message has at most one row in 'message_features': the vector
+ * as a little-endian float32 blob and its hashed term slots as a
+ * little-endian int32 blob, tagged with the feature schema version and
+ * a hash of the message fields they were computed from.
+ * Rows stay while their message is in either tier and are removed by
+ * {@link #deleteOrphanedFeatures()} once it is deleted; rows of other
+ * schema versions are removed by {@link #deleteOtherVersions(int)}.
+ */
+@Singleton
+public class FeatureRepository {
+    private static final Logger logger = LoggerFactory.getLogger(FeatureRepository.class);
+
+    // Bound parameters per IN (...) lookup
+    private static final int QUERY_CHUNK_SIZE = 200;
+
+    private final DatabaseManager databaseManager;
+    private final ErrorHandler errorHandler;
+
+    @Inject
+    public FeatureRepository(DatabaseManager databaseManager, ErrorHandler errorHandler) {
+        this.databaseManager = databaseManager;
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * Save or replace the features of one message
+     *
+     * @param features Features to store
+     * @return true if saved successfully
+     */
+    public boolean saveFeatures(StoredFeatures features) {
+        return saveFeatures(List.of(features)) == 1;
+    }
+
+    /**
+     * Save or replace the features of several messages in one transaction
+     *
+     * @param features Features to store
+     * @return Number of rows written, 0 on error
+     */
+    public int saveFeatures(List<StoredFeatures> features) {
+        if (features.isEmpty()) {
+            return 0;
+        }
+
+        String sql = """
+            INSERT OR REPLACE INTO message_features (
+                message_id, schema_version, input_hash, features, terms, created_at
+            ) VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+        try {
+            return databaseManager.executeInTransaction(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (StoredFeatures row : features) {
+                        stmt.setString(1, row.messageId());
+                        stmt.setInt(2, row.schemaVersion());
+                        stmt.setLong(3, row.inputHash());
+                        stmt.setBytes(4, encode(row.values()));
+                        stmt.setBytes(5, row.terms() != null ? encodeTerms(row.terms()) : null);
+                        stmt.setLong(6, row.createdAt());
+                        stmt.addBatch();
+                    }
+                    return stmt.executeBatch().length;
+                }
+            });
+
+        } catch (SQLException e) {
+            errorHandler.handleError("Failed to save features for " + features.size() + " messages", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Load stored features of the given schema version
+     *
+     * Messages without features, or with features of another version,
+     * are absent from the result.
+     *
+     * @param messageIds Messages to look up
+     * @param schemaVersion Required schema version
+     * @return Stored features by message ID, empty on error
+     */
+    public Map<String, StoredFeatures> getFeatures(Collection<String> messageIds, int schemaVersion) {
+        Map<String, StoredFeatures> found = new HashMap<>();
+        if (messageIds.isEmpty()) {
+            return found;
+        }
+
+        List<String> ids = new ArrayList<>(messageIds);
+        try (Connection conn = databaseManager.getConnection()) {
+            for (int from = 0; from < ids.size(); from += QUERY_CHUNK_SIZE) {
+                List<String> chunk = ids.subList(from, Math.min(ids.size(), from + QUERY_CHUNK_SIZE));
+                String sql = """
+                    SELECT message_id, schema_version, input_hash, features, terms, created_at
+                    FROM message_features
+                    WHERE schema_version = ? AND message_id IN (%s)
+                    """.formatted(String.join(", ", Collections.nCopies(chunk.size(), "?")));
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, schemaVersion);
+                    for (int i = 0; i < chunk.size(); i++) {
+                        stmt.setString(i + 2, chunk.get(i));
+                    }
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            byte[] terms = rs.getBytes("terms");
+                            StoredFeatures row = new StoredFeatures(
+                                rs.getString("message_id"),
+                                rs.getInt("schema_version"),
+                                rs.getLong("input_hash"),
+                                decode(rs.getBytes("features")),
+                                terms != null ? decodeTerms(terms) : null,
+                                rs.getLong("created_at")
+                            );
+                            found.put(row.messageId(), row);
+                        }
+                    }
+                }
+            }
+            return found;
+
+        } catch (SQLException e) {
+            errorHandler.handleError("Failed to load features for " + ids.size() + " messages", e);
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * Delete features extracted with any other schema version
+     *
+     * @param schemaVersion Version to keep
+     * @return Number of rows deleted, 0 on error
+     */
+    public int deleteOtherVersions(int schemaVersion) {
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                 "DELETE FROM message_features WHERE schema_version <> ?")) {
+
+            stmt.setInt(1, schemaVersion);
+            int deleted = stmt.executeUpdate();
+            if (deleted > 0) {
+                logger.info("Deleted {} stored feature vectors from other schema versions", deleted);
+            }
+            return deleted;
+
+        } catch (SQLException e) {
+            errorHandler.handleError("Failed to delete outdated feature vectors", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Delete features whose message is in neither the hot nor the archive tier
+     *
+     * Run after message retention; moving a message between tiers keeps
+     * its features.
+     *
+     * @return Number of rows deleted, 0 on error
+     */
+    public int deleteOrphanedFeatures() {
+        String sql = """
+            DELETE FROM message_features
+            WHERE NOT EXISTS (SELECT 1 FROM main.messages m WHERE m.id = message_features.message_id)
+              AND NOT EXISTS (SELECT 1 FROM %s.messages a WHERE a.id = message_features.message_id)
+            """.formatted(DatabaseManager.ARCHIVE_SCHEMA);
+
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int deleted = stmt.executeUpdate();
+            if (deleted > 0) {
+                logger.info("Deleted {} stored feature vectors of deleted messages", deleted);
+            }
+            return deleted;
+
+        } catch (SQLException e) {
+            errorHandler.handleError("Failed to delete orphaned feature vectors", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Delete the stored features of one message
+     *
+     * @param messageId Message ID
+     * @return true if a row was deleted
+     */
+    public boolean deleteFeatures(String messageId) {
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                 "DELETE FROM message_features WHERE message_id = ?")) {
+
+            stmt.setString(1, messageId);
+            return stmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            errorHandler.handleError("Failed to delete features: " + messageId, e);
+            return false;
+        }
+    }
+
+    /**
+     * Get number of stored feature vectors
+     *
+     * @return Row count, 0 on error
+     */
+    public int getFeatureCount() {
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) FROM message_features");
+             ResultSet rs = stmt.executeQuery()) {
+
+            return rs.next() ? rs.getInt(1) : 0;
+
+        } catch (SQLException e) {
+            errorHandler.handleError("Failed to count stored features", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Encode feature values as a little-endian float32 blob
+     */
+    static byte[] encode(float[] values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(values);
+        return buffer.array();
+    }
+
+    /**
+     * Decode a blob written by {@link #encode(float[])}
+     */
+    static float[] decode(byte[] blob) {
+        float[] values = new float[blob.length / Float.BYTES];
+        ByteBuffer.wrap(blob).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(values);
+        return values;
+    }
+
+    /**
+     * Encode term slots as a little-endian int32 blob
+     */
+    static byte[] encodeTerms(int[] terms) {
+        ByteBuffer buffer = ByteBuffer.allocate(terms.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asIntBuffer().put(terms);
+        return buffer.array();
+    }
+
+    /**
+     * Decode a blob written by {@link #encodeTerms(int[])}
+     */
+    static int[] decodeTerms(byte[] blob) {
+        int[] terms = new int[blob.length / Integer.BYTES];
+        ByteBuffer.wrap(blob).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(terms);
+        return terms;
+    }
+}
@@ -13,8 +13,11 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Repository for explicit user feedback on importance predictions
@@ -27,12 +30,25 @@ import java.util.Optional;
 public class FeedbackRepository {
     private static final Logger logger = LoggerFactory.getLogger(FeedbackRepository.class);
 
+    // Retention deletes run in short transactions so ingest is never blocked for long
+    private static final int DELETE_CHUNK_SIZE = 500;
+    private static final long DELETE_CHUNK_PAUSE_MS = 20;
+
     private final DatabaseManager databaseManager;
+    private final StatisticsRepository statisticsRepository;
+    private final CounterRepository counterRepository;
     private final ErrorHandler errorHandler;
 
     @Inject
-    public FeedbackRepository(DatabaseManager databaseManager, ErrorHandler errorHandler) {
+    public FeedbackRepository(
+        DatabaseManager databaseManager,
+        StatisticsRepository statisticsRepository,
+        CounterRepository counterRepository,
+        ErrorHandler errorHandler
+    ) {
         this.databaseManager = databaseManager;
+        this.statisticsRepository = statisticsRepository;
+        this.counterRepository = counterRepository;
         this.errorHandler = errorHandler;
     }
 
@@ -67,6 +83,8 @@ public class FeedbackRepository {
             int rows = stmt.executeUpdate();
 
             if (rows > 0) {
+                statisticsRepository.markMessageDirty(messageId);
+                counterRepository.markDirty();
                 ResultSet keys = stmt.getGeneratedKeys();
                 if (keys.next()) {
                     long feedbackId = keys.getLong(1);
@@ -198,6 +216,8 @@ public class FeedbackRepository {
             int rows = stmt.executeUpdate();
 
             if (rows > 0) {
+                statisticsRepository.markAllDirty();
+                counterRepository.markDirty();
                 logger.debug("Deleted feedback {}", feedbackId);
                 return true;
             }
@@ -213,67 +233,27 @@ public class FeedbackRepository {
     /**
      * Get total feedback count
      *
+     * Served from the counters table (constant time at any database size).
+     *
      * @return Total number of feedback items
      */
     public int getTotalFeedbackCount() {
-        String sql = "SELECT COUNT(*) as count FROM feedback";
-
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt("count");
-            }
-
-            return 0;
-
-        } catch (SQLException e) {
-            errorHandler.handleError("Failed to get total feedback count", e);
-            return 0;
-        }
+        return (int) counterRepository.get(CounterRepository.FEEDBACK);
     }
 
     /**
      * Get feedback statistics
      *
+     * Served from the per-type counters (constant time at any database size).
+     *
      * @return Feedback stats
      */
     public FeedbackStats getStats() {
-        String sql = """
-            SELECT
-                feedback_type,
-                COUNT(*) as count
-            FROM feedback
-            GROUP BY feedback_type
-            """;
-
-        int tooLowCount = 0;
-        int goodCount = 0;
-        int tooHighCount = 0;
-
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                String type = rs.getString("feedback_type");
-                int count = rs.getInt("count");
-
-                switch (type) {
-                    case "TOO_LOW" -> tooLowCount = count;
-                    case "GOOD" -> goodCount = count;
-                    case "TOO_HIGH" -> tooHighCount = count;
-                }
-            }
-
-            return new FeedbackStats(tooLowCount, goodCount, tooHighCount);
-
-        } catch (SQLException e) {
-            errorHandler.handleError("Failed to get feedback stats", e);
-            return new FeedbackStats(0, 0, 0);
-        }
+        return new FeedbackStats(
+            (int) counterRepository.getFeedbackCount(FeedbackType.TOO_LOW),
+            (int) counterRepository.getFeedbackCount(FeedbackType.GOOD),
+            (int) counterRepository.getFeedbackCount(FeedbackType.TOO_HIGH)
+        );
     }
 
     /**
@@ -283,20 +263,18 @@ public class FeedbackRepository {
      * @return Number of feedback items deleted
      */
     public int deleteOldFeedback(int days) {
-        String sql = """
-            DELETE FROM feedback
-            WHERE timestamp < ?
-            """;
-
         long cutoffTime = Instant.now()
             .minus(days, java.time.temporal.ChronoUnit.DAYS)
             .toEpochMilli();
 
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try {
+            int rows = databaseManager.deleteInChunks(
+                "feedback", "timestamp", cutoffTime, DELETE_CHUNK_SIZE, DELETE_CHUNK_PAUSE_MS);
 
-            stmt.setLong(1, cutoffTime);
-            int rows = stmt.executeUpdate();
+            if (rows > 0) {
+                statisticsRepository.markAllDirty();
+                counterRepository.markDirty();
+            }
 
             logger.info("Deleted {} old feedback items (older than {} days)", rows, days);
             return rows;
@@ -307,16 +285,73 @@ public class FeedbackRepository {
         }
     }
 
+    /**
+     * Stream feedback recorded since a point in time, oldest first
+     *
+     * Rows are mapped lazily (constant memory). The returned stream holds a
+     * pooled connection and MUST be closed, e.g. with try-with-resources.
+     *
+     * @param since Inclusive lower bound on feedback time (null = unbounded)
+     * @param fetchSize Rows fetched per round trip
+     * @return Stream of feedback
+     * @throws RowReadException From the stream's terminal operation if a row cannot be read
+     */
+    public Stream<Feedback> streamFeedback(Instant since, int fetchSize) {
+        String sql = """
+            SELECT id, message_id, feedback_type, original_score, timestamp
+            FROM feedback
+            WHERE timestamp >= ?
+            ORDER BY timestamp
+            """;
+
+        try {
+            return ResultSetStreams.stream(databaseManager, sql,
+                stmt -> stmt.setLong(1, since != null ? since.toEpochMilli() : 0L),
+                fetchSize, this::extractFeedback);
+
+        } catch (SQLException e) {
+            errorHandler.handleError("Failed to stream feedback", e);
+            return Stream.empty();
+        }
+    }
+
+    /**
+     * Visit feedback recorded since a point in time, oldest first
+     *
+     * @param since Inclusive lower bound on feedback time (null = unbounded)
+     * @param fetchSize Rows fetched per round trip
+     * @param visitor Called once per feedback item
+     * @return Number of feedback items visited
+     */
+    public int forEachFeedback(Instant since, int fetchSize, Consumer<Feedback> visitor) {
+        int count = 0;
+
+        try (Stream<Feedback> feedback = streamFeedback(since, fetchSize)) {
+            Iterator<Feedback> iterator = feedback.iterator();
+            while (iterator.hasNext()) {
+                visitor.accept(iterator.next());
+                count++;
+            }
+        } catch (RowReadException e) {
+            errorHandler.handleError("Failed while streaming feedback", e);
+        }
+
+        return count;
+    }
+
     /**
      * Extract Feedback from ResultSet
+     *
+     * Reads columns by position: id, message_id, feedback_type,
+     * original_score, timestamp
      */
     private Feedback extractFeedback(ResultSet rs) throws SQLException {
         return new Feedback(
-            rs.getLong("id"),
-            rs.getString("message_id"),
-            FeedbackType.valueOf(rs.getString("feedback_type")),
-            rs.getDouble("original_score"),
-            Instant.ofEpochMilli(rs.getLong("timestamp"))
+            rs.getLong(1),
+            rs.getString(2),
+            FeedbackType.valueOf(rs.getString(3)),
+            rs.getDouble(4),
+            Instant.ofEpochMilli(rs.getLong(5))
         );
     }
 
@@ -0,0 +1,185 @@
+package com.slackgrab.data;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.slackgrab.core.ErrorHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary encoding of Slack channel and user IDs
+ *
+ * Fact tables (messages, archive.messages, statistics) store small integer
+ * keys instead of repeating Slack ID strings in every row and index entry.
+ * The id_dictionary table assigns the keys; this class mirrors it in
+ * memory in both directions so encoding and decoding never touch the
+ * database. Slack channel and user IDs have distinct prefixes, so one
+ * dictionary serves both.
+ *
+ * Keys are assigned on first write and never reused.
+ */
+@Singleton
+public class IdDictionary {
+    private static final Logger logger = LoggerFactory.getLogger(IdDictionary.class);
+
+    private final DatabaseManager databaseManager;
+    private final ErrorHandler errorHandler;
+
+    private final Map<String, Integer> keysById;
+    private volatile String[] idsByKey;   // Indexed by key (rowids are dense)
+    private volatile boolean loaded;
+
+    @Inject
+    public IdDictionary(DatabaseManager databaseManager, ErrorHandler errorHandler) {
+        this.databaseManager = databaseManager;
+        this.errorHandler = errorHandler;
+        this.keysById = new ConcurrentHashMap<>();
+        this.idsByKey = new String[0];
+    }
+
+    /**
+     * Get the key for a Slack ID, assigning one if it is new
+     *
+     * @param slackId Slack channel or user ID
+     * @return Dictionary key
+     * @throws SQLException If a new key cannot be stored
+     */
+    public int encode(String slackId) throws SQLException {
+        if (slackId == null) {
+            throw new SQLException("Cannot encode a null Slack ID");
+        }
+
+        Integer key = keysById.get(slackId);
+        if (key != null) {
+            return key;
+        }
+
+        synchronized (this) {
+            ensureLoaded();
+
+            key = keysById.get(slackId);
+            if (key != null) {
+                return key;
+            }
+
+            try (Connection conn = databaseManager.getConnection()) {
+                try (PreparedStatement insert = conn.prepareStatement(
+                        "INSERT INTO id_dictionary (slack_id) VALUES (?) ON CONFLICT(slack_id) DO NOTHING")) {
+                    insert.setString(1, slackId);
+                    insert.executeUpdate();
+                }
+
+                try (PreparedStatement select = conn.prepareStatement(
+                        "SELECT id FROM id_dictionary WHERE slack_id = ?")) {
+                    select.setString(1, slackId);
+                    ResultSet rs = select.executeQuery();
+                    if (!rs.next()) {
+                        throw new SQLException("Dictionary key not assigned for " + slackId);
+                    }
+                    key = rs.getInt(1);
+                }
+            }
+
+            register(key, slackId);
+            return key;
+        }
+    }
+
+    /**
+     * Look up the key for a Slack ID without assigning one
+     *
+     * Read paths use this: an ID without a key has no stored rows.
+     *
+     * @param slackId Slack channel or user ID
+     * @return Dictionary key, or empty if the ID is unknown
+     */
+    public OptionalInt find(String slackId) {
+        if (slackId == null) {
+            return OptionalInt.empty();
+        }
+
+        ensureLoaded();
+        Integer key = keysById.get(slackId);
+        return key != null ? OptionalInt.of(key) : OptionalInt.empty();
+    }
+
+    /**
+     * Decode a key back to its Slack ID
+     *
+     * @param key Dictionary key
+     * @return Slack ID, or null if the key is unknown
+     */
+    public String decode(int key) {
+        ensureLoaded();
+
+        String[] ids = idsByKey;
+        if (key >= 0 && key < ids.length && ids[key] != null) {
+            return ids[key];
+        }
+
+        // Assigned by a write we have not seen (should not happen in-process)
+        synchronized (this) {
+            reload();
+            ids = idsByKey;
+            return key >= 0 && key < ids.length ? ids[key] : null;
+        }
+    }
+
+    /**
+     * Get the number of Slack IDs in the dictionary
+     */
+    public int size() {
+        ensureLoaded();
+        return keysById.size();
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+    }
+
+    private void reload() {
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT id, slack_id FROM id_dictionary")) {
+
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                register(rs.getInt(1), rs.getString(2));
+            }
+
+            loaded = true;
+            logger.debug("ID dictionary loaded: {} entries", keysById.size());
+
+        } catch (SQLException e) {
+            // Left unloaded; the next access retries
+            errorHandler.handleError("Failed to load ID dictionary", e);
+        }
+    }
+
+    /**
+     * Add a mapping (callers hold the monitor)
+     */
+    private void register(int key, String slackId) {
+        String[] ids = idsByKey;
+        if (key >= ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(key + 1, ids.length * 2));
+        }
+        ids[key] = slackId;
+        idsByKey = ids;
+        keysById.put(slackId, key);
+    }
+}
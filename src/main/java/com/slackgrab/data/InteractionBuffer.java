@@ -0,0 +1,315 @@
+package com.slackgrab.data;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.slackgrab.core.ErrorHandler;
+import com.slackgrab.core.ManagedService;
+import com.slackgrab.data.model.InteractionEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Buffered capture of user interactions
+ *
+ * UI and webhook threads record interactions into a fixed-size ring of
+ * preallocated slots: capture claims a slot with a CAS, fills it and
+ * publishes it, so it never blocks and allocates nothing. If the ring is
+ * full the event is dropped and counted rather than stalling the caller.
+ *
+ * A single flush thread drains the ring when it fills past a threshold or
+ * on a timer, whichever comes first. Events of the same type on the same
+ * message are coalesced (dwell time summed), the batch is written in one
+ * transaction, and the coalesced events are handed to flush listeners
+ * (the online trainer) afterwards. A batch whose transaction fails is
+ * carried into the next flush; if it keeps failing until it outgrows the
+ * ring, it is dropped and reported.
+ */
+@Singleton
+public class InteractionBuffer implements ManagedService {
+    private static final Logger logger = LoggerFactory.getLogger(InteractionBuffer.class);
+
+    private static final int CAPACITY = 4096;   // Power of two
+    private static final int MASK = CAPACITY - 1;
+    private static final int FLUSH_THRESHOLD = 256;
+    private static final long FLUSH_INTERVAL_MS = 2000;
+    private static final long NO_READING_TIME = -1;
+
+    private final InteractionRepository interactionRepository;
+    private final ErrorHandler errorHandler;
+
+    // Slot storage; a slot is readable once published holds its sequence + 1
+    private final String[] messageIds;
+    private final String[] interactionTypes;
+    private final long[] timestamps;
+    private final long[] readingTimes;
+    private final AtomicLongArray published;
+
+    private final AtomicLong claimed;
+    private volatile long consumed;
+    private final AtomicLong dropped;
+
+    private final List<Consumer<List<InteractionEvent>>> flushListeners;
+
+    // Coalesced events of a failed write, retried with the next flush (guarded by flush)
+    private List<InteractionEvent> unwritten = List.of();
+
+    private volatile boolean running;
+    private volatile Thread flushThread;
+
+    @Inject
+    public InteractionBuffer(InteractionRepository interactionRepository, ErrorHandler errorHandler) {
+        this.interactionRepository = interactionRepository;
+        this.errorHandler = errorHandler;
+
+        this.messageIds = new String[CAPACITY];
+        this.interactionTypes = new String[CAPACITY];
+        this.timestamps = new long[CAPACITY];
+        this.readingTimes = new long[CAPACITY];
+        this.published = new AtomicLongArray(CAPACITY);
+
+        this.claimed = new AtomicLong();
+        this.dropped = new AtomicLong();
+        this.flushListeners = new CopyOnWriteArrayList<>();
+    }
+
+    @Override
+    public void start() throws Exception {
+        running = true;
+
+        Thread thread = new Thread(this::flushLoop, "InteractionFlush");
+        thread.setDaemon(true);
+        flushThread = thread;
+        thread.start();
+
+        logger.info("Interaction buffer started (capacity {}, flush every {} events or {} ms)",
+            CAPACITY, FLUSH_THRESHOLD, FLUSH_INTERVAL_MS);
+    }
+
+    @Override
+    public void stop() throws Exception {
+        running = false;
+
+        Thread thread = flushThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // Whatever was captured after the last cycle
+        flush();
+        if (!unwritten.isEmpty()) {
+            discardUnwritten();
+        }
+
+        if (dropped.get() > 0) {
+            logger.warn("Interaction buffer dropped {} events while full", dropped.get());
+        }
+        logger.info("Interaction buffer stopped");
+    }
+
+    /**
+     * Capture an interaction without dwell time
+     *
+     * @param messageId Message ID
+     * @param interactionType Type of interaction (REPLY, REACTION, etc.)
+     * @return true if buffered, false if the buffer was full
+     */
+    public boolean record(String messageId, String interactionType) {
+        return record(messageId, interactionType, NO_READING_TIME);
+    }
+
+    /**
+     * Capture an interaction
+     *
+     * Never blocks; safe to call from any thread.
+     *
+     * @param messageId Message ID
+     * @param interactionType Type of interaction (READ, REPLY, REACTION, etc.)
+     * @param readingTimeMs Time spent reading, or a negative value if not applicable
+     * @return true if buffered, false if the buffer was full
+     */
+    public boolean record(String messageId, String interactionType, long readingTimeMs) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= CAPACITY) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) (sequence & MASK);
+        messageIds[slot] = messageId;
+        interactionTypes[slot] = interactionType;
+        timestamps[slot] = System.currentTimeMillis();
+        readingTimes[slot] = readingTimeMs < 0 ? NO_READING_TIME : readingTimeMs;
+        published.set(slot, sequence + 1);   // Volatile store publishes the slot fields
+
+        if (sequence - consumed + 1 == FLUSH_THRESHOLD) {
+            Thread thread = flushThread;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drain, coalesce and persist everything captured so far
+     *
+     * Includes events of an earlier flush whose write failed.
+     *
+     * @return Number of interactions written (0 if the write failed)
+     */
+    public synchronized int flush() {
+        List<InteractionEvent> events = drain();
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        int recorded = interactionRepository.recordInteractions(events);
+        if (recorded == 0) {
+            // The repository reported the failure; keep the batch for the next flush
+            unwritten = events;
+            if (unwritten.size() > CAPACITY) {
+                discardUnwritten();
+            }
+            return 0;
+        }
+
+        unwritten = List.of();
+        logger.debug("Flushed {} interactions ({} coalesced)", recorded, events.size());
+
+        for (Consumer<List<InteractionEvent>> listener : flushListeners) {
+            try {
+                listener.accept(events);
+            } catch (Exception e) {
+                errorHandler.handleError("Interaction flush listener failed", e);
+            }
+        }
+
+        return recorded;
+    }
+
+    /**
+     * Register a listener for coalesced interactions after each flush
+     *
+     * Listeners run on the flush thread and should hand work off quickly.
+     *
+     * @param listener Receives each flushed batch (read-only)
+     */
+    public void addFlushListener(Consumer<List<InteractionEvent>> listener) {
+        flushListeners.add(listener);
+    }
+
+    /**
+     * Unregister a flush listener
+     */
+    public void removeFlushListener(Consumer<List<InteractionEvent>> listener) {
+        flushListeners.remove(listener);
+    }
+
+    /**
+     * Get the number of captured events not yet flushed
+     */
+    public int getPendingCount() {
+        return (int) Math.max(0, claimed.get() - consumed);
+    }
+
+    /**
+     * Get the number of events dropped because the buffer was full or
+     * could not be written
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void flushLoop() {
+        while (running) {
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MS));
+            if (!running) {
+                break;
+            }
+
+            try {
+                flush();
+            } catch (Exception e) {
+                errorHandler.handleError("Interaction flush failed", e);
+            }
+        }
+    }
+
+    /**
+     * Give up on a batch that could not be written
+     */
+    private void discardUnwritten() {
+        long lost = 0;
+        for (InteractionEvent event : unwritten) {
+            lost += event.eventCount();
+        }
+        unwritten = List.of();
+
+        dropped.addAndGet(lost);
+        errorHandler.handleWarning("Dropped " + lost + " interactions that could not be written");
+    }
+
+    /**
+     * Take all published slots in order, coalescing per message and type
+     *
+     * Events of a failed earlier write come first. Stops at the first slot
+     * whose producer has claimed but not yet published it; that event goes
+     * out with the next flush.
+     */
+    private List<InteractionEvent> drain() {
+        Map<EventKey, InteractionEvent> coalesced = new LinkedHashMap<>();
+        for (InteractionEvent event : unwritten) {
+            coalesced.merge(new EventKey(event.messageId(), event.interactionType()), event, InteractionEvent::merge);
+        }
+
+        long head = consumed;
+        long tail = claimed.get();
+
+        while (head < tail) {
+            int slot = (int) (head & MASK);
+            if (published.get(slot) != head + 1) {
+                break;
+            }
+
+            String messageId = messageIds[slot];
+            String interactionType = interactionTypes[slot];
+            long timestamp = timestamps[slot];
+            long readingTime = readingTimes[slot];
+            messageIds[slot] = null;
+            interactionTypes[slot] = null;
+
+            head++;
+            consumed = head;   // Frees the slot for producers
+
+            coalesced.merge(
+                new EventKey(messageId, interactionType),
+                new InteractionEvent(messageId, interactionType, timestamp,
+                    readingTime < 0 ? null : readingTime, 1),
+                InteractionEvent::merge
+            );
+        }
+
+        return List.copyOf(coalesced.values());
+    }
+
+    private record EventKey(String messageId, String interactionType) {
+    }
+}
@@ -3,6 +3,7 @@ package com.slackgrab.data;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.slackgrab.core.ErrorHandler;
+import com.slackgrab.data.model.InteractionEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -12,7 +13,10 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Repository for tracking user interactions with messages
@@ -29,12 +33,31 @@ import java.util.List;
 public class InteractionRepository {
     private static final Logger logger = LoggerFactory.getLogger(InteractionRepository.class);
 
+    // Retention deletes run in short transactions so ingest is never blocked for long
+    private static final int DELETE_CHUNK_SIZE = 500;
+    private static final long DELETE_CHUNK_PAUSE_MS = 20;
+
     private final DatabaseManager databaseManager;
+    private final StatisticsRepository statisticsRepository;
+    private final CounterRepository counterRepository;
+    private final ActivitySketches activitySketches;
+    private final IdDictionary idDictionary;
     private final ErrorHandler errorHandler;
 
     @Inject
-    public InteractionRepository(DatabaseManager databaseManager, ErrorHandler errorHandler) {
+    public InteractionRepository(
+        DatabaseManager databaseManager,
+        StatisticsRepository statisticsRepository,
+        CounterRepository counterRepository,
+        ActivitySketches activitySketches,
+        IdDictionary idDictionary,
+        ErrorHandler errorHandler
+    ) {
         this.databaseManager = databaseManager;
+        this.statisticsRepository = statisticsRepository;
+        this.counterRepository = counterRepository;
+        this.activitySketches = activitySketches;
+        this.idDictionary = idDictionary;
         this.errorHandler = errorHandler;
     }
 
@@ -55,14 +78,18 @@ public class InteractionRepository {
             INSERT INTO user_interactions (
                 message_id, interaction_type, interaction_timestamp, reading_time_ms
             ) VALUES (?, ?, ?, ?)
+            RETURNING COALESCE(
+                (SELECT user_key FROM messages WHERE id = message_id),
+                (SELECT user_key FROM archive.messages WHERE id = message_id))
             """;
 
         try (Connection conn = databaseManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
+            long now = Instant.now().toEpochMilli();
             stmt.setString(1, messageId);
             stmt.setString(2, interactionType);
-            stmt.setLong(3, Instant.now().toEpochMilli());
+            stmt.setLong(3, now);
 
             if (readingTimeMs != null) {
                 stmt.setLong(4, readingTimeMs);
@@ -70,8 +97,24 @@ public class InteractionRepository {
                 stmt.setNull(4, java.sql.Types.INTEGER);
             }
 
-            int rows = stmt.executeUpdate();
-            return rows > 0;
+            boolean recorded;
+            int senderKey = -1;
+            try (ResultSet rs = stmt.executeQuery()) {
+                recorded = rs.next();
+                if (recorded) {
+                    senderKey = rs.getInt(1);
+                    if (rs.wasNull()) {
+                        senderKey = -1;
+                    }
+                }
+            }
+
+            statisticsRepository.markMessageDirty(messageId);
+            counterRepository.markDirty();
+            if (senderKey >= 0) {
+                activitySketches.recordInteraction(idDictionary.decode(senderKey), now);
+            }
+            return recorded;
 
         } catch (SQLException e) {
             errorHandler.handleError("Failed to record interaction: " + messageId, e);
@@ -79,6 +122,86 @@ public class InteractionRepository {
         }
     }
 
+    /**
+     * Record a batch of coalesced interactions in one transaction
+     *
+     * Each event is stored as a single row holding its merged dwell time
+     * and, in event_count, how many captures it folds together; statistics
+     * triggers and counters add the event count rather than one per row.
+     *
+     * @param events Coalesced interaction events
+     * @return Number of captured interactions recorded (0 on failure)
+     */
+    public int recordInteractions(List<InteractionEvent> events) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        String sql = """
+            INSERT INTO user_interactions (
+                message_id, interaction_type, interaction_timestamp, reading_time_ms, event_count
+            ) VALUES (?, ?, ?, ?, ?)
+            RETURNING COALESCE(
+                (SELECT user_key FROM messages WHERE id = message_id),
+                (SELECT user_key FROM archive.messages WHERE id = message_id))
+            """;
+
+        // Sender key of each event's message (-1 if not stored), fed to the sketches once committed
+        int[] senderKeys = new int[events.size()];
+
+        try {
+            int recorded = databaseManager.executeInTransaction(conn -> {
+                int captures = 0;
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < events.size(); i++) {
+                        InteractionEvent event = events.get(i);
+                        int count = Math.max(1, event.eventCount());
+                        stmt.setString(1, event.messageId());
+                        stmt.setString(2, event.interactionType());
+                        stmt.setLong(3, event.timestampMillis());
+
+                        if (event.readingTimeMs() != null) {
+                            stmt.setLong(4, event.readingTimeMs());
+                        } else {
+                            stmt.setNull(4, java.sql.Types.INTEGER);
+                        }
+                        stmt.setInt(5, count);
+
+                        // One execution per row (as executeBatch does) to read RETURNING
+                        senderKeys[i] = -1;
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            if (rs.next()) {
+                                int key = rs.getInt(1);
+                                senderKeys[i] = rs.wasNull() ? -1 : key;
+                            }
+                        }
+                        captures += count;
+                    }
+                }
+                return captures;
+            });
+
+            List<String> messageIds = new ArrayList<>(events.size());
+            for (InteractionEvent event : events) {
+                messageIds.add(event.messageId());
+            }
+            statisticsRepository.markMessagesDirty(messageIds);
+            counterRepository.markDirty();
+            for (int i = 0; i < senderKeys.length; i++) {
+                if (senderKeys[i] >= 0) {
+                    InteractionEvent event = events.get(i);
+                    activitySketches.recordInteractions(
+                        idDictionary.decode(senderKeys[i]), event.timestampMillis(), Math.max(1, event.eventCount()));
+                }
+            }
+            return recorded;
+
+        } catch (SQLException e) {
+            errorHandler.handleError("Failed to record " + events.size() + " interactions", e);
+            return 0;
+        }
+    }
+
     /**
      * Get all interactions for a message
      *
@@ -87,7 +210,7 @@ public class InteractionRepository {
      */
     public List<UserInteraction> getMessageInteractions(String messageId) {
         String sql = """
-            SELECT id, message_id, interaction_type, interaction_timestamp, reading_time_ms
+            SELECT id, message_id, interaction_type, interaction_timestamp, reading_time_ms, event_count
             FROM user_interactions
             WHERE message_id = ?
             ORDER BY interaction_timestamp DESC
@@ -121,7 +244,7 @@ public class InteractionRepository {
      */
     public List<UserInteraction> getRecentInteractions(int limit) {
         String sql = """
-            SELECT id, message_id, interaction_type, interaction_timestamp, reading_time_ms
+            SELECT id, message_id, interaction_type, interaction_timestamp, reading_time_ms, event_count
             FROM user_interactions
             ORDER BY interaction_timestamp DESC
             LIMIT ?
@@ -151,11 +274,11 @@ public class InteractionRepository {
      * Get interaction count for a message
      *
      * @param messageId Message ID
-     * @return Number of interactions
+     * @return Number of captured interactions (coalesced rows count their events)
      */
     public int getInteractionCount(String messageId) {
         String sql = """
-            SELECT COUNT(*) as count
+            SELECT COALESCE(SUM(event_count), 0) as count
             FROM user_interactions
             WHERE message_id = ?
             """;
@@ -181,25 +304,12 @@ public class InteractionRepository {
     /**
      * Get total interaction count
      *
+     * Served from the counters table (constant time at any database size).
+     *
      * @return Total number of interactions
      */
     public int getTotalInteractionCount() {
-        String sql = "SELECT COUNT(*) as count FROM user_interactions";
-
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt("count");
-            }
-
-            return 0;
-
-        } catch (SQLException e) {
-            errorHandler.handleError("Failed to get total interaction count", e);
-            return 0;
-        }
+        return (int) counterRepository.get(CounterRepository.INTERACTIONS);
     }
 
     /**
@@ -209,20 +319,18 @@ public class InteractionRepository {
      * @return Number of interactions deleted
      */
     public int deleteOldInteractions(int days) {
-        String sql = """
-            DELETE FROM user_interactions
-            WHERE interaction_timestamp < ?
-            """;
-
         long cutoffTime = Instant.now()
             .minus(days, java.time.temporal.ChronoUnit.DAYS)
             .toEpochMilli();
 
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try {
+            int rows = databaseManager.deleteInChunks(
+                "user_interactions", "interaction_timestamp", cutoffTime, DELETE_CHUNK_SIZE, DELETE_CHUNK_PAUSE_MS);
 
-            stmt.setLong(1, cutoffTime);
-            int rows = stmt.executeUpdate();
+            if (rows > 0) {
+                statisticsRepository.markAllDirty();
+                counterRepository.markDirty();
+            }
 
             logger.info("Deleted {} old interactions (older than {} days)", rows, days);
             return rows;
@@ -233,21 +341,79 @@ public class InteractionRepository {
         }
     }
 
+    /**
+     * Stream interactions recorded since a point in time, oldest first
+     *
+     * Rows are mapped lazily (constant memory). The returned stream holds a
+     * pooled connection and MUST be closed, e.g. with try-with-resources.
+     *
+     * @param since Inclusive lower bound on interaction time (null = unbounded)
+     * @param fetchSize Rows fetched per round trip
+     * @return Stream of interactions
+     * @throws RowReadException From the stream's terminal operation if a row cannot be read
+     */
+    public Stream<UserInteraction> streamInteractions(Instant since, int fetchSize) {
+        String sql = """
+            SELECT id, message_id, interaction_type, interaction_timestamp, reading_time_ms, event_count
+            FROM user_interactions
+            WHERE interaction_timestamp >= ?
+            ORDER BY interaction_timestamp
+            """;
+
+        try {
+            return ResultSetStreams.stream(databaseManager, sql,
+                stmt -> stmt.setLong(1, since != null ? since.toEpochMilli() : 0L),
+                fetchSize, this::extractInteraction);
+
+        } catch (SQLException e) {
+            errorHandler.handleError("Failed to stream interactions", e);
+            return Stream.empty();
+        }
+    }
+
+    /**
+     * Visit interactions recorded since a point in time, oldest first
+     *
+     * @param since Inclusive lower bound on interaction time (null = unbounded)
+     * @param fetchSize Rows fetched per round trip
+     * @param visitor Called once per interaction
+     * @return Number of interactions visited
+     */
+    public int forEachInteraction(Instant since, int fetchSize, Consumer<UserInteraction> visitor) {
+        int count = 0;
+
+        try (Stream<UserInteraction> interactions = streamInteractions(since, fetchSize)) {
+            Iterator<UserInteraction> iterator = interactions.iterator();
+            while (iterator.hasNext()) {
+                visitor.accept(iterator.next());
+                count++;
+            }
+        } catch (RowReadException e) {
+            errorHandler.handleError("Failed while streaming interactions", e);
+        }
+
+        return count;
+    }
+
     /**
      * Extract UserInteraction from ResultSet
+     *
+     * Reads columns by position: id, message_id, interaction_type,
+     * interaction_timestamp, reading_time_ms, event_count
      */
     private UserInteraction extractInteraction(ResultSet rs) throws SQLException {
-        Long readingTime = rs.getLong("reading_time_ms");
+        Long readingTime = rs.getLong(5);
         if (rs.wasNull()) {
             readingTime = null;
         }
 
         return new UserInteraction(
-            rs.getLong("id"),
-            rs.getString("message_id"),
-            rs.getString("interaction_type"),
-            Instant.ofEpochMilli(rs.getLong("interaction_timestamp")),
-            readingTime
+            rs.getLong(1),
+            rs.getString(2),
+            rs.getString(3),
+            Instant.ofEpochMilli(rs.getLong(4)),
+            readingTime,
+            rs.getInt(6)
         );
     }
 
@@ -259,7 +425,8 @@ public class InteractionRepository {
         String messageId,
         String interactionType,
         Instant timestamp,
-        Long readingTimeMs
+        Long readingTimeMs,       // Merged dwell time of all captures
+        int eventCount            // Captures coalesced into this row (1 if recorded directly)
     ) {
         /**
          * Check if this is a significant interaction (for training)
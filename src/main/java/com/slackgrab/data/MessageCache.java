@@ -0,0 +1,186 @@
+package com.slackgrab.data;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.inject.Singleton;
+import com.slackgrab.data.model.SlackMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-memory cache in front of MessageRepository
+ *
+ * Keeps the recent hot set (messages touched by the scorer, UI and
+ * feedback endpoints) off the disk:
+ * - Single messages by ID, bounded by estimated heap size
+ * - Recent channel pages (channel ID + limit), bounded by entry count
+ *
+ * MessageRepository invalidates entries on every write path. A write
+ * generation guards against a read that raced a write re-populating the
+ * cache with the old row: puts are skipped if the generation already
+ * moved, and undone if it moved while the put was in progress.
+ */
+@Singleton
+public class MessageCache {
+    private static final Logger logger = LoggerFactory.getLogger(MessageCache.class);
+
+    private static final long MAX_MESSAGE_BYTES = 32L * 1024 * 1024; // 32MB of message data
+    private static final int MAX_CHANNEL_PAGES = 256;
+    private static final int MESSAGE_OVERHEAD_BYTES = 256;           // Record, strings and boxed fields
+
+    private final Cache<String, SlackMessage> messages;
+    private final Cache<ChannelPageKey, List<SlackMessage>> channelPages;
+    private final AtomicLong writeGeneration;
+
+    public MessageCache() {
+        this.messages = CacheBuilder.newBuilder()
+            .maximumWeight(MAX_MESSAGE_BYTES)
+            .weigher((String id, SlackMessage message) -> estimateSize(message))
+            .recordStats()
+            .build();
+
+        this.channelPages = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CHANNEL_PAGES)
+            .recordStats()
+            .build();
+
+        this.writeGeneration = new AtomicLong();
+
+        logger.info("Message cache initialized. Max size: {} MB, max channel pages: {}",
+            MAX_MESSAGE_BYTES / (1024 * 1024), MAX_CHANNEL_PAGES);
+    }
+
+    /**
+     * Current write generation
+     *
+     * Capture before reading from the database and pass to the put methods;
+     * the entry is not kept if a write happened in between.
+     */
+    public long generation() {
+        return writeGeneration.get();
+    }
+
+    public Optional<SlackMessage> getMessage(String messageId) {
+        return Optional.ofNullable(messages.getIfPresent(messageId));
+    }
+
+    public void putMessage(SlackMessage message, long generation) {
+        if (generation == writeGeneration.get()) {
+            messages.put(message.id(), message);
+            // A write may have invalidated between the check and the put
+            if (generation != writeGeneration.get()) {
+                messages.invalidate(message.id());
+            }
+        }
+    }
+
+    public Optional<List<SlackMessage>> getChannelPage(String channelId, int limit) {
+        return Optional.ofNullable(channelPages.getIfPresent(new ChannelPageKey(channelId, limit)));
+    }
+
+    public void putChannelPage(String channelId, int limit, List<SlackMessage> page, long generation) {
+        if (generation == writeGeneration.get()) {
+            ChannelPageKey key = new ChannelPageKey(channelId, limit);
+            channelPages.put(key, List.copyOf(page));
+            if (generation != writeGeneration.get()) {
+                channelPages.invalidate(key);
+            }
+        }
+    }
+
+    /**
+     * Invalidate a message and the pages of its channel
+     */
+    public void invalidate(String messageId, String channelId) {
+        writeGeneration.incrementAndGet();
+        messages.invalidate(messageId);
+        invalidateChannel(channelId);
+    }
+
+    /**
+     * Invalidate a message whose channel is not known to the caller
+     *
+     * Falls back to dropping all channel pages unless the cached copy tells
+     * us which channel it belongs to.
+     */
+    public void invalidate(String messageId) {
+        writeGeneration.incrementAndGet();
+        SlackMessage cached = messages.getIfPresent(messageId);
+        messages.invalidate(messageId);
+
+        if (cached != null) {
+            invalidateChannel(cached.channelId());
+        } else {
+            channelPages.invalidateAll();
+        }
+    }
+
+    /**
+     * Invalidate a set of messages (bulk write paths)
+     */
+    public void invalidateAll(Collection<String> messageIds) {
+        writeGeneration.incrementAndGet();
+        messages.invalidateAll(messageIds);
+        channelPages.invalidateAll();
+    }
+
+    /**
+     * Drop everything (deletes and other table-wide writes)
+     */
+    public void invalidateAll() {
+        writeGeneration.incrementAndGet();
+        messages.invalidateAll();
+        channelPages.invalidateAll();
+    }
+
+    private void invalidateChannel(String channelId) {
+        channelPages.asMap().keySet().removeIf(key -> key.channelId().equals(channelId));
+    }
+
+    /**
+     * Hit/miss statistics for single-message lookups
+     */
+    public CacheStats getMessageStats() {
+        return messages.stats();
+    }
+
+    /**
+     * Hit/miss statistics for channel page lookups
+     */
+    public CacheStats getChannelPageStats() {
+        return channelPages.stats();
+    }
+
+    /**
+     * Get cache statistics for monitoring
+     *
+     * @return String with cache statistics
+     */
+    public String getCacheStats() {
+        CacheStats messageStats = messages.stats();
+        CacheStats pageStats = channelPages.stats();
+
+        return String.format("Messages: %d entries, hit rate %.1f%%, evictions %d | Channel pages: %d entries, hit rate %.1f%%",
+            messages.size(),
+            messageStats.hitRate() * 100,
+            messageStats.evictionCount(),
+            channelPages.size(),
+            pageStats.hitRate() * 100);
+    }
+
+    /**
+     * Estimate heap size of a cached message
+     */
+    private static int estimateSize(SlackMessage message) {
+        int textLength = message.text() != null ? message.text().length() : 0;
+        return MESSAGE_OVERHEAD_BYTES + textLength * 2;
+    }
+
+    private record ChannelPageKey(String channelId, int limit) {}
+}
@@ -2,7 +2,11 @@ package com.slackgrab.data;
 
 import com.google.inject.Inject;
 import com.slackgrab.core.ErrorHandler;
+import com.slackgrab.data.model.InboxCursor;
+import com.slackgrab.data.model.InboxPage;
+import com.slackgrab.data.model.InboxQuery;
 import com.slackgrab.data.model.SlackMessage;
+import com.slackgrab.ml.model.ImportanceLevel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -12,77 +16,164 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Repository for Slack message persistence
  *
  * Provides CRUD operations for messages stored in SQLite database.
  * Handles message storage, retrieval, and importance score updates.
+ *
+ * Writes go to the hot messages table only. Reads also consult the
+ * archive (see TieringService) when the requested range reaches past the
+ * archive watermark, or when the hot table alone cannot satisfy them.
  */
 public class MessageRepository {
     private static final Logger logger = LoggerFactory.getLogger(MessageRepository.class);
 
+    // Retention deletes run in short transactions so ingest is never blocked for long
+    private static final int DELETE_CHUNK_SIZE = 500;
+    private static final long DELETE_CHUNK_PAUSE_MS = 20;
+
+    // Rows per transaction for bulk score write-back
+    private static final int SCORE_BATCH_SIZE = 500;
+
+    // Score writes, per tier (%s = messages or archive.messages): a message's
+    // first score returns its sender and time; re-scores return nothing
+    private static final String FIRST_SCORE_SQL = """
+        UPDATE %s
+        SET importance_score = ?, importance_level = ?, score_model_version = ?
+        WHERE id = ? AND importance_score IS NULL
+        RETURNING user_key, timestamp
+        """;
+
+    private static final String RESCORE_SQL = """
+        UPDATE %s
+        SET importance_score = ?, importance_level = ?, score_model_version = ?
+        WHERE id = ?
+        """;
+
+    // Inbox tiers: {table, inbox index, per-channel inbox index}
+    private static final String[] INBOX_HOT = {"messages", "idx_inbox", "idx_inbox_channel"};
+    private static final String[] INBOX_ARCHIVE = {"archive.messages", "idx_archive_inbox", "idx_archive_inbox_channel"};
+
+    // Beyond this many channels a filter scans idx_inbox instead of one range per
+    // channel (keeps the compound SELECT well under SQLite's term limit)
+    private static final int MAX_INBOX_CHANNEL_RANGES = 32;
+
+    private static final String[] SCORED_TABLES = {"messages", "archive.messages"};
+
     private final DatabaseManager databaseManager;
+    private final MessageCache messageCache;
+    private final IdDictionary idDictionary;
+    private final StatisticsRepository statisticsRepository;
+    private final CounterRepository counterRepository;
+    private final ActivitySketches activitySketches;
+    private final ThreadIndex threadIndex;
     private final ErrorHandler errorHandler;
 
     @Inject
-    public MessageRepository(DatabaseManager databaseManager, ErrorHandler errorHandler) {
+    public MessageRepository(
+        DatabaseManager databaseManager,
+        MessageCache messageCache,
+        IdDictionary idDictionary,
+        StatisticsRepository statisticsRepository,
+        CounterRepository counterRepository,
+        ActivitySketches activitySketches,
+        ThreadIndex threadIndex,
+        ErrorHandler errorHandler
+    ) {
         this.databaseManager = databaseManager;
+        this.messageCache = messageCache;
+        this.idDictionary = idDictionary;
+        this.statisticsRepository = statisticsRepository;
+        this.counterRepository = counterRepository;
+        this.activitySketches = activitySketches;
+        this.threadIndex = threadIndex;
         this.errorHandler = errorHandler;
     }
 
     /**
      * Save a message to database
      *
-     * If message already exists (same ID), it will be updated.
+     * If message already exists (same ID), it will be updated in whichever
+     * tier holds it; an archived message is never inserted into the hot
+     * table again. Text above the compression threshold is stored
+     * compressed (archived text always is).
      *
      * @param message Message to save
      * @return true if saved successfully
      */
     public boolean saveMessage(SlackMessage message) {
-        String sql = """
+        // A row comes back only if this call inserted it; hot or archived
+        // copies fall through to the updates
+        String insertSql = """
             INSERT INTO messages (
-                id, channel_id, user_id, text, timestamp, thread_ts,
+                id, channel_key, user_key, text, timestamp, thread_ts,
                 has_attachments, has_reactions, importance_score, importance_level, created_at
-            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-            ON CONFLICT(id) DO UPDATE SET
-                text = excluded.text,
-                has_attachments = excluded.has_attachments,
-                has_reactions = excluded.has_reactions,
-                importance_score = excluded.importance_score,
-                importance_level = excluded.importance_level
+            )
+            SELECT ?1, ?2, ?3, ?4, ?5, ?6, ?7, ?8, ?9, ?10, ?11
+            WHERE NOT EXISTS (SELECT 1 FROM archive.messages WHERE id = ?1)
+            ON CONFLICT(id) DO NOTHING
+            RETURNING id
             """;
 
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        String updateSql = """
+            UPDATE %s SET
+                text = ?,
+                has_attachments = ?,
+                has_reactions = ?,
+                importance_score = ?,
+                importance_level = ?,
+                score_model_version = NULL
+            WHERE id = ?
+            """;
 
-            stmt.setString(1, message.id());
-            stmt.setString(2, message.channelId());
-            stmt.setString(3, message.userId());
-            stmt.setString(4, message.text());
-            stmt.setString(5, message.timestamp());
-            stmt.setString(6, message.threadTs());
-            stmt.setBoolean(7, message.hasAttachments());
-            stmt.setBoolean(8, message.hasReactions());
-
-            if (message.importanceScore() != null) {
-                stmt.setDouble(9, message.importanceScore());
-            } else {
-                stmt.setNull(9, java.sql.Types.REAL);
-            }
+        try (Connection conn = databaseManager.getConnection()) {
+            // Long texts are stored deflated (see TextCodec)
+            Object storedText = TextCodec.encodeForStorage(message.text());
 
-            if (message.importanceLevel() != null) {
-                stmt.setString(10, message.importanceLevel());
-            } else {
-                stmt.setNull(10, java.sql.Types.VARCHAR);
+            boolean inserted;
+            try (PreparedStatement stmt = conn.prepareStatement(insertSql)) {
+                stmt.setString(1, message.id());
+                stmt.setInt(2, idDictionary.encode(message.channelId()));
+                stmt.setInt(3, idDictionary.encode(message.userId()));
+                setText(stmt, 4, storedText);
+                stmt.setString(5, message.timestamp());
+                stmt.setString(6, message.threadTs());
+                stmt.setBoolean(7, message.hasAttachments());
+                stmt.setBoolean(8, message.hasReactions());
+                setImportance(stmt, 9, message);
+                stmt.setLong(11, message.createdAt().toEpochMilli());
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    inserted = rs.next();
+                }
             }
 
-            stmt.setLong(11, message.createdAt().toEpochMilli());
+            boolean saved = inserted;
+            if (!inserted) {
+                saved = updateStored(conn, updateSql.formatted("messages"), storedText, message);
+            }
+            if (!saved) {
+                saved = updateStored(conn, updateSql.formatted("archive.messages"),
+                    TextCodec.compressValue(storedText), message);
+            }
 
-            int rows = stmt.executeUpdate();
-            return rows > 0;
+            messageCache.invalidate(message.id(), message.channelId());
+            statisticsRepository.markDirty(message.userId(), message.channelId());
+            counterRepository.markDirty();
+            if (inserted) {
+                recordActivity(message);
+            }
+            return saved;
 
         } catch (SQLException e) {
             errorHandler.handleError("Failed to save message: " + message.id(), e);
@@ -90,6 +181,66 @@ public class MessageRepository {
         }
     }
 
+    /**
+     * Overwrite the mutable columns of a stored message
+     *
+     * @return true if the message was found in the table
+     */
+    private static boolean updateStored(Connection conn, String sql, Object storedText, SlackMessage message)
+        throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            setText(stmt, 1, storedText);
+            stmt.setBoolean(2, message.hasAttachments());
+            stmt.setBoolean(3, message.hasReactions());
+            setImportance(stmt, 4, message);
+            stmt.setString(6, message.id());
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    private static void setText(PreparedStatement stmt, int index, Object storedText) throws SQLException {
+        if (storedText instanceof byte[] compressed) {
+            stmt.setBytes(index, compressed);
+        } else {
+            stmt.setString(index, (String) storedText);
+        }
+    }
+
+    /**
+     * Bind importance score and level to two consecutive parameters
+     */
+    private static void setImportance(PreparedStatement stmt, int index, SlackMessage message) throws SQLException {
+        if (message.importanceScore() != null) {
+            stmt.setDouble(index, message.importanceScore());
+        } else {
+            stmt.setNull(index, java.sql.Types.REAL);
+        }
+
+        if (message.importanceLevel() != null) {
+            stmt.setString(index + 1, message.importanceLevel());
+        } else {
+            stmt.setNull(index + 1, java.sql.Types.VARCHAR);
+        }
+    }
+
+    /**
+     * Feed a newly inserted message to the activity sketches and thread index
+     */
+    private void recordActivity(SlackMessage message) {
+        long timestampMillis;
+        try {
+            timestampMillis = (long) (Double.parseDouble(message.timestamp()) * 1000);
+        } catch (NumberFormatException | NullPointerException e) {
+            timestampMillis = message.createdAt().toEpochMilli();
+        }
+
+        activitySketches.recordMessage(message.userId(), message.channelId(), timestampMillis);
+        if (message.importanceScore() != null) {
+            activitySketches.recordImportance(message.userId(), message.importanceScore(), timestampMillis);
+        }
+        threadIndex.recordMessage(message);
+    }
+
     /**
      * Get a message by ID
      *
@@ -97,21 +248,44 @@ public class MessageRepository {
      * @return Message if found
      */
     public Optional<SlackMessage> getMessage(String messageId) {
+        Optional<SlackMessage> cached = messageCache.getMessage(messageId);
+        if (cached.isPresent()) {
+            return cached;
+        }
+
+        long generation = messageCache.generation();
         String sql = """
-            SELECT id, channel_id, user_id, text, timestamp, thread_ts,
+            SELECT id, channel_key, user_key, text, timestamp, thread_ts,
                    has_attachments, has_reactions, importance_score, importance_level, created_at
             FROM messages
             WHERE id = ?
             """;
 
+        boolean archived = databaseManager.getArchiveWatermark() > 0;
+        if (archived) {
+            sql += """
+                UNION ALL
+                SELECT id, channel_key, user_key, text, timestamp, thread_ts,
+                       has_attachments, has_reactions, importance_score, importance_level, created_at
+                FROM archive.messages
+                WHERE id = ?
+                LIMIT 1
+                """;
+        }
+
         try (Connection conn = databaseManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, messageId);
+            if (archived) {
+                stmt.setString(2, messageId);
+            }
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                return Optional.of(extractMessage(rs));
+                SlackMessage message = extractMessage(rs);
+                messageCache.putMessage(message, generation);
+                return Optional.of(message);
             }
 
             return Optional.empty();
@@ -130,21 +304,32 @@ public class MessageRepository {
      * @return List of messages
      */
     public List<SlackMessage> getChannelMessages(String channelId, int limit) {
+        Optional<List<SlackMessage>> cached = messageCache.getChannelPage(channelId, limit);
+        if (cached.isPresent()) {
+            return new ArrayList<>(cached.get());
+        }
+
+        List<SlackMessage> messages = new ArrayList<>();
+
+        OptionalInt channelKey = idDictionary.find(channelId);
+        if (channelKey.isEmpty()) {
+            return messages;
+        }
+
+        long generation = messageCache.generation();
         String sql = """
-            SELECT id, channel_id, user_id, text, timestamp, thread_ts,
+            SELECT id, channel_key, user_key, text, timestamp, thread_ts,
                    has_attachments, has_reactions, importance_score, importance_level, created_at
             FROM messages
-            WHERE channel_id = ?
+            WHERE channel_key = ?
             ORDER BY timestamp DESC
             LIMIT ?
             """;
 
-        List<SlackMessage> messages = new ArrayList<>();
-
         try (Connection conn = databaseManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setString(1, channelId);
+            stmt.setInt(1, channelKey.getAsInt());
             stmt.setInt(2, limit);
             ResultSet rs = stmt.executeQuery();
 
@@ -152,6 +337,12 @@ public class MessageRepository {
                 messages.add(extractMessage(rs));
             }
 
+            // Hot tier exhausted: continue into the archive
+            if (messages.size() < limit && databaseManager.getArchiveWatermark() > 0) {
+                messages.addAll(getArchivedChannelMessages(conn, channelKey.getAsInt(), limit - messages.size()));
+            }
+
+            messageCache.putChannelPage(channelId, limit, messages, generation);
             return messages;
 
         } catch (SQLException e) {
@@ -160,6 +351,35 @@ public class MessageRepository {
         }
     }
 
+    /**
+     * Read the newest archived messages of a channel
+     */
+    private List<SlackMessage> getArchivedChannelMessages(Connection conn, int channelKey, int limit)
+        throws SQLException {
+        String sql = """
+            SELECT id, channel_key, user_key, text, timestamp, thread_ts,
+                   has_attachments, has_reactions, importance_score, importance_level, created_at
+            FROM archive.messages
+            WHERE channel_key = ?
+            ORDER BY timestamp DESC
+            LIMIT ?
+            """;
+
+        List<SlackMessage> messages = new ArrayList<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, channelKey);
+            stmt.setInt(2, limit);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                messages.add(extractMessage(rs));
+            }
+        }
+
+        return messages;
+    }
+
     /**
      * Get timestamp of last message in a channel
      *
@@ -169,22 +389,34 @@ public class MessageRepository {
      * @return Timestamp of last message, if any
      */
     public Optional<String> getLastMessageTimestamp(String channelId) {
+        OptionalInt channelKey = idDictionary.find(channelId);
+        if (channelKey.isEmpty()) {
+            return Optional.empty();
+        }
+
         String sql = """
             SELECT timestamp
-            FROM messages
-            WHERE channel_id = ?
+            FROM %s.messages
+            WHERE channel_key = ?
             ORDER BY timestamp DESC
             LIMIT 1
             """;
 
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        // A channel that has gone quiet may only have archived messages
+        String[] schemas = databaseManager.getArchiveWatermark() > 0
+            ? new String[] {"main", DatabaseManager.ARCHIVE_SCHEMA}
+            : new String[] {"main"};
 
-            stmt.setString(1, channelId);
-            ResultSet rs = stmt.executeQuery();
+        try (Connection conn = databaseManager.getConnection()) {
+            for (String schema : schemas) {
+                try (PreparedStatement stmt = conn.prepareStatement(sql.formatted(schema))) {
+                    stmt.setInt(1, channelKey.getAsInt());
+                    ResultSet rs = stmt.executeQuery();
 
-            if (rs.next()) {
-                return Optional.of(rs.getString("timestamp"));
+                    if (rs.next()) {
+                        return Optional.of(rs.getString("timestamp"));
+                    }
+                }
             }
 
             return Optional.empty();
@@ -206,25 +438,162 @@ public class MessageRepository {
      * @return true if updated successfully
      */
     public boolean updateImportanceScore(String messageId, double score, String level) {
+        return updateImportanceScore(messageId, score, level, null);
+    }
+
+    /**
+     * Update importance score for a message, recording the model that produced it
+     *
+     * @param messageId Message ID
+     * @param score Importance score (0.0-1.0)
+     * @param level Importance level (HIGH/MEDIUM/LOW)
+     * @param modelVersion Model version that produced the score (null if unknown)
+     * @return true if updated successfully
+     */
+    public boolean updateImportanceScore(String messageId, double score, String level, String modelVersion) {
+        List<FirstScore> firstScores = new ArrayList<>(1);
+
+        try {
+            boolean updated = databaseManager.executeInTransaction(conn -> {
+                try (ScoreStatements statements = new ScoreStatements(conn)) {
+                    return statements.write(messageId, score, level, modelVersion, firstScores);
+                }
+            });
+
+            messageCache.invalidate(messageId);
+            statisticsRepository.markMessageDirty(messageId);
+            recordFirstScores(firstScores);
+            return updated;
+
+        } catch (SQLException e) {
+            errorHandler.handleError("Failed to update importance score: " + messageId, e);
+            return false;
+        }
+    }
+
+    /**
+     * Bulk update importance scores
+     *
+     * Used when re-scoring after a model update. Rows are written in
+     * chunked transactions that reuse the same prepared statements, so tens
+     * of thousands of scores cost a handful of commits rather than one per
+     * row (each row is still its own statement execution). The importance
+     * level is derived from each score. Archived messages are re-scored in
+     * place.
+     *
+     * The run stops at the first chunk that fails: that chunk is rolled
+     * back and the remaining scores are not written, so the caller can
+     * retry them (e.g. via {@link #getMessageIdsWithStaleScores}).
+     *
+     * @param scores Map of message ID to importance score (0.0-1.0)
+     * @param modelVersion Model version that produced the scores
+     * @return Number of messages updated in committed chunks
+     */
+    public int updateImportanceScores(Map<String, Double> scores, String modelVersion) {
+        if (scores.isEmpty()) {
+            return 0;
+        }
+
+        int updated = 0;
+        Iterator<Map.Entry<String, Double>> entries = scores.entrySet().iterator();
+
+        while (entries.hasNext()) {
+            // Messages scored for the first time, fed to the sketches once committed
+            List<FirstScore> firstScores = new ArrayList<>();
+
+            try {
+                updated += databaseManager.executeInTransaction(conn -> {
+                    int rows = 0;
+                    try (ScoreStatements statements = new ScoreStatements(conn)) {
+                        int batched = 0;
+                        while (entries.hasNext() && batched < SCORE_BATCH_SIZE) {
+                            Map.Entry<String, Double> entry = entries.next();
+                            double score = entry.getValue();
+                            batched++;
+
+                            if (statements.write(entry.getKey(), score,
+                                    ImportanceLevel.fromScore(score).name(), modelVersion, firstScores)) {
+                                rows++;
+                            }
+                        }
+                    }
+                    return rows;
+                });
+
+                recordFirstScores(firstScores);
+            } catch (SQLException e) {
+                errorHandler.handleError("Failed to write back importance scores; "
+                    + updated + " of " + scores.size() + " written before the failed chunk", e);
+                break;
+            }
+        }
+
+        messageCache.invalidateAll(scores.keySet());
+        statisticsRepository.markMessagesDirty(scores.keySet());
+
+        logger.debug("Updated {} of {} importance scores (model {})", updated, scores.size(), modelVersion);
+        return updated;
+    }
+
+    private void recordFirstScores(List<FirstScore> firstScores) {
+        for (FirstScore first : firstScores) {
+            activitySketches.recordImportance(idDictionary.decode(first.userKey()), first.score(), first.timestampMillis());
+        }
+    }
+
+    /**
+     * Get IDs of messages whose score was not produced by the given model
+     *
+     * Includes unscored messages and messages scored by an older or unknown
+     * model version in either tier, newest first. Used for partial
+     * re-scoring after a model update. Each arm of the filter is a range
+     * of the tier's score version index, so only stale rows are read and
+     * sorted.
+     *
+     * @param currentModelVersion Current model version (not null)
+     * @param limit Maximum number of IDs to return
+     * @return Message IDs needing a (re-)score
+     */
+    public List<String> getMessageIdsWithStaleScores(String currentModelVersion, int limit) {
         String sql = """
-            UPDATE messages
-            SET importance_score = ?, importance_level = ?
-            WHERE id = ?
+            SELECT id, timestamp
+            FROM messages INDEXED BY idx_messages_score_version
+            WHERE score_model_version IS NULL
+               OR score_model_version < ?1
+               OR score_model_version > ?1
             """;
 
+        if (databaseManager.getArchiveWatermark() > 0) {
+            sql += """
+                UNION ALL
+                SELECT id, timestamp
+                FROM archive.messages INDEXED BY idx_archive_score_version
+                WHERE score_model_version IS NULL
+                   OR score_model_version < ?1
+                   OR score_model_version > ?1
+                """;
+        }
+
+        sql += "ORDER BY timestamp DESC LIMIT ?2";
+
+        List<String> messageIds = new ArrayList<>();
+
         try (Connection conn = databaseManager.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setDouble(1, score);
-            stmt.setString(2, level);
-            stmt.setString(3, messageId);
+            stmt.setString(1, currentModelVersion);
+            stmt.setInt(2, limit);
+            ResultSet rs = stmt.executeQuery();
 
-            int rows = stmt.executeUpdate();
-            return rows > 0;
+            while (rs.next()) {
+                messageIds.add(rs.getString("id"));
+            }
+
+            return messageIds;
 
         } catch (SQLException e) {
-            errorHandler.handleError("Failed to update importance score: " + messageId, e);
-            return false;
+            errorHandler.handleError("Failed to get messages with stale scores", e);
+            return messageIds;
         }
     }
 
@@ -237,7 +606,7 @@ public class MessageRepository {
      */
     public List<SlackMessage> getMessagesByImportance(String level, int limit) {
         String sql = """
-            SELECT id, channel_id, user_id, text, timestamp, thread_ts,
+            SELECT id, channel_key, user_key, text, timestamp, thread_ts,
                    has_attachments, has_reactions, importance_score, importance_level, created_at
             FROM messages
             WHERE importance_level = ?
@@ -267,27 +636,145 @@ public class MessageRepository {
     }
 
     /**
-     * Get total message count
+     * Get a page of the important-message inbox
      *
-     * @return Total number of messages in database
+     * Uses keyset pagination on (importance_score, timestamp, id) backed by
+     * the idx_inbox partial index, so every page costs the same regardless
+     * of how deep the caller has scrolled. Pass the returned cursor back via
+     * {@link InboxQuery#withCursor(InboxCursor)} to fetch the next page.
+     * A channel filter reads one range of idx_inbox_channel per channel
+     * instead of skipping other channels' rows; very wide filters fall back
+     * to idx_inbox. When the time range reaches into the archive, the
+     * archive's ranges are read too. All ranges come back in index order
+     * and are merged by SQLite.
+     *
+     * @param query Inbox query (filters, cursor, page size)
+     * @return Page of messages, with a cursor if more rows are available
      */
-    public int getTotalMessageCount() {
-        String sql = "SELECT COUNT(*) as count FROM messages";
+    public InboxPage getInbox(InboxQuery query) {
+        StringBuilder where = new StringBuilder("importance_score IS NOT NULL");
+        List<Object> params = new ArrayList<>();
+
+        if (query.after() != null) {
+            where.append(" AND (importance_score, timestamp, id) < (?, ?, ?)");
+            params.add(query.after().importanceScore());
+            params.add(query.after().timestamp());
+            params.add(query.after().messageId());
+        }
+
+        if (query.minScore() != null) {
+            where.append(" AND importance_score >= ?");
+            params.add(query.minScore());
+        }
+
+        if (query.since() != null) {
+            where.append(" AND timestamp >= ?");
+            params.add(toSlackSeconds(query.since()));
+        }
+
+        if (query.until() != null) {
+            where.append(" AND timestamp < ?");
+            params.add(toSlackSeconds(query.until()));
+        }
+
+        // One index range per channel, or null to read the whole inbox index
+        List<Integer> channelKeys = null;
+
+        if (!query.channelIds().isEmpty()) {
+            channelKeys = new ArrayList<>();
+            for (String channelId : query.channelIds()) {
+                idDictionary.find(channelId).ifPresent(channelKeys::add);
+            }
+
+            // None of the channels has stored messages
+            if (channelKeys.isEmpty()) {
+                return InboxPage.empty();
+            }
+
+            if (channelKeys.size() > MAX_INBOX_CHANNEL_RANGES) {
+                where.append(" AND channel_key IN (")
+                    .append(String.join(", ", Collections.nCopies(channelKeys.size(), "?")))
+                    .append(")");
+                params.addAll(channelKeys);
+                channelKeys = null;
+            }
+        }
+
+        String[][] tiers = needsArchive(query.since())
+            ? new String[][] {INBOX_HOT, INBOX_ARCHIVE}
+            : new String[][] {INBOX_HOT};
+
+        StringBuilder sql = new StringBuilder();
+        List<Object> allParams = new ArrayList<>();
+
+        for (String[] tier : tiers) {
+            if (channelKeys == null) {
+                appendInboxRange(sql, tier[0], tier[1], where);
+                allParams.addAll(params);
+            } else {
+                for (int channelKey : channelKeys) {
+                    appendInboxRange(sql, tier[0], tier[2], where + " AND channel_key = ?");
+                    allParams.addAll(params);
+                    allParams.add(channelKey);
+                }
+            }
+        }
+
+        sql.append(" ORDER BY importance_score DESC, timestamp DESC, id DESC LIMIT ?");
+        allParams.add(query.limit());
 
         try (Connection conn = databaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            for (int i = 0; i < allParams.size(); i++) {
+                stmt.setObject(i + 1, allParams.get(i));
+            }
 
             ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt("count");
+
+            List<SlackMessage> messages = new ArrayList<>(query.limit());
+            InboxCursor last = null;
+
+            while (rs.next()) {
+                messages.add(extractMessage(rs));
+                last = new InboxCursor(
+                    rs.getDouble("importance_score"),
+                    rs.getDouble("timestamp"),
+                    rs.getString("id")
+                );
             }
 
-            return 0;
+            // A short page means we reached the end
+            InboxCursor next = messages.size() == query.limit() ? last : null;
+            return new InboxPage(messages, next);
 
         } catch (SQLException e) {
-            errorHandler.handleError("Failed to get total message count", e);
-            return 0;
+            errorHandler.handleError("Failed to get inbox page", e);
+            return InboxPage.empty();
+        }
+    }
+
+    private static void appendInboxRange(StringBuilder sql, String table, String index, CharSequence where) {
+        if (!sql.isEmpty()) {
+            sql.append(" UNION ALL ");
         }
+        sql.append("""
+            SELECT id, channel_key, user_key, text, timestamp, thread_ts,
+                   has_attachments, has_reactions, importance_score, importance_level, created_at
+            FROM %s INDEXED BY %s
+            WHERE\s""".formatted(table, index)).append(where);
+    }
+
+    /**
+     * Get total message count
+     *
+     * Served from the counters table (constant time at any database size).
+     *
+     * @return Total number of messages in database (hot and archived)
+     */
+    public int getTotalMessageCount() {
+        return (int) (counterRepository.get(CounterRepository.MESSAGES)
+            + counterRepository.get(CounterRepository.ARCHIVED_MESSAGES));
     }
 
     /**
@@ -299,53 +786,243 @@ public class MessageRepository {
      * @return Number of messages deleted
      */
     public int deleteOldMessages(int days) {
-        String sql = """
-            DELETE FROM messages
-            WHERE created_at < ?
-            """;
-
         long cutoffTime = Instant.now()
             .minus(days, java.time.temporal.ChronoUnit.DAYS)
             .toEpochMilli();
 
-        try (Connection conn = databaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        // Tiers are deleted independently; a failure in one keeps what the other deleted
+        int rows = 0;
+        boolean failed = false;
 
-            stmt.setLong(1, cutoffTime);
-            int rows = stmt.executeUpdate();
+        try {
+            rows += databaseManager.deleteInChunks(
+                "messages", "created_at", cutoffTime, DELETE_CHUNK_SIZE, DELETE_CHUNK_PAUSE_MS);
+        } catch (SQLException e) {
+            failed = true;
+            errorHandler.handleError("Failed to delete old messages", e);
+        }
 
-            logger.info("Deleted {} old messages (older than {} days)", rows, days);
-            return rows;
+        try {
+            int archived = databaseManager.deleteInChunks(
+                "archive.messages", "created_at", cutoffTime, DELETE_CHUNK_SIZE, DELETE_CHUNK_PAUSE_MS);
+            if (archived > 0) {
+                rows += archived;
+                databaseManager.recountArchivedMessages();
+            }
+        } catch (SQLException e) {
+            failed = true;
+            errorHandler.handleError("Failed to delete old archived messages", e);
+        }
+
+        // A failed tier may still have committed earlier chunks
+        if (rows > 0 || failed) {
+            messageCache.invalidateAll();
+            statisticsRepository.markAllDirty();
+            counterRepository.markDirty();
+        }
+
+        logger.info("Deleted {} old messages (older than {} days)", rows, days);
+        return rows;
+    }
+
+    /**
+     * Stream messages in a time range, oldest first
+     *
+     * Rows are mapped lazily, so full-history passes (training, export) run
+     * in constant memory. The returned stream holds a pooled connection and
+     * MUST be closed, e.g. with try-with-resources.
+     *
+     * @param since Inclusive lower bound on message time (null = unbounded)
+     * @param until Exclusive upper bound on message time (null = unbounded)
+     * @param fetchSize Rows fetched per round trip
+     * @return Stream of messages
+     * @throws RowReadException From the stream's terminal operation if a row cannot be read
+     */
+    public Stream<SlackMessage> streamMessages(Instant since, Instant until, int fetchSize) {
+        String sql = """
+            SELECT id, channel_key, user_key, text, timestamp, thread_ts,
+                   has_attachments, has_reactions, importance_score, importance_level, created_at
+            FROM messages
+            WHERE timestamp >= ?1 AND timestamp < ?2
+            """;
+
+        if (needsArchive(since)) {
+            sql += """
+                UNION ALL
+                SELECT id, channel_key, user_key, text, timestamp, thread_ts,
+                       has_attachments, has_reactions, importance_score, importance_level, created_at
+                FROM archive.messages
+                WHERE timestamp >= ?1 AND timestamp < ?2
+                """;
+        }
+
+        sql += "ORDER BY timestamp";
+
+        try {
+            return ResultSetStreams.stream(databaseManager, sql, stmt -> {
+                stmt.setDouble(1, since != null ? toSlackSeconds(since) : 0.0);
+                stmt.setDouble(2, until != null ? toSlackSeconds(until) : Double.MAX_VALUE);
+            }, fetchSize, this::extractMessage);
 
         } catch (SQLException e) {
-            errorHandler.handleError("Failed to delete old messages", e);
-            return 0;
+            errorHandler.handleError("Failed to stream messages", e);
+            return Stream.empty();
+        }
+    }
+
+    /**
+     * Visit messages in a time range, oldest first
+     *
+     * Visitor-style counterpart of {@link #streamMessages}; the connection is
+     * always released before this method returns.
+     *
+     * @param since Inclusive lower bound on message time (null = unbounded)
+     * @param until Exclusive upper bound on message time (null = unbounded)
+     * @param fetchSize Rows fetched per round trip
+     * @param visitor Called once per message
+     * @return Number of messages visited
+     */
+    public int forEachMessage(Instant since, Instant until, int fetchSize, Consumer<SlackMessage> visitor) {
+        int count = 0;
+
+        try (Stream<SlackMessage> messages = streamMessages(since, until, fetchSize)) {
+            Iterator<SlackMessage> iterator = messages.iterator();
+            while (iterator.hasNext()) {
+                visitor.accept(iterator.next());
+                count++;
+            }
+        } catch (RowReadException e) {
+            errorHandler.handleError("Failed while streaming messages", e);
         }
+
+        return count;
+    }
+
+    /**
+     * Get message cache statistics for monitoring
+     *
+     * @return String with cache hit/miss statistics
+     */
+    public String getCacheStats() {
+        return messageCache.getCacheStats();
+    }
+
+    /**
+     * Check whether a time range starting at {@code since} reaches into the archive
+     */
+    private boolean needsArchive(Instant since) {
+        double watermark = databaseManager.getArchiveWatermark();
+        return watermark > 0 && (since == null || toSlackSeconds(since) <= watermark);
+    }
+
+    /**
+     * Convert an Instant to Slack timestamp seconds (as stored in the timestamp column)
+     */
+    private static double toSlackSeconds(Instant instant) {
+        return instant.getEpochSecond() + instant.getNano() / 1_000_000_000.0;
     }
 
     /**
      * Extract SlackMessage from ResultSet
+     *
+     * Reads columns by position (no per-row label lookups). Every message
+     * query selects: id, channel_key, user_key, text, timestamp, thread_ts,
+     * has_attachments, has_reactions, importance_score, importance_level, created_at
+     *
+     * Channel and user keys are decoded through the in-memory IdDictionary.
+     *
+     * The text column holds raw TEXT or a compressed BLOB (long texts and
+     * archived rows); both decode to the original string.
      */
     private SlackMessage extractMessage(ResultSet rs) throws SQLException {
-        Double importanceScore = rs.getDouble("importance_score");
+        Double importanceScore = rs.getDouble(9);
         if (rs.wasNull()) {
             importanceScore = null;
         }
 
-        String importanceLevel = rs.getString("importance_level");
-
         return new SlackMessage(
-            rs.getString("id"),
-            rs.getString("channel_id"),
-            rs.getString("user_id"),
-            rs.getString("text"),
-            rs.getString("timestamp"),
-            rs.getString("thread_ts"),
-            rs.getBoolean("has_attachments"),
-            rs.getBoolean("has_reactions"),
+            rs.getString(1),
+            idDictionary.decode(rs.getInt(2)),
+            idDictionary.decode(rs.getInt(3)),
+            TextCodec.decodeValue(rs.getObject(4)),
+            rs.getString(5),
+            rs.getString(6),
+            rs.getBoolean(7),
+            rs.getBoolean(8),
             importanceScore,
-            importanceLevel,
-            Instant.ofEpochMilli(rs.getLong("created_at"))
+            rs.getString(10),
+            Instant.ofEpochMilli(rs.getLong(11))
         );
     }
+
+    /**
+     * Sender and message time of a message scored for the first time
+     */
+    /**
+     * First-score and re-score statements for both tiers, prepared once per transaction
+     */
+    private static final class ScoreStatements implements AutoCloseable {
+        private final List<PreparedStatement[]> tiers = new ArrayList<>(SCORED_TABLES.length);
+
+        ScoreStatements(Connection conn) throws SQLException {
+            try {
+                for (String table : SCORED_TABLES) {
+                    tiers.add(new PreparedStatement[] {
+                        conn.prepareStatement(FIRST_SCORE_SQL.formatted(table)),
+                        conn.prepareStatement(RESCORE_SQL.formatted(table))
+                    });
+                }
+            } catch (SQLException e) {
+                close();
+                throw e;
+            }
+        }
+
+        /**
+         * Write one score to whichever tier holds the message
+         *
+         * The hot table is tried first. Within a tier the first-scoring
+         * statement runs before the re-score: only a message's first score
+         * is an importance observation for its sender (recorded at the
+         * message's own time, as a sketch rebuild does); re-scores replace
+         * the stored value without adding another.
+         *
+         * @return true if the message exists
+         */
+        boolean write(String messageId, double score, String level, String modelVersion,
+                      List<FirstScore> firstScores) throws SQLException {
+            for (PreparedStatement[] tier : tiers) {
+                for (PreparedStatement stmt : tier) {
+                    stmt.setDouble(1, score);
+                    stmt.setString(2, level);
+                    stmt.setString(3, modelVersion);
+                    stmt.setString(4, messageId);
+                }
+
+                try (ResultSet rs = tier[0].executeQuery()) {
+                    if (rs.next()) {
+                        firstScores.add(new FirstScore(rs.getInt(1), score, (long) (rs.getDouble(2) * 1000)));
+                        return true;
+                    }
+                }
+
+                if (tier[1].executeUpdate() > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            for (PreparedStatement[] tier : tiers) {
+                for (PreparedStatement stmt : tier) {
+                    stmt.close();
+                }
+            }
+        }
+    }
+
+    private record FirstScore(int userKey, double score, long timestampMillis) {
+    }
 }
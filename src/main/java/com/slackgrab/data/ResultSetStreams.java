@@ -0,0 +1,111 @@
+package com.slackgrab.data;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily mapped result streams for large repository reads
+ *
+ * Rows are mapped one at a time as the stream is consumed, so a pass over
+ * the full history runs in constant memory. The connection, statement and
+ * result set stay open until the stream is closed; callers MUST use
+ * try-with-resources on the returned stream. SQL errors while consuming
+ * it surface as {@link RowReadException}.
+ */
+final class ResultSetStreams {
+
+    public static final int DEFAULT_FETCH_SIZE = 500;
+
+    private ResultSetStreams() {
+    }
+
+    /**
+     * Maps the current row of a result set
+     */
+    @FunctionalInterface
+    interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Binds query parameters
+     */
+    @FunctionalInterface
+    interface ParameterBinder {
+        void bind(PreparedStatement stmt) throws SQLException;
+    }
+
+    /**
+     * Open a lazily mapped stream over a query
+     *
+     * @param databaseManager Source of pooled connections
+     * @param sql Query to run
+     * @param binder Parameter binder
+     * @param fetchSize Rows fetched per round trip (driver hint)
+     * @param mapper Row mapper
+     * @return Stream that releases its connection when closed
+     * @throws SQLException If the query cannot be started
+     */
+    static <T> Stream<T> stream(
+        DatabaseManager databaseManager,
+        String sql,
+        ParameterBinder binder,
+        int fetchSize,
+        RowMapper<T> mapper
+    ) throws SQLException {
+        Connection conn = databaseManager.getConnection();
+        PreparedStatement stmt = null;
+        ResultSet rs;
+
+        try {
+            stmt = conn.prepareStatement(sql);
+            stmt.setFetchSize(fetchSize > 0 ? fetchSize : DEFAULT_FETCH_SIZE);
+            binder.bind(stmt);
+            rs = stmt.executeQuery();
+        } catch (SQLException | RuntimeException e) {
+            closeQuietly(stmt, conn);
+            throw e;
+        }
+
+        PreparedStatement openStmt = stmt;
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<>(
+            Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.map(rs));
+                    return true;
+                } catch (SQLException e) {
+                    throw new RowReadException(e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false)
+            .onClose(() -> closeQuietly(rs, openStmt, conn));
+    }
+
+    private static void closeQuietly(AutoCloseable... resources) {
+        for (AutoCloseable resource : resources) {
+            if (resource == null) {
+                continue;
+            }
+            try {
+                resource.close();
+            } catch (Exception ignored) {
+                // Closing is best effort; the pool validates connections on checkout
+            }
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.slackgrab.data;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.slackgrab.core.ConfigurationManager;
+import com.slackgrab.core.ErrorHandler;
+import com.slackgrab.core.ManagedService;
+import com.slackgrab.data.model.RetentionReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background retention and compaction
+ *
+ * Once a day, removes messages (hot and archived) with their stored
+ * features, interactions and feedback older than the configured history
+ * window, then returns the freed pages of both database files to the file
+ * system:
+ * - Deletes run in small chunks (see DatabaseManager.deleteInChunks), so
+ *   message ingest can interleave instead of waiting on one huge DELETE
+ * - Space is reclaimed with paced incremental_vacuum steps rather than a
+ *   full VACUUM, which would lock and rewrite the whole file
+ */
+@Singleton
+public class RetentionService implements ManagedService {
+    private static final Logger logger = LoggerFactory.getLogger(RetentionService.class);
+
+    private static final long INITIAL_DELAY_MINUTES = 10;
+    private static final long RUN_INTERVAL_HOURS = 24;
+    private static final int VACUUM_PAGES_PER_STEP = 256;   // 1MB with 4KB pages
+    private static final long VACUUM_STEP_PAUSE_MS = 50;
+    private static final String[] SCHEMAS = {"main", DatabaseManager.ARCHIVE_SCHEMA};
+
+    private final ConfigurationManager configurationManager;
+    private final DatabaseManager databaseManager;
+    private final MessageRepository messageRepository;
+    private final FeatureRepository featureRepository;
+    private final InteractionRepository interactionRepository;
+    private final FeedbackRepository feedbackRepository;
+    private final ErrorHandler errorHandler;
+
+    private ScheduledExecutorService scheduler;
+    private volatile RetentionReport lastReport;
+
+    @Inject
+    public RetentionService(
+            ConfigurationManager configurationManager,
+            DatabaseManager databaseManager,
+            MessageRepository messageRepository,
+            FeatureRepository featureRepository,
+            InteractionRepository interactionRepository,
+            FeedbackRepository feedbackRepository,
+            ErrorHandler errorHandler) {
+        this.configurationManager = configurationManager;
+        this.databaseManager = databaseManager;
+        this.messageRepository = messageRepository;
+        this.featureRepository = featureRepository;
+        this.interactionRepository = interactionRepository;
+        this.feedbackRepository = feedbackRepository;
+        this.errorHandler = errorHandler;
+    }
+
+    @Override
+    public void start() throws Exception {
+        logger.info("Starting retention service...");
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r);
+            t.setName("Retention");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+
+        scheduler.scheduleWithFixedDelay(
+            this::runSafely,
+            TimeUnit.MINUTES.toMillis(INITIAL_DELAY_MINUTES),
+            TimeUnit.HOURS.toMillis(RUN_INTERVAL_HOURS),
+            TimeUnit.MILLISECONDS
+        );
+
+        logger.info("Retention service started. Keeping {} days of history",
+            configurationManager.getHistoricalDataDays());
+    }
+
+    @Override
+    public void stop() throws Exception {
+        logger.info("Stopping retention service...");
+
+        if (scheduler != null) {
+            // Interrupt an in-flight run; chunked deletes stop between chunks
+            scheduler.shutdownNow();
+            try {
+                scheduler.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        logger.info("Retention service stopped");
+    }
+
+    /**
+     * Run retention and compaction now
+     *
+     * @return Report of rows deleted and space reclaimed
+     */
+    public synchronized RetentionReport runRetention() {
+        Instant start = Instant.now();
+        int days = configurationManager.getHistoricalDataDays();
+
+        logger.info("Running retention for data older than {} days...", days);
+
+        // Interactions and feedback first: the statistics triggers resolve their
+        // sender and channel through the message row, which must still exist
+        int interactions = interactionRepository.deleteOldInteractions(days);
+        int feedback = feedbackRepository.deleteOldFeedback(days);
+        int messages = messageRepository.deleteOldMessages(days);
+        featureRepository.deleteOrphanedFeatures();
+
+        long pages = 0;
+        long bytes = 0;
+        for (String schema : SCHEMAS) {
+            long reclaimed = reclaimFreePages(schema);
+            pages += reclaimed;
+            bytes += reclaimed * getPageSize(schema);
+        }
+
+        RetentionReport report = new RetentionReport(
+            Instant.now(), messages, interactions, feedback,
+            pages, bytes, Duration.between(start, Instant.now()));
+        lastReport = report;
+
+        logger.info("Retention complete: {} rows deleted, {} KB reclaimed in {} ms",
+            report.totalRowsDeleted(), bytes / 1024, report.duration().toMillis());
+
+        return report;
+    }
+
+    /**
+     * Get the report of the most recent run, if any
+     */
+    public Optional<RetentionReport> getLastReport() {
+        return Optional.ofNullable(lastReport);
+    }
+
+    /**
+     * Scheduler entry point; never lets an exception cancel the schedule
+     */
+    private void runSafely() {
+        try {
+            runRetention();
+        } catch (Exception e) {
+            errorHandler.handleError("Retention run failed", e);
+        }
+    }
+
+    /**
+     * Release free pages of one database file in paced steps
+     *
+     * @param schema Database schema name (main or archive)
+     * @return Number of pages returned to the file system
+     */
+    private long reclaimFreePages(String schema) {
+        long before = getFreelistCount(schema);
+        long remaining = before;
+
+        try (Connection conn = databaseManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            while (remaining > 0 && !Thread.currentThread().isInterrupted()) {
+                // incremental_vacuum frees one page per step of the statement.
+                // execute() steps once; executeUpdate(String) goes through
+                // sqlite3_exec, which runs it to completion.
+                stmt.executeUpdate("PRAGMA " + schema + ".incremental_vacuum(" + VACUUM_PAGES_PER_STEP + ")");
+
+                long now = queryLong(stmt, "PRAGMA " + schema + ".freelist_count");
+                if (now >= remaining) {
+                    break;   // No progress (auto_vacuum not incremental)
+                }
+                remaining = now;
+
+                if (remaining > 0) {
+                    Thread.sleep(VACUUM_STEP_PAUSE_MS);
+                }
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (SQLException e) {
+            errorHandler.handleError("Incremental vacuum failed: " + schema, e);
+        }
+
+        return before - remaining;
+    }
+
+    private long getFreelistCount(String schema) {
+        try (Connection conn = databaseManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            return queryLong(stmt, "PRAGMA " + schema + ".freelist_count");
+        } catch (SQLException e) {
+            errorHandler.handleError("Failed to read freelist count", e);
+            return 0;
+        }
+    }
+
+    private long getPageSize(String schema) {
+        try (Connection conn = databaseManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            return queryLong(stmt, "PRAGMA " + schema + ".page_size");
+        } catch (SQLException e) {
+            errorHandler.handleError("Failed to read page size", e);
+            return 0;
+        }
+    }
+
+    private static long queryLong(Statement stmt, String sql) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.slackgrab.data;
+
+import java.sql.SQLException;
+
+/**
+ * Unchecked wrapper for SQL errors raised while a repository stream is consumed
+ *
+ * Thrown from the terminal operation of streams returned by the
+ * repositories' stream methods (e.g. MessageRepository.streamMessages),
+ * where a checked SQLException cannot propagate.
+ */
+public class RowReadException extends RuntimeException {
+
+    public RowReadException(SQLException cause) {
+        super("Failed to read row", cause);
+    }
+
+    @Override
+    public SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
@@ -0,0 +1,338 @@
+package com.slackgrab.data;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.slackgrab.core.ConfigurationManager;
+import com.slackgrab.core.ErrorHandler;
+import com.slackgrab.core.ManagedService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Online database snapshots and restore
+ *
+ * Copying slackgrab.db while WAL writes are in flight is unsafe, so
+ * snapshots are written by SQLite itself with VACUUM INTO. That runs as
+ * an ordinary read transaction: in WAL mode writers keep committing while
+ * it copies, and the output is a compact, consistent database file.
+ * (The online backup API is not used because it restarts whenever another
+ * pooled connection writes, so under steady ingest it may never finish.)
+ *
+ * A snapshot is a directory under database/snapshots holding both files.
+ * Each file is its own step with a pause in between; main is copied
+ * before the archive so a message tiered in between ends up in both
+ * snapshot files (the next tiering run deduplicates it) rather than in
+ * neither. The directory is only given its final name once complete.
+ *
+ * Restoring replaces the live files and therefore happens before the
+ * connection pool opens: either from the command line or by scheduling
+ * a restore for the next start.
+ */
+@Singleton
+public class SnapshotService implements ManagedService {
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotService.class);
+
+    private static final String SNAPSHOTS_DIRECTORY = "snapshots";
+    private static final String PARTIAL_SUFFIX = ".partial";
+    private static final String RESTORE_MARKER = "restore.pending";
+    private static final String[] DATABASE_FILES = {
+        DatabaseManager.DATABASE_FILE_NAME, DatabaseManager.ARCHIVE_FILE_NAME
+    };
+    private static final String[] SIDECAR_SUFFIXES = {"-wal", "-shm", "-journal"};
+    private static final DateTimeFormatter SNAPSHOT_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static final long INITIAL_DELAY_MINUTES = 30;
+    private static final long RUN_INTERVAL_HOURS = 24;
+    private static final long STEP_PAUSE_MS = 500;
+    private static final int SNAPSHOTS_TO_KEEP = 3;
+
+    private final ConfigurationManager configurationManager;
+    private final DatabaseManager databaseManager;
+    private final ErrorHandler errorHandler;
+
+    private ScheduledExecutorService scheduler;
+
+    @Inject
+    public SnapshotService(
+            ConfigurationManager configurationManager,
+            DatabaseManager databaseManager,
+            ErrorHandler errorHandler) {
+        this.configurationManager = configurationManager;
+        this.databaseManager = databaseManager;
+        this.errorHandler = errorHandler;
+    }
+
+    @Override
+    public void start() throws Exception {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r);
+            t.setName("Snapshot");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+
+        scheduler.scheduleWithFixedDelay(
+            this::runSafely,
+            TimeUnit.MINUTES.toMillis(INITIAL_DELAY_MINUTES),
+            TimeUnit.HOURS.toMillis(RUN_INTERVAL_HOURS),
+            TimeUnit.MILLISECONDS
+        );
+
+        logger.info("Snapshot service started. Keeping {} snapshots", SNAPSHOTS_TO_KEEP);
+    }
+
+    @Override
+    public void stop() throws Exception {
+        if (scheduler != null) {
+            // Interrupt an in-flight run; the partial directory is discarded
+            scheduler.shutdownNow();
+            try {
+                scheduler.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Write a consistent snapshot of both database files now
+     *
+     * @return Snapshot directory, or null if the snapshot failed
+     */
+    public synchronized Path createSnapshot() {
+        Path snapshotsRoot = getSnapshotsPath();
+        String name = LocalDateTime.now().format(SNAPSHOT_NAME);
+        Path partial = snapshotsRoot.resolve(name + PARTIAL_SUFFIX);
+        Path target = snapshotsRoot.resolve(name);
+        long start = System.currentTimeMillis();
+
+        try {
+            deleteQuietly(partial);   // Left over from an interrupted run
+            Files.createDirectories(partial);
+
+            String[] schemas = {"main", DatabaseManager.ARCHIVE_SCHEMA};
+            for (int i = 0; i < schemas.length; i++) {
+                if (i > 0) {
+                    Thread.sleep(STEP_PAUSE_MS);
+                }
+                vacuumInto(schemas[i], partial.resolve(DATABASE_FILES[i]));
+            }
+
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            pruneSnapshots(snapshotsRoot);
+
+            logger.info("Database snapshot written to {} in {} ms ({} KB)",
+                target, System.currentTimeMillis() - start, directorySize(target) / 1024);
+            return target;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            deleteQuietly(partial);
+            logger.info("Snapshot interrupted");
+            return null;
+        } catch (SQLException | IOException e) {
+            deleteQuietly(partial);
+            errorHandler.handleError("Failed to write database snapshot", e);
+            return null;
+        }
+    }
+
+    /**
+     * List completed snapshots, newest first
+     */
+    public List<Path> listSnapshots() {
+        try {
+            return listSnapshots(getSnapshotsPath());
+        } catch (IOException e) {
+            errorHandler.handleError("Failed to list database snapshots", e);
+            return List.of();
+        }
+    }
+
+    /**
+     * Restore a snapshot the next time the application starts
+     *
+     * @param snapshot Snapshot directory
+     * @return true if the restore was scheduled
+     */
+    public boolean restoreOnNextStart(Path snapshot) {
+        try {
+            validateSnapshot(snapshot);
+            Files.writeString(
+                configurationManager.getDatabasePath().resolve(RESTORE_MARKER),
+                snapshot.toAbsolutePath().toString(),
+                StandardCharsets.UTF_8);
+
+            logger.info("Snapshot {} will be restored on next start", snapshot);
+            return true;
+
+        } catch (IOException e) {
+            errorHandler.handleError("Failed to schedule snapshot restore: " + snapshot, e);
+            return false;
+        }
+    }
+
+    /**
+     * Apply a restore scheduled with {@link #restoreOnNextStart(Path)}
+     *
+     * Must run before any connection to the database directory is open.
+     * The marker is removed even if the restore fails, so a bad snapshot
+     * cannot block every later start.
+     *
+     * @param databaseDirectory Live database directory
+     * @return true if a snapshot was restored
+     * @throws IOException If the scheduled restore could not be applied
+     */
+    public static boolean applyPendingRestore(Path databaseDirectory) throws IOException {
+        Path marker = databaseDirectory.resolve(RESTORE_MARKER);
+        if (!Files.exists(marker)) {
+            return false;
+        }
+
+        try {
+            Path snapshot = Path.of(Files.readString(marker, StandardCharsets.UTF_8).trim());
+            restoreInto(snapshot, databaseDirectory);
+            return true;
+        } finally {
+            Files.deleteIfExists(marker);
+        }
+    }
+
+    /**
+     * Copy a snapshot's files into a database directory
+     *
+     * Stale WAL and shared-memory files are removed first: replaying an old
+     * WAL against the restored file would corrupt it. Also serves as a
+     * warm-start fixture, seeding a scratch directory (tests, benchmarks)
+     * with a realistic database instead of re-ingesting messages.
+     *
+     * @param snapshot Snapshot directory
+     * @param databaseDirectory Target database directory (no open connections)
+     * @throws IOException If the snapshot is incomplete or a copy fails
+     */
+    public static void restoreInto(Path snapshot, Path databaseDirectory) throws IOException {
+        validateSnapshot(snapshot);
+        Files.createDirectories(databaseDirectory);
+
+        for (String fileName : DATABASE_FILES) {
+            Path source = snapshot.resolve(fileName);
+            Path target = databaseDirectory.resolve(fileName);
+
+            for (String suffix : SIDECAR_SUFFIXES) {
+                Files.deleteIfExists(databaseDirectory.resolve(fileName + suffix));
+            }
+
+            if (!Files.exists(source)) {
+                // Snapshot predates the archive: start with an empty one
+                Files.deleteIfExists(target);
+                continue;
+            }
+
+            Path staging = databaseDirectory.resolve(fileName + ".restoring");
+            Files.copy(source, staging, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(staging, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        // Sketches describe the replaced database; they are rebuilt on next start
+        Files.deleteIfExists(databaseDirectory.resolve(ActivitySketches.SNAPSHOT_FILE_NAME));
+
+        logger.info("Restored database snapshot {} into {}", snapshot, databaseDirectory);
+    }
+
+    private static void validateSnapshot(Path snapshot) throws IOException {
+        if (!Files.isRegularFile(snapshot.resolve(DatabaseManager.DATABASE_FILE_NAME))) {
+            throw new IOException("Not a database snapshot: " + snapshot);
+        }
+    }
+
+    /**
+     * Scheduler entry point; never lets an exception cancel the schedule
+     */
+    private void runSafely() {
+        try {
+            createSnapshot();
+        } catch (Exception e) {
+            errorHandler.handleError("Snapshot run failed", e);
+        }
+    }
+
+    private void vacuumInto(String schema, Path file) throws SQLException {
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("VACUUM " + schema + " INTO ?")) {
+            stmt.setString(1, file.toAbsolutePath().toString());
+            stmt.execute();
+        }
+    }
+
+    private Path getSnapshotsPath() {
+        return configurationManager.getDatabasePath().resolve(SNAPSHOTS_DIRECTORY);
+    }
+
+    private static List<Path> listSnapshots(Path snapshotsRoot) throws IOException {
+        if (!Files.isDirectory(snapshotsRoot)) {
+            return List.of();
+        }
+
+        try (Stream<Path> entries = Files.list(snapshotsRoot)) {
+            // Names are timestamps, so name order is age order
+            return entries
+                .filter(Files::isDirectory)
+                .filter(p -> !p.getFileName().toString().endsWith(PARTIAL_SUFFIX))
+                .sorted(Comparator.comparing((Path p) -> p.getFileName().toString()).reversed())
+                .toList();
+        }
+    }
+
+    private void pruneSnapshots(Path snapshotsRoot) throws IOException {
+        List<Path> snapshots = listSnapshots(snapshotsRoot);
+        for (Path old : snapshots.subList(Math.min(SNAPSHOTS_TO_KEEP, snapshots.size()), snapshots.size())) {
+            deleteQuietly(old);
+        }
+    }
+
+    private static long directorySize(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            long total = 0;
+            for (Path file : files.toList()) {
+                total += Files.size(file);
+            }
+            return total;
+        }
+    }
+
+    private void deleteQuietly(Path directory) {
+        try {
+            if (Files.isDirectory(directory)) {
+                List<Path> files = new ArrayList<>();
+                try (Stream<Path> entries = Files.list(directory)) {
+                    entries.forEach(files::add);
+                }
+                for (Path file : files) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            errorHandler.handleError("Failed to delete snapshot directory: " + directory, e);
+        }
+    }
+}
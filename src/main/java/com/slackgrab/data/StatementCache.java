@@ -0,0 +1,351 @@
+package com.slackgrab.data;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prepared statement cache per physical connection
+ *
+ * Repository code prepares the same SQL strings on every call, which makes
+ * SQLite re-parse and re-plan them each time. ConnectionPool hands out
+ * connections wrapped by this cache: prepareStatement(sql) returns a
+ * statement kept in a bounded LRU for the underlying physical connection,
+ * and closing it resets it (open result set closed, parameters and batch
+ * cleared) and returns it to the cache instead of finalizing it.
+ *
+ * Cached statements are prepared on the physical connection, so the pool
+ * proxy does not close them when the connection is returned; statements
+ * still checked out at that point are returned to the cache instead. An
+ * evicted statement is closed. Only the plain prepareStatement(String)
+ * form is cached; other variants go straight to the pooled connection.
+ */
+final class StatementCache {
+
+    static final int DEFAULT_MAX_STATEMENTS_PER_CONNECTION = 64;
+    private static final int MAX_CACHEABLE_SQL_LENGTH = 8192;
+
+    private final int maxStatementsPerConnection;
+    private final Map<Connection, ConnectionStatements> connections;
+
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong evictions;
+
+    StatementCache(int maxStatementsPerConnection) {
+        this.maxStatementsPerConnection = maxStatementsPerConnection;
+        this.connections = new ConcurrentHashMap<>();
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.evictions = new AtomicLong();
+    }
+
+    /**
+     * Wrap a pooled connection so its prepared statements are cached
+     *
+     * @param pooled Connection checked out of the pool
+     * @return Caching connection; closing it returns the pooled connection
+     * @throws SQLException If the physical connection cannot be resolved
+     */
+    Connection wrap(Connection pooled) throws SQLException {
+        Connection physical = pooled.unwrap(Connection.class);
+
+        ConnectionStatements statements = connections.get(physical);
+        if (statements == null) {
+            // New physical connection: forget those the pool has retired
+            purgeClosedConnections();
+            statements = connections.computeIfAbsent(physical, ConnectionStatements::new);
+        }
+
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            new ConnectionHandler(pooled, statements));
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Fraction of prepareStatement calls served from the cache
+     */
+    double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total > 0 ? (double) h / total : 0.0;
+    }
+
+    /**
+     * Number of statements currently cached across all connections
+     */
+    int getCachedCount() {
+        int count = 0;
+        for (ConnectionStatements statements : connections.values()) {
+            count += statements.size();
+        }
+        return count;
+    }
+
+    private void purgeClosedConnections() {
+        connections.entrySet().removeIf(entry -> {
+            try {
+                if (entry.getKey().isClosed()) {
+                    entry.getValue().closeAll();
+                    return true;
+                }
+                return false;
+            } catch (SQLException e) {
+                return true;
+            }
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * LRU of prepared statements for one physical connection
+     *
+     * A physical connection is only used by one thread at a time, but the
+     * monitor keeps the pool's housekeeping safe as well.
+     */
+    private final class ConnectionStatements {
+        private final Connection physical;
+        private final LinkedHashMap<String, CachedStatement> lru;
+
+        ConnectionStatements(Connection physical) {
+            this.physical = physical;
+            this.lru = new LinkedHashMap<>(16, 0.75f, true);
+        }
+
+        /**
+         * Take the cached statement for sql, preparing it if needed
+         *
+         * @return Checked-out statement, or null if sql should not be cached
+         */
+        synchronized CachedStatement checkOut(String sql) throws SQLException {
+            if (sql.length() > MAX_CACHEABLE_SQL_LENGTH) {
+                misses.incrementAndGet();
+                return null;
+            }
+
+            CachedStatement cached = lru.get(sql);
+            if (cached != null) {
+                if (cached.inUse) {
+                    // Same SQL open twice on one connection: second one is uncached
+                    misses.incrementAndGet();
+                    return null;
+                }
+                if (!cached.statement.isClosed()) {
+                    hits.incrementAndGet();
+                    cached.inUse = true;
+                    return cached;
+                }
+                lru.remove(sql);
+            }
+
+            misses.incrementAndGet();
+            cached = new CachedStatement(physical.prepareStatement(sql));
+            cached.inUse = true;
+            lru.put(sql, cached);
+            evictIdleOverflow();
+            return cached;
+        }
+
+        /**
+         * Reset a statement and make it available again
+         */
+        synchronized void release(CachedStatement cached) {
+            try {
+                if (cached.lastResult != null) {
+                    cached.lastResult.close();   // Ends the read transaction
+                    cached.lastResult = null;
+                }
+                cached.statement.clearParameters();
+                cached.statement.clearBatch();
+                cached.inUse = false;
+                evictIdleOverflow();   // Limit may have been exceeded while in use
+            } catch (SQLException e) {
+                lru.values().remove(cached);
+                closeQuietly(cached);
+            }
+        }
+
+        synchronized int size() {
+            return lru.size();
+        }
+
+        synchronized void closeAll() {
+            for (CachedStatement cached : lru.values()) {
+                closeQuietly(cached);
+            }
+            lru.clear();
+        }
+
+        /**
+         * Close least recently used statements beyond the limit (never one in use)
+         */
+        private void evictIdleOverflow() {
+            Iterator<CachedStatement> iterator = lru.values().iterator();
+            while (lru.size() > maxStatementsPerConnection && iterator.hasNext()) {
+                CachedStatement eldest = iterator.next();
+                if (!eldest.inUse) {
+                    iterator.remove();
+                    closeQuietly(eldest);
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+
+        private void closeQuietly(CachedStatement cached) {
+            try {
+                cached.statement.close();
+            } catch (SQLException e) {
+                // Connection already gone; nothing left to release
+            }
+        }
+    }
+
+    private static final class CachedStatement {
+        final PreparedStatement statement;
+        ResultSet lastResult;
+        boolean inUse;
+
+        CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+    }
+
+    /**
+     * Connection proxy: caches prepareStatement(String), delegates the rest
+     */
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection pooled;
+        private final ConnectionStatements statements;
+        private final List<StatementHandler> checkedOut;
+
+        ConnectionHandler(Connection pooled, ConnectionStatements statements) {
+            this.pooled = pooled;
+            this.statements = statements;
+            this.checkedOut = new ArrayList<>();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "prepareStatement" -> {
+                    if (args.length == 1 && !pooled.isClosed()) {
+                        CachedStatement cached = statements.checkOut((String) args[0]);
+                        if (cached != null) {
+                            StatementHandler handler = new StatementHandler(cached, statements, (Connection) proxy);
+                            checkedOut.add(handler);
+                            return Proxy.newProxyInstance(
+                                PreparedStatement.class.getClassLoader(),
+                                new Class<?>[] {PreparedStatement.class},
+                                handler);
+                        }
+                    }
+                }
+                case "close" -> {
+                    // Statements left open by the caller go back to the cache
+                    for (StatementHandler handler : checkedOut) {
+                        handler.release();
+                    }
+                    checkedOut.clear();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                }
+            }
+            return StatementCache.invoke(pooled, method, args);
+        }
+    }
+
+    /**
+     * Statement proxy: close returns the statement to the cache
+     */
+    private static final class StatementHandler implements InvocationHandler {
+        private final CachedStatement cached;
+        private final ConnectionStatements statements;
+        private final Connection connection;
+        private boolean released;
+
+        StatementHandler(CachedStatement cached, ConnectionStatements statements, Connection connection) {
+            this.cached = cached;
+            this.statements = statements;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    release();
+                    return null;
+                }
+                case "isClosed" -> {
+                    return released;
+                }
+                case "getConnection" -> {
+                    return connection;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                }
+            }
+
+            if (released) {
+                throw new SQLException("Statement is closed");
+            }
+
+            Object result = StatementCache.invoke(cached.statement, method, args);
+            if (result instanceof ResultSet rs && method.getName().equals("executeQuery")) {
+                cached.lastResult = rs;
+            }
+            return result;
+        }
+
+        void release() {
+            if (!released) {
+                released = true;
+                statements.release(cached);
+            }
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.slackgrab.data;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.slackgrab.core.ErrorHandler;
+import com.slackgrab.core.ManagedService;
+import com.slackgrab.data.model.ActivityStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory view of the sender and channel statistics tables
+ *
+ * The tables themselves are maintained by triggers (see DatabaseManager),
+ * so they are always consistent with messages, interactions and feedback.
+ * This repository mirrors them in memory so feature extraction never
+ * touches the database:
+ * - Write paths mark the affected senders/channels/messages dirty
+ * - A background refresh reloads only dirty rows by primary key
+ * - Table-wide writes (retention) trigger a full reload
+ */
+@Singleton
+public class StatisticsRepository implements ManagedService {
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsRepository.class);
+
+    private static final long REFRESH_INTERVAL_SECONDS = 15;
+    private static final int ACTIVITY_WINDOW_DAYS = 7;
+    private static final int MAX_DIRTY_KEYS = 500;   // Above this, a full reload is cheaper
+    private static final int QUERY_CHUNK_SIZE = 200;
+
+    private final DatabaseManager databaseManager;
+    private final IdDictionary idDictionary;
+    private final ErrorHandler errorHandler;
+
+    private final Map<String, ActivityStats> senderStats;
+    private final Map<String, ActivityStats> channelStats;
+
+    private final Set<String> dirtySenders;
+    private final Set<String> dirtyChannels;
+    private final Set<String> dirtyMessages;
+    private final AtomicBoolean fullReloadNeeded;
+
+    private ScheduledExecutorService scheduler;
+
+    @Inject
+    public StatisticsRepository(DatabaseManager databaseManager, IdDictionary idDictionary, ErrorHandler errorHandler) {
+        this.databaseManager = databaseManager;
+        this.idDictionary = idDictionary;
+        this.errorHandler = errorHandler;
+
+        this.senderStats = new ConcurrentHashMap<>();
+        this.channelStats = new ConcurrentHashMap<>();
+        this.dirtySenders = ConcurrentHashMap.newKeySet();
+        this.dirtyChannels = ConcurrentHashMap.newKeySet();
+        this.dirtyMessages = ConcurrentHashMap.newKeySet();
+        this.fullReloadNeeded = new AtomicBoolean(true);
+    }
+
+    @Override
+    public void start() throws Exception {
+        logger.info("Starting statistics repository...");
+
+        refresh();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r);
+            t.setName("StatisticsRefresh");
+            t.setDaemon(true);
+            return t;
+        });
+
+        scheduler.scheduleWithFixedDelay(
+            this::refresh,
+            REFRESH_INTERVAL_SECONDS,
+            REFRESH_INTERVAL_SECONDS,
+            TimeUnit.SECONDS
+        );
+
+        logger.info("Statistics repository started. Senders: {}, Channels: {}",
+            senderStats.size(), channelStats.size());
+    }
+
+    @Override
+    public void stop() throws Exception {
+        logger.info("Stopping statistics repository...");
+
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
+                    scheduler.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                scheduler.shutdownNow();
+            }
+        }
+
+        logger.info("Statistics repository stopped");
+    }
+
+    /**
+     * Get statistics for a sender (served from memory)
+     *
+     * @param userId Sender user ID
+     * @return Sender statistics, or EMPTY if unknown
+     */
+    public ActivityStats getSenderStats(String userId) {
+        return userId != null ? senderStats.getOrDefault(userId, ActivityStats.EMPTY) : ActivityStats.EMPTY;
+    }
+
+    /**
+     * Get statistics for a channel (served from memory)
+     *
+     * @param channelId Channel ID
+     * @return Channel statistics, or EMPTY if unknown
+     */
+    public ActivityStats getChannelStats(String channelId) {
+        return channelId != null ? channelStats.getOrDefault(channelId, ActivityStats.EMPTY) : ActivityStats.EMPTY;
+    }
+
+    /**
+     * Get a snapshot of all sender statistics
+     */
+    public Map<String, ActivityStats> getAllSenderStats() {
+        return Map.copyOf(senderStats);
+    }
+
+    /**
+     * Get a snapshot of all channel statistics
+     */
+    public Map<String, ActivityStats> getAllChannelStats() {
+        return Map.copyOf(channelStats);
+    }
+
+    /**
+     * Mark a sender and channel as changed (message written)
+     */
+    public void markDirty(String userId, String channelId) {
+        if (userId != null) {
+            dirtySenders.add(userId);
+        }
+        if (channelId != null) {
+            dirtyChannels.add(channelId);
+        }
+    }
+
+    /**
+     * Mark the sender and channel of a message as changed
+     * (score, interaction or feedback written)
+     */
+    public void markMessageDirty(String messageId) {
+        if (messageId != null) {
+            dirtyMessages.add(messageId);
+        }
+    }
+
+    /**
+     * Mark the senders and channels of several messages as changed
+     */
+    public void markMessagesDirty(Collection<String> messageIds) {
+        if (messageIds.size() > MAX_DIRTY_KEYS) {
+            fullReloadNeeded.set(true);
+        } else {
+            dirtyMessages.addAll(messageIds);
+        }
+    }
+
+    /**
+     * Request a full reload (table-wide writes such as retention deletes)
+     */
+    public void markAllDirty() {
+        fullReloadNeeded.set(true);
+    }
+
+    /**
+     * Reload dirty statistics from the database
+     *
+     * Called periodically; may also be called directly after bulk writes.
+     */
+    public synchronized void refresh() {
+        try {
+            Set<String> senders = drain(dirtySenders);
+            Set<String> channels = drain(dirtyChannels);
+            Set<String> messages = drain(dirtyMessages);
+
+            boolean fullReload = fullReloadNeeded.getAndSet(false)
+                || senders.size() + channels.size() + messages.size() > MAX_DIRTY_KEYS;
+
+            if (fullReload) {
+                reload("sender_stats", "sender_activity", "user_key", null, senderStats);
+                reload("channel_stats", "channel_activity", "channel_key", null, channelStats);
+                logger.debug("Statistics fully reloaded. Senders: {}, Channels: {}",
+                    senderStats.size(), channelStats.size());
+                return;
+            }
+
+            if (!messages.isEmpty()) {
+                resolveMessageKeys(messages, senders, channels);
+            }
+
+            if (!senders.isEmpty()) {
+                reload("sender_stats", "sender_activity", "user_key", senders, senderStats);
+            }
+
+            if (!channels.isEmpty()) {
+                reload("channel_stats", "channel_activity", "channel_key", channels, channelStats);
+            }
+
+        } catch (SQLException e) {
+            fullReloadNeeded.set(true);
+            errorHandler.handleError("Failed to refresh statistics", e);
+        }
+    }
+
+    /**
+     * Look up the sender and channel of dirty messages
+     */
+    private void resolveMessageKeys(Set<String> messageIds, Set<String> senders, Set<String> channels)
+        throws SQLException {
+        for (List<String> chunk : chunks(messageIds)) {
+            String sql = "SELECT user_key, channel_key FROM messages WHERE id IN ("
+                + placeholders(chunk.size()) + ")";
+
+            try (Connection conn = databaseManager.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setString(i + 1, chunk.get(i));
+                }
+
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    addDecoded(senders, rs.getInt(1));
+                    addDecoded(channels, rs.getInt(2));
+                }
+            }
+        }
+    }
+
+    /**
+     * Reload statistics rows into the in-memory map
+     *
+     * @param keys Keys to reload, or null to reload the whole table
+     */
+    private void reload(
+        String statsTable,
+        String activityTable,
+        String keyColumn,
+        Set<String> keys,
+        Map<String, ActivityStats> target
+    ) throws SQLException {
+        String baseSql = """
+            SELECT s.%3$s AS stats_key, s.message_count, s.interaction_count, s.feedback_count,
+                   s.importance_sum, s.scored_count,
+                   COALESCE((SELECT SUM(a.message_count) FROM %2$s a
+                             WHERE a.%3$s = s.%3$s AND a.bucket >= ?), 0) AS recent_count
+            FROM %1$s s
+            """.formatted(statsTable, activityTable, keyColumn);
+
+        long windowStartBucket = System.currentTimeMillis() / 86_400_000L - ACTIVITY_WINDOW_DAYS;
+
+        if (keys == null) {
+            Map<String, ActivityStats> loaded = new ConcurrentHashMap<>();
+            query(baseSql, windowStartBucket, List.of(), loaded);
+            target.keySet().retainAll(loaded.keySet());
+            target.putAll(loaded);
+            return;
+        }
+
+        // Statistics rows are keyed by dictionary key; unknown IDs have no rows
+        List<Integer> encoded = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            idDictionary.find(key).ifPresent(encoded::add);
+        }
+
+        for (List<Integer> chunk : chunks(encoded)) {
+            String sql = baseSql + " WHERE s." + keyColumn + " IN (" + placeholders(chunk.size()) + ")";
+            query(sql, windowStartBucket, chunk, target);
+        }
+    }
+
+    private void query(String sql, long windowStartBucket, List<Integer> keys, Map<String, ActivityStats> target)
+        throws SQLException {
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setLong(1, windowStartBucket);
+            for (int i = 0; i < keys.size(); i++) {
+                stmt.setInt(i + 2, keys.get(i));
+            }
+
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                String slackId = idDictionary.decode(rs.getInt("stats_key"));
+                if (slackId == null) {
+                    continue;
+                }
+
+                target.put(slackId, new ActivityStats(
+                    rs.getLong("message_count"),
+                    rs.getLong("recent_count"),
+                    rs.getLong("interaction_count"),
+                    rs.getLong("feedback_count"),
+                    rs.getDouble("importance_sum"),
+                    rs.getLong("scored_count")
+                ));
+            }
+        }
+    }
+
+    private static Set<String> drain(Set<String> dirty) {
+        Set<String> drained = new HashSet<>();
+        for (String key : dirty) {
+            if (dirty.remove(key)) {
+                drained.add(key);
+            }
+        }
+        return drained;
+    }
+
+    private void addDecoded(Set<String> target, int key) {
+        String slackId = idDictionary.decode(key);
+        if (slackId != null) {
+            target.add(slackId);
+        }
+    }
+
+    private static <T> List<List<T>> chunks(Collection<T> keys) {
+        List<List<T>> chunks = new ArrayList<>();
+        List<T> current = new ArrayList<>(QUERY_CHUNK_SIZE);
+        for (T key : keys) {
+            current.add(key);
+            if (current.size() == QUERY_CHUNK_SIZE) {
+                chunks.add(current);
+                current = new ArrayList<>(QUERY_CHUNK_SIZE);
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
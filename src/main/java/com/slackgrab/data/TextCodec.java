@@ -0,0 +1,165 @@
+package com.slackgrab.data;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compression for stored message text
+ *
+ * Compressed text is stored as a BLOB in the same TEXT-affinity column as
+ * raw text (SQLite keeps BLOB values as-is), so readers tell the two apart
+ * by storage class: a String is raw text, a byte[] is deflated UTF-8.
+ *
+ * Deflate is primed with a shared preset dictionary of strings common in
+ * Slack messages, which helps most on the short-to-medium texts that make
+ * up the bulk of a workspace. The dictionary is hand-picked, not trained
+ * on stored texts: blobs carry no dictionary ID, so it is part of the
+ * storage format and must never change. A raw deflate stream only
+ * references the dictionary if it was compressed with it, so data written
+ * without one still inflates correctly.
+ */
+final class TextCodec {
+
+    /**
+     * Texts shorter than this (UTF-8 bytes) are stored raw in the hot table
+     */
+    static final int COMPRESSION_THRESHOLD_BYTES = 512;
+
+    // Most frequent substrings last: deflate finds the closest match first
+    private static final byte[] PRESET_DICTIONARY = String.join("",
+        "Thanks for the update. Let me know if you have any questions. ",
+        "Could you please take a look when you get a chance? ",
+        "I think we should discuss this in the meeting tomorrow. ",
+        "Error: Exception in thread \"main\" java.lang. at com. at org. ",
+        "Traceback (most recent call last): File \"", "line ", "null undefined ",
+        "WARN ERROR INFO DEBUG ", "\"status\": \"id\": \"name\": \"type\": ",
+        "deploy release build pipeline merge request pull request review ",
+        ":white_check_mark: :eyes: :thumbsup: :+1: :tada: :pray: ",
+        "```\n", "<https://github.com/", "<https://docs.google.com/", "<https://",
+        " has joined the channel", "<!here> <!channel> ", "<#C", "<@U",
+        " the and to of for is in that on this with you it we be "
+    ).getBytes(StandardCharsets.UTF_8);
+
+    private TextCodec() {
+    }
+
+    /**
+     * Choose the storage form for a hot-table text value
+     *
+     * Texts above the size threshold are deflated, but only kept compressed
+     * if that actually saves space.
+     *
+     * @param text Raw text (null passes through)
+     * @return String or byte[] to bind to the text column
+     */
+    static Object encodeForStorage(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        if (raw.length < COMPRESSION_THRESHOLD_BYTES) {
+            return text;
+        }
+
+        byte[] compressed = compress(raw);
+        return compressed.length < raw.length ? compressed : text;
+    }
+
+    /**
+     * Deflate text to a BLOB value
+     *
+     * @param text Raw text (null passes through)
+     * @return Deflated UTF-8 bytes, or null
+     */
+    static byte[] compress(String text) {
+        return text != null ? compress(text.getBytes(StandardCharsets.UTF_8)) : null;
+    }
+
+    private static byte[] compress(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setDictionary(PRESET_DICTIONARY);
+            deflater.setInput(input);
+            deflater.finish();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, input.length / 2));
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Inflate a BLOB value back to text
+     *
+     * @param data Deflated UTF-8 bytes (null passes through)
+     * @return Raw text, or null
+     * @throws IllegalStateException If the data is not valid deflate output or is truncated
+     */
+    static String decompress(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setDictionary(PRESET_DICTIONARY);
+            inflater.setInput(data);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 3);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && inflater.needsInput()) {
+                    throw new IllegalStateException("Truncated compressed message text");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed message text", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Compress a stored text value regardless of size (archive)
+     *
+     * Already-compressed values are left untouched, as are texts that
+     * would not shrink.
+     *
+     * @param value Column value (String, byte[] or null)
+     * @return Value to store
+     */
+    static Object compressValue(Object value) {
+        if (value instanceof String text) {
+            byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+            byte[] compressed = compress(raw);
+            return compressed.length < raw.length ? compressed : text;
+        }
+        return value;
+    }
+
+    /**
+     * Decode a stored text value of either storage class
+     *
+     * @param value Column value (String, byte[] or null)
+     * @return Raw text, or null
+     */
+    static String decodeValue(Object value) {
+        if (value instanceof byte[] data) {
+            return decompress(data);
+        }
+        return value != null ? value.toString() : null;
+    }
+}
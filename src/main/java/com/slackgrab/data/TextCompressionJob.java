@@ -0,0 +1,211 @@
+package com.slackgrab.data;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.slackgrab.core.ErrorHandler;
+import com.slackgrab.core.ManagedService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One-off background compression of existing message text
+ *
+ * New messages are compressed on write (see TextCodec); this job brings
+ * rows stored before that up to date. It walks the hot messages table in
+ * rowid order, in short transactions with a pause in between, and records
+ * completion in system_state so it only ever runs once per codec version.
+ * Freed pages are returned to the file system by the next retention run.
+ */
+@Singleton
+public class TextCompressionJob implements ManagedService {
+    private static final Logger logger = LoggerFactory.getLogger(TextCompressionJob.class);
+
+    private static final String STATE_KEY = "text_compression_version";
+    private static final String CODEC_VERSION = "1";
+
+    private static final long START_DELAY_MINUTES = 2;
+    private static final int CHUNK_SIZE = 200;
+    private static final long CHUNK_PAUSE_MS = 50;
+
+    private final DatabaseManager databaseManager;
+    private final ErrorHandler errorHandler;
+
+    private ScheduledExecutorService scheduler;
+
+    @Inject
+    public TextCompressionJob(DatabaseManager databaseManager, ErrorHandler errorHandler) {
+        this.databaseManager = databaseManager;
+        this.errorHandler = errorHandler;
+    }
+
+    @Override
+    public void start() throws Exception {
+        if (CODEC_VERSION.equals(getCompletedVersion())) {
+            logger.debug("Stored message text already compressed");
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r);
+            t.setName("TextCompression");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+
+        scheduler.schedule(this::runSafely, START_DELAY_MINUTES, TimeUnit.MINUTES);
+        logger.info("Text compression job scheduled");
+    }
+
+    @Override
+    public void stop() throws Exception {
+        if (scheduler != null) {
+            // Interrupt an in-flight run; it resumes from the start next launch
+            scheduler.shutdownNow();
+            try {
+                scheduler.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Compress every stored message text above the threshold
+     *
+     * @return Number of rows compressed, or -1 if interrupted or failed
+     */
+    public int compressStoredText() {
+        String selectSql = """
+            SELECT rowid, text
+            FROM messages
+            WHERE rowid > ?
+              AND typeof(text) = 'text'
+              AND length(CAST(text AS BLOB)) >= ?
+            ORDER BY rowid
+            LIMIT ?
+            """;
+
+        String updateSql = "UPDATE messages SET text = ? WHERE rowid = ?";
+
+        long lastRowId = 0;
+        int compressedRows = 0;
+        long bytesSaved = 0;
+
+        logger.info("Compressing stored message text...");
+
+        try {
+            while (true) {
+                long from = lastRowId;
+                long[] chunk = databaseManager.executeInTransaction(conn -> {
+                    long last = from;
+                    long rows = 0;
+                    long saved = 0;
+
+                    try (PreparedStatement select = conn.prepareStatement(selectSql);
+                         PreparedStatement update = conn.prepareStatement(updateSql)) {
+
+                        select.setLong(1, from);
+                        select.setInt(2, TextCodec.COMPRESSION_THRESHOLD_BYTES);
+                        select.setInt(3, CHUNK_SIZE);
+
+                        int scanned = 0;
+                        try (ResultSet rs = select.executeQuery()) {
+                            while (rs.next()) {
+                                scanned++;
+                                last = rs.getLong(1);
+                                String text = rs.getString(2);
+
+                                if (TextCodec.encodeForStorage(text) instanceof byte[] compressed) {
+                                    update.setBytes(1, compressed);
+                                    update.setLong(2, last);
+                                    update.addBatch();
+                                    rows++;
+                                    saved += text.getBytes(StandardCharsets.UTF_8).length - compressed.length;
+                                }
+                            }
+                        }
+
+                        if (rows > 0) {
+                            update.executeBatch();
+                        }
+
+                        return new long[] {scanned, last, rows, saved};
+                    }
+                });
+
+                lastRowId = chunk[1];
+                compressedRows += (int) chunk[2];
+                bytesSaved += chunk[3];
+
+                if (chunk[0] < CHUNK_SIZE) {
+                    break;
+                }
+
+                Thread.sleep(CHUNK_PAUSE_MS);
+            }
+
+            setCompletedVersion();
+            logger.info("Compressed {} stored message texts, {} KB saved", compressedRows, bytesSaved / 1024);
+            return compressedRows;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.info("Text compression interrupted after {} rows", compressedRows);
+            return -1;
+        } catch (SQLException e) {
+            errorHandler.handleError("Failed to compress stored message text", e);
+            return -1;
+        }
+    }
+
+    /**
+     * Scheduler entry point; never lets an exception escape the executor
+     */
+    private void runSafely() {
+        try {
+            compressStoredText();
+        } catch (Exception e) {
+            errorHandler.handleError("Text compression job failed", e);
+        }
+    }
+
+    private String getCompletedVersion() {
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT value FROM system_state WHERE key = ?")) {
+
+            stmt.setString(1, STATE_KEY);
+            ResultSet rs = stmt.executeQuery();
+            return rs.next() ? rs.getString(1) : null;
+
+        } catch (SQLException e) {
+            errorHandler.handleError("Failed to read text compression state", e);
+            return null;
+        }
+    }
+
+    private void setCompletedVersion() throws SQLException {
+        String sql = """
+            INSERT INTO system_state (key, value, updated_at) VALUES (?, ?, ?)
+            ON CONFLICT(key) DO UPDATE SET value = excluded.value, updated_at = excluded.updated_at
+            """;
+
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, STATE_KEY);
+            stmt.setString(2, CODEC_VERSION);
+            stmt.setLong(3, System.currentTimeMillis());
+            stmt.executeUpdate();
+        }
+    }
+}
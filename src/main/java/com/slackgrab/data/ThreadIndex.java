@@ -0,0 +1,354 @@
+package com.slackgrab.data;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.slackgrab.core.ConfigurationManager;
+import com.slackgrab.core.ErrorHandler;
+import com.slackgrab.core.ManagedService;
+import com.slackgrab.data.model.SlackMessage;
+import com.slackgrab.data.model.ThreadStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory index of Slack threads
+ *
+ * Tracks, per thread, reply count, participants, whether the
+ * authenticated user takes part, the latest activity and how many of its
+ * messages carry attachments. Updated on ingest (MessageRepository for
+ * stored messages, MessageCollector for the reply metadata Slack reports
+ * on thread roots) and rebuilt on start from stored messages in both
+ * tiers, since the retention window reaches past the hot horizon.
+ *
+ * Reads are two hash lookups and a volatile read of an immutable
+ * ThreadStats, so thread features cost O(1) per message and never touch
+ * the database. Threads without activity within the retention window are
+ * dropped hourly.
+ */
+@Singleton
+public class ThreadIndex implements ManagedService {
+    private static final Logger logger = LoggerFactory.getLogger(ThreadIndex.class);
+
+    private static final long SWEEP_INTERVAL_MINUTES = 60;
+
+    private final ConfigurationManager configurationManager;
+    private final DatabaseManager databaseManager;
+    private final IdDictionary idDictionary;
+    private final ErrorHandler errorHandler;
+
+    // Channel ID -> thread ts -> thread
+    private final Map<String, Map<String, ThreadEntry>> channels = new ConcurrentHashMap<>();
+
+    private volatile String selfUserId;
+
+    private ScheduledExecutorService scheduler;
+
+    @Inject
+    public ThreadIndex(
+        ConfigurationManager configurationManager,
+        DatabaseManager databaseManager,
+        IdDictionary idDictionary,
+        ErrorHandler errorHandler
+    ) {
+        this.configurationManager = configurationManager;
+        this.databaseManager = databaseManager;
+        this.idDictionary = idDictionary;
+        this.errorHandler = errorHandler;
+    }
+
+    @Override
+    public void start() throws Exception {
+        rebuild();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r);
+            t.setName("ThreadIndex");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+
+        scheduler.scheduleWithFixedDelay(
+            this::sweepSafely,
+            SWEEP_INTERVAL_MINUTES,
+            SWEEP_INTERVAL_MINUTES,
+            TimeUnit.MINUTES
+        );
+
+        logger.info("Thread index started");
+    }
+
+    @Override
+    public void stop() throws Exception {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Set the authenticated user, whose participation is tracked
+     *
+     * Re-evaluates every indexed thread if the user changes.
+     *
+     * @param userId Slack user ID of the authenticated user
+     */
+    public void setSelfUserId(String userId) {
+        if (userId == null || userId.equals(selfUserId)) {
+            return;
+        }
+        selfUserId = userId;
+        for (Map<String, ThreadEntry> threads : channels.values()) {
+            for (ThreadEntry entry : threads.values()) {
+                entry.publish(userId);
+            }
+        }
+        logger.info("Thread index tracking participation of {}", userId);
+    }
+
+    /**
+     * Record a newly stored message
+     *
+     * Messages outside a thread are ignored.
+     *
+     * @param message The message
+     */
+    public void recordMessage(SlackMessage message) {
+        if (!message.isInThread() || message.channelId() == null) {
+            return;
+        }
+        record(
+            message.channelId(),
+            message.threadTs(),
+            message.userId(),
+            message.threadTs().equals(message.timestamp()),
+            parseMillis(message.timestamp(), message.createdAt().toEpochMilli()),
+            message.hasAttachments()
+        );
+    }
+
+    /**
+     * Merge the reply metadata Slack reports on a thread root
+     *
+     * Replies themselves are often not collected; the reported count,
+     * reply authors and latest reply fill the gap.
+     *
+     * @param channelId Channel ID
+     * @param threadTs Thread timestamp (the root's ts)
+     * @param replyCount Reported reply count
+     * @param replyUsers Reported reply authors (may be null)
+     * @param latestReplyTs Timestamp of the latest reply (may be null)
+     */
+    public void recordThreadSummary(
+        String channelId,
+        String threadTs,
+        int replyCount,
+        List<String> replyUsers,
+        String latestReplyTs
+    ) {
+        if (channelId == null || threadTs == null) {
+            return;
+        }
+        ThreadEntry entry = entry(channelId, threadTs);
+        entry.mergeSummary(replyCount, replyUsers, parseMillis(latestReplyTs, 0L), selfUserId);
+    }
+
+    /**
+     * Get the statistics of a message's thread
+     *
+     * @param channelId Channel ID
+     * @param threadTs Thread timestamp (may be null)
+     * @return Thread statistics, ThreadStats.EMPTY if the thread is unknown
+     */
+    public ThreadStats getThreadStats(String channelId, String threadTs) {
+        if (channelId == null || threadTs == null) {
+            return ThreadStats.EMPTY;
+        }
+        Map<String, ThreadEntry> threads = channels.get(channelId);
+        if (threads == null) {
+            return ThreadStats.EMPTY;
+        }
+        ThreadEntry entry = threads.get(threadTs);
+        return entry != null ? entry.stats : ThreadStats.EMPTY;
+    }
+
+    /**
+     * Number of indexed threads
+     */
+    public int size() {
+        int size = 0;
+        for (Map<String, ThreadEntry> threads : channels.values()) {
+            size += threads.size();
+        }
+        return size;
+    }
+
+    private void record(String channelId, String threadTs, String userId, boolean root,
+                        long timeMillis, boolean hasAttachments) {
+        entry(channelId, threadTs).addMessage(userId, root, timeMillis, hasAttachments, selfUserId);
+    }
+
+    private ThreadEntry entry(String channelId, String threadTs) {
+        return channels
+            .computeIfAbsent(channelId, id -> new ConcurrentHashMap<>())
+            .computeIfAbsent(threadTs, ts -> new ThreadEntry());
+    }
+
+    /**
+     * Rebuild the index from stored thread messages within the retention window
+     *
+     * Reads hot and archived messages. The timestamp column is REAL, so the
+     * cutoff is bound as a double and roots are found by comparing against
+     * thread_ts converted to REAL (the REAL value's text form differs from
+     * Slack's ts string).
+     */
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        long since = start - TimeUnit.DAYS.toMillis(configurationManager.getHistoricalDataDays());
+        channels.clear();
+
+        String sql = """
+            SELECT channel_key, user_key, timestamp, thread_ts, has_attachments,
+                   timestamp = CAST(thread_ts AS REAL) AS is_root
+            FROM messages
+            WHERE thread_ts IS NOT NULL AND thread_ts != '' AND timestamp >= ?1
+            UNION ALL
+            SELECT channel_key, user_key, timestamp, thread_ts, has_attachments,
+                   timestamp = CAST(thread_ts AS REAL) AS is_root
+            FROM archive.messages
+            WHERE thread_ts IS NOT NULL AND thread_ts != '' AND timestamp >= ?1
+            """;
+
+        int messages = 0;
+
+        try (Connection conn = databaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDouble(1, since / 1000.0);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String channelId = idDictionary.decode(rs.getInt("channel_key"));
+                    if (channelId == null) {
+                        continue;
+                    }
+                    record(
+                        channelId,
+                        rs.getString("thread_ts"),
+                        idDictionary.decode(rs.getInt("user_key")),
+                        rs.getBoolean("is_root"),
+                        (long) (rs.getDouble("timestamp") * 1000),
+                        rs.getBoolean("has_attachments")
+                    );
+                    messages++;
+                }
+            }
+
+            logger.info("Thread index rebuilt with {} threads from {} messages in {} ms",
+                size(), messages, System.currentTimeMillis() - start);
+
+        } catch (SQLException e) {
+            errorHandler.handleError("Failed to rebuild thread index", e);
+        }
+    }
+
+    /**
+     * Drop threads without activity within the retention window
+     */
+    private void sweep() {
+        long cutoff = System.currentTimeMillis()
+            - TimeUnit.DAYS.toMillis(configurationManager.getHistoricalDataDays());
+        int removed = 0;
+        for (Map<String, ThreadEntry> threads : channels.values()) {
+            int before = threads.size();
+            threads.values().removeIf(entry -> entry.stats.lastActivityMillis() < cutoff);
+            removed += before - threads.size();
+        }
+        if (removed > 0) {
+            logger.debug("Thread index dropped {} inactive threads", removed);
+        }
+    }
+
+    private void sweepSafely() {
+        try {
+            sweep();
+        } catch (Exception e) {
+            errorHandler.handleError("Failed to sweep thread index", e);
+        }
+    }
+
+    private static long parseMillis(String timestamp, long fallback) {
+        if (timestamp == null) {
+            return fallback;
+        }
+        try {
+            return (long) (Double.parseDouble(timestamp) * 1000);
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    /**
+     * Mutable per-thread state, published as an immutable ThreadStats
+     */
+    private static final class ThreadEntry {
+        private final Set<String> participants = new HashSet<>();
+        private int observedReplies;
+        private int reportedReplies;
+        private long lastActivityMillis;
+        private int attachmentCount;
+
+        volatile ThreadStats stats = ThreadStats.EMPTY;
+
+        synchronized void addMessage(String userId, boolean root, long timeMillis,
+                                     boolean hasAttachments, String selfUserId) {
+            if (userId != null) {
+                participants.add(userId);
+            }
+            if (!root) {
+                observedReplies++;
+            }
+            if (hasAttachments) {
+                attachmentCount++;
+            }
+            lastActivityMillis = Math.max(lastActivityMillis, timeMillis);
+            publish(selfUserId);
+        }
+
+        synchronized void mergeSummary(int replyCount, List<String> replyUsers,
+                                       long latestReplyMillis, String selfUserId) {
+            reportedReplies = Math.max(reportedReplies, replyCount);
+            if (replyUsers != null) {
+                participants.addAll(replyUsers);
+            }
+            lastActivityMillis = Math.max(lastActivityMillis, latestReplyMillis);
+            publish(selfUserId);
+        }
+
+        synchronized void publish(String selfUserId) {
+            stats = new ThreadStats(
+                Math.max(observedReplies, reportedReplies),
+                participants.size(),
+                selfUserId != null && participants.contains(selfUserId),
+                lastActivityMillis,
+                attachmentCount
+            );
+        }
+    }
+}
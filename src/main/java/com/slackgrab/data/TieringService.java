@@ -0,0 +1,266 @@
+package com.slackgrab.data;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.slackgrab.core.ErrorHandler;
+import com.slackgrab.core.ManagedService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background hot/cold tiering of messages
+ *
+ * Moves messages older than the hot horizon from slackgrab.db into the
+ * attached archive database, compressing their text on the way. The hot
+ * table and its indexes then only cover recent messages and stay resident
+ * in the page cache; MessageRepository reads the archive only for ranges
+ * that reach past the archive watermark.
+ *
+ * Statistics describe the hot tier: deleting a moved row fires the usual
+ * statistics and counter triggers, and the interaction/feedback counts
+ * attributed to moved messages are subtracted in the same transaction
+ * (those rows can no longer be resolved to a sender or channel).
+ */
+@Singleton
+public class TieringService implements ManagedService {
+    private static final Logger logger = LoggerFactory.getLogger(TieringService.class);
+
+    private static final int HOT_HORIZON_DAYS = 14;   // Covers the 7-day activity window
+    private static final long INITIAL_DELAY_MINUTES = 5;
+    private static final long RUN_INTERVAL_MINUTES = 60;
+    private static final int MOVE_CHUNK_SIZE = 500;
+    private static final long CHUNK_PAUSE_MS = 50;
+
+    private static final int TEXT_COLUMN = 4;
+    private static final int TIMESTAMP_COLUMN = 5;
+    private static final int COLUMN_COUNT = 12;
+
+    private static final String SELECT_SQL = """
+        SELECT id, channel_key, user_key, text, timestamp, thread_ts,
+               has_attachments, has_reactions, importance_score, importance_level,
+               score_model_version, created_at
+        FROM messages
+        WHERE timestamp < ?
+        ORDER BY timestamp
+        LIMIT ?
+        """;
+
+    private static final String INSERT_SQL = """
+        INSERT OR REPLACE INTO archive.messages (
+            id, channel_key, user_key, text, timestamp, thread_ts,
+            has_attachments, has_reactions, importance_score, importance_level,
+            score_model_version, created_at
+        ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    // Subtract interaction/feedback counts of the moved messages: {stats table, key column}
+    private static final String[][] STATISTICS_KEYS = {
+        {"sender_stats", "user_key"},
+        {"channel_stats", "channel_key"}
+    };
+
+    private static final String DETACH_COUNTS_SQL = """
+        UPDATE %1$s SET
+            interaction_count = interaction_count - moved.interactions,
+            feedback_count = feedback_count - moved.feedback
+        FROM (
+            SELECT m.%2$s AS key,
+                   SUM((SELECT COALESCE(SUM(i.event_count), 0) FROM user_interactions i WHERE i.message_id = m.id)) AS interactions,
+                   SUM((SELECT COUNT(*) FROM feedback f WHERE f.message_id = m.id)) AS feedback
+            FROM messages m
+            WHERE m.id IN (%3$s)
+            GROUP BY m.%2$s
+        ) AS moved
+        WHERE %1$s.%2$s = moved.key
+        """;
+
+    private final DatabaseManager databaseManager;
+    private final StatisticsRepository statisticsRepository;
+    private final CounterRepository counterRepository;
+    private final ErrorHandler errorHandler;
+
+    private ScheduledExecutorService scheduler;
+
+    @Inject
+    public TieringService(
+            DatabaseManager databaseManager,
+            StatisticsRepository statisticsRepository,
+            CounterRepository counterRepository,
+            ErrorHandler errorHandler) {
+        this.databaseManager = databaseManager;
+        this.statisticsRepository = statisticsRepository;
+        this.counterRepository = counterRepository;
+        this.errorHandler = errorHandler;
+    }
+
+    @Override
+    public void start() throws Exception {
+        logger.info("Starting tiering service...");
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r);
+            t.setName("Tiering");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+
+        scheduler.scheduleWithFixedDelay(
+            this::runSafely,
+            INITIAL_DELAY_MINUTES,
+            RUN_INTERVAL_MINUTES,
+            TimeUnit.MINUTES
+        );
+
+        logger.info("Tiering service started. Hot horizon: {} days", HOT_HORIZON_DAYS);
+    }
+
+    @Override
+    public void stop() throws Exception {
+        logger.info("Stopping tiering service...");
+
+        if (scheduler != null) {
+            // Interrupt an in-flight run; it stops between chunks
+            scheduler.shutdownNow();
+            try {
+                scheduler.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        logger.info("Tiering service stopped");
+    }
+
+    /**
+     * Move all messages older than the hot horizon into the archive
+     *
+     * Runs in short chunked transactions with a pause in between, so
+     * message ingest is never blocked for long.
+     *
+     * @return Number of messages archived
+     */
+    public synchronized int archiveOldMessages() {
+        Instant cutoff = Instant.now().minus(Duration.ofDays(HOT_HORIZON_DAYS));
+        double cutoffSeconds = cutoff.getEpochSecond();
+        int total = 0;
+
+        try {
+            ChunkResult chunk;
+            do {
+                chunk = databaseManager.executeInTransaction(conn -> moveChunk(conn, cutoffSeconds));
+                total += chunk.moved();
+                databaseManager.advanceArchiveWatermark(chunk.newestTimestamp());
+
+                if (chunk.moved() == MOVE_CHUNK_SIZE) {
+                    Thread.sleep(CHUNK_PAUSE_MS);
+                }
+            } while (chunk.moved() == MOVE_CHUNK_SIZE);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.info("Tiering interrupted after {} messages", total);
+        } catch (SQLException e) {
+            errorHandler.handleError("Failed to archive old messages", e);
+        }
+
+        if (total > 0) {
+            try {
+                databaseManager.recountArchivedMessages();
+            } catch (SQLException e) {
+                errorHandler.handleError("Failed to recount archived messages", e);
+            }
+
+            statisticsRepository.markAllDirty();
+            counterRepository.markDirty();
+            logger.info("Archived {} messages older than {} days", total, HOT_HORIZON_DAYS);
+        }
+
+        return total;
+    }
+
+    /**
+     * Scheduler entry point; never lets an exception cancel the schedule
+     */
+    private void runSafely() {
+        try {
+            archiveOldMessages();
+        } catch (Exception e) {
+            errorHandler.handleError("Tiering run failed", e);
+        }
+    }
+
+    /**
+     * Copy one chunk into the archive and remove it from the hot table
+     */
+    private ChunkResult moveChunk(Connection conn, double cutoffSeconds) throws SQLException {
+        List<String> ids = new ArrayList<>(MOVE_CHUNK_SIZE);
+        double newest = 0;
+
+        try (PreparedStatement select = conn.prepareStatement(SELECT_SQL);
+             PreparedStatement insert = conn.prepareStatement(INSERT_SQL)) {
+
+            select.setDouble(1, cutoffSeconds);
+            select.setInt(2, MOVE_CHUNK_SIZE);
+
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    for (int i = 1; i <= COLUMN_COUNT; i++) {
+                        Object value = rs.getObject(i);
+                        insert.setObject(i, i == TEXT_COLUMN ? TextCodec.compressValue(value) : value);
+                    }
+                    insert.addBatch();
+
+                    ids.add(rs.getString(1));
+                    newest = Math.max(newest, rs.getDouble(TIMESTAMP_COLUMN));
+                }
+            }
+
+            if (ids.isEmpty()) {
+                return new ChunkResult(0, 0);
+            }
+
+            insert.executeBatch();
+        }
+
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+
+        for (String[] keys : STATISTICS_KEYS) {
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    DETACH_COUNTS_SQL.formatted(keys[0], keys[1], placeholders))) {
+                bindIds(stmt, ids);
+                stmt.executeUpdate();
+            }
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "DELETE FROM messages WHERE id IN (" + placeholders + ")")) {
+            bindIds(stmt, ids);
+            stmt.executeUpdate();
+        }
+
+        return new ChunkResult(ids.size(), newest);
+    }
+
+    private static void bindIds(PreparedStatement stmt, List<String> ids) throws SQLException {
+        for (int i = 0; i < ids.size(); i++) {
+            stmt.setString(i + 1, ids.get(i));
+        }
+    }
+
+    private record ChunkResult(int moved, double newestTimestamp) {
+    }
+}
@@ -0,0 +1,176 @@
+package com.slackgrab.data;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.slackgrab.core.ErrorHandler;
+import com.slackgrab.core.ManagedService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One-off background conversion to incremental auto-vacuum
+ *
+ * Databases created before incremental auto-vacuum was enabled need one
+ * full VACUUM to switch modes. That rewrites the whole file and blocks
+ * writers while it runs, so it is done here after startup instead of in
+ * DatabaseManager.start(), once per database (hot and archive). A
+ * database is only converted if the volume has room for the rewritten
+ * copy; otherwise the conversion is skipped and retried at the next launch.
+ */
+@Singleton
+public class VacuumConversionJob implements ManagedService {
+    private static final Logger logger = LoggerFactory.getLogger(VacuumConversionJob.class);
+
+    private static final long START_DELAY_MINUTES = 5;
+
+    // VACUUM writes a full copy of the database, plus WAL growth while it commits
+    private static final double REQUIRED_FREE_SPACE_FACTOR = 2.0;
+
+    private static final String[] SCHEMAS = {"main", DatabaseManager.ARCHIVE_SCHEMA};
+
+    private final DatabaseManager databaseManager;
+    private final ErrorHandler errorHandler;
+
+    private ScheduledExecutorService scheduler;
+
+    @Inject
+    public VacuumConversionJob(DatabaseManager databaseManager, ErrorHandler errorHandler) {
+        this.databaseManager = databaseManager;
+        this.errorHandler = errorHandler;
+    }
+
+    @Override
+    public void start() throws Exception {
+        if (!needsConversion()) {
+            logger.debug("Databases already use incremental auto-vacuum");
+            return;
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r);
+            t.setName("VacuumConversion");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+
+        scheduler.schedule(this::runSafely, START_DELAY_MINUTES, TimeUnit.MINUTES);
+        logger.info("Incremental auto-vacuum conversion scheduled");
+    }
+
+    @Override
+    public void stop() throws Exception {
+        if (scheduler != null) {
+            // An in-flight VACUUM finishes or rolls back on its own; it is retried next launch
+            scheduler.shutdownNow();
+            try {
+                scheduler.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Convert every database that does not use incremental auto-vacuum yet
+     *
+     * @return Number of databases converted
+     */
+    public int convertAll() {
+        int converted = 0;
+        for (String schema : SCHEMAS) {
+            try {
+                if (convert(schema)) {
+                    converted++;
+                }
+            } catch (SQLException | IOException e) {
+                errorHandler.handleError("Failed to convert " + schema + " database to incremental auto-vacuum", e);
+            }
+        }
+        return converted;
+    }
+
+    /**
+     * Convert one database, if needed and if there is room for the rewrite
+     *
+     * @param schema Schema name (main or archive)
+     * @return true if the database was converted by this call
+     */
+    boolean convert(String schema) throws SQLException, IOException {
+        try (Connection conn = databaseManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            if (queryLong(stmt, "PRAGMA " + schema + ".auto_vacuum") == DatabaseManager.AUTO_VACUUM_INCREMENTAL) {
+                return false;
+            }
+
+            long size = queryLong(stmt, "PRAGMA " + schema + ".page_count")
+                * queryLong(stmt, "PRAGMA " + schema + ".page_size");
+            Path file = schema.equals("main") ? databaseManager.getDatabaseFile() : databaseManager.getArchiveFile();
+            long usable = Files.getFileStore(file.toAbsolutePath().getParent()).getUsableSpace();
+            long required = (long) (size * REQUIRED_FREE_SPACE_FACTOR);
+
+            if (usable < required) {
+                logger.warn("Skipping incremental auto-vacuum conversion of {} database: needs about {} MB free, {} MB available",
+                    schema, required / (1024 * 1024), usable / (1024 * 1024));
+                return false;
+            }
+
+            logger.info("Converting {} database to incremental auto-vacuum: rewriting {} MB (writes are blocked meanwhile)...",
+                schema, size / (1024 * 1024));
+            long start = System.nanoTime();
+
+            stmt.execute("PRAGMA " + schema + ".auto_vacuum = INCREMENTAL");
+            stmt.execute("VACUUM " + schema);
+
+            logger.info("Converted {} database to incremental auto-vacuum in {} ms",
+                schema, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return true;
+        }
+    }
+
+    private boolean needsConversion() {
+        try (Connection conn = databaseManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            for (String schema : SCHEMAS) {
+                if (queryLong(stmt, "PRAGMA " + schema + ".auto_vacuum") != DatabaseManager.AUTO_VACUUM_INCREMENTAL) {
+                    return true;
+                }
+            }
+            return false;
+
+        } catch (SQLException e) {
+            errorHandler.handleError("Failed to read auto-vacuum mode", e);
+            return false;
+        }
+    }
+
+    /**
+     * Scheduler entry point; never lets an exception escape the executor
+     */
+    private void runSafely() {
+        try {
+            convertAll();
+        } catch (Exception e) {
+            errorHandler.handleError("Incremental auto-vacuum conversion failed", e);
+        }
+    }
+
+    private static long queryLong(Statement stmt, String sql) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+}
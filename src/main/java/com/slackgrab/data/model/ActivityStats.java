@@ -0,0 +1,39 @@
+package com.slackgrab.data.model;
+
+/**
+ * Aggregate activity statistics for a sender or channel
+ *
+ * Mirrors a row of the 'sender_stats' or 'channel_stats' table, plus the
+ * message count over the recent activity window from the day buckets.
+ */
+public record ActivityStats(
+    long messageCount,            // Total messages stored
+    long recentMessageCount,      // Messages within the recent activity window
+    long interactionCount,        // User interactions with these messages
+    long feedbackCount,           // Explicit feedback given on these messages
+    double importanceSum,         // Sum of importance scores of scored messages
+    long scoredCount              // Number of scored messages
+) {
+    public static final ActivityStats EMPTY = new ActivityStats(0, 0, 0, 0, 0.0, 0);
+
+    /**
+     * Average importance score, 0.5 (neutral) if nothing has been scored
+     */
+    public double averageImportance() {
+        return scoredCount > 0 ? importanceSum / scoredCount : 0.5;
+    }
+
+    /**
+     * Interactions per message (0.0-1.0), 0.5 (neutral) if no messages
+     */
+    public double interactionRate() {
+        return messageCount > 0 ? Math.min(1.0, (double) interactionCount / messageCount) : 0.5;
+    }
+
+    /**
+     * Feedback items per message (0.0-1.0)
+     */
+    public double feedbackRate() {
+        return messageCount > 0 ? Math.min(1.0, (double) feedbackCount / messageCount) : 0.0;
+    }
+}
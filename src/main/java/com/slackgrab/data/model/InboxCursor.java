@@ -0,0 +1,57 @@
+package com.slackgrab.data.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Keyset position within the important-message inbox
+ *
+ * Identifies the last row of a page by its sort key
+ * (importance_score, timestamp, id). The next page starts strictly
+ * after this position, so deep pages cost the same as the first one.
+ */
+public record InboxCursor(
+    double importanceScore,       // Score of the last row returned
+    double timestamp,             // Slack timestamp of the last row returned
+    String messageId              // Tie-breaker for rows with equal score and timestamp
+) {
+    /**
+     * Encode cursor as an opaque token for UI/HTTP callers
+     *
+     * @return URL-safe token
+     */
+    public String encode() {
+        String raw = importanceScore + "|" + timestamp + "|" + messageId;
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}
+     *
+     * @param token Opaque cursor token
+     * @return Cursor, or empty if the token is malformed
+     */
+    public static Optional<InboxCursor> decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            if (parts.length != 3) {
+                return Optional.empty();
+            }
+
+            return Optional.of(new InboxCursor(
+                Double.parseDouble(parts[0]),
+                Double.parseDouble(parts[1]),
+                parts[2]
+            ));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.slackgrab.data.model;
+
+import java.util.List;
+
+/**
+ * One page of the important-message inbox
+ *
+ * nextCursor is null when there are no further rows.
+ */
+public record InboxPage(
+    List<SlackMessage> messages,
+    InboxCursor nextCursor
+) {
+    /**
+     * Create an empty page (no results)
+     */
+    public static InboxPage empty() {
+        return new InboxPage(List.of(), null);
+    }
+
+    /**
+     * Check if more rows are available after this page
+     */
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
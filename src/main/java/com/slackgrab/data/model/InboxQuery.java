@@ -0,0 +1,78 @@
+package com.slackgrab.data.model;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Query parameters for the important-message inbox
+ *
+ * Rows are ordered by importance score, then timestamp (newest first).
+ * Only scored messages are included. Use {@link Builder} to construct.
+ */
+public record InboxQuery(
+    Set<String> channelIds,       // Restrict to these channels (empty = all channels)
+    Double minScore,              // Minimum importance score (null = no minimum)
+    Instant since,                // Inclusive lower bound on message time (null = unbounded)
+    Instant until,                // Exclusive upper bound on message time (null = unbounded)
+    InboxCursor after,            // Continue after this position (null = first page)
+    int limit                     // Page size
+) {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    /**
+     * Create a query for the page following the given cursor
+     *
+     * @param cursor Cursor returned with the previous page
+     * @return Same query positioned after the cursor
+     */
+    public InboxQuery withCursor(InboxCursor cursor) {
+        return new InboxQuery(channelIds, minScore, since, until, cursor, limit);
+    }
+
+    /**
+     * Builder for InboxQuery
+     */
+    public static class Builder {
+        private Set<String> channelIds = Set.of();
+        private Double minScore;
+        private Instant since;
+        private Instant until;
+        private InboxCursor after;
+        private int limit = DEFAULT_PAGE_SIZE;
+
+        public Builder withChannels(Set<String> channelIds) {
+            this.channelIds = Set.copyOf(channelIds);
+            return this;
+        }
+
+        public Builder withMinScore(double minScore) {
+            this.minScore = minScore;
+            return this;
+        }
+
+        public Builder since(Instant since) {
+            this.since = since;
+            return this;
+        }
+
+        public Builder until(Instant until) {
+            this.until = until;
+            return this;
+        }
+
+        public Builder after(InboxCursor cursor) {
+            this.after = cursor;
+            return this;
+        }
+
+        public Builder withLimit(int limit) {
+            this.limit = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            return this;
+        }
+
+        public InboxQuery build() {
+            return new InboxQuery(channelIds, minScore, since, until, after, limit);
+        }
+    }
+}
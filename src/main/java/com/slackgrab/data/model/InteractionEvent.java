@@ -0,0 +1,36 @@
+package com.slackgrab.data.model;
+
+/**
+ * Coalesced user interaction with a message
+ *
+ * One buffered flush folds all captured events of the same type on the same
+ * message into a single event: dwell time is summed, the most recent
+ * capture time is kept and eventCount records how many captures it holds.
+ */
+public record InteractionEvent(
+    String messageId,
+    String interactionType,
+    long timestampMillis,
+    Long readingTimeMs,
+    int eventCount
+) {
+    /**
+     * Fold another coalesced event of the same message and type into this one
+     *
+     * @param other Event to fold in
+     * @return Merged event
+     */
+    public InteractionEvent merge(InteractionEvent other) {
+        Long mergedReadingTime = other.readingTimeMs == null
+            ? this.readingTimeMs
+            : Long.valueOf(other.readingTimeMs + (this.readingTimeMs != null ? this.readingTimeMs : 0));
+
+        return new InteractionEvent(
+            messageId,
+            interactionType,
+            Math.max(this.timestampMillis, other.timestampMillis),
+            mergedReadingTime,
+            eventCount + other.eventCount
+        );
+    }
+}
@@ -0,0 +1,24 @@
+package com.slackgrab.data.model;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Outcome of one retention and compaction run
+ */
+public record RetentionReport(
+    Instant completedAt,
+    int messagesDeleted,
+    int interactionsDeleted,
+    int feedbackDeleted,
+    long pagesReclaimed,
+    long bytesReclaimed,
+    Duration duration
+) {
+    /**
+     * Total rows removed across all tables
+     */
+    public int totalRowsDeleted() {
+        return messagesDeleted + interactionsDeleted + feedbackDeleted;
+    }
+}
@@ -0,0 +1,18 @@
+package com.slackgrab.data.model;
+
+/**
+ * Feature vector persisted for a message
+ *
+ * Maps to a row of the 'message_features' table. The vector and its
+ * hashed terms are only valid for the feature schema version they were
+ * extracted with and for the message content summarized by inputHash.
+ */
+public record StoredFeatures(
+    String messageId,             // Message the features were extracted from
+    int schemaVersion,            // FeatureSchema.version() at extraction time
+    long inputHash,               // Hash of the message fields the features depend on
+    float[] values,               // Feature values in schema column order
+    int[] terms,                  // Hashed term slots (FeatureSchema.MAX_TERMS), null if not stored
+    long createdAt                // When the features were extracted (epoch millis)
+) {
+}
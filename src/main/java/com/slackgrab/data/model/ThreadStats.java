@@ -0,0 +1,17 @@
+package com.slackgrab.data.model;
+
+/**
+ * Conversation statistics of a Slack thread
+ *
+ * Immutable snapshot served by ThreadIndex; replaced whenever the thread
+ * changes.
+ */
+public record ThreadStats(
+    int replyCount,               // Replies (observed or reported by Slack, whichever is higher)
+    int participantCount,         // Distinct authors of the root and replies
+    boolean selfParticipant,      // True if the authenticated user posted in the thread
+    long lastActivityMillis,      // Latest root or reply timestamp (epoch millis)
+    int attachmentCount           // Root and replies that carry files/attachments
+) {
+    public static final ThreadStats EMPTY = new ThreadStats(0, 0, false, 0L, 0);
+}
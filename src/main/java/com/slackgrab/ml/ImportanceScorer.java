@@ -21,16 +21,19 @@ public class ImportanceScorer {
 
     private final FeatureExtractor featureExtractor;
     private final NeuralNetworkModel neuralNetwork;
+    private final ScoringContextProvider contextProvider;
     private final ErrorHandler errorHandler;
 
     @Inject
     public ImportanceScorer(
         FeatureExtractor featureExtractor,
         NeuralNetworkModel neuralNetwork,
+        ScoringContextProvider contextProvider,
         ErrorHandler errorHandler
     ) {
         this.featureExtractor = featureExtractor;
         this.neuralNetwork = neuralNetwork;
+        this.contextProvider = contextProvider;
         this.errorHandler = errorHandler;
     }
 
@@ -53,13 +56,13 @@ public class ImportanceScorer {
     }
 
     /**
-     * Score a single message for importance
+     * Score a single message for importance, with the shared context
      *
      * @param message Message to score
      * @return Importance score
      */
     public ImportanceScore score(SlackMessage message) {
-        return score(message, ScoringContext.createDefault());
+        return score(message, contextProvider.current());
     }
 
     /**
@@ -113,13 +116,13 @@ public class ImportanceScorer {
     }
 
     /**
-     * Batch score multiple messages
+     * Batch score multiple messages, with the shared context
      *
      * @param messages Messages to score
      * @return Array of importance scores
      */
     public ImportanceScore[] batchScore(SlackMessage[] messages) {
-        return batchScore(messages, ScoringContext.createDefault());
+        return batchScore(messages, contextProvider.current());
     }
 
     /**
@@ -142,14 +145,13 @@ public class ImportanceScorer {
                 return scores;
             }
 
-            // Extract features for all messages
-            FeatureVector[] features = new FeatureVector[messages.length];
-            for (int i = 0; i < messages.length; i++) {
-                features[i] = featureExtractor.extractFeatures(messages[i], context);
-            }
+            // Extract features and hashed terms into preallocated matrices, across all cores
+            float[] features = new float[featureExtractor.getSchema().rowOffset(messages.length)];
+            int[] terms = new int[FeatureSchema.termRowOffset(messages.length)];
+            featureExtractor.extractBatchParallel(messages, context, features, terms);
 
             // Batch score
-            double[] rawScores = neuralNetwork.batchScore(features);
+            double[] rawScores = neuralNetwork.batchScore(features, terms, messages.length);
 
             // Create importance scores
             long inferenceTime = System.currentTimeMillis() - startTime;
@@ -165,7 +167,7 @@ public class ImportanceScorer {
                 );
             }
 
-            logger.info("Batch scored {} messages in {} ms", messages.length, inferenceTime);
+            logger.debug("Batch scored {} messages in {} ms", messages.length, inferenceTime);
             return importanceScores;
 
         } catch (Exception e) {
@@ -1,11 +1,16 @@
 package com.slackgrab.ml;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
+import com.google.inject.Singleton;
+import com.google.inject.multibindings.Multibinder;
 import com.slackgrab.ml.features.*;
 import com.slackgrab.ml.gpu.GpuAccelerator;
 import com.slackgrab.ml.gpu.ResourceMonitor;
+import com.slackgrab.ml.model.FeatureSchema;
 import com.slackgrab.ml.model.NeuralNetworkModel;
 import com.slackgrab.ml.training.BatchTrainer;
+import com.slackgrab.ml.training.InteractionTrainingFeed;
 import com.slackgrab.ml.training.OnlineTrainer;
 import com.slackgrab.ml.training.TrainingScheduler;
 
@@ -20,6 +25,7 @@ public class MLModule extends AbstractModule {
     protected void configure() {
         // Core ML components
         bind(ImportanceScorer.class);
+        bind(ScoringContextProvider.class);
         bind(NeuralNetworkModel.class);
 
         // Feature extraction
@@ -28,14 +34,33 @@ public class MLModule extends AbstractModule {
         bind(UserFeatureExtractor.class);
         bind(MediaFeatureExtractor.class);
         bind(TemporalFeatureExtractor.class);
+        bind(ChannelFeatureExtractor.class);
+        bind(UserTimeZones.class);
+        bind(FeatureStore.class);
+        bind(HashedNGramExtractor.class);
+
+        // Feature plugins, laid out in the schema in this order
+        Multibinder<FeaturePlugin> plugins = Multibinder.newSetBinder(binder(), FeaturePlugin.class);
+        plugins.addBinding().to(TextFeatureExtractor.class);
+        plugins.addBinding().to(UserFeatureExtractor.class);
+        plugins.addBinding().to(MediaFeatureExtractor.class);
+        plugins.addBinding().to(TemporalFeatureExtractor.class);
+        plugins.addBinding().to(ChannelFeatureExtractor.class);
 
         // Training
         bind(OnlineTrainer.class);
         bind(BatchTrainer.class);
         bind(TrainingScheduler.class);
+        bind(InteractionTrainingFeed.class);
 
         // GPU/Resource management
         bind(GpuAccelerator.class);
         bind(ResourceMonitor.class);
     }
+
+    @Provides
+    @Singleton
+    FeatureSchema provideFeatureSchema(FeatureExtractor featureExtractor) {
+        return featureExtractor.getSchema();
+    }
 }
@@ -0,0 +1,296 @@
+package com.slackgrab.ml;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.slackgrab.core.ErrorHandler;
+import com.slackgrab.core.ManagedService;
+import com.slackgrab.data.IdDictionary;
+import com.slackgrab.data.StatisticsRepository;
+import com.slackgrab.data.model.ActivityStats;
+import com.slackgrab.ml.model.ImportanceTable;
+import com.slackgrab.ml.model.ScoringContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared scoring context, published as copy-on-write snapshots
+ *
+ * Sender and channel importance live in primitive ImportanceTables keyed
+ * by dictionary key. Updates go to private staging tables; at a fixed
+ * cadence, if anything changed, the staging tables are copied (array
+ * clones) into a new immutable ScoringContext that readers pick up
+ * through a volatile field. Score calls therefore never copy or lock.
+ *
+ * Importance comes from two sources:
+ * - Learned: the share of each sender's and channel's messages the user
+ *   engaged with (interactions and feedback from StatisticsRepository),
+ *   shrunk toward neutral while few messages are stored. The model's own
+ *   scores are deliberately not used: they already reach the model as the
+ *   sender average feature, and feeding them back here would let the
+ *   model reinforce its own bias.
+ * - Pinned: values set explicitly (e.g. VIP senders), which learned
+ *   values never overwrite
+ */
+@Singleton
+public class ScoringContextProvider implements ManagedService {
+    private static final Logger logger = LoggerFactory.getLogger(ScoringContextProvider.class);
+
+    private static final long PUBLISH_INTERVAL_SECONDS = 5;
+    private static final long LEARN_INTERVAL_SECONDS = 60;
+
+    private static final double NEUTRAL_IMPORTANCE = 0.5;
+    // Pseudo-count of neutral messages a learned engagement rate is blended with
+    private static final double PRIOR_WEIGHT = 5.0;
+    // Learned changes smaller than this are not worth a new snapshot
+    private static final double MIN_CHANGE = 0.005;
+
+    private final StatisticsRepository statisticsRepository;
+    private final IdDictionary idDictionary;
+    private final ErrorHandler errorHandler;
+
+    // Staging state, guarded by this
+    private final ImportanceTable senders = new ImportanceTable();
+    private final ImportanceTable channels = new ImportanceTable();
+    private final ImportanceTable pinnedSenders = new ImportanceTable();
+    private final ImportanceTable pinnedChannels = new ImportanceTable();
+    private List<String> urgentKeywords = List.of();
+    private boolean dirty;
+
+    private volatile ScoringContext snapshot;
+
+    private ScheduledExecutorService scheduler;
+
+    @Inject
+    public ScoringContextProvider(
+        StatisticsRepository statisticsRepository,
+        IdDictionary idDictionary,
+        ErrorHandler errorHandler
+    ) {
+        this.statisticsRepository = statisticsRepository;
+        this.idDictionary = idDictionary;
+        this.errorHandler = errorHandler;
+        this.dirty = true;
+        publish();
+    }
+
+    @Override
+    public void start() throws Exception {
+        learn();
+        publish();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r);
+            t.setName("ScoringContextProvider");
+            t.setDaemon(true);
+            return t;
+        });
+
+        scheduler.scheduleWithFixedDelay(
+            this::publishSafely,
+            PUBLISH_INTERVAL_SECONDS,
+            PUBLISH_INTERVAL_SECONDS,
+            TimeUnit.SECONDS
+        );
+
+        scheduler.scheduleWithFixedDelay(
+            this::learnSafely,
+            LEARN_INTERVAL_SECONDS,
+            LEARN_INTERVAL_SECONDS,
+            TimeUnit.SECONDS
+        );
+
+        logger.info("Scoring context provider started. Senders: {}, Channels: {}",
+            senders.size(), channels.size());
+    }
+
+    @Override
+    public void stop() throws Exception {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
+                    scheduler.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                scheduler.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Get the current context snapshot, as of now
+     *
+     * Shares the published tables; nothing is copied.
+     *
+     * @return Scoring context
+     */
+    public ScoringContext current() {
+        return snapshot.at(System.currentTimeMillis());
+    }
+
+    /**
+     * Pin a sender's importance (takes effect at the next publish)
+     *
+     * @param userId Slack user ID
+     * @param importance Importance 0.0-1.0
+     */
+    public void setSenderImportance(String userId, double importance) {
+        pin(userId, importance, senders, pinnedSenders);
+    }
+
+    /**
+     * Pin a channel's importance (takes effect at the next publish)
+     *
+     * @param channelId Slack channel ID
+     * @param importance Importance 0.0-1.0
+     */
+    public void setChannelImportance(String channelId, double importance) {
+        pin(channelId, importance, channels, pinnedChannels);
+    }
+
+    /**
+     * Unpin a sender's importance (falls back to the learned value)
+     *
+     * @param userId Slack user ID
+     */
+    public void clearSenderImportance(String userId) {
+        unpin(userId, senders, pinnedSenders);
+    }
+
+    /**
+     * Unpin a channel's importance (falls back to the learned value)
+     *
+     * @param channelId Slack channel ID
+     */
+    public void clearChannelImportance(String channelId) {
+        unpin(channelId, channels, pinnedChannels);
+    }
+
+    /**
+     * Replace the urgent keywords (takes effect at the next publish)
+     *
+     * @param keywords Keywords indicating urgency
+     */
+    public synchronized void setUrgentKeywords(List<String> keywords) {
+        List<String> copy = List.copyOf(keywords);
+        if (!copy.equals(urgentKeywords)) {
+            urgentKeywords = copy;
+            dirty = true;
+        }
+    }
+
+    /**
+     * Publish a new snapshot now if anything changed
+     *
+     * Called at a fixed cadence; may also be called directly after bulk updates.
+     */
+    public synchronized void publish() {
+        if (!dirty) {
+            return;
+        }
+
+        // The keyword list is kept by reference while unchanged, so cached keyword matchers stay valid
+        snapshot = ScoringContext.ofTables(
+            senders.copy(),
+            channels.copy(),
+            id -> idDictionary.find(id).orElse(-1),
+            urgentKeywords,
+            System.currentTimeMillis()
+        );
+        dirty = false;
+    }
+
+    /**
+     * Fold the latest sender and channel statistics into the staging tables
+     */
+    private void learn() {
+        Map<String, ActivityStats> senderStats = statisticsRepository.getAllSenderStats();
+        Map<String, ActivityStats> channelStats = statisticsRepository.getAllChannelStats();
+
+        synchronized (this) {
+            int changed = learn(senderStats, senders, pinnedSenders) + learn(channelStats, channels, pinnedChannels);
+            if (changed > 0) {
+                dirty = true;
+                logger.debug("Scoring context learned {} importance changes", changed);
+            }
+        }
+    }
+
+    private int learn(Map<String, ActivityStats> stats, ImportanceTable target, ImportanceTable pinned) {
+        int changed = 0;
+        for (Map.Entry<String, ActivityStats> entry : stats.entrySet()) {
+            ActivityStats activity = entry.getValue();
+            long engaged = Math.min(activity.messageCount(), activity.interactionCount() + activity.feedbackCount());
+            if (engaged == 0) {
+                // No engagement observed yet; stays neutral
+                continue;
+            }
+
+            int key = idDictionary.find(entry.getKey()).orElse(-1);
+            if (key < 0 || pinned.containsKey(key)) {
+                continue;
+            }
+
+            double importance = (engaged + PRIOR_WEIGHT * NEUTRAL_IMPORTANCE)
+                / (activity.messageCount() + PRIOR_WEIGHT);
+            double previous = target.get(key, Double.NaN);
+            if (Double.isNaN(previous) || Math.abs(previous - importance) >= MIN_CHANGE) {
+                target.put(key, importance);
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    private void pin(String slackId, double importance, ImportanceTable target, ImportanceTable pinned) {
+        if (slackId == null) {
+            return;
+        }
+
+        try {
+            // Assigns a key if the ID has no stored rows yet
+            int key = idDictionary.encode(slackId);
+            double value = Math.max(0.0, Math.min(1.0, importance));
+
+            synchronized (this) {
+                pinned.put(key, value);
+                target.put(key, value);
+                dirty = true;
+            }
+        } catch (SQLException e) {
+            errorHandler.handleError("Failed to pin importance for " + slackId, e);
+        }
+    }
+
+    private synchronized void unpin(String slackId, ImportanceTable target, ImportanceTable pinned) {
+        int key = idDictionary.find(slackId).orElse(-1);
+        if (pinned.remove(key)) {
+            // Relearned at the next learn pass
+            target.remove(key);
+            dirty = true;
+        }
+    }
+
+    private void publishSafely() {
+        try {
+            publish();
+        } catch (Exception e) {
+            errorHandler.handleError("Failed to publish scoring context", e);
+        }
+    }
+
+    private void learnSafely() {
+        try {
+            learn();
+        } catch (Exception e) {
+            errorHandler.handleError("Failed to refresh scoring context", e);
+        }
+    }
+}
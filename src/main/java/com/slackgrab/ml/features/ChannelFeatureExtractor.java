@@ -0,0 +1,68 @@
+package com.slackgrab.ml.features;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.slackgrab.data.ActivitySketches;
+import com.slackgrab.data.model.SlackMessage;
+import com.slackgrab.ml.model.ScoringContext;
+
+import java.util.List;
+
+/**
+ * Extract channel-based features
+ *
+ * Features (3 total):
+ * 1. Channel importance (from context)
+ * 2. Is private channel (binary)
+ * 3. Channel frequency (message volume over about the last week,
+ *    from ActivitySketches)
+ */
+@Singleton
+public class ChannelFeatureExtractor implements FeaturePlugin {
+
+    public static final List<String> FEATURE_NAMES = List.of(
+        "channel_importance",
+        "is_private_channel",
+        "channel_frequency"
+    );
+
+    // Recent (7 day) message count that maps to frequency 1.0
+    private static final double MAX_RECENT_MESSAGES = 1000.0;
+
+    private final ActivitySketches activitySketches;
+
+    @Inject
+    public ChannelFeatureExtractor(ActivitySketches activitySketches) {
+        this.activitySketches = activitySketches;
+    }
+
+    @Override
+    public String name() {
+        return "channel";
+    }
+
+    @Override
+    public List<String> featureNames() {
+        return FEATURE_NAMES;
+    }
+
+    @Override
+    public int version() {
+        return 2;
+    }
+
+    @Override
+    public void extract(SlackMessage message, ScoringContext context, float[] out, int offset) {
+        String channelId = message.channelId();
+
+        // 0: Channel importance (from context)
+        out[offset] = (float) context.getChannelImportance(channelId);
+
+        // 1: Is private channel (heuristic based on ID)
+        out[offset + 1] = channelId != null && channelId.startsWith("D") ? 1.0f : 0.0f; // DM channels start with 'D'
+
+        // 2: Channel frequency (recent message volume, log-scaled)
+        double recentMessages = activitySketches.getChannelMessageRate(channelId);
+        out[offset + 2] = (float) Math.min(1.0, Math.log1p(recentMessages) / Math.log1p(MAX_RECENT_MESSAGES));
+    }
+}
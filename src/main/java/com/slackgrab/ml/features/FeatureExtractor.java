@@ -1,52 +1,111 @@
 package com.slackgrab.ml.features;
 
 import com.google.inject.Inject;
+import com.google.inject.Singleton;
 import com.slackgrab.data.model.SlackMessage;
+import com.slackgrab.ml.model.FeatureSchema;
 import com.slackgrab.ml.model.FeatureVector;
 import com.slackgrab.ml.model.ScoringContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Main feature extractor for message importance scoring
  *
- * Combines text, user, media, and temporal features into a single
+ * Combines the blocks of all registered FeaturePlugins (text, user,
+ * media, temporal and channel features by default) into a single
  * feature vector for neural network input.
  *
- * Feature dimension: 25 features total
- * - Text features: 10
- * - User features: 5
- * - Media features: 3
- * - Temporal features: 5
- * - Channel features: 2
+ * The column layout is the FeatureSchema assembled from the plugins in
+ * registration order. The extractInto and extractBatch methods write
+ * rows straight into caller-owned buffers so the scoring hot path
+ * allocates nothing per message.
+ *
+ * Every plugin call is counted and timed (see getPluginStats). A plugin
+ * that throws only loses its own block, which is filled with 0.5.
+ *
+ * The sparse block of hashed text terms (HashedNGramExtractor) is
+ * written separately, into term slot arrays.
  */
+@Singleton
 public class FeatureExtractor {
     private static final Logger logger = LoggerFactory.getLogger(FeatureExtractor.class);
 
-    public static final int FEATURE_DIMENSION = 25;
+    private static final float DEFAULT_FEATURE_VALUE = 0.5f;
 
-    private final TextFeatureExtractor textExtractor;
-    private final UserFeatureExtractor userExtractor;
-    private final MediaFeatureExtractor mediaExtractor;
-    private final TemporalFeatureExtractor temporalExtractor;
+    // Parallel batches: below this many rows one thread is faster than forking
+    private static final int PARALLEL_THRESHOLD = 512;
+    // Smallest chunk handed to a worker, and chunks per worker for load balancing
+    private static final int MIN_CHUNK_ROWS = 128;
+    private static final int CHUNKS_PER_WORKER = 4;
 
-    private final Map<String, Integer> featureIndices;
+    /**
+     * Call statistics of one plugin since startup
+     *
+     * @param name Plugin name
+     * @param calls Number of extract calls
+     * @param totalNanos Total time spent in extract
+     * @param failures Number of calls that threw
+     */
+    public record PluginStats(String name, long calls, long totalNanos, long failures) {
+
+        public double meanNanos() {
+            return calls > 0 ? (double) totalNanos / calls : 0.0;
+        }
+    }
+
+    private final FeaturePlugin[] plugins;
+    private final int[] offsets;
+    private final int[] sizes;
+    private final LongAdder[] calls;
+    private final LongAdder[] nanos;
+    private final LongAdder[] failures;
+    private final FeatureSchema schema;
+    private final int dimension;
+    private final HashedNGramExtractor termExtractor;
+
+    // Scratch row for FloatBuffers without an accessible backing array
+    private final ThreadLocal<float[]> scratchRow;
 
     @Inject
-    public FeatureExtractor(
-        TextFeatureExtractor textExtractor,
-        UserFeatureExtractor userExtractor,
-        MediaFeatureExtractor mediaExtractor,
-        TemporalFeatureExtractor temporalExtractor
-    ) {
-        this.textExtractor = textExtractor;
-        this.userExtractor = userExtractor;
-        this.mediaExtractor = mediaExtractor;
-        this.temporalExtractor = temporalExtractor;
-        this.featureIndices = buildFeatureIndices();
+    public FeatureExtractor(Set<FeaturePlugin> plugins, HashedNGramExtractor termExtractor) {
+        this.plugins = plugins.toArray(new FeaturePlugin[0]);
+        this.offsets = new int[this.plugins.length];
+        this.sizes = new int[this.plugins.length];
+        this.calls = new LongAdder[this.plugins.length];
+        this.nanos = new LongAdder[this.plugins.length];
+        this.failures = new LongAdder[this.plugins.length];
+
+        FeatureSchema.Builder builder = FeatureSchema.builder();
+        for (int i = 0; i < this.plugins.length; i++) {
+            FeaturePlugin plugin = this.plugins[i];
+            builder.addBlock(plugin.name(), plugin.featureNames(), plugin.version());
+            calls[i] = new LongAdder();
+            nanos[i] = new LongAdder();
+            failures[i] = new LongAdder();
+        }
+        this.schema = builder.build();
+        for (int i = 0; i < this.plugins.length; i++) {
+            FeatureSchema.Block block = schema.blocks().get(i);
+            offsets[i] = block.offset();
+            sizes[i] = block.size();
+        }
+
+        this.dimension = schema.dimension();
+        this.termExtractor = termExtractor;
+        this.scratchRow = ThreadLocal.withInitial(() -> new float[dimension]);
+
+        logger.info("Feature schema assembled: {}", schema);
     }
 
     /**
@@ -54,131 +113,181 @@ public class FeatureExtractor {
      *
      * @param message The message to extract features from
      * @param context Scoring context with historical data
-     * @return Feature vector for neural network
+     * @return Feature vector (with hashed terms) for neural network
      */
     public FeatureVector extractFeatures(SlackMessage message, ScoringContext context) {
-        try {
-            float[] features = new float[FEATURE_DIMENSION];
-            int offset = 0;
-
-            // Text features (10 features)
-            float[] textFeatures = textExtractor.extractFeatures(message.text(), context);
-            System.arraycopy(textFeatures, 0, features, offset, textFeatures.length);
-            offset += textFeatures.length;
-
-            // User features (5 features)
-            float[] userFeatures = userExtractor.extractFeatures(message.userId(), context);
-            System.arraycopy(userFeatures, 0, features, offset, userFeatures.length);
-            offset += userFeatures.length;
-
-            // Media features (3 features)
-            float[] mediaFeatures = mediaExtractor.extractFeatures(message);
-            System.arraycopy(mediaFeatures, 0, features, offset, mediaFeatures.length);
-            offset += mediaFeatures.length;
-
-            // Temporal features (5 features)
-            float[] temporalFeatures = temporalExtractor.extractFeatures(
-                parseTimestamp(message.timestamp()),
-                context.getCurrentTime()
-            );
-            System.arraycopy(temporalFeatures, 0, features, offset, temporalFeatures.length);
-            offset += temporalFeatures.length;
+        float[] features = new float[dimension];
+        extractInto(message, context, features, 0);
+        return new FeatureVector(features, extractTerms(message), schema.indices());
+    }
 
-            // Channel features (2 features)
-            float[] channelFeatures = extractChannelFeatures(message.channelId(), context);
-            System.arraycopy(channelFeatures, 0, features, offset, channelFeatures.length);
+    /**
+     * Extract the hashed text terms of a message
+     *
+     * @param message The message
+     * @return FeatureSchema.MAX_TERMS term slots
+     */
+    public int[] extractTerms(SlackMessage message) {
+        return termExtractor.extractTerms(message.text());
+    }
 
-            return new FeatureVector(features, featureIndices);
+    /**
+     * Write the hashed text terms of a message into a caller-owned slot array
+     *
+     * @param message The message
+     * @param terms Destination array
+     * @param offset Index in terms of the first of MAX_TERMS slots
+     */
+    public void extractTermsInto(SlackMessage message, int[] terms, int offset) {
+        termExtractor.extractInto(message.text(), terms, offset);
+    }
 
-        } catch (Exception e) {
-            logger.error("Failed to extract features from message: {}", message.id(), e);
-            return createDefaultFeatureVector();
+    /**
+     * Write all features of a message into a caller-owned array slice
+     *
+     * Fills out[offset, offset + schema dimension) in schema column
+     * order. If a plugin fails, its block is filled with 0.5.
+     *
+     * @param message The message to extract features from
+     * @param context Scoring context with historical data
+     * @param out Destination array
+     * @param offset Index in out of the first feature
+     */
+    public void extractInto(SlackMessage message, ScoringContext context, float[] out, int offset) {
+        for (int i = 0; i < plugins.length; i++) {
+            int blockOffset = offset + offsets[i];
+            long start = System.nanoTime();
+            try {
+                plugins[i].extract(message, context, out, blockOffset);
+            } catch (Exception e) {
+                failures[i].increment();
+                logger.error("Feature plugin {} failed on message: {}", plugins[i].name(), message.id(), e);
+                Arrays.fill(out, blockOffset, blockOffset + sizes[i], DEFAULT_FEATURE_VALUE);
+            }
+            nanos[i].add(System.nanoTime() - start);
+            calls[i].increment();
         }
     }
 
     /**
-     * Extract channel-specific features
+     * Write all features of a message into one row of a FloatBuffer
+     *
+     * Uses absolute positions, so the buffer's position and limit are
+     * left unchanged. Heap buffers are written in place; direct buffers
+     * go through a per-thread scratch row and a single bulk put.
+     *
+     * @param message The message to extract features from
+     * @param context Scoring context with historical data
+     * @param out Destination buffer holding rows of schema dimension floats
+     * @param row Row to fill
      */
-    private float[] extractChannelFeatures(String channelId, ScoringContext context) {
-        float[] features = new float[2];
-
-        // Feature 0: Channel importance (from context)
-        features[0] = (float) context.getChannelImportance(channelId);
-
-        // Feature 1: Is private channel (heuristic based on ID)
-        features[1] = channelId.startsWith("D") ? 1.0f : 0.0f; // DM channels start with 'D'
+    public void extractInto(SlackMessage message, ScoringContext context, FloatBuffer out, int row) {
+        int index = schema.rowOffset(row);
+        if (index + dimension > out.limit()) {
+            throw new IndexOutOfBoundsException(
+                "Row " + row + " does not fit in a buffer with limit " + out.limit());
+        }
 
-        return features;
+        if (out.hasArray()) {
+            extractInto(message, context, out.array(), out.arrayOffset() + index);
+        } else {
+            float[] scratch = scratchRow.get();
+            extractInto(message, context, scratch, 0);
+            out.put(index, scratch);
+        }
     }
 
     /**
-     * Parse Slack timestamp to milliseconds
+     * Extract features for a batch of messages into a row-major matrix
+     *
+     * Row i of the matrix holds the features of messages.get(i).
+     *
+     * @param messages Messages to extract features from
+     * @param context Scoring context with historical data
+     * @param matrix Destination with room for messages.size() rows
      */
-    private long parseTimestamp(String timestamp) {
-        try {
-            // Slack timestamp format: "1234567890.123456"
-            double ts = Double.parseDouble(timestamp);
-            return (long) (ts * 1000);
-        } catch (NumberFormatException e) {
-            logger.warn("Failed to parse timestamp: {}", timestamp);
-            return System.currentTimeMillis();
+    public void extractBatch(List<SlackMessage> messages, ScoringContext context, float[] matrix) {
+        checkCapacity(messages.size(), matrix);
+        for (int i = 0; i < messages.size(); i++) {
+            extractInto(messages.get(i), context, matrix, schema.rowOffset(i));
         }
     }
 
     /**
-     * Create default feature vector (all features = 0.5)
+     * Extract features for a batch of messages into a row-major matrix
+     *
+     * @param messages Messages to extract features from
+     * @param context Scoring context with historical data
+     * @param matrix Destination with room for messages.length rows
      */
-    private FeatureVector createDefaultFeatureVector() {
-        float[] features = new float[FEATURE_DIMENSION];
-        for (int i = 0; i < features.length; i++) {
-            features[i] = 0.5f;
+    public void extractBatch(SlackMessage[] messages, ScoringContext context, float[] matrix) {
+        checkCapacity(messages.length, matrix);
+        for (int i = 0; i < messages.length; i++) {
+            extractInto(messages[i], context, matrix, schema.rowOffset(i));
         }
-        return new FeatureVector(features, featureIndices);
     }
 
     /**
-     * Build feature name to index mapping
+     * Extract features for a batch of messages across the common ForkJoin pool
+     *
+     * The batch is split into contiguous row ranges sized so that every
+     * worker gets a few chunks (for load balancing) and no chunk is too
+     * small to be worth a task. Each task writes its own rows of the
+     * shared matrix, so no merging is needed. Small batches run on the
+     * calling thread.
+     *
+     * @param messages Messages to extract features from
+     * @param context Scoring context with historical data
+     * @param matrix Destination with room for messages.length rows
      */
-    private Map<String, Integer> buildFeatureIndices() {
-        Map<String, Integer> indices = new HashMap<>();
-        int idx = 0;
-
-        // Text features (0-9)
-        indices.put("text_length", idx++);
-        indices.put("word_count", idx++);
-        indices.put("has_question", idx++);
-        indices.put("has_url", idx++);
-        indices.put("has_mention", idx++);
-        indices.put("has_emoji", idx++);
-        indices.put("uppercase_ratio", idx++);
-        indices.put("exclamation_count", idx++);
-        indices.put("avg_word_length", idx++);
-        indices.put("urgent_keyword_match", idx++);
+    public void extractBatchParallel(SlackMessage[] messages, ScoringContext context, float[] matrix) {
+        extractBatchParallel(messages, context, matrix, null);
+    }
 
-        // User features (10-14)
-        indices.put("sender_importance", idx++);
-        indices.put("sender_frequency", idx++);
-        indices.put("user_interaction_rate", idx++);
-        indices.put("sender_avg_importance", idx++);
-        indices.put("is_bot", idx++);
+    /**
+     * Extract features and hashed terms for a batch across the common ForkJoin pool
+     *
+     * @param messages Messages to extract features from
+     * @param context Scoring context with historical data
+     * @param matrix Destination with room for messages.length rows
+     * @param terms Term destination with room for messages.length rows, or null
+     */
+    public void extractBatchParallel(SlackMessage[] messages, ScoringContext context, float[] matrix, int[] terms) {
+        checkCapacity(messages.length, matrix);
+        if (terms != null && terms.length < FeatureSchema.termRowOffset(messages.length)) {
+            throw new IllegalArgumentException(
+                "Term matrix of " + terms.length + " slots cannot hold " + messages.length + " rows");
+        }
 
-        // Media features (15-17)
-        indices.put("has_attachments", idx++);
-        indices.put("attachment_count", idx++);
-        indices.put("in_thread", idx++);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        if (messages.length < PARALLEL_THRESHOLD || pool.getParallelism() < 2) {
+            new BatchTask(messages, context, matrix, terms, 0, messages.length, messages.length).compute();
+            return;
+        }
 
-        // Temporal features (18-22)
-        indices.put("hour_of_day", idx++);
-        indices.put("day_of_week", idx++);
-        indices.put("is_business_hours", idx++);
-        indices.put("recency", idx++);
-        indices.put("is_weekend", idx++);
+        int chunkRows = Math.max(MIN_CHUNK_ROWS,
+            messages.length / (pool.getParallelism() * CHUNKS_PER_WORKER) + 1);
+        pool.invoke(new BatchTask(messages, context, matrix, terms, 0, messages.length, chunkRows));
+    }
 
-        // Channel features (23-24)
-        indices.put("channel_importance", idx++);
-        indices.put("is_private_channel", idx++);
+    /**
+     * Extract features for a batch of messages into a newly allocated matrix
+     *
+     * @param messages Messages to extract features from
+     * @param context Scoring context with historical data
+     * @return Row-major matrix of messages.size() rows
+     */
+    public float[] extractBatch(List<SlackMessage> messages, ScoringContext context) {
+        float[] matrix = new float[schema.rowOffset(messages.size())];
+        extractBatch(messages, context, matrix);
+        return matrix;
+    }
 
-        return indices;
+    private void checkCapacity(int rows, float[] matrix) {
+        if (matrix.length < schema.rowOffset(rows)) {
+            throw new IllegalArgumentException(
+                "Matrix of " + matrix.length + " floats cannot hold " + rows + " feature rows");
+        }
     }
 
     /**
@@ -187,7 +296,7 @@ public class FeatureExtractor {
      * @return Total number of features
      */
     public int getFeatureDimension() {
-        return FEATURE_DIMENSION;
+        return dimension;
     }
 
     /**
@@ -196,6 +305,71 @@ public class FeatureExtractor {
      * @return Map of feature name to index
      */
     public Map<String, Integer> getFeatureIndices() {
-        return Map.copyOf(featureIndices);
+        return schema.indices();
+    }
+
+    /**
+     * Get the schema assembled from the registered plugins
+     *
+     * @return Feature schema
+     */
+    public FeatureSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Get per-plugin call counts and timings since startup
+     *
+     * @return Statistics in schema block order
+     */
+    public List<PluginStats> getPluginStats() {
+        List<PluginStats> stats = new ArrayList<>(plugins.length);
+        for (int i = 0; i < plugins.length; i++) {
+            stats.add(new PluginStats(plugins[i].name(), calls[i].sum(), nanos[i].sum(), failures[i].sum()));
+        }
+        return stats;
+    }
+
+    /**
+     * Extracts rows [start, end), splitting in halves down to chunkRows
+     */
+    private final class BatchTask extends RecursiveAction {
+        private final SlackMessage[] messages;
+        private final ScoringContext context;
+        private final float[] matrix;
+        private final int[] terms;
+        private final int start;
+        private final int end;
+        private final int chunkRows;
+
+        BatchTask(SlackMessage[] messages, ScoringContext context, float[] matrix, int[] terms,
+                  int start, int end, int chunkRows) {
+            this.messages = messages;
+            this.context = context;
+            this.matrix = matrix;
+            this.terms = terms;
+            this.start = start;
+            this.end = end;
+            this.chunkRows = chunkRows;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= chunkRows) {
+                for (int i = start; i < end; i++) {
+                    extractInto(messages[i], context, matrix, schema.rowOffset(i));
+                    if (terms != null) {
+                        extractTermsInto(messages[i], terms, FeatureSchema.termRowOffset(i));
+                    }
+                }
+                return;
+            }
+
+            int middle = (start + end) >>> 1;
+            invokeAll(
+                new BatchTask(messages, context, matrix, terms, start, middle, chunkRows),
+                new BatchTask(messages, context, matrix, terms, middle, end, chunkRows)
+            );
+        }
     }
 }
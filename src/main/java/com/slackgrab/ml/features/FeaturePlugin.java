@@ -0,0 +1,57 @@
+package com.slackgrab.ml.features;
+
+import com.slackgrab.data.model.SlackMessage;
+import com.slackgrab.ml.model.ScoringContext;
+
+import java.util.List;
+
+/**
+ * A block of features contributed to the model input
+ *
+ * Plugins are registered in MLModule; FeatureExtractor lays their blocks
+ * out in registration order and derives the FeatureSchema (and its
+ * version) from what they declare. Adding a feature therefore means
+ * writing a plugin and registering it; the schema, the model input size
+ * and the stored-vector version follow automatically.
+ *
+ * Implementations must be thread-safe: extract is called concurrently
+ * from batch extraction.
+ */
+public interface FeaturePlugin {
+
+    /**
+     * Block name, unique among registered plugins
+     */
+    String name();
+
+    /**
+     * Names of the block's features, in the order extract writes them
+     *
+     * Must be constant for the life of the plugin, and each name must be
+     * unique across all plugins.
+     */
+    List<String> featureNames();
+
+    /**
+     * Version of the block's computation
+     *
+     * Bump when a feature's meaning changes without its name changing,
+     * so persisted vectors of the old computation are discarded.
+     */
+    default int version() {
+        return 1;
+    }
+
+    /**
+     * Write the block's features into a caller-owned buffer
+     *
+     * Fills out[offset, offset + featureNames().size()). Exceptions are
+     * caught by FeatureExtractor, which fills the block with neutral values.
+     *
+     * @param message The message to extract features from
+     * @param context Scoring context with historical data
+     * @param out Destination array
+     * @param offset Index in out of the block's first feature
+     */
+    void extract(SlackMessage message, ScoringContext context, float[] out, int offset);
+}
@@ -0,0 +1,184 @@
+package com.slackgrab.ml.features;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.slackgrab.data.FeatureRepository;
+import com.slackgrab.data.model.SlackMessage;
+import com.slackgrab.data.model.StoredFeatures;
+import com.slackgrab.ml.model.FeatureSchema;
+import com.slackgrab.ml.model.FeatureVector;
+import com.slackgrab.ml.model.ScoringContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Persistent cache of extracted feature vectors
+ *
+ * Vectors are stored per message with the FeatureSchema version and a
+ * hash of the message fields they were computed from. A stored vector
+ * is used only if both still match; otherwise the message is extracted
+ * again and the stored row replaced. Rows of other schema versions are
+ * deleted on first use after an upgrade. The hashed text terms are stored
+ * next to the vector, so a lookup does no tokenizing; rows stored without
+ * them are treated as missing.
+ *
+ * A stored vector is a snapshot: sender/channel context and recency are
+ * as of extraction time. That is what training wants (the features the
+ * label was observed with); live scoring should keep using
+ * FeatureExtractor directly.
+ */
+@Singleton
+public class FeatureStore {
+    private static final Logger logger = LoggerFactory.getLogger(FeatureStore.class);
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final FeatureExtractor featureExtractor;
+    private final FeatureRepository featureRepository;
+    private final FeatureSchema schema;
+
+    private final AtomicBoolean outdatedVersionsPurged = new AtomicBoolean(false);
+
+    @Inject
+    public FeatureStore(FeatureExtractor featureExtractor, FeatureRepository featureRepository) {
+        this.featureExtractor = featureExtractor;
+        this.featureRepository = featureRepository;
+        this.schema = featureExtractor.getSchema();
+    }
+
+    /**
+     * Get features of a message, extracting and storing them if needed
+     *
+     * @param message The message
+     * @param context Scoring context used if extraction is needed
+     * @return Feature vector
+     */
+    public FeatureVector getFeatures(SlackMessage message, ScoringContext context) {
+        return getFeatures(List.of(message), context).get(0);
+    }
+
+    /**
+     * Get features of several messages, extracting and storing the missing ones
+     *
+     * Uses one lookup and at most one write transaction for the batch.
+     *
+     * @param messages The messages
+     * @param context Scoring context used for messages that need extraction
+     * @return Feature vectors in message order
+     */
+    public List<FeatureVector> getFeatures(List<SlackMessage> messages, ScoringContext context) {
+        Map<String, FeatureVector> stored = getStoredFeatures(messages);
+
+        List<FeatureVector> result = new ArrayList<>(messages.size());
+        List<StoredFeatures> extracted = new ArrayList<>();
+        long now = System.currentTimeMillis();
+
+        for (SlackMessage message : messages) {
+            FeatureVector features = stored.get(message.id());
+            if (features == null) {
+                float[] values = new float[schema.dimension()];
+                featureExtractor.extractInto(message, context, values, 0);
+                int[] terms = featureExtractor.extractTerms(message);
+                features = new FeatureVector(values, terms, schema.indices());
+                extracted.add(new StoredFeatures(
+                    message.id(), schema.version(), inputHash(message), values, terms, now));
+            }
+            result.add(features);
+        }
+
+        if (!extracted.isEmpty()) {
+            featureRepository.saveFeatures(extracted);
+            logger.debug("Stored features for {} of {} messages", extracted.size(), messages.size());
+        }
+        return result;
+    }
+
+    /**
+     * Get stored features that are still valid, without extracting anything
+     *
+     * Messages whose features are missing, stored without terms, from
+     * another schema version, or computed from different message content
+     * are absent from the result.
+     *
+     * @param messages The messages
+     * @return Valid stored vectors by message ID
+     */
+    public Map<String, FeatureVector> getStoredFeatures(List<SlackMessage> messages) {
+        purgeOutdatedVersionsOnce();
+
+        List<String> ids = new ArrayList<>(messages.size());
+        for (SlackMessage message : messages) {
+            ids.add(message.id());
+        }
+        Map<String, StoredFeatures> rows = featureRepository.getFeatures(ids, schema.version());
+
+        Map<String, FeatureVector> valid = new HashMap<>();
+        for (SlackMessage message : messages) {
+            StoredFeatures row = rows.get(message.id());
+            if (row != null
+                && row.values().length == schema.dimension()
+                && row.terms() != null
+                && row.terms().length == FeatureSchema.MAX_TERMS
+                && row.inputHash() == inputHash(message)) {
+                valid.put(message.id(), new FeatureVector(row.values(), row.terms(), schema.indices()));
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Drop the stored features of a message
+     *
+     * @param messageId Message ID
+     */
+    public void invalidate(String messageId) {
+        featureRepository.deleteFeatures(messageId);
+    }
+
+    /**
+     * Hash of the message fields that features are computed from
+     *
+     * 64-bit FNV-1a over text, sender, channel, timestamp, thread and
+     * attachment flag. Edits to any of them change the hash.
+     *
+     * @param message The message
+     * @return Input hash
+     */
+    public static long inputHash(SlackMessage message) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = mix(hash, message.text());
+        hash = mix(hash, message.userId());
+        hash = mix(hash, message.channelId());
+        hash = mix(hash, message.timestamp());
+        hash = mix(hash, message.threadTs());
+        hash = (hash ^ (message.hasAttachments() ? 1 : 0)) * FNV_PRIME;
+        return hash;
+    }
+
+    private static long mix(long hash, String value) {
+        if (value == null) {
+            // Distinguish null from the empty string
+            return (hash ^ 0xFF) * FNV_PRIME;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash = (hash ^ (c & 0xFF)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        // Field separator
+        return (hash ^ 0x1F) * FNV_PRIME;
+    }
+
+    private void purgeOutdatedVersionsOnce() {
+        if (outdatedVersionsPurged.compareAndSet(false, true)) {
+            featureRepository.deleteOtherVersions(schema.version());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.slackgrab.ml.features;
+
+import com.google.inject.Singleton;
+import com.slackgrab.ml.model.FeatureSchema;
+
+import java.util.Arrays;
+
+/**
+ * Extract hashed word unigrams and bigrams from message text
+ *
+ * Words are maximal runs of letters and digits, lowercased. Each word
+ * and each pair of adjacent words is hashed into one of
+ * FeatureSchema.TERM_BUCKETS buckets with a hash-derived sign (the
+ * hashing trick), so no vocabulary is stored and collisions cancel out
+ * on average. The hashes are built incrementally while scanning the
+ * text once, without creating substrings.
+ *
+ * At most FeatureSchema.MAX_TERMS terms are kept per message, in text
+ * order; see FeatureSchema for the slot encoding.
+ */
+@Singleton
+public class HashedNGramExtractor {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long BIGRAM_SEED = 0x9E3779B97F4A7C15L;
+
+    private static final int BUCKET_MASK = FeatureSchema.TERM_BUCKETS - 1;
+
+    /**
+     * Extract terms into a newly allocated slot array
+     *
+     * @param text Message text (may be null)
+     * @return MAX_TERMS slots
+     */
+    public int[] extractTerms(String text) {
+        int[] terms = new int[FeatureSchema.MAX_TERMS];
+        extractInto(text, terms, 0);
+        return terms;
+    }
+
+    /**
+     * Write terms into a caller-owned slot array
+     *
+     * Fills out[offset, offset + MAX_TERMS); slots after the last term
+     * are set to EMPTY_TERM.
+     *
+     * @param text Message text (may be null)
+     * @param out Destination array
+     * @param offset Index in out of the first slot
+     * @return Number of terms written
+     */
+    public int extractInto(String text, int[] out, int offset) {
+        int count = 0;
+
+        if (text != null) {
+            long wordHash = FNV_OFFSET_BASIS;
+            boolean inWord = false;
+            long previousWord = 0;
+            boolean hasPrevious = false;
+            int length = text.length();
+
+            // One step past the end closes a trailing word
+            for (int i = 0; i <= length && count < FeatureSchema.MAX_TERMS; i++) {
+                char c = i < length ? text.charAt(i) : ' ';
+
+                if (Character.isLetterOrDigit(c)) {
+                    wordHash = (wordHash ^ Character.toLowerCase(c)) * FNV_PRIME;
+                    inWord = true;
+                    continue;
+                }
+                if (!inWord) {
+                    continue;
+                }
+
+                long word = mix(wordHash);
+                out[offset + count++] = signedBucket(word);
+                if (hasPrevious && count < FeatureSchema.MAX_TERMS) {
+                    out[offset + count++] = signedBucket(mix(previousWord * BIGRAM_SEED ^ word));
+                }
+
+                previousWord = word;
+                hasPrevious = true;
+                wordHash = FNV_OFFSET_BASIS;
+                inWord = false;
+            }
+        }
+
+        Arrays.fill(out, offset + count, offset + FeatureSchema.MAX_TERMS, FeatureSchema.EMPTY_TERM);
+        return count;
+    }
+
+    private static int signedBucket(long hash) {
+        int bucket = (int) hash & BUCKET_MASK;
+        return hash < 0 ? ~bucket : bucket;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
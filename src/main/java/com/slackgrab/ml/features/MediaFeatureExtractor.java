@@ -1,38 +1,142 @@
 package com.slackgrab.ml.features;
 
+import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import com.slackgrab.data.ThreadIndex;
 import com.slackgrab.data.model.SlackMessage;
+import com.slackgrab.data.model.ThreadStats;
+import com.slackgrab.ml.model.ScoringContext;
+
+import java.util.List;
 
 /**
- * Extract media/attachment-based features
+ * Extract media/attachment and thread conversation features
  *
- * Features (3 total):
+ * Features (8 total):
  * 1. Has attachments (binary)
- * 2. Attachment count (normalized)
+ * 2. Attachment count (messages with attachments in the conversation, normalized)
  * 3. Is in thread (binary)
+ * 4. Is thread reply (binary)
+ * 5. Thread reply count (normalized)
+ * 6. Thread participant count (normalized)
+ * 7. I am a thread participant (binary)
+ * 8. Thread recency (time since the latest reply, normalized)
+ *
+ * Thread statistics are served in constant time by ThreadIndex. Only an
+ * attachment flag is stored per message, so the attachment count is the
+ * number of messages with attachments across the message's thread (just
+ * the message itself outside threads).
  */
 @Singleton
-public class MediaFeatureExtractor {
+public class MediaFeatureExtractor implements FeaturePlugin {
+
+    public static final List<String> FEATURE_NAMES = List.of(
+        "has_attachments",
+        "attachment_count",
+        "in_thread",
+        "is_thread_reply",
+        "thread_reply_count",
+        "thread_participant_count",
+        "self_in_thread",
+        "thread_recency"
+    );
+
+    // Counts that map to 1.0 (log-scaled)
+    private static final double MAX_ATTACHMENTS = 10.0;
+    private static final double MAX_REPLIES = 50.0;
+    private static final double MAX_PARTICIPANTS = 20.0;
+
+    private static final long MAX_THREAD_AGE_MS = 24 * 60 * 60 * 1000L; // 1 day
+
+    private final ThreadIndex threadIndex;
+
+    @Inject
+    public MediaFeatureExtractor(ThreadIndex threadIndex) {
+        this.threadIndex = threadIndex;
+    }
+
+    @Override
+    public String name() {
+        return "media";
+    }
+
+    @Override
+    public List<String> featureNames() {
+        return FEATURE_NAMES;
+    }
+
+    @Override
+    public int version() {
+        // 2: attachment_count counts thread attachments instead of a constant
+        return 2;
+    }
+
+    @Override
+    public void extract(SlackMessage message, ScoringContext context, float[] out, int offset) {
+        extractInto(message, context.getCurrentTime(), out, offset);
+    }
 
     /**
      * Extract media features from message
      *
      * @param message The message to extract from
-     * @return Array of 3 media features
+     * @return Array of 8 media features
      */
     public float[] extractFeatures(SlackMessage message) {
-        float[] features = new float[3];
+        float[] features = new float[FEATURE_NAMES.size()];
+        extractInto(message, System.currentTimeMillis(), features, 0);
+        return features;
+    }
+
+    /**
+     * Write media features into a caller-owned buffer
+     *
+     * @param message The message to extract from
+     * @param currentTime Current time in milliseconds
+     * @param out Destination array
+     * @param offset Index in out of the first media feature
+     */
+    public void extractInto(SlackMessage message, long currentTime, float[] out, int offset) {
+        boolean inThread = message.isInThread();
+        ThreadStats thread = inThread
+            ? threadIndex.getThreadStats(message.channelId(), message.threadTs())
+            : ThreadStats.EMPTY;
 
         // 0: Has attachments
-        features[0] = message.hasAttachments() ? 1.0f : 0.0f;
+        out[offset] = message.hasAttachments() ? 1.0f : 0.0f;
 
-        // 1: Attachment count (estimated)
-        // In production, would get actual count from message data
-        features[1] = message.hasAttachments() ? 0.5f : 0.0f;
+        // 1: Attachment count (the message itself at least, if it has any)
+        int attachments = Math.max(thread.attachmentCount(), message.hasAttachments() ? 1 : 0);
+        out[offset + 1] = normalizeCount(attachments, MAX_ATTACHMENTS);
 
         // 2: Is in thread
-        features[2] = message.isInThread() ? 1.0f : 0.0f;
+        out[offset + 2] = inThread ? 1.0f : 0.0f;
 
-        return features;
+        // 3: Is thread reply (root messages carry their own ts as thread_ts)
+        out[offset + 3] = inThread && !message.threadTs().equals(message.timestamp()) ? 1.0f : 0.0f;
+
+        // 4: Thread reply count
+        out[offset + 4] = normalizeCount(thread.replyCount(), MAX_REPLIES);
+
+        // 5: Thread participant count
+        out[offset + 5] = normalizeCount(thread.participantCount(), MAX_PARTICIPANTS);
+
+        // 6: I am a thread participant
+        out[offset + 6] = thread.selfParticipant() ? 1.0f : 0.0f;
+
+        // 7: Thread recency (1=reply just now, 0=quiet for a day or unknown)
+        if (thread.lastActivityMillis() > 0) {
+            long ageMs = Math.max(0L, currentTime - thread.lastActivityMillis());
+            out[offset + 7] = 1.0f - Math.min(1.0f, (float) ageMs / MAX_THREAD_AGE_MS);
+        } else {
+            out[offset + 7] = 0.0f;
+        }
+    }
+
+    /**
+     * Normalize a count to 0.0-1.0 on a log scale
+     */
+    private static float normalizeCount(int count, double max) {
+        return (float) Math.min(1.0, Math.log1p(count) / Math.log1p(max));
     }
 }
@@ -1,11 +1,13 @@
 package com.slackgrab.ml.features;
 
+import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import com.slackgrab.data.model.SlackMessage;
+import com.slackgrab.ml.model.ScoringContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.time.DayOfWeek;
-import java.time.Instant;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
+import java.util.List;
 
 /**
  * Extract temporal/time-based features
@@ -16,12 +18,55 @@ import java.time.ZonedDateTime;
  * 3. Is business hours (binary)
  * 4. Recency (how recent, normalized)
  * 5. Is weekend (binary)
+ *
+ * Calendar fields are computed in the sender's time zone (see
+ * UserTimeZones) from precomputed offset tables with integer day/hour
+ * arithmetic; no java.time objects are created per message.
  */
 @Singleton
-public class TemporalFeatureExtractor {
+public class TemporalFeatureExtractor implements FeaturePlugin {
+    private static final Logger logger = LoggerFactory.getLogger(TemporalFeatureExtractor.class);
+
+    public static final List<String> FEATURE_NAMES = List.of(
+        "hour_of_day",
+        "day_of_week",
+        "is_business_hours",
+        "recency",
+        "is_weekend"
+    );
 
     private static final long MAX_RECENCY_MS = 7 * 24 * 60 * 60 * 1000L; // 7 days
 
+    // 1970-01-01 was a Thursday; shifts epoch days so Monday=0 ... Sunday=6
+    private static final int EPOCH_DAY_OF_WEEK_SHIFT = 3;
+    private static final int SATURDAY = 5;
+
+    private final UserTimeZones userTimeZones;
+
+    @Inject
+    public TemporalFeatureExtractor(UserTimeZones userTimeZones) {
+        this.userTimeZones = userTimeZones;
+    }
+
+    public TemporalFeatureExtractor() {
+        this(new UserTimeZones());
+    }
+
+    @Override
+    public String name() {
+        return "temporal";
+    }
+
+    @Override
+    public List<String> featureNames() {
+        return FEATURE_NAMES;
+    }
+
+    @Override
+    public void extract(SlackMessage message, ScoringContext context, float[] out, int offset) {
+        extractInto(message.userId(), parseTimestamp(message.timestamp()), context.getCurrentTime(), out, offset);
+    }
+
     /**
      * Extract temporal features from message timestamp
      *
@@ -30,34 +75,131 @@ public class TemporalFeatureExtractor {
      * @return Array of 5 temporal features
      */
     public float[] extractFeatures(long messageTime, long currentTime) {
-        float[] features = new float[5];
+        float[] features = new float[FEATURE_NAMES.size()];
+        extractInto(messageTime, currentTime, features, 0);
+        return features;
+    }
+
+    /**
+     * Write temporal features into a caller-owned buffer (default time zone)
+     *
+     * @param messageTime Message timestamp in milliseconds
+     * @param currentTime Current time in milliseconds
+     * @param out Destination array
+     * @param offset Index in out of the first temporal feature
+     */
+    public void extractInto(long messageTime, long currentTime, float[] out, int offset) {
+        extractInto(userTimeZones.defaultZoneTable(), messageTime, currentTime, out, offset);
+    }
 
-        ZonedDateTime messageDateTime = Instant.ofEpochMilli(messageTime)
-            .atZone(ZoneId.systemDefault());
+    /**
+     * Write temporal features into a caller-owned buffer, in the sender's time zone
+     *
+     * @param senderId Sender user ID (null for the default zone)
+     * @param messageTime Message timestamp in milliseconds
+     * @param currentTime Current time in milliseconds
+     * @param out Destination array
+     * @param offset Index in out of the first temporal feature
+     */
+    public void extractInto(String senderId, long messageTime, long currentTime, float[] out, int offset) {
+        extractInto(userTimeZones.zoneTable(senderId), messageTime, currentTime, out, offset);
+    }
+
+    private void extractInto(ZoneOffsetTable zone, long messageTime, long currentTime, float[] out, int offset) {
+        long localSecond = zone.localEpochSecond(messageTime);
+        long localDay = Math.floorDiv(localSecond, ZoneOffsetTable.SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(localSecond, ZoneOffsetTable.SECONDS_PER_DAY);
+
+        int hour = secondOfDay / 3600;
+        int dayOfWeek = (int) Math.floorMod(localDay + EPOCH_DAY_OF_WEEK_SHIFT, 7L); // 0-6, Monday=0
+        boolean isWeekend = dayOfWeek >= SATURDAY;
 
         // 0: Hour of day (normalized 0-1)
-        int hour = messageDateTime.getHour();
-        features[0] = (float) hour / 24.0f;
+        out[offset] = (float) hour / 24.0f;
 
         // 1: Day of week (normalized 0-1, Monday=0, Sunday=1)
-        int dayOfWeek = messageDateTime.getDayOfWeek().getValue() - 1; // 0-6
-        features[1] = (float) dayOfWeek / 6.0f;
+        out[offset + 1] = (float) dayOfWeek / 6.0f;
 
         // 2: Is business hours (9 AM - 5 PM, Monday-Friday)
-        boolean isWeekday = messageDateTime.getDayOfWeek() != DayOfWeek.SATURDAY
-            && messageDateTime.getDayOfWeek() != DayOfWeek.SUNDAY;
         boolean isBusinessHour = hour >= 9 && hour < 17;
-        features[2] = (isWeekday && isBusinessHour) ? 1.0f : 0.0f;
+        out[offset + 2] = (!isWeekend && isBusinessHour) ? 1.0f : 0.0f;
 
         // 3: Recency (how recent the message is, 0=old, 1=very recent)
         long ageMs = currentTime - messageTime;
         if (ageMs < 0) ageMs = 0; // Handle future timestamps
-        features[3] = 1.0f - Math.min(1.0f, (float) ageMs / MAX_RECENCY_MS);
+        out[offset + 3] = 1.0f - Math.min(1.0f, (float) ageMs / MAX_RECENCY_MS);
 
         // 4: Is weekend
-        features[4] = (messageDateTime.getDayOfWeek() == DayOfWeek.SATURDAY
-            || messageDateTime.getDayOfWeek() == DayOfWeek.SUNDAY) ? 1.0f : 0.0f;
+        out[offset + 4] = isWeekend ? 1.0f : 0.0f;
+    }
 
-        return features;
+    /**
+     * Parse a Slack timestamp, falling back to now if it is malformed
+     */
+    private long parseTimestamp(String timestamp) {
+        try {
+            return parseSlackTimestamp(timestamp);
+        } catch (NumberFormatException e) {
+            logger.warn("Failed to parse timestamp: {}", timestamp);
+            return System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Parse a Slack timestamp ("1234567890.123456") to epoch milliseconds
+     *
+     * Integer parsing of the seconds and the first three fraction digits,
+     * without going through floating point. Other numeric forms are
+     * accepted through Double.parseDouble.
+     *
+     * @param timestamp Slack timestamp
+     * @return Epoch milliseconds
+     * @throws NumberFormatException if the timestamp is not numeric
+     */
+    public static long parseSlackTimestamp(String timestamp) {
+        if (timestamp == null) {
+            throw new NumberFormatException("null timestamp");
+        }
+
+        int length = timestamp.length();
+        long seconds = 0;
+        int i = 0;
+        // At most 15 integer digits so seconds * 1000 cannot overflow; longer input falls through
+        while (i < length && i < 15) {
+            char c = timestamp.charAt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            seconds = seconds * 10 + (c - '0');
+            i++;
+        }
+
+        boolean wellFormed = i > 0 && (i == length || timestamp.charAt(i) == '.');
+        if (wellFormed && i < length) {
+            // Fraction: first three digits are milliseconds, the rest only validated
+            long millis = 0;
+            int digits = 0;
+            for (int j = i + 1; j < length; j++) {
+                char c = timestamp.charAt(j);
+                if (c < '0' || c > '9') {
+                    wellFormed = false;
+                    break;
+                }
+                if (digits < 3) {
+                    millis = millis * 10 + (c - '0');
+                    digits++;
+                }
+            }
+            if (wellFormed) {
+                for (; digits < 3; digits++) {
+                    millis *= 10;
+                }
+                return seconds * 1000 + millis;
+            }
+        } else if (wellFormed) {
+            return seconds * 1000;
+        }
+
+        return (long) (Double.parseDouble(timestamp) * 1000);
     }
 }
@@ -1,9 +1,14 @@
 package com.slackgrab.ml.features;
 
 import com.google.inject.Singleton;
+import com.slackgrab.data.model.SlackMessage;
 import com.slackgrab.ml.model.ScoringContext;
 
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Extract text-based features from message content
@@ -19,17 +24,70 @@ import java.util.regex.Pattern;
  * 8. Exclamation count
  * 9. Average word length
  * 10. Urgent keyword match
+ *
+ * All ten features are computed in a single pass over the text. URL,
+ * mention and emoji detection run as small state machines equivalent to
+ * the patterns https?://\S+, <@[A-Z0-9]+> and :[a-z_]+:. Urgent keywords
+ * (defaults plus the context's keywords) are compiled once per keyword
+ * set into an UrgentKeywordMatcher.
  */
 @Singleton
-public class TextFeatureExtractor {
+public class TextFeatureExtractor implements FeaturePlugin {
 
-    private static final Pattern URL_PATTERN = Pattern.compile("https?://[^\\s]+");
-    private static final Pattern MENTION_PATTERN = Pattern.compile("<@[A-Z0-9]+>");
-    private static final Pattern EMOJI_PATTERN = Pattern.compile(":[a-z_]+:");
+    public static final List<String> FEATURE_NAMES = List.of(
+        "text_length",
+        "word_count",
+        "has_question",
+        "has_url",
+        "has_mention",
+        "has_emoji",
+        "uppercase_ratio",
+        "exclamation_count",
+        "avg_word_length",
+        "urgent_keyword_match"
+    );
 
     private static final int MAX_LENGTH = 4000;  // Normalize text length
     private static final int MAX_WORDS = 500;    // Normalize word count
 
+    // Accepting states of the URL ("http" ['s'] "://" non-whitespace),
+    // mention ('<' '@' [A-Z0-9]+ '>') and emoji (':' [a-z_]+ ':') machines
+    private static final int URL_MATCHED = 9;
+    private static final int MENTION_MATCHED = 4;
+    private static final int EMOJI_MATCHED = 3;
+
+    // Default urgent keywords
+    private static final List<String> DEFAULT_URGENT_KEYWORDS = List.of(
+        "urgent", "asap", "important", "critical", "emergency",
+        "deadline", "priority", "immediately", "alert", "issue"
+    );
+
+    // Compiled matchers per distinct context keyword list; cleared if it grows past the bound
+    private static final int MAX_CACHED_MATCHERS = 64;
+
+    private static final UrgentKeywordMatcher DEFAULT_MATCHER =
+        UrgentKeywordMatcher.compile(DEFAULT_URGENT_KEYWORDS);
+
+    private final Map<List<String>, UrgentKeywordMatcher> matcherCache = new ConcurrentHashMap<>();
+
+    // Last keyword list seen, so repeated scoring with one context skips the map lookup
+    private volatile CachedMatcher lastMatcher = new CachedMatcher(List.of(), DEFAULT_MATCHER);
+
+    @Override
+    public String name() {
+        return "text";
+    }
+
+    @Override
+    public List<String> featureNames() {
+        return FEATURE_NAMES;
+    }
+
+    @Override
+    public void extract(SlackMessage message, ScoringContext context, float[] out, int offset) {
+        extractInto(message.text(), context, out, offset);
+    }
+
     /**
      * Extract text features from message content
      *
@@ -38,75 +96,196 @@ public class TextFeatureExtractor {
      * @return Array of 10 text features
      */
     public float[] extractFeatures(String text, ScoringContext context) {
+        float[] features = new float[FEATURE_NAMES.size()];
+        extractInto(text, context, features, 0);
+        return features;
+    }
+
+    /**
+     * Write text features into a caller-owned buffer
+     *
+     * @param text Message text
+     * @param context Scoring context (for urgent keywords)
+     * @param out Destination array
+     * @param offset Index in out of the first text feature
+     */
+    public void extractInto(String text, ScoringContext context, float[] out, int offset) {
         if (text == null || text.isEmpty()) {
-            return new float[10];
+            Arrays.fill(out, offset, offset + FEATURE_NAMES.size(), 0.0f);
+            return;
         }
 
-        float[] features = new float[10];
+        UrgentKeywordMatcher matcher = matcherFor(context.getUrgentKeywords());
+
+        int length = text.length();
+        int wordRuns = 0;
+        boolean inWord = false;
+        boolean hasQuestion = false;
+        boolean hasUrl = false;
+        boolean hasMention = false;
+        boolean hasEmoji = false;
+        boolean hasUrgent = false;
+        int uppercaseCount = 0;
+        int letterCount = 0;
+        int exclamationCount = 0;
+
+        int urlState = 0;
+        int mentionState = 0;
+        int emojiState = 0;
+        int keywordState = UrgentKeywordMatcher.ROOT;
+
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            boolean whitespace = isWhitespace(c);
+
+            if (!whitespace && !inWord) {
+                wordRuns++;
+            }
+            inWord = !whitespace;
+
+            if (c == '?') {
+                hasQuestion = true;
+            } else if (c == '!') {
+                exclamationCount++;
+            }
+
+            if (Character.isUpperCase(c)) {
+                uppercaseCount++;
+            }
+            if (Character.isLetter(c)) {
+                letterCount++;
+            }
+
+            if (!hasUrl) {
+                urlState = nextUrlState(urlState, c, whitespace);
+                hasUrl = urlState == URL_MATCHED;
+            }
+            if (!hasMention) {
+                mentionState = nextMentionState(mentionState, c);
+                hasMention = mentionState == MENTION_MATCHED;
+            }
+            if (!hasEmoji) {
+                emojiState = nextEmojiState(emojiState, c);
+                hasEmoji = emojiState == EMOJI_MATCHED;
+            }
+            if (!hasUrgent) {
+                keywordState = matcher.next(keywordState, c);
+                hasUrgent = matcher.isMatch(keywordState);
+            }
+        }
+
+        // Same count as text.split("\\s+").length: leading whitespace yields an empty first token
+        int wordCount = wordRuns > 0 && isWhitespace(text.charAt(0)) ? wordRuns + 1 : wordRuns;
 
         // 0: Text length (normalized 0-1)
-        features[0] = Math.min(1.0f, (float) text.length() / MAX_LENGTH);
+        out[offset] = Math.min(1.0f, (float) length / MAX_LENGTH);
 
         // 1: Word count (normalized 0-1)
-        String[] words = text.split("\\s+");
-        features[1] = Math.min(1.0f, (float) words.length / MAX_WORDS);
+        out[offset + 1] = Math.min(1.0f, (float) wordCount / MAX_WORDS);
 
         // 2: Has question marks
-        features[2] = text.contains("?") ? 1.0f : 0.0f;
+        out[offset + 2] = hasQuestion ? 1.0f : 0.0f;
 
         // 3: Has URLs
-        features[3] = URL_PATTERN.matcher(text).find() ? 1.0f : 0.0f;
+        out[offset + 3] = hasUrl ? 1.0f : 0.0f;
 
         // 4: Has mentions (@user)
-        features[4] = MENTION_PATTERN.matcher(text).find() ? 1.0f : 0.0f;
+        out[offset + 4] = hasMention ? 1.0f : 0.0f;
 
         // 5: Has emojis
-        features[5] = EMOJI_PATTERN.matcher(text).find() ? 1.0f : 0.0f;
+        out[offset + 5] = hasEmoji ? 1.0f : 0.0f;
 
         // 6: Uppercase ratio
-        long uppercaseCount = text.chars().filter(Character::isUpperCase).count();
-        long letterCount = text.chars().filter(Character::isLetter).count();
-        features[6] = letterCount > 0 ? (float) uppercaseCount / letterCount : 0.0f;
+        out[offset + 6] = letterCount > 0 ? (float) uppercaseCount / letterCount : 0.0f;
 
         // 7: Exclamation count (normalized)
-        long exclamationCount = text.chars().filter(c -> c == '!').count();
-        features[7] = Math.min(1.0f, (float) exclamationCount / 5.0f);
+        out[offset + 7] = Math.min(1.0f, (float) exclamationCount / 5.0f);
 
         // 8: Average word length (normalized)
-        float avgWordLength = words.length > 0
-            ? (float) text.length() / words.length
+        float avgWordLength = wordCount > 0
+            ? (float) length / wordCount
             : 0.0f;
-        features[8] = Math.min(1.0f, avgWordLength / 20.0f);
+        out[offset + 8] = Math.min(1.0f, avgWordLength / 20.0f);
 
         // 9: Urgent keyword match
-        features[9] = containsUrgentKeyword(text.toLowerCase(), context) ? 1.0f : 0.0f;
-
-        return features;
+        out[offset + 9] = hasUrgent ? 1.0f : 0.0f;
     }
 
     /**
-     * Check if text contains any urgent keywords
+     * Get the compiled matcher for the defaults plus the context keywords
      */
-    private boolean containsUrgentKeyword(String text, ScoringContext context) {
-        // Default urgent keywords
-        String[] defaultUrgent = {
-            "urgent", "asap", "important", "critical", "emergency",
-            "deadline", "priority", "immediately", "alert", "issue"
-        };
+    private UrgentKeywordMatcher matcherFor(List<String> contextKeywords) {
+        if (contextKeywords.isEmpty()) {
+            return DEFAULT_MATCHER;
+        }
 
-        for (String keyword : defaultUrgent) {
-            if (text.contains(keyword)) {
-                return true;
-            }
+        CachedMatcher last = lastMatcher;
+        if (last.keywords() == contextKeywords) {
+            return last.matcher();
         }
 
-        // Context-specific keywords
-        for (String keyword : context.getUrgentKeywords()) {
-            if (text.toLowerCase().contains(keyword.toLowerCase())) {
-                return true;
+        UrgentKeywordMatcher matcher = matcherCache.get(contextKeywords);
+        if (matcher == null) {
+            if (matcherCache.size() >= MAX_CACHED_MATCHERS) {
+                matcherCache.clear();
             }
+            matcher = matcherCache.computeIfAbsent(List.copyOf(contextKeywords), keywords -> {
+                List<String> all = new ArrayList<>(DEFAULT_URGENT_KEYWORDS);
+                all.addAll(keywords);
+                return UrgentKeywordMatcher.compile(all);
+            });
         }
 
-        return false;
+        lastMatcher = new CachedMatcher(contextKeywords, matcher);
+        return matcher;
+    }
+
+    private record CachedMatcher(List<String> keywords, UrgentKeywordMatcher matcher) {
+    }
+
+    /**
+     * Whitespace as matched by the regex class \s (without UNICODE_CHARACTER_CLASS)
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    private static int nextUrlState(int state, char c, boolean whitespace) {
+        int next = switch (state) {
+            case 1 -> c == 't' ? 2 : -1;
+            case 2 -> c == 't' ? 3 : -1;
+            case 3 -> c == 'p' ? 4 : -1;
+            case 4 -> c == 's' ? 5 : c == ':' ? 6 : -1;
+            case 5 -> c == ':' ? 6 : -1;
+            case 6 -> c == '/' ? 7 : -1;
+            case 7 -> c == '/' ? 8 : -1;
+            case 8 -> whitespace ? -1 : URL_MATCHED;
+            default -> -1;
+        };
+        // 'h' occurs only at the start of the pattern, so a mismatch restarts there
+        return next >= 0 ? next : (c == 'h' ? 1 : 0);
+    }
+
+    private static int nextMentionState(int state, char c) {
+        boolean idChar = (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+        int next = switch (state) {
+            case 1 -> c == '@' ? 2 : -1;
+            case 2 -> idChar ? 3 : -1;
+            case 3 -> idChar ? 3 : c == '>' ? MENTION_MATCHED : -1;
+            default -> -1;
+        };
+        return next >= 0 ? next : (c == '<' ? 1 : 0);
+    }
+
+    private static int nextEmojiState(int state, char c) {
+        boolean nameChar = (c >= 'a' && c <= 'z') || c == '_';
+        if (c == ':') {
+            // A closing colon completes the emoji; any other colon may open one
+            return state == 2 ? EMOJI_MATCHED : 1;
+        }
+        if (nameChar && (state == 1 || state == 2)) {
+            return 2;
+        }
+        return 0;
     }
 }
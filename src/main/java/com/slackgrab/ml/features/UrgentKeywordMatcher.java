@@ -0,0 +1,214 @@
+package com.slackgrab.ml.features;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Case-insensitive multi-keyword substring matcher (Aho-Corasick)
+ *
+ * The keyword trie is compiled into a dense DFA over the characters
+ * that occur in the keywords, so matching costs one table lookup per
+ * input character regardless of how many keywords there are. Characters
+ * outside the keyword alphabet send the automaton back to its root.
+ *
+ * Instances are immutable and safe to share between threads. Callers
+ * feed characters one at a time through {@link #next(int, char)} so the
+ * matcher can run inside another single-pass scan.
+ */
+final class UrgentKeywordMatcher {
+
+    static final int ROOT = 0;
+
+    private static final int ASCII_LIMIT = 128;
+
+    // Alphabet index per ASCII character, -1 if not in any keyword
+    private final int[] asciiAlphabet;
+    // Alphabet index for non-ASCII keyword characters
+    private final Map<Character, Integer> extendedAlphabet;
+    private final int alphabetSize;
+
+    // transitions[state * alphabetSize + symbol] = next state
+    private final int[] transitions;
+    // True if a keyword ends at the state or at any state on its failure chain
+    private final boolean[] accepting;
+
+    private UrgentKeywordMatcher(int[] asciiAlphabet, Map<Character, Integer> extendedAlphabet,
+                                 int alphabetSize, int[] transitions, boolean[] accepting) {
+        this.asciiAlphabet = asciiAlphabet;
+        this.extendedAlphabet = extendedAlphabet;
+        this.alphabetSize = alphabetSize;
+        this.transitions = transitions;
+        this.accepting = accepting;
+    }
+
+    /**
+     * Compile a matcher for the given keywords
+     *
+     * Keywords are lowercased; blank keywords are ignored.
+     *
+     * @param keywords Keywords to match as substrings
+     * @return Compiled matcher
+     */
+    static UrgentKeywordMatcher compile(Collection<String> keywords) {
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String keyword : keywords) {
+            if (keyword != null && !keyword.isBlank()) {
+                normalized.add(lowercase(keyword));
+            }
+        }
+
+        // Assign an alphabet index to every distinct keyword character
+        int[] asciiAlphabet = new int[ASCII_LIMIT];
+        Arrays.fill(asciiAlphabet, -1);
+        Map<Character, Integer> extendedAlphabet = new HashMap<>();
+        int alphabetSize = 0;
+        for (String keyword : normalized) {
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = keyword.charAt(i);
+                if (c < ASCII_LIMIT) {
+                    if (asciiAlphabet[c] < 0) {
+                        asciiAlphabet[c] = alphabetSize++;
+                    }
+                } else if (!extendedAlphabet.containsKey(c)) {
+                    extendedAlphabet.put(c, alphabetSize++);
+                }
+            }
+        }
+        int width = Math.max(alphabetSize, 1);
+
+        // Build the trie; -1 marks a missing edge until the DFA is completed
+        List<int[]> trie = new ArrayList<>();
+        List<Boolean> terminal = new ArrayList<>();
+        trie.add(newRow(width));
+        terminal.add(false);
+
+        for (String keyword : normalized) {
+            int state = ROOT;
+            for (int i = 0; i < keyword.length(); i++) {
+                int symbol = symbolOf(keyword.charAt(i), asciiAlphabet, extendedAlphabet);
+                int next = trie.get(state)[symbol];
+                if (next < 0) {
+                    next = trie.size();
+                    trie.get(state)[symbol] = next;
+                    trie.add(newRow(width));
+                    terminal.add(false);
+                }
+                state = next;
+            }
+            terminal.set(state, true);
+        }
+
+        // Breadth-first pass: compute failure links and fill missing edges
+        int states = trie.size();
+        int[] transitions = new int[states * width];
+        boolean[] accepting = new boolean[states];
+        int[] failure = new int[states];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+
+        int[] rootRow = trie.get(ROOT);
+        for (int symbol = 0; symbol < width; symbol++) {
+            int child = rootRow[symbol];
+            if (child < 0) {
+                transitions[symbol] = ROOT;
+            } else {
+                transitions[symbol] = child;
+                failure[child] = ROOT;
+                queue.add(child);
+            }
+        }
+        accepting[ROOT] = terminal.get(ROOT);
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            accepting[state] = terminal.get(state) || accepting[failure[state]];
+
+            int[] row = trie.get(state);
+            for (int symbol = 0; symbol < width; symbol++) {
+                int child = row[symbol];
+                int fallback = transitions[failure[state] * width + symbol];
+                if (child < 0) {
+                    transitions[state * width + symbol] = fallback;
+                } else {
+                    transitions[state * width + symbol] = child;
+                    failure[child] = fallback;
+                    queue.add(child);
+                }
+            }
+        }
+
+        return new UrgentKeywordMatcher(asciiAlphabet, Map.copyOf(extendedAlphabet),
+            width, transitions, accepting);
+    }
+
+    /**
+     * Advance the automaton by one input character
+     *
+     * @param state Current state (start with {@link #ROOT})
+     * @param c Input character (any case)
+     * @return Next state
+     */
+    int next(int state, char c) {
+        char lower = Character.toLowerCase(c);
+        int symbol;
+        if (lower < ASCII_LIMIT) {
+            symbol = asciiAlphabet[lower];
+        } else {
+            Integer extended = extendedAlphabet.get(lower);
+            symbol = extended != null ? extended : -1;
+        }
+        return symbol < 0 ? ROOT : transitions[state * alphabetSize + symbol];
+    }
+
+    /**
+     * Whether a keyword ends at the given state
+     *
+     * @param state Automaton state
+     * @return true if some keyword has just been matched
+     */
+    boolean isMatch(int state) {
+        return accepting[state];
+    }
+
+    /**
+     * Check whether the text contains any keyword
+     *
+     * @param text Text to scan
+     * @return true if any keyword occurs in text, ignoring case
+     */
+    boolean matches(CharSequence text) {
+        int state = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            state = next(state, text.charAt(i));
+            if (accepting[state]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String lowercase(String keyword) {
+        // Per-character so keywords fold the same way as scanned text
+        char[] chars = keyword.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private static int symbolOf(char c, int[] asciiAlphabet, Map<Character, Integer> extendedAlphabet) {
+        return c < ASCII_LIMIT ? asciiAlphabet[c] : extendedAlphabet.get(c);
+    }
+
+    private static int[] newRow(int width) {
+        int[] row = new int[width];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
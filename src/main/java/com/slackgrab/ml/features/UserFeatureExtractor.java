@@ -1,62 +1,141 @@
 package com.slackgrab.ml.features;
 
+import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import com.slackgrab.data.ActivitySketches;
+import com.slackgrab.data.model.SlackMessage;
 import com.slackgrab.ml.model.ScoringContext;
 
+import java.util.List;
+
 /**
  * Extract user/sender-based features
  *
- * Features (5 total):
+ * Features (7 total):
  * 1. Sender importance (from context/history)
  * 2. Sender frequency (message volume)
  * 3. User interaction rate with sender
  * 4. Sender's average importance score
  * 5. Is bot (binary)
+ * 6. Share of the sender's messages posted in this message's hour (UTC)
+ * 7. Spread (standard deviation) of the sender's importance scores
+ *
+ * Sender statistics (2-4, 6-7) are decayed over about the last week and
+ * served in constant time by ActivitySketches.
  */
 @Singleton
-public class UserFeatureExtractor {
+public class UserFeatureExtractor implements FeaturePlugin {
+
+    public static final List<String> FEATURE_NAMES = List.of(
+        "sender_importance",
+        "sender_frequency",
+        "user_interaction_rate",
+        "sender_avg_importance",
+        "is_bot",
+        "sender_hour_share",
+        "sender_importance_spread"
+    );
+
+    // Recent (7 day) message count that maps to frequency 1.0
+    private static final double MAX_RECENT_MESSAGES = 200.0;
+    // Largest standard deviation of scores in 0.0-1.0 (half at 0, half at 1)
+    private static final double MAX_IMPORTANCE_STDDEV = 0.5;
+    private static final long MILLIS_PER_HOUR = 3_600_000L;
+
+    private final ActivitySketches activitySketches;
+
+    @Inject
+    public UserFeatureExtractor(ActivitySketches activitySketches) {
+        this.activitySketches = activitySketches;
+    }
+
+    @Override
+    public String name() {
+        return "user";
+    }
+
+    @Override
+    public List<String> featureNames() {
+        return FEATURE_NAMES;
+    }
+
+    @Override
+    public int version() {
+        return 2;
+    }
+
+    @Override
+    public void extract(SlackMessage message, ScoringContext context, float[] out, int offset) {
+        extractInto(message.userId(), messageTime(message, context), context, out, offset);
+    }
 
     /**
      * Extract user features for a sender
      *
      * @param senderId Sender user ID
+     * @param messageTime Message timestamp in milliseconds
      * @param context Scoring context with historical data
-     * @return Array of 5 user features
+     * @return Array of 7 user features
      */
-    public float[] extractFeatures(String senderId, ScoringContext context) {
-        float[] features = new float[5];
+    public float[] extractFeatures(String senderId, long messageTime, ScoringContext context) {
+        float[] features = new float[FEATURE_NAMES.size()];
+        extractInto(senderId, messageTime, context, features, 0);
+        return features;
+    }
 
+    /**
+     * Write user features into a caller-owned buffer
+     *
+     * @param senderId Sender user ID
+     * @param messageTime Message timestamp in milliseconds
+     * @param context Scoring context with historical data
+     * @param out Destination array
+     * @param offset Index in out of the first user feature
+     */
+    public void extractInto(String senderId, long messageTime, ScoringContext context, float[] out, int offset) {
         // 0: Sender importance (from context)
-        features[0] = (float) context.getSenderImportance(senderId);
+        out[offset] = (float) context.getSenderImportance(senderId);
 
-        // 1: Sender frequency (estimated from ID hash for now)
-        // In production, this would come from actual message counts
-        features[1] = estimateSenderFrequency(senderId);
+        // 1: Sender frequency (recent message volume, log-scaled)
+        out[offset + 1] = normalizeFrequency(activitySketches.getSenderMessageRate(senderId));
 
         // 2: User interaction rate with sender
-        // In production, this would be calculated from interaction history
-        features[2] = 0.5f; // Default neutral value
+        out[offset + 2] = (float) activitySketches.getSenderInteractionRate(senderId);
 
         // 3: Sender's average importance score
-        // Would be calculated from historical scores
-        features[3] = (float) context.getSenderImportance(senderId);
+        out[offset + 3] = (float) activitySketches.getSenderImportanceMean(senderId);
 
         // 4: Is bot (heuristic based on ID pattern)
-        features[4] = isLikelyBot(senderId) ? 1.0f : 0.0f;
+        out[offset + 4] = isLikelyBot(senderId) ? 1.0f : 0.0f;
 
-        return features;
+        // 5: Share of the sender's messages posted in this hour of day
+        int utcHour = (int) Math.floorMod(Math.floorDiv(messageTime, MILLIS_PER_HOUR), 24L);
+        out[offset + 5] = (float) activitySketches.getSenderHourShare(senderId, utcHour);
+
+        // 6: Spread of the sender's importance scores (0 = always the same)
+        double stddev = Math.sqrt(Math.max(0.0, activitySketches.getSenderImportanceVariance(senderId)));
+        out[offset + 6] = (float) Math.min(1.0, stddev / MAX_IMPORTANCE_STDDEV);
+    }
+
+    /**
+     * Message time in epoch millis, the context's current time if malformed
+     */
+    private static long messageTime(SlackMessage message, ScoringContext context) {
+        try {
+            return TemporalFeatureExtractor.parseSlackTimestamp(message.timestamp());
+        } catch (NumberFormatException e) {
+            return context.getCurrentTime();
+        }
     }
 
     /**
-     * Estimate sender frequency (placeholder)
+     * Normalize a decayed recent message count to 0.0-1.0
      *
-     * In production, this would query actual message counts.
-     * For now, use a simple hash-based estimate.
+     * Log scale so the difference between 1 and 10 messages matters
+     * more than the difference between 100 and 110.
      */
-    private float estimateSenderFrequency(String senderId) {
-        // Normalize to 0.0-1.0 range
-        int hash = Math.abs(senderId.hashCode());
-        return (float) (hash % 100) / 100.0f;
+    private float normalizeFrequency(double recentMessages) {
+        return (float) Math.min(1.0, Math.log1p(recentMessages) / Math.log1p(MAX_RECENT_MESSAGES));
     }
 
     /**
@@ -0,0 +1,99 @@
+package com.slackgrab.ml.features;
+
+import com.google.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.DateTimeException;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Time zones of Slack users
+ *
+ * Temporal features use the sender's local time when their zone is
+ * known (for example from the "tz" field of users.info), and the system
+ * default zone otherwise. Zone lookups return shared precomputed offset
+ * tables.
+ */
+@Singleton
+public class UserTimeZones {
+    private static final Logger logger = LoggerFactory.getLogger(UserTimeZones.class);
+
+    private final ZoneOffsetTable defaultZone;
+    private final Map<String, ZoneOffsetTable> userZones = new ConcurrentHashMap<>();
+
+    public UserTimeZones() {
+        this(ZoneId.systemDefault());
+    }
+
+    public UserTimeZones(ZoneId defaultZone) {
+        this.defaultZone = ZoneOffsetTable.forZone(defaultZone);
+    }
+
+    /**
+     * Set a user's time zone from an IANA zone name
+     *
+     * Unknown zone names are logged and ignored.
+     *
+     * @param userId Slack user ID
+     * @param zoneName Zone name such as "America/Los_Angeles"
+     * @return true if the zone was recognized
+     */
+    public boolean setTimeZone(String userId, String zoneName) {
+        if (zoneName == null || zoneName.isBlank()) {
+            userZones.remove(userId);
+            return false;
+        }
+
+        try {
+            setTimeZone(userId, ZoneId.of(zoneName));
+            return true;
+        } catch (DateTimeException e) {
+            logger.warn("Ignoring unknown time zone {} for user {}", zoneName, userId);
+            return false;
+        }
+    }
+
+    /**
+     * Set a user's time zone
+     *
+     * @param userId Slack user ID
+     * @param zone Time zone
+     */
+    public void setTimeZone(String userId, ZoneId zone) {
+        userZones.put(userId, ZoneOffsetTable.forZone(zone));
+    }
+
+    /**
+     * Forget a user's time zone (falls back to the default zone)
+     *
+     * @param userId Slack user ID
+     */
+    public void clearTimeZone(String userId) {
+        userZones.remove(userId);
+    }
+
+    /**
+     * Get a user's time zone
+     *
+     * @param userId Slack user ID
+     * @return The user's zone, or the default zone if unknown
+     */
+    public ZoneId getTimeZone(String userId) {
+        return zoneTable(userId).getZone();
+    }
+
+    ZoneOffsetTable zoneTable(String userId) {
+        if (userId == null) {
+            return defaultZone;
+        }
+        ZoneOffsetTable table = userZones.get(userId);
+        return table != null ? table : defaultZone;
+    }
+
+    ZoneOffsetTable defaultZoneTable() {
+        return defaultZone;
+    }
+}
@@ -0,0 +1,105 @@
+package com.slackgrab.ml.features;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed UTC offsets of a time zone
+ *
+ * Holds the zone's offset transitions between 1990 and 2060 as two
+ * primitive arrays, so converting an instant to local calendar fields
+ * is a binary search plus integer arithmetic with no java.time objects.
+ * Instants outside the table fall back to the zone rules.
+ *
+ * Tables are immutable and shared per zone through {@link #forZone(ZoneId)}.
+ */
+final class ZoneOffsetTable {
+
+    static final long SECONDS_PER_DAY = 86_400L;
+
+    private static final long TABLE_START = 631_152_000L;    // 1990-01-01T00:00:00Z
+    private static final long TABLE_END = 2_840_140_800L;    // 2060-01-01T00:00:00Z
+
+    private static final Map<ZoneId, ZoneOffsetTable> TABLES = new ConcurrentHashMap<>();
+
+    private final ZoneId zone;
+    private final ZoneRules rules;
+    // transitionSeconds[i] is the instant from which offsetSeconds[i + 1] applies
+    private final long[] transitionSeconds;
+    // offsetSeconds[0] applies from TABLE_START until the first transition
+    private final int[] offsetSeconds;
+
+    private ZoneOffsetTable(ZoneId zone) {
+        this.zone = zone;
+        this.rules = zone.getRules();
+
+        List<ZoneOffsetTransition> transitions = new ArrayList<>();
+        ZoneOffsetTransition next = rules.nextTransition(Instant.ofEpochSecond(TABLE_START));
+        while (next != null && next.toEpochSecond() < TABLE_END) {
+            transitions.add(next);
+            next = rules.nextTransition(next.getInstant());
+        }
+
+        this.transitionSeconds = new long[transitions.size()];
+        this.offsetSeconds = new int[transitions.size() + 1];
+        offsetSeconds[0] = rules.getOffset(Instant.ofEpochSecond(TABLE_START)).getTotalSeconds();
+        for (int i = 0; i < transitions.size(); i++) {
+            transitionSeconds[i] = transitions.get(i).toEpochSecond();
+            offsetSeconds[i + 1] = transitions.get(i).getOffsetAfter().getTotalSeconds();
+        }
+    }
+
+    /**
+     * Get the shared table for a zone
+     *
+     * @param zone Time zone
+     * @return Offset table
+     */
+    static ZoneOffsetTable forZone(ZoneId zone) {
+        return TABLES.computeIfAbsent(zone, ZoneOffsetTable::new);
+    }
+
+    /**
+     * UTC offset in effect at an instant
+     *
+     * @param epochSecond Instant in epoch seconds
+     * @return Offset in seconds
+     */
+    int offsetSecondsAt(long epochSecond) {
+        if (epochSecond < TABLE_START || epochSecond >= TABLE_END) {
+            ZoneOffset offset = rules.getOffset(Instant.ofEpochSecond(epochSecond));
+            return offset.getTotalSeconds();
+        }
+        if (transitionSeconds.length == 0) {
+            return offsetSeconds[0];
+        }
+
+        int index = Arrays.binarySearch(transitionSeconds, epochSecond);
+        // Exact hit: the transition instant already uses the new offset
+        int segment = index >= 0 ? index + 1 : -index - 1;
+        return offsetSeconds[segment];
+    }
+
+    /**
+     * Local time as seconds since 1970-01-01T00:00 local
+     *
+     * @param epochMillis Instant in epoch milliseconds
+     * @return Local epoch seconds
+     */
+    long localEpochSecond(long epochMillis) {
+        long epochSecond = Math.floorDiv(epochMillis, 1000L);
+        return epochSecond + offsetSecondsAt(epochSecond);
+    }
+
+    ZoneId getZone() {
+        return zone;
+    }
+}
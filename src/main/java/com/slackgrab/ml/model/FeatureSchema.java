@@ -0,0 +1,208 @@
+package com.slackgrab.ml.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Layout of the model input vector
+ *
+ * Assembled from the registered feature plugins (see FeaturePlugin):
+ * each plugin contributes one block of named columns, placed in
+ * registration order. The schema version is derived from the block
+ * names, plugin versions and column names, so adding, removing,
+ * reordering or re-versioning a plugin changes it automatically and
+ * persisted vectors of other versions are discarded.
+ *
+ * Besides the dense columns, each row has a sparse block of hashed text
+ * terms (word unigrams and bigrams): MAX_TERMS int slots, each holding a
+ * signed bucket in [0, TERM_BUCKETS). A non-negative slot b means +1 in
+ * bucket b, a negative slot ~b means -1 in bucket b; unused slots hold
+ * EMPTY_TERM. Terms are persisted with the dense vector, so the term
+ * layout and TERM_HASH_VERSION are part of the schema version too.
+ */
+public final class FeatureSchema {
+
+    // Hashed term block (see class comment)
+    public static final int TERM_BUCKETS = 1 << 14;
+    public static final int MAX_TERMS = 48;
+    public static final int EMPTY_TERM = Integer.MIN_VALUE;
+    // Bump when HashedNGramExtractor's tokenizing or hashing changes
+    public static final int TERM_HASH_VERSION = 1;
+
+    private static final int FNV_OFFSET_BASIS = 0x811c9dc5;
+    private static final int FNV_PRIME = 0x01000193;
+
+    /**
+     * A plugin's slice of the row
+     *
+     * @param name Plugin (block) name
+     * @param offset Column of the block's first feature
+     * @param size Number of columns
+     * @param version Plugin version
+     */
+    public record Block(String name, int offset, int size, int version) {
+    }
+
+    private final List<Block> blocks;
+    private final List<String> names;
+    private final Map<String, Integer> indices;
+    private final int dimension;
+    private final int version;
+
+    private FeatureSchema(List<Block> blocks, List<String> names) {
+        this.blocks = List.copyOf(blocks);
+        this.names = List.copyOf(names);
+        this.dimension = names.size();
+        this.indices = buildIndices(this.names);
+        this.version = computeVersion(this.blocks, this.names);
+    }
+
+    /**
+     * Schema version, stored with persisted feature vectors
+     */
+    public int version() {
+        return version;
+    }
+
+    /**
+     * Number of dense columns
+     */
+    public int dimension() {
+        return dimension;
+    }
+
+    /**
+     * Feature names in column order
+     */
+    public List<String> names() {
+        return names;
+    }
+
+    /**
+     * Feature name to column index (immutable, so Map.copyOf returns it as is)
+     */
+    public Map<String, Integer> indices() {
+        return indices;
+    }
+
+    /**
+     * Plugin blocks in column order
+     */
+    public List<Block> blocks() {
+        return blocks;
+    }
+
+    /**
+     * Find a plugin's block
+     *
+     * @param name Plugin name
+     * @return The block, or empty if no such plugin is registered
+     */
+    public Optional<Block> block(String name) {
+        for (Block block : blocks) {
+            if (block.name().equals(name)) {
+                return Optional.of(block);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Offset of a row in a row-major matrix of feature vectors
+     *
+     * @param row Row number
+     * @return Index of the row's first column
+     */
+    public int rowOffset(int row) {
+        return row * dimension;
+    }
+
+    /**
+     * Offset of a row in a row-major matrix of hashed terms
+     *
+     * @param row Row number
+     * @return Index of the row's first term slot
+     */
+    public static int termRowOffset(int row) {
+        return row * MAX_TERMS;
+    }
+
+    @Override
+    public String toString() {
+        return "FeatureSchema[version=" + version + ", dimension=" + dimension + ", blocks=" + blocks + "]";
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder appending plugin blocks in column order
+     */
+    public static final class Builder {
+        private final List<Block> blocks = new ArrayList<>();
+        private final List<String> names = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder addBlock(String name, List<String> featureNames, int version) {
+            if (featureNames.isEmpty()) {
+                throw new IllegalArgumentException("Feature block has no columns: " + name);
+            }
+            for (Block block : blocks) {
+                if (block.name().equals(name)) {
+                    throw new IllegalArgumentException("Duplicate feature block: " + name);
+                }
+            }
+
+            blocks.add(new Block(name, names.size(), featureNames.size(), version));
+            names.addAll(featureNames);
+            return this;
+        }
+
+        public FeatureSchema build() {
+            return new FeatureSchema(blocks, names);
+        }
+    }
+
+    private static Map<String, Integer> buildIndices(List<String> names) {
+        Map<String, Integer> indices = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            if (indices.put(names.get(i), i) != null) {
+                throw new IllegalArgumentException("Duplicate feature name: " + names.get(i));
+            }
+        }
+        return Map.copyOf(indices);
+    }
+
+    /**
+     * 32-bit FNV-1a over the layout, kept positive
+     */
+    private static int computeVersion(List<Block> blocks, List<String> names) {
+        int hash = FNV_OFFSET_BASIS;
+        for (Block block : blocks) {
+            hash = mix(hash, block.name());
+            hash = (hash ^ block.version()) * FNV_PRIME;
+            hash = (hash ^ block.size()) * FNV_PRIME;
+        }
+        for (String name : names) {
+            hash = mix(hash, name);
+        }
+        hash = (hash ^ TERM_BUCKETS) * FNV_PRIME;
+        hash = (hash ^ MAX_TERMS) * FNV_PRIME;
+        hash = (hash ^ TERM_HASH_VERSION) * FNV_PRIME;
+        return hash & Integer.MAX_VALUE;
+    }
+
+    private static int mix(int hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        // Separator so ("ab", "c") and ("a", "bc") differ
+        return (hash ^ 0xff) * FNV_PRIME;
+    }
+}
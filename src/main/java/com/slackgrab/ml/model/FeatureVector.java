@@ -3,21 +3,36 @@ package com.slackgrab.ml.model;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 
+import java.util.Arrays;
 import java.util.Map;
 
 /**
  * Feature vector for message importance scoring
  *
  * Contains extracted features from a message and provides conversion
- * to ND4J arrays for neural network input.
+ * to ND4J arrays for neural network input. Vectors made by
+ * FeatureExtractor also carry the message's hashed text terms.
  */
 public class FeatureVector {
     private final float[] values;
+    private final int[] terms;     // FeatureSchema.MAX_TERMS slots, or null
     private final Map<String, Integer> featureIndices;
     private final int dimension;
 
     public FeatureVector(float[] values, Map<String, Integer> featureIndices) {
+        this(values, null, featureIndices);
+    }
+
+    /**
+     * Wrap a row and its hashed terms (neither is copied)
+     *
+     * @param values Feature values in schema column order
+     * @param terms Hashed term slots, or null if none
+     * @param featureIndices Feature name to column index, usually FeatureSchema.indices()
+     */
+    public FeatureVector(float[] values, int[] terms, Map<String, Integer> featureIndices) {
         this.values = values;
+        this.terms = terms;
         this.featureIndices = featureIndices;
         this.dimension = values.length;
     }
@@ -55,6 +70,39 @@ public class FeatureVector {
         return values.clone();
     }
 
+    /**
+     * Copy feature values into a caller-owned buffer without allocating
+     *
+     * @param dest Destination array
+     * @param offset Index in dest of the first value
+     */
+    public void copyInto(float[] dest, int offset) {
+        System.arraycopy(values, 0, dest, offset, dimension);
+    }
+
+    /**
+     * Copy hashed term slots into a caller-owned buffer
+     *
+     * Writes MAX_TERMS slots; a vector without terms writes EMPTY_TERM.
+     *
+     * @param dest Destination array
+     * @param offset Index in dest of the first slot
+     */
+    public void copyTermsInto(int[] dest, int offset) {
+        if (terms != null) {
+            System.arraycopy(terms, 0, dest, offset, FeatureSchema.MAX_TERMS);
+        } else {
+            Arrays.fill(dest, offset, offset + FeatureSchema.MAX_TERMS, FeatureSchema.EMPTY_TERM);
+        }
+    }
+
+    /**
+     * Check whether the vector carries hashed text terms
+     */
+    public boolean hasTerms() {
+        return terms != null;
+    }
+
     /**
      * Get feature dimension
      *
@@ -67,6 +115,10 @@ public class FeatureVector {
     /**
      * Get feature indices map
      *
+     * Returns the shared schema map itself when the vector was built
+     * with FeatureSchema.indices(), since Map.copyOf does not copy
+     * immutable maps.
+     *
      * @return Map of feature name to index
      */
     public Map<String, Integer> getFeatureIndices() {
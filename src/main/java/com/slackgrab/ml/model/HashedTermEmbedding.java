@@ -0,0 +1,213 @@
+package com.slackgrab.ml.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Sparse first layer for the hashed term block
+ *
+ * Equivalent to a dense layer from a TERM_BUCKETS-wide input to SIZE
+ * outputs, evaluated sparsely: the projection of a row is the signed
+ * sum of the embedding rows of its terms, scaled by 1/sqrt(term count).
+ * Cost is O(terms x SIZE) per message instead of O(TERM_BUCKETS x SIZE),
+ * and the wide input is never materialized.
+ *
+ * The projection is appended to the dense features as network input.
+ * Embeddings start at zero (a new model behaves as if the block were
+ * absent) and are trained with row-wise Adagrad from the gradient of the
+ * loss with respect to the projected input columns.
+ *
+ * Training and scoring run on different threads: projections and saves
+ * hold a read lock, updates, clears and loads the write lock, so a score
+ * never sees a half-applied step and always sees completed ones.
+ */
+public final class HashedTermEmbedding {
+
+    public static final int SIZE = 16;
+
+    private static final int FILE_MAGIC = 0x48544531;   // "HTE1"
+    private static final float ADAGRAD_EPSILON = 1e-6f;
+
+    private final float learningRate;
+    private final float[] weights = new float[FeatureSchema.TERM_BUCKETS * SIZE];
+    // Sum of squared mean gradients per bucket (one Adagrad rate per row)
+    private final float[] accumulators = new float[FeatureSchema.TERM_BUCKETS];
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @param learningRate Adagrad base learning rate
+     */
+    public HashedTermEmbedding(float learningRate) {
+        this.learningRate = learningRate;
+    }
+
+    /**
+     * Project one row of terms
+     *
+     * @param terms Term slots (FeatureSchema encoding)
+     * @param termOffset Index of the row's first slot
+     * @param out Destination array
+     * @param outOffset Index in out of the first of SIZE outputs
+     */
+    public void project(int[] terms, int termOffset, float[] out, int outOffset) {
+        Arrays.fill(out, outOffset, outOffset + SIZE, 0.0f);
+
+        int count = termCount(terms, termOffset);
+        if (count == 0) {
+            return;
+        }
+
+        float scale = (float) (1.0 / Math.sqrt(count));
+        lock.readLock().lock();
+        try {
+            for (int t = 0; t < count; t++) {
+                int term = terms[termOffset + t];
+                int row = bucket(term) * SIZE;
+                float weight = term >= 0 ? scale : -scale;
+                for (int k = 0; k < SIZE; k++) {
+                    out[outOffset + k] += weight * weights[row + k];
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Apply one gradient step for a row of terms
+     *
+     * @param terms Term slots (FeatureSchema encoding)
+     * @param termOffset Index of the row's first slot
+     * @param gradient Gradient of the loss with respect to the projection
+     * @param gradientOffset Index in gradient of the first of SIZE values
+     */
+    public void update(int[] terms, int termOffset, float[] gradient, int gradientOffset) {
+        int count = termCount(terms, termOffset);
+        if (count == 0) {
+            return;
+        }
+
+        float scale = (float) (1.0 / Math.sqrt(count));
+        lock.writeLock().lock();
+        try {
+            for (int t = 0; t < count; t++) {
+                int term = terms[termOffset + t];
+                int bucket = bucket(term);
+                int row = bucket * SIZE;
+                float weight = term >= 0 ? scale : -scale;
+
+                float squared = 0.0f;
+                for (int k = 0; k < SIZE; k++) {
+                    float g = weight * gradient[gradientOffset + k];
+                    squared += g * g;
+                }
+                accumulators[bucket] += squared / SIZE;
+
+                float step = learningRate / ((float) Math.sqrt(accumulators[bucket]) + ADAGRAD_EPSILON);
+                for (int k = 0; k < SIZE; k++) {
+                    weights[row + k] -= step * weight * gradient[gradientOffset + k];
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Check whether any row of a term matrix has terms
+     *
+     * @param terms Term matrix (FeatureSchema encoding), or null
+     * @param rows Number of rows
+     */
+    public static boolean hasTerms(int[] terms, int rows) {
+        if (terms == null) {
+            return false;
+        }
+        for (int row = 0; row < rows; row++) {
+            if (terms[FeatureSchema.termRowOffset(row)] != FeatureSchema.EMPTY_TERM) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reset all embeddings to zero
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            Arrays.fill(weights, 0.0f);
+            Arrays.fill(accumulators, 0.0f);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void save(File file) throws IOException {
+        lock.readLock().lock();
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file.toPath())))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(FeatureSchema.TERM_BUCKETS);
+            out.writeInt(SIZE);
+            for (float w : weights) {
+                out.writeFloat(w);
+            }
+            for (float a : accumulators) {
+                out.writeFloat(a);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void load(File file) throws IOException {
+        // Read fully before swapping in, so a bad file leaves the embeddings untouched
+        float[] loadedWeights = new float[weights.length];
+        float[] loadedAccumulators = new float[accumulators.length];
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != FILE_MAGIC
+                || in.readInt() != FeatureSchema.TERM_BUCKETS
+                || in.readInt() != SIZE) {
+                throw new IOException("Incompatible term embedding file: " + file);
+            }
+            for (int i = 0; i < loadedWeights.length; i++) {
+                loadedWeights[i] = in.readFloat();
+            }
+            for (int i = 0; i < loadedAccumulators.length; i++) {
+                loadedAccumulators[i] = in.readFloat();
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            System.arraycopy(loadedWeights, 0, weights, 0, weights.length);
+            System.arraycopy(loadedAccumulators, 0, accumulators, 0, accumulators.length);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static int termCount(int[] terms, int offset) {
+        int count = 0;
+        while (count < FeatureSchema.MAX_TERMS && terms[offset + count] != FeatureSchema.EMPTY_TERM) {
+            count++;
+        }
+        return count;
+    }
+
+    private static int bucket(int term) {
+        return term >= 0 ? term : ~term;
+    }
+}
@@ -0,0 +1,188 @@
+package com.slackgrab.ml.model;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from dictionary keys to importance values
+ *
+ * Keys are non-negative ints (IdDictionary keys) and values are stored in
+ * primitive arrays with linear probing, so lookups allocate nothing and
+ * a copy is two array clones. Not thread-safe: ScoringContextProvider
+ * mutates a private table and publishes copies that are never written
+ * again.
+ */
+public final class ImportanceTable {
+
+    private static final int EMPTY = -1;
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private double[] values;
+    private int size;
+    private int mask;
+    private int shift;
+
+    public ImportanceTable() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    /**
+     * @param expectedSize Number of entries to size the table for
+     */
+    public ImportanceTable(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    private ImportanceTable(ImportanceTable source) {
+        this.keys = source.keys.clone();
+        this.values = source.values.clone();
+        this.size = source.size;
+        this.mask = source.mask;
+        this.shift = source.shift;
+    }
+
+    /**
+     * Get the value for a key
+     *
+     * @param key Dictionary key (negative keys are never present)
+     * @param defaultValue Returned if the key is absent
+     * @return Stored value or defaultValue
+     */
+    public double get(int key, double defaultValue) {
+        if (key < 0) {
+            return defaultValue;
+        }
+        int slot = find(key);
+        return slot >= 0 ? values[slot] : defaultValue;
+    }
+
+    /**
+     * Check whether a key is present
+     */
+    public boolean containsKey(int key) {
+        return key >= 0 && find(key) >= 0;
+    }
+
+    /**
+     * Set the value for a key
+     *
+     * @param key Dictionary key (non-negative)
+     * @param value Value to store
+     * @return The previous value, or NaN if the key was absent
+     */
+    public double put(int key, double value) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Negative key: " + key);
+        }
+
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                double previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > keys.length / 2) {
+            resize(keys.length * 2);
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Remove a key
+     *
+     * @param key Dictionary key
+     * @return true if the key was present
+     */
+    public boolean remove(int key) {
+        int slot = key >= 0 ? find(key) : -1;
+        if (slot < 0) {
+            return false;
+        }
+
+        // Backward-shift deletion keeps probe sequences intact without tombstones
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = slot(keys[next]);
+            // Move the entry into the gap unless its home lies cyclically in (gap, next]
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = EMPTY;
+        size--;
+        return true;
+    }
+
+    /**
+     * Get the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copy the table (two array clones)
+     */
+    public ImportanceTable copy() {
+        return new ImportanceTable(this);
+    }
+
+    private int find(int key) {
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int slot(int key) {
+        // Fibonacci hashing: top bits of the product spread sequential dictionary keys
+        return (key * 0x9E3779B9) >>> shift;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        double[] oldValues = values;
+        allocate(capacity);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new double[capacity];
+        mask = capacity - 1;
+        shift = Integer.numberOfLeadingZeros(capacity) + 1;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity / 2 < expectedSize) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+}
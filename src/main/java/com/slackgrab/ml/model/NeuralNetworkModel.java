@@ -8,9 +8,12 @@ import org.deeplearning4j.nn.conf.MultiLayerConfiguration;
 import org.deeplearning4j.nn.conf.NeuralNetConfiguration;
 import org.deeplearning4j.nn.conf.layers.DenseLayer;
 import org.deeplearning4j.nn.conf.layers.OutputLayer;
+import org.deeplearning4j.nn.gradient.Gradient;
 import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
 import org.deeplearning4j.nn.weights.WeightInit;
 import org.deeplearning4j.optimize.listeners.ScoreIterationListener;
+import org.deeplearning4j.util.ModelSerializer;
+import org.nd4j.common.primitives.Pair;
 import org.nd4j.linalg.activations.Activation;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.dataset.DataSet;
@@ -24,12 +27,14 @@ import java.io.File;
 import java.io.IOException;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 
 /**
  * Deep learning neural network for message importance scoring
  *
  * Architecture:
- * - Input: 25 features
+ * - Input: FeatureSchema dense features + 16 projected from hashed text terms
+ * - Sparse term layer: hashed unigrams/bigrams to 16 values (see HashedTermEmbedding)
  * - Hidden Layer 1: 64 neurons, ReLU, 20% dropout
  * - Hidden Layer 2: 32 neurons, ReLU, 20% dropout
  * - Output: 1 neuron, Sigmoid (score 0.0-1.0)
@@ -38,12 +43,16 @@ import java.time.format.DateTimeFormatter;
  * - Loss: MSE (Mean Squared Error)
  * - Optimizer: Adam (learning rate: 0.001 online, 0.01 batch)
  * - Supports both online and batch training
+ * - The sparse term layer is trained from the input gradient of each
+ *   step and saved next to the network checkpoint (.terms file)
+ *
+ * Checkpoints record the FeatureSchema version they were trained with;
+ * a checkpoint of another schema is ignored and a new model created.
  */
 @Singleton
 public class NeuralNetworkModel {
     private static final Logger logger = LoggerFactory.getLogger(NeuralNetworkModel.class);
 
-    private static final int INPUT_SIZE = 25;
     private static final int HIDDEN_LAYER_1_SIZE = 64;
     private static final int HIDDEN_LAYER_2_SIZE = 32;
     private static final int OUTPUT_SIZE = 1;
@@ -51,9 +60,17 @@ public class NeuralNetworkModel {
     private static final double LEARNING_RATE_ONLINE = 0.001;
     private static final double LEARNING_RATE_BATCH = 0.01;
     private static final double DROPOUT_RATE = 0.2;
+    private static final float TERM_LEARNING_RATE = 0.05f;
+
+    private static final String TERMS_SUFFIX = ".terms";
+    private static final String SCHEMA_VERSION_KEY = "featureSchemaVersion";
 
     private final ConfigurationManager configurationManager;
     private final ErrorHandler errorHandler;
+    private final FeatureSchema schema;
+    private final HashedTermEmbedding termEmbedding;
+    private final int denseInputSize;
+    private final int inputSize;
 
     private MultiLayerNetwork model;
     private String modelVersion;
@@ -62,10 +79,15 @@ public class NeuralNetworkModel {
     @Inject
     public NeuralNetworkModel(
         ConfigurationManager configurationManager,
-        ErrorHandler errorHandler
+        ErrorHandler errorHandler,
+        FeatureSchema schema
     ) {
         this.configurationManager = configurationManager;
         this.errorHandler = errorHandler;
+        this.schema = schema;
+        this.denseInputSize = schema.dimension();
+        this.inputSize = denseInputSize + HashedTermEmbedding.SIZE;
+        this.termEmbedding = new HashedTermEmbedding(TERM_LEARNING_RATE);
         this.isReady = false;
     }
 
@@ -84,14 +106,21 @@ public class NeuralNetworkModel {
             File modelDir = getModelDirectory();
             File latestModel = findLatestModelCheckpoint(modelDir);
 
+            MultiLayerNetwork loaded = null;
             if (latestModel != null && latestModel.exists()) {
                 logger.info("Loading existing model from: {}", latestModel);
-                model = MultiLayerNetwork.load(latestModel, true);
+                loaded = loadCompatible(latestModel);
+            }
+
+            if (loaded != null) {
+                model = loaded;
                 modelVersion = extractVersionFromFilename(latestModel.getName());
+                loadTermEmbedding(latestModel);
             } else {
                 logger.info("Creating new model with random initialization");
                 model = createNewModel();
                 modelVersion = generateModelVersion();
+                termEmbedding.clear();
             }
 
             isReady = true;
@@ -115,7 +144,7 @@ public class NeuralNetworkModel {
             .updater(new Adam(LEARNING_RATE_ONLINE))
             .list()
             .layer(new DenseLayer.Builder()
-                .nIn(INPUT_SIZE)
+                .nIn(inputSize)
                 .nOut(HIDDEN_LAYER_1_SIZE)
                 .activation(Activation.RELU)
                 .dropOut(DROPOUT_RATE)
@@ -153,7 +182,7 @@ public class NeuralNetworkModel {
         }
 
         try {
-            INDArray input = features.toBatchINDArray();
+            INDArray input = Nd4j.create(assembleInput(new FeatureVector[]{features}), new long[]{1, inputSize}, 'c');
             INDArray output = model.output(input);
             return output.getDouble(0);
 
@@ -180,10 +209,8 @@ public class NeuralNetworkModel {
 
         try {
             // Stack feature vectors into batch
-            INDArray input = Nd4j.create(featuresList.length, INPUT_SIZE);
-            for (int i = 0; i < featuresList.length; i++) {
-                input.putRow(i, featuresList[i].toINDArray());
-            }
+            INDArray input = Nd4j.create(
+                assembleInput(featuresList), new long[]{featuresList.length, inputSize}, 'c');
 
             INDArray output = model.output(input);
 
@@ -205,6 +232,52 @@ public class NeuralNetworkModel {
         }
     }
 
+    /**
+     * Batch score a row-major feature matrix, without text terms
+     *
+     * @param featureMatrix Matrix with at least rows * schema dimension values
+     * @param rows Number of rows to score
+     * @return Array of scores
+     */
+    public double[] batchScore(float[] featureMatrix, int rows) {
+        return batchScore(featureMatrix, null, rows);
+    }
+
+    /**
+     * Batch score a row-major feature matrix and its hashed term matrix
+     *
+     * Rows are laid out by FeatureSchema, as filled by
+     * FeatureExtractor.extractBatchParallel.
+     *
+     * @param featureMatrix Matrix with at least rows * schema dimension values
+     * @param termMatrix Term slots with at least rows * FeatureSchema.MAX_TERMS values, or null
+     * @param rows Number of rows to score
+     * @return Array of scores
+     */
+    public double[] batchScore(float[] featureMatrix, int[] termMatrix, int rows) {
+        double[] scores = new double[rows];
+        if (!isReady || rows == 0) {
+            Arrays.fill(scores, 0.5);
+            return scores;
+        }
+
+        try {
+            INDArray input = Nd4j.create(
+                assembleInput(featureMatrix, termMatrix, rows), new long[]{rows, inputSize}, 'c');
+
+            INDArray output = model.output(input);
+            for (int i = 0; i < rows; i++) {
+                scores[i] = output.getDouble(i, 0);
+            }
+            return scores;
+
+        } catch (Exception e) {
+            errorHandler.handleError("Failed to batch score messages", e);
+            Arrays.fill(scores, 0.5);
+            return scores;
+        }
+    }
+
     /**
      * Train on a single example (online learning)
      *
@@ -216,11 +289,13 @@ public class NeuralNetworkModel {
         }
 
         try {
-            INDArray input = example.features().toBatchINDArray();
+            float[] dense = new float[denseInputSize];
+            int[] terms = new int[FeatureSchema.MAX_TERMS];
+            example.features().copyInto(dense, 0);
+            example.features().copyTermsInto(terms, 0);
             INDArray label = Nd4j.create(new double[][]{{example.targetScore()}});
 
-            DataSet dataSet = new DataSet(input, label);
-            model.fit(dataSet);
+            fit(dense, terms, label, 1);
 
         } catch (Exception e) {
             errorHandler.handleError("Failed to train online", e);
@@ -242,21 +317,21 @@ public class NeuralNetworkModel {
             logger.info("Training on batch of {} examples for {} epochs", examples.length, epochs);
 
             // Prepare batch dataset
-            INDArray input = Nd4j.create(examples.length, INPUT_SIZE);
+            float[] dense = new float[schema.rowOffset(examples.length)];
+            int[] terms = new int[FeatureSchema.termRowOffset(examples.length)];
             INDArray labels = Nd4j.create(examples.length, OUTPUT_SIZE);
 
             for (int i = 0; i < examples.length; i++) {
-                input.putRow(i, examples[i].features().toINDArray());
+                examples[i].features().copyInto(dense, schema.rowOffset(i));
+                examples[i].features().copyTermsInto(terms, FeatureSchema.termRowOffset(i));
                 labels.putScalar(new int[]{i, 0}, examples[i].targetScore());
             }
 
-            DataSet dataSet = new DataSet(input, labels);
-
             // Train for multiple epochs
             // Note: Learning rate adjustment via updater config is complex in DL4J
             // For now, train with existing configuration
             for (int epoch = 0; epoch < epochs; epoch++) {
-                model.fit(dataSet);
+                fit(dense, terms, labels, examples.length);
             }
 
             logger.info("Batch training completed");
@@ -283,6 +358,8 @@ public class NeuralNetworkModel {
 
             File checkpointFile = new File(modelDir, "model-" + version + ".zip");
             model.save(checkpointFile, true);
+            ModelSerializer.addObjectToFile(checkpointFile, SCHEMA_VERSION_KEY, schema.version());
+            termEmbedding.save(termEmbeddingFile(checkpointFile));
 
             logger.info("Model checkpoint saved: {}", checkpointFile);
             return checkpointFile.getAbsolutePath();
@@ -307,8 +384,14 @@ public class NeuralNetworkModel {
                 return false;
             }
 
-            model = MultiLayerNetwork.load(checkpointFile, true);
+            MultiLayerNetwork loaded = loadCompatible(checkpointFile);
+            if (loaded == null) {
+                return false;
+            }
+
+            model = loaded;
             modelVersion = extractVersionFromFilename(checkpointFile.getName());
+            loadTermEmbedding(checkpointFile);
             isReady = true;
 
             logger.info("Model loaded from checkpoint: {}", checkpointPath);
@@ -320,6 +403,112 @@ public class NeuralNetworkModel {
         }
     }
 
+    /**
+     * One training step: sparse term layer from the input gradient, then the network
+     *
+     * Projections are recomputed from the current embeddings on every call.
+     */
+    private void fit(float[] dense, int[] terms, INDArray labels, int rows) {
+        INDArray input = Nd4j.create(assembleInput(dense, terms, rows), new long[]{rows, inputSize}, 'c');
+
+        if (HashedTermEmbedding.hasTerms(terms, rows)) {
+            Pair<Gradient, INDArray> gradients = model.calculateGradients(input, labels, null, null);
+            float[] inputGradient = gradients.getSecond().dup('c').data().asFloat();
+            for (int row = 0; row < rows; row++) {
+                termEmbedding.update(terms, FeatureSchema.termRowOffset(row),
+                    inputGradient, row * inputSize + denseInputSize);
+            }
+        }
+
+        model.fit(new DataSet(input, labels));
+    }
+
+    /**
+     * Build network input rows: dense features followed by the term projection
+     *
+     * @param dense Dense rows laid out by FeatureSchema
+     * @param terms Term rows, or null for none
+     * @param rows Number of rows
+     */
+    private float[] assembleInput(float[] dense, int[] terms, int rows) {
+        float[] input = new float[rows * inputSize];
+        for (int row = 0; row < rows; row++) {
+            int target = row * inputSize;
+            System.arraycopy(dense, schema.rowOffset(row), input, target, denseInputSize);
+            if (terms != null) {
+                termEmbedding.project(terms, FeatureSchema.termRowOffset(row), input, target + denseInputSize);
+            }
+        }
+        return input;
+    }
+
+    private float[] assembleInput(FeatureVector[] vectors) {
+        float[] dense = new float[schema.rowOffset(vectors.length)];
+        int[] terms = new int[FeatureSchema.termRowOffset(vectors.length)];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i].copyInto(dense, schema.rowOffset(i));
+            vectors[i].copyTermsInto(terms, FeatureSchema.termRowOffset(i));
+        }
+        return assembleInput(dense, terms, vectors.length);
+    }
+
+    /**
+     * Load a checkpoint if it matches the current feature schema and architecture
+     *
+     * Checkpoints saved before schema versions were recorded are checked
+     * by input size only.
+     *
+     * @return The network, or null if it was built for another schema or input size
+     */
+    private MultiLayerNetwork loadCompatible(File checkpointFile) throws IOException {
+        Integer schemaVersion = readSchemaVersion(checkpointFile);
+        if (schemaVersion != null && schemaVersion != schema.version()) {
+            logger.info("Ignoring checkpoint {} for feature schema {} (expected {})",
+                checkpointFile, schemaVersion, schema.version());
+            return null;
+        }
+
+        MultiLayerNetwork network = MultiLayerNetwork.load(checkpointFile, true);
+        int inputs = network.layerInputSize(0);
+        if (inputs != inputSize) {
+            logger.info("Ignoring checkpoint {} with {} inputs (expected {})", checkpointFile, inputs, inputSize);
+            return null;
+        }
+        return network;
+    }
+
+    private Integer readSchemaVersion(File checkpointFile) {
+        try {
+            Object version = ModelSerializer.getObjectFromFile(checkpointFile, SCHEMA_VERSION_KEY);
+            return version instanceof Integer i ? i : null;
+        } catch (Exception e) {
+            // Not recorded
+            return null;
+        }
+    }
+
+    private void loadTermEmbedding(File checkpointFile) {
+        File file = termEmbeddingFile(checkpointFile);
+        if (!file.exists()) {
+            logger.info("No term embeddings for {}, starting from zero", checkpointFile.getName());
+            termEmbedding.clear();
+            return;
+        }
+
+        try {
+            termEmbedding.load(file);
+        } catch (IOException e) {
+            errorHandler.handleError("Failed to load term embeddings, starting from zero", e);
+            termEmbedding.clear();
+        }
+    }
+
+    private File termEmbeddingFile(File checkpointFile) {
+        String name = checkpointFile.getName();
+        String base = name.endsWith(".zip") ? name.substring(0, name.length() - 4) : name;
+        return new File(checkpointFile.getParentFile(), base + TERMS_SUFFIX);
+    }
+
     /**
      * Check if model is ready for scoring
      */
@@ -371,7 +560,7 @@ public class NeuralNetworkModel {
      * Generate model version string
      */
     private String generateModelVersion() {
-        return "1.0.0-" + DateTimeFormatter.ofPattern("yyyyMMddHHmmss")
+        return "2.0.0-" + DateTimeFormatter.ofPattern("yyyyMMddHHmmss")
             .format(Instant.now().atZone(java.time.ZoneId.systemDefault()));
     }
 
@@ -3,26 +3,48 @@ package com.slackgrab.ml.model;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
 
 /**
  * Context information for message importance scoring
  *
  * Provides historical patterns, sender/channel importance,
  * and user behavior data to enhance scoring accuracy.
+ *
+ * Contexts are immutable. Built contexts copy their maps once; shared
+ * snapshots from ScoringContextProvider wrap primitive ImportanceTables
+ * and are read by every score call without copying.
  */
 public class ScoringContext {
-    private final Map<String, Double> senderImportance;
-    private final Map<String, Double> channelImportance;
+    private static final double DEFAULT_IMPORTANCE = 0.5;
+
+    private final ToDoubleFunction<String> senderImportance;
+    private final ToDoubleFunction<String> channelImportance;
     private final List<String> urgentKeywords;
     private final long currentTime;
 
     private ScoringContext(Builder builder) {
-        this.senderImportance = Map.copyOf(builder.senderImportance);
-        this.channelImportance = Map.copyOf(builder.channelImportance);
+        Map<String, Double> senders = Map.copyOf(builder.senderImportance);
+        Map<String, Double> channels = Map.copyOf(builder.channelImportance);
+        this.senderImportance = id -> id != null ? senders.getOrDefault(id, DEFAULT_IMPORTANCE) : DEFAULT_IMPORTANCE;
+        this.channelImportance = id -> id != null ? channels.getOrDefault(id, DEFAULT_IMPORTANCE) : DEFAULT_IMPORTANCE;
         this.urgentKeywords = List.copyOf(builder.urgentKeywords);
         this.currentTime = builder.currentTime;
     }
 
+    private ScoringContext(
+        ToDoubleFunction<String> senderImportance,
+        ToDoubleFunction<String> channelImportance,
+        List<String> urgentKeywords,
+        long currentTime
+    ) {
+        this.senderImportance = senderImportance;
+        this.channelImportance = channelImportance;
+        this.urgentKeywords = urgentKeywords;
+        this.currentTime = currentTime;
+    }
+
     /**
      * Get sender importance score
      *
@@ -30,7 +52,7 @@ public class ScoringContext {
      * @return Importance score (0.0-1.0), default 0.5
      */
     public double getSenderImportance(String senderId) {
-        return senderImportance.getOrDefault(senderId, 0.5);
+        return senderImportance.applyAsDouble(senderId);
     }
 
     /**
@@ -40,7 +62,7 @@ public class ScoringContext {
      * @return Importance score (0.0-1.0), default 0.5
      */
     public double getChannelImportance(String channelId) {
-        return channelImportance.getOrDefault(channelId, 0.5);
+        return channelImportance.applyAsDouble(channelId);
     }
 
     /**
@@ -61,6 +83,46 @@ public class ScoringContext {
         return currentTime;
     }
 
+    /**
+     * Get this context as of another time
+     *
+     * Shares all lookups with this context (no copying).
+     *
+     * @param currentTime Current time in milliseconds
+     * @return Context with the given current time
+     */
+    public ScoringContext at(long currentTime) {
+        return new ScoringContext(senderImportance, channelImportance, urgentKeywords, currentTime);
+    }
+
+    /**
+     * Create a context backed by importance tables keyed by dictionary key
+     *
+     * The tables and keyword list are used as-is and must not be modified
+     * afterwards.
+     *
+     * @param senderImportance Sender importance by user key
+     * @param channelImportance Channel importance by channel key
+     * @param keyResolver Maps a Slack ID to its dictionary key (negative if unknown)
+     * @param urgentKeywords Immutable list of urgent keywords
+     * @param currentTime Current time in milliseconds
+     * @return Snapshot context
+     */
+    public static ScoringContext ofTables(
+        ImportanceTable senderImportance,
+        ImportanceTable channelImportance,
+        ToIntFunction<String> keyResolver,
+        List<String> urgentKeywords,
+        long currentTime
+    ) {
+        return new ScoringContext(
+            id -> id != null ? senderImportance.get(keyResolver.applyAsInt(id), DEFAULT_IMPORTANCE) : DEFAULT_IMPORTANCE,
+            id -> id != null ? channelImportance.get(keyResolver.applyAsInt(id), DEFAULT_IMPORTANCE) : DEFAULT_IMPORTANCE,
+            urgentKeywords,
+            currentTime
+        );
+    }
+
     /**
      * Create a default scoring context
      *
@@ -0,0 +1,147 @@
+package com.slackgrab.ml.training;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.slackgrab.core.ErrorHandler;
+import com.slackgrab.core.ManagedService;
+import com.slackgrab.data.InteractionBuffer;
+import com.slackgrab.data.MessageRepository;
+import com.slackgrab.data.model.InteractionEvent;
+import com.slackgrab.data.model.SlackMessage;
+import com.slackgrab.ml.ScoringContextProvider;
+import com.slackgrab.ml.features.FeatureStore;
+import com.slackgrab.ml.model.FeatureVector;
+import com.slackgrab.ml.model.TrainingExample;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Feeds flushed interactions to the online trainer
+ *
+ * Listens to InteractionBuffer flushes and turns each coalesced interaction
+ * into a training example (merged dwell time included). Feature extraction
+ * runs on its own thread so the flush thread is released immediately.
+ * Features go through FeatureStore, so the vectors trained on are kept
+ * for later batch training passes.
+ */
+@Singleton
+public class InteractionTrainingFeed implements ManagedService {
+    private static final Logger logger = LoggerFactory.getLogger(InteractionTrainingFeed.class);
+
+    private final InteractionBuffer interactionBuffer;
+    private final MessageRepository messageRepository;
+    private final FeatureStore featureStore;
+    private final ScoringContextProvider contextProvider;
+    private final OnlineTrainer onlineTrainer;
+    private final ErrorHandler errorHandler;
+
+    private final Consumer<List<InteractionEvent>> listener;
+    private ExecutorService executor;
+
+    @Inject
+    public InteractionTrainingFeed(
+        InteractionBuffer interactionBuffer,
+        MessageRepository messageRepository,
+        FeatureStore featureStore,
+        ScoringContextProvider contextProvider,
+        OnlineTrainer onlineTrainer,
+        ErrorHandler errorHandler
+    ) {
+        this.interactionBuffer = interactionBuffer;
+        this.messageRepository = messageRepository;
+        this.featureStore = featureStore;
+        this.contextProvider = contextProvider;
+        this.onlineTrainer = onlineTrainer;
+        this.errorHandler = errorHandler;
+        this.listener = this::onFlush;
+    }
+
+    @Override
+    public void start() throws Exception {
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r);
+            t.setName("InteractionTraining");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+
+        interactionBuffer.addFlushListener(listener);
+        logger.info("Interaction training feed started");
+    }
+
+    @Override
+    public void stop() throws Exception {
+        interactionBuffer.removeFlushListener(listener);
+
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void onFlush(List<InteractionEvent> events) {
+        ExecutorService current = executor;
+        if (current != null && !current.isShutdown()) {
+            current.execute(() -> enqueueExamples(events));
+        }
+    }
+
+    /**
+     * Build and enqueue one training example per coalesced interaction
+     *
+     * @param events Coalesced interactions from one flush
+     * @return Number of examples accepted by the trainer
+     */
+    int enqueueExamples(List<InteractionEvent> events) {
+        List<InteractionEvent> found = new ArrayList<>(events.size());
+        List<SlackMessage> messages = new ArrayList<>(events.size());
+
+        for (InteractionEvent event : events) {
+            try {
+                Optional<SlackMessage> message = messageRepository.getMessage(event.messageId());
+                if (message.isPresent()) {
+                    found.add(event);
+                    messages.add(message.get());
+                }
+            } catch (Exception e) {
+                errorHandler.handleError("Failed to load message for training: " + event.messageId(), e);
+            }
+        }
+
+        if (messages.isEmpty()) {
+            return 0;
+        }
+
+        int enqueued = 0;
+        try {
+            List<FeatureVector> features = featureStore.getFeatures(messages, contextProvider.current());
+
+            for (int i = 0; i < found.size(); i++) {
+                InteractionEvent event = found.get(i);
+                long dwellTime = event.readingTimeMs() != null ? event.readingTimeMs() : 0;
+
+                if (onlineTrainer.enqueueExample(TrainingExample.fromInteraction(features.get(i), true, dwellTime))) {
+                    enqueued++;
+                }
+            }
+        } catch (Exception e) {
+            errorHandler.handleError("Failed to build training examples for " + messages.size() + " interactions", e);
+        }
+
+        logger.debug("Enqueued {} of {} interactions for online training", enqueued, events.size());
+        return enqueued;
+    }
+}
@@ -11,6 +11,7 @@ import com.slack.api.model.User;
 import com.slackgrab.core.ErrorHandler;
 import com.slackgrab.data.MessageRepository;
 import com.slackgrab.data.ChannelRepository;
+import com.slackgrab.data.ThreadIndex;
 import com.slackgrab.data.model.SlackMessage;
 import com.slackgrab.data.model.SlackChannel;
 import org.slf4j.Logger;
@@ -52,6 +53,7 @@ public class MessageCollector {
     private final SlackApiClient slackApiClient;
     private final MessageRepository messageRepository;
     private final ChannelRepository channelRepository;
+    private final ThreadIndex threadIndex;
     private final ErrorHandler errorHandler;
 
     private volatile boolean isCollecting = false;
@@ -63,11 +65,13 @@ public class MessageCollector {
         SlackApiClient slackApiClient,
         MessageRepository messageRepository,
         ChannelRepository channelRepository,
+        ThreadIndex threadIndex,
         ErrorHandler errorHandler
     ) {
         this.slackApiClient = slackApiClient;
         this.messageRepository = messageRepository;
         this.channelRepository = channelRepository;
+        this.threadIndex = threadIndex;
         this.errorHandler = errorHandler;
     }
 
@@ -95,6 +99,9 @@ public class MessageCollector {
         try {
             logger.info("Starting initial message collection (30 days of history)...");
 
+            // Threads the authenticated user takes part in are tracked by the thread index
+            slackApiClient.getAuthenticatedUserId().ifPresent(threadIndex::setSelfUserId);
+
             // 1. Fetch channel list
             List<SlackChannel> channels = fetchAndStoreChannels();
             result.channelsDiscovered = channels.size();
@@ -174,6 +181,8 @@ public class MessageCollector {
         try {
             logger.debug("Starting incremental message collection...");
 
+            slackApiClient.getAuthenticatedUserId().ifPresent(threadIndex::setSelfUserId);
+
             // Get list of channels
             List<SlackChannel> channels = channelRepository.getAllChannels();
 
@@ -326,6 +335,7 @@ public class MessageCollector {
 
                 // Store in database
                 messageRepository.saveMessage(slackMessage);
+                recordThreadSummary(msg, channelId);
                 messageCount++;
                 messagesCollectedToday++;
 
@@ -371,6 +381,20 @@ public class MessageCollector {
         );
     }
 
+    /**
+     * Feed the reply metadata of a thread root to the thread index
+     *
+     * conversations.history returns only roots; their reply count, reply
+     * authors and latest reply stand in for the uncollected replies.
+     */
+    private void recordThreadSummary(Message msg, String channelId) {
+        Integer replyCount = msg.getReplyCount();
+        if (replyCount != null && replyCount > 0) {
+            threadIndex.recordThreadSummary(
+                channelId, msg.getThreadTs(), replyCount, msg.getReplyUsers(), msg.getLatestReply());
+        }
+    }
+
     /**
      * Reset daily message counter if it's a new day
      */
@@ -29,6 +29,7 @@ public class SlackApiClient {
 
     private final Slack slack;
     private String accessToken;
+    private volatile String authenticatedUserId;
 
     @Inject
     public SlackApiClient(
@@ -64,6 +65,7 @@ public class SlackApiClient {
      */
     public void setAccessToken(String token) {
         this.accessToken = token;
+        this.authenticatedUserId = null;
         credentialManager.storeAccessToken(token);
         logger.info("Access token updated and stored");
     }
@@ -92,6 +94,7 @@ public class SlackApiClient {
             AuthTestResponse response = slack.methods(accessToken).authTest(req -> req);
 
             if (response.isOk()) {
+                authenticatedUserId = response.getUserId();
                 logger.info("Slack connection test successful. Team: {}, User: {}",
                     response.getTeam(), response.getUser());
                 return true;
@@ -105,6 +108,20 @@ public class SlackApiClient {
         }
     }
 
+    /**
+     * Get the Slack user ID of the authenticated user
+     *
+     * Resolved with auth.test on first use and cached until the token changes.
+     *
+     * @return User ID, or empty if not connected
+     */
+    public Optional<String> getAuthenticatedUserId() {
+        if (authenticatedUserId == null && hasAccessToken()) {
+            testConnectionWithRefresh();
+        }
+        return Optional.ofNullable(authenticatedUserId);
+    }
+
     /**
      * Get the Slack client instance
      *
@@ -212,6 +229,7 @@ public class SlackApiClient {
             });
 
             if (response.isOk()) {
+                authenticatedUserId = response.getUserId();
                 logger.info("Slack connection test successful. Team: {}, User: {}",
                     response.getTeam(), response.getUser());
                 return true;
@@ -2,6 +2,7 @@ package com.slackgrab.ui;
 
 import com.google.inject.Inject;
 import com.slackgrab.core.ErrorHandler;
+import com.slackgrab.data.AsyncRepositories;
 import com.slackgrab.data.DatabaseManager;
 import com.slackgrab.security.CredentialManager;
 import org.slf4j.Logger;
@@ -31,6 +32,7 @@ public class StatusWindow {
 
     private final ErrorHandler errorHandler;
     private final DatabaseManager databaseManager;
+    private final AsyncRepositories asyncRepositories;
     private final CredentialManager credentialManager;
 
     private JFrame frame;
@@ -43,9 +45,15 @@ public class StatusWindow {
     private boolean visible = false;
 
     @Inject
-    public StatusWindow(ErrorHandler errorHandler, DatabaseManager databaseManager, CredentialManager credentialManager) {
+    public StatusWindow(
+        ErrorHandler errorHandler,
+        DatabaseManager databaseManager,
+        AsyncRepositories asyncRepositories,
+        CredentialManager credentialManager
+    ) {
         this.errorHandler = errorHandler;
         this.databaseManager = databaseManager;
+        this.asyncRepositories = asyncRepositories;
         this.credentialManager = credentialManager;
     }
 
@@ -251,17 +259,18 @@ public class StatusWindow {
 
     /**
      * Update messages count display
+     *
+     * The count is fetched off the UI thread and applied on the EDT when ready.
      */
     private void updateMessagesCount() {
-        try {
-            // Query message count from database
-            long messageCount = getMessageCount();
-            messagesCountLabel.setText("Messages Collected: " + messageCount);
-
-        } catch (Exception e) {
-            logger.warn("Failed to get message count", e);
-            messagesCountLabel.setText("Messages Collected: Unknown");
-        }
+        asyncRepositories.getTotalMessageCount()
+            .thenAccept(messageCount -> SwingUtilities.invokeLater(() ->
+                messagesCountLabel.setText("Messages Collected: " + messageCount)))
+            .exceptionally(e -> {
+                logger.warn("Failed to get message count", e);
+                SwingUtilities.invokeLater(() -> messagesCountLabel.setText("Messages Collected: Unknown"));
+                return null;
+            });
     }
 
     /**
@@ -295,20 +304,4 @@ public class StatusWindow {
             return null;
         }
     }
-
-    /**
-     * Get total message count from database
-     */
-    private long getMessageCount() {
-        try {
-            // Query messages table for total count
-            // For now, return 0 as placeholder
-            // TODO: Implement proper database query
-            return 0L;
-
-        } catch (Exception e) {
-            logger.warn("Failed to query message count", e);
-            return 0L;
-        }
-    }
 }
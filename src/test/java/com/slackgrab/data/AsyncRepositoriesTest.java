@@ -0,0 +1,124 @@
+package com.slackgrab.data;
+
+import com.slackgrab.data.model.InboxPage;
+import com.slackgrab.data.model.InboxQuery;
+import com.slackgrab.data.model.SlackMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for AsyncRepositories against a real database, hot and archive tiers
+ */
+class AsyncRepositoriesTest {
+
+    private static final long NOW = Instant.now().getEpochSecond();
+
+    @TempDir
+    Path tempDir;
+
+    private TestDatabase database;
+    private AsyncRepositories repositories;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        database = TestDatabase.open(tempDir);
+        repositories = database.get(AsyncRepositories.class);
+
+        // Hot tier
+        save("hot-1", "C1", NOW - 10, 0.9);
+        save("hot-2", "C2", NOW - 20, 0.5);
+        save("hot-3", "C1", NOW - 30, 0.7);
+        save("hot-unscored", "C1", NOW - 40, null);
+        // Archive tier (moved below)
+        save("old-1", "C2", 1_700_000_300L, 0.95);
+        save("old-2", "C1", 1_700_000_200L, 0.5);
+        save("old-3", "C1", 1_700_000_100L, 0.1);
+
+        assertThat(database.get(TieringService.class).archiveOldMessages()).isEqualTo(3);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        repositories.stop();
+        database.close();
+    }
+
+    @Test
+    void getInbox_pagesAcrossTiersInScoreOrder() {
+        List<String> ids = readAllPages(new InboxQuery.Builder().withLimit(2).build());
+
+        assertThat(ids).containsExactly("old-1", "hot-1", "hot-3", "hot-2", "old-2", "old-3");
+    }
+
+    @Test
+    void getInbox_channelFilterAndMinScore_applyToBothTiers() {
+        List<String> ids = readAllPages(new InboxQuery.Builder()
+            .withChannels(Set.of("C1"))
+            .withMinScore(0.5)
+            .withLimit(1)
+            .build());
+
+        assertThat(ids).containsExactly("hot-1", "hot-3", "old-2");
+    }
+
+    @Test
+    void getInbox_hotOnlyRange_skipsArchive() {
+        List<String> ids = readAllPages(new InboxQuery.Builder()
+            .since(Instant.ofEpochSecond(NOW - 3_600))
+            .withLimit(10)
+            .build());
+
+        assertThat(ids).containsExactly("hot-1", "hot-3", "hot-2");
+    }
+
+    @Test
+    void recordInteraction_isBufferedUntilFlush() {
+        InteractionBuffer buffer = database.get(InteractionBuffer.class);
+        InteractionRepository interactions = database.get(InteractionRepository.class);
+
+        assertThat(repositories.recordInteraction("hot-1", "READ", 4_000L).join()).isTrue();
+        assertThat(buffer.getPendingCount()).isEqualTo(1);
+        assertThat(interactions.getMessageInteractions("hot-1")).isEmpty();
+
+        buffer.flush();
+        assertThat(interactions.getMessageInteractions("hot-1")).hasSize(1);
+
+        assertThat(repositories.recordInteractionNow("hot-2", "REPLY", null).join()).isTrue();
+        assertThat(interactions.getMessageInteractions("hot-2")).hasSize(1);
+    }
+
+    private List<String> readAllPages(InboxQuery query) {
+        List<String> ids = new ArrayList<>();
+        InboxPage page = repositories.getInbox(query).join();
+        int pages = 1;
+        while (true) {
+            page.messages().forEach(message -> ids.add(message.id()));
+            if (!page.hasMore()) {
+                break;
+            }
+            assertThat(pages++).as("pages").isLessThan(20);
+            page = repositories.getInbox(query.withCursor(page.nextCursor())).join();
+        }
+        return ids;
+    }
+
+    private void save(String id, String channelId, long epochSecond, Double score) {
+        SlackMessage message = SlackMessage.createNew(
+            id, channelId, "U1", "text of " + id, String.format(Locale.ROOT, "%d.000100", epochSecond), null, false, false);
+        if (score != null) {
+            message = message.withImportance(score, score >= 0.7 ? "HIGH" : score >= 0.4 ? "MEDIUM" : "LOW");
+        }
+        assertThat(database.get(MessageRepository.class).saveMessage(message)).isTrue();
+    }
+}
@@ -0,0 +1,121 @@
+package com.slackgrab.data;
+
+import com.slackgrab.data.model.SlackChannel;
+import com.slackgrab.data.model.SlackMessage;
+import com.slackgrab.ml.model.FeedbackType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Map;
+
+import static com.slackgrab.data.TestDatabase.currentTs;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for CounterRepository and the triggers that maintain the counters table
+ */
+class CounterRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TestDatabase database;
+    private MessageRepository messageRepository;
+    private ChannelRepository channelRepository;
+    private InteractionRepository interactionRepository;
+    private FeedbackRepository feedbackRepository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        database = TestDatabase.open(tempDir);
+        messageRepository = database.get(MessageRepository.class);
+        channelRepository = database.get(ChannelRepository.class);
+        interactionRepository = database.get(InteractionRepository.class);
+        feedbackRepository = database.get(FeedbackRepository.class);
+
+        channelRepository.saveChannel(SlackChannel.createNew("C1", "general", false, 10));
+        channelRepository.saveChannel(SlackChannel.createNew("C2", "random", false, 5));
+        messageRepository.saveMessage(SlackMessage.createNew("m1", "C1", "U1", "deploy done", currentTs(), null, false, false));
+        messageRepository.saveMessage(SlackMessage.createNew("m2", "C2", "U2", "lunch?", currentTs(), null, false, false));
+        interactionRepository.recordInteraction("m1", "READ", 1_000L);
+        interactionRepository.recordInteraction("m2", "READ", 2_000L);
+        interactionRepository.recordInteraction("m1", "REPLY", null);
+        feedbackRepository.recordFeedback("m1", FeedbackType.GOOD, 0.7);
+        feedbackRepository.recordFeedback("m2", FeedbackType.TOO_HIGH, 0.6);
+        feedbackRepository.recordFeedback("m2", FeedbackType.TOO_HIGH, 0.6);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        database.close();
+    }
+
+    @Test
+    void counts_followInserts() {
+        CounterRepository counters = database.get(CounterRepository.class);
+
+        assertThat(messageRepository.getTotalMessageCount()).isEqualTo(2);
+        assertThat(channelRepository.getChannelCount()).isEqualTo(2);
+        assertThat(interactionRepository.getTotalInteractionCount()).isEqualTo(3);
+        assertThat(counters.getInteractionCount("READ")).isEqualTo(2);
+        assertThat(counters.getInteractionCount("REPLY")).isEqualTo(1);
+        assertThat(feedbackRepository.getTotalFeedbackCount()).isEqualTo(3);
+        assertThat(feedbackRepository.getStats())
+            .isEqualTo(new FeedbackRepository.FeedbackStats(0, 1, 2));
+    }
+
+    @Test
+    void counts_ignoreUpsertsOfExistingRows() {
+        channelRepository.saveChannel(SlackChannel.createNew("C1", "general-renamed", false, 11));
+        messageRepository.saveMessage(SlackMessage.createNew("m1", "C1", "U1", "deploy done (edited)", currentTs(), null, false, false));
+
+        assertThat(channelRepository.getChannelCount()).isEqualTo(2);
+        assertThat(messageRepository.getTotalMessageCount()).isEqualTo(2);
+    }
+
+    @Test
+    void counts_followDeletes() {
+        long feedbackId = feedbackRepository.recordFeedback("m1", FeedbackType.TOO_LOW, 0.7);
+        assertThat(feedbackRepository.getStats().tooLowCount()).isEqualTo(1);
+
+        assertThat(feedbackRepository.deleteFeedback(feedbackId)).isTrue();
+        assertThat(channelRepository.deleteChannel("C2")).isTrue();
+
+        assertThat(feedbackRepository.getStats())
+            .isEqualTo(new FeedbackRepository.FeedbackStats(0, 1, 2));
+        assertThat(feedbackRepository.getTotalFeedbackCount()).isEqualTo(3);
+        assertThat(channelRepository.getChannelCount()).isEqualTo(1);
+    }
+
+    @Test
+    void totalMessageCount_includesArchivedMessages() {
+        messageRepository.saveMessage(SlackMessage.createNew("old", "C1", "U1", "old news", "1700000000.000100", null, false, false));
+        assertThat(database.get(TieringService.class).archiveOldMessages()).isEqualTo(1);
+
+        CounterRepository counters = database.get(CounterRepository.class);
+        assertThat(counters.get(CounterRepository.MESSAGES)).isEqualTo(2);
+        assertThat(counters.get(CounterRepository.ARCHIVED_MESSAGES)).isEqualTo(1);
+        assertThat(messageRepository.getTotalMessageCount()).isEqualTo(3);
+    }
+
+    @Test
+    void start_existingDatabaseWithoutCounters_seedsTable() throws Exception {
+        Map<String, Long> before = database.get(CounterRepository.class).getAll();
+
+        // Database from before the counters table existed
+        try (Connection conn = database.get(DatabaseManager.class).getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE counters");
+        }
+        database.close();
+
+        database = TestDatabase.open(tempDir);
+
+        assertThat(database.get(CounterRepository.class).getAll()).isEqualTo(before);
+    }
+}
@@ -0,0 +1,109 @@
+package com.slackgrab.data;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+/**
+ * Unit tests for DecayedSketch
+ */
+class DecayedSketchTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+    private static final double TAU = 1_000.0;
+
+    private static final long KEY_A = DecayedSketch.hash("U-alpha");
+    private static final long KEY_B = DecayedSketch.hash("U-bravo");
+
+    private DecayedSketch sketch;
+
+    @BeforeEach
+    void setUp() {
+        sketch = new DecayedSketch(256, TAU, true, T0);
+    }
+
+    @Test
+    void count_decaysByOneOverEPerTau() {
+        sketch.add(KEY_A, T0, 0.0);
+        sketch.add(KEY_A, T0, 0.0);
+
+        assertThat(sketch.count(KEY_A, T0)).isCloseTo(2.0, within(1e-12));
+        assertThat(sketch.count(KEY_A, T0 + 1_000)).isCloseTo(2.0 * Math.exp(-1), within(1e-12));
+        assertThat(sketch.count(KEY_A, T0 + 3_000)).isCloseTo(2.0 * Math.exp(-3), within(1e-12));
+        assertThat(sketch.count(KEY_B, T0)).isZero();
+    }
+
+    @Test
+    void count_laterObservationsWeighMore() {
+        sketch.add(KEY_A, T0, 0.0);
+        sketch.add(KEY_B, T0 + 2_000, 0.0);
+
+        assertThat(sketch.count(KEY_B, T0 + 2_000)).isCloseTo(1.0, within(1e-12));
+        assertThat(sketch.count(KEY_A, T0 + 2_000)).isCloseTo(Math.exp(-2), within(1e-12));
+    }
+
+    @Test
+    void add_farBeyondLandmark_rescalesWithoutLosingCounts() {
+        sketch.add(KEY_A, T0, 0.0);
+        // Exponent 45 passes the rescale threshold
+        sketch.add(KEY_B, T0 + 45_000, 0.0);
+
+        assertThat(sketch.count(KEY_B, T0 + 45_000)).isCloseTo(1.0, within(1e-12));
+        assertThat(sketch.count(KEY_A, T0 + 45_000)).isCloseTo(Math.exp(-45), withinPercentage(1e-6));
+
+        // Far past the old landmark, weights stay finite
+        long later = T0 + 1_000_000;
+        sketch.add(KEY_B, later, 0.0);
+        assertThat(sketch.count(KEY_B, later)).isCloseTo(1.0, within(1e-12)).isFinite();
+    }
+
+    @Test
+    void meanAndVariance_weightedByRecency() {
+        sketch.add(KEY_A, T0, 2.0);
+        sketch.add(KEY_A, T0, 4.0);
+
+        assertThat(sketch.mean(KEY_A, -1.0)).isCloseTo(3.0, within(1e-12));
+        assertThat(sketch.variance(KEY_A, -1.0)).isCloseTo(1.0, within(1e-12));
+        assertThat(sketch.mean(KEY_B, -1.0)).isEqualTo(-1.0);
+
+        // An observation one tau later outweighs the earlier ones by e each
+        sketch.add(KEY_A, T0 + 1_000, 10.0);
+        double e = Math.E;
+        assertThat(sketch.mean(KEY_A, -1.0)).isCloseTo((6.0 + 10.0 * e) / (2.0 + e), within(1e-9));
+    }
+
+    @Test
+    void mean_withoutMoments_throws() {
+        DecayedSketch counts = new DecayedSketch(64, TAU, false, T0);
+
+        assertThatThrownBy(() -> counts.mean(KEY_A, 0.0)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new DecayedSketch(100, TAU, false, T0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void writeTo_readFrom_roundTrips() throws Exception {
+        sketch.add(KEY_A, T0, 2.0);
+        sketch.add(KEY_B, T0 + 500, 5.0);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        sketch.writeTo(new DataOutputStream(bytes));
+        DecayedSketch restored = new DecayedSketch(256, TAU, true, 0L);
+        restored.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(restored.count(KEY_A, T0 + 1_000)).isEqualTo(sketch.count(KEY_A, T0 + 1_000));
+        assertThat(restored.mean(KEY_B, 0.0)).isEqualTo(5.0);
+
+        DecayedSketch narrower = new DecayedSketch(128, TAU, true, 0L);
+        assertThatThrownBy(() -> narrower.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))))
+            .isInstanceOf(java.io.IOException.class);
+    }
+}
@@ -0,0 +1,89 @@
+package com.slackgrab.data;
+
+import com.slackgrab.data.model.SlackMessage;
+import com.slackgrab.data.model.StoredFeatures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static com.slackgrab.data.TestDatabase.currentTs;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for FeatureRepository against a real database
+ */
+class FeatureRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TestDatabase database;
+    private FeatureRepository repository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        database = TestDatabase.open(tempDir);
+        repository = database.get(FeatureRepository.class);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        database.close();
+    }
+
+    @Test
+    void getFeatures_roundTripsValuesOfRequestedVersionOnly() {
+        repository.saveFeatures(List.of(
+            features("m1", 7, new float[] {0.25f, -1.5f, 3.0f}),
+            features("m2", 6, new float[] {1.0f})));
+
+        Map<String, StoredFeatures> found = repository.getFeatures(List.of("m1", "m2", "m3"), 7);
+
+        assertThat(found).containsOnlyKeys("m1");
+        assertThat(found.get("m1").values()).containsExactly(0.25f, -1.5f, 3.0f);
+        assertThat(found.get("m1").terms()).containsExactly(7, ~3);
+        assertThat(found.get("m1").inputHash()).isEqualTo(42L);
+    }
+
+    @Test
+    void deleteOtherVersions_keepsCurrentVersion() {
+        repository.saveFeatures(List.of(
+            features("m1", 7, new float[] {1.0f}),
+            features("m2", 6, new float[] {1.0f}),
+            features("m3", 5, new float[] {1.0f})));
+
+        assertThat(repository.deleteOtherVersions(7)).isEqualTo(2);
+        assertThat(repository.getFeatureCount()).isEqualTo(1);
+    }
+
+    @Test
+    void deleteOrphanedFeatures_keepsHotAndArchivedMessages() {
+        MessageRepository messages = database.get(MessageRepository.class);
+        String now = currentTs();
+        messages.saveMessage(message("hot", now));
+        messages.saveMessage(message("old", "1700000000.000100"));
+        repository.saveFeatures(List.of(
+            features("hot", 1, new float[] {1.0f}),
+            features("old", 1, new float[] {1.0f}),
+            features("deleted", 1, new float[] {1.0f})));
+
+        assertThat(database.get(TieringService.class).archiveOldMessages()).isEqualTo(1);
+        assertThat(repository.getFeatureCount()).isEqualTo(3);
+
+        assertThat(repository.deleteOrphanedFeatures()).isEqualTo(1);
+        assertThat(repository.getFeatures(List.of("hot", "old", "deleted"), 1)).containsOnlyKeys("hot", "old");
+    }
+
+    private static StoredFeatures features(String messageId, int version, float[] values) {
+        return new StoredFeatures(messageId, version, 42L, values, new int[] {7, ~3}, System.currentTimeMillis());
+    }
+
+    private static SlackMessage message(String id, String timestamp) {
+        return SlackMessage.createNew(id, "C1", "U1", "text of " + id, timestamp, null, false, false);
+    }
+}
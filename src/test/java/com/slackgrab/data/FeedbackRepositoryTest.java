@@ -0,0 +1,82 @@
+package com.slackgrab.data;
+
+import com.slackgrab.data.FeedbackRepository.Feedback;
+import com.slackgrab.data.model.SlackMessage;
+import com.slackgrab.ml.model.FeedbackType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.slackgrab.data.TestDatabase.currentTs;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for FeedbackRepository against a real database
+ */
+class FeedbackRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TestDatabase database;
+    private FeedbackRepository repository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        database = TestDatabase.open(tempDir);
+        repository = database.get(FeedbackRepository.class);
+
+        MessageRepository messages = database.get(MessageRepository.class);
+        messages.saveMessage(SlackMessage.createNew("m1", "C1", "U1", "deploy done", currentTs(), null, false, false));
+        messages.saveMessage(SlackMessage.createNew("m2", "C1", "U2", "lunch?", currentTs(), null, false, false));
+
+        repository.recordFeedback("m1", FeedbackType.TOO_LOW, 0.3);
+        repository.recordFeedback("m2", FeedbackType.GOOD, 0.2);
+        repository.recordFeedback("m1", FeedbackType.TOO_HIGH, 0.9);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        database.close();
+    }
+
+    @Test
+    void streamFeedback_returnsEveryItemOldestFirst() {
+        try (Stream<Feedback> all = repository.streamFeedback(null, 1)) {
+            List<Feedback> feedback = all.toList();
+
+            assertThat(feedback).extracting(Feedback::feedbackType)
+                .containsExactlyInAnyOrder(FeedbackType.TOO_LOW, FeedbackType.GOOD, FeedbackType.TOO_HIGH);
+            assertThat(feedback).extracting(Feedback::timestamp)
+                .isSortedAccordingTo(Comparator.naturalOrder());
+        }
+    }
+
+    @Test
+    void streamFeedback_sinceBound_excludesOlderItems() {
+        try (Stream<Feedback> future = repository.streamFeedback(Instant.now().plus(Duration.ofHours(1)), 0)) {
+            assertThat(future).isEmpty();
+        }
+
+        try (Stream<Feedback> recent = repository.streamFeedback(Instant.now().minus(Duration.ofHours(1)), 0)) {
+            assertThat(recent).hasSize(3);
+        }
+    }
+
+    @Test
+    void forEachFeedback_visitsEveryItem() {
+        List<String> messageIds = new ArrayList<>();
+
+        assertThat(repository.forEachFeedback(null, 2, feedback -> messageIds.add(feedback.messageId()))).isEqualTo(3);
+        assertThat(messageIds).containsExactlyInAnyOrder("m1", "m1", "m2");
+    }
+}
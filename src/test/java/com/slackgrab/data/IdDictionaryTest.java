@@ -0,0 +1,133 @@
+package com.slackgrab.data;
+
+import com.slackgrab.data.model.SlackMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for IdDictionary and the migration to dictionary-encoded messages
+ */
+class IdDictionaryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void encode_assignsStableKeysPerId() throws Exception {
+        try (TestDatabase database = TestDatabase.open(tempDir)) {
+            IdDictionary dictionary = database.get(IdDictionary.class);
+
+            int channel = dictionary.encode("C01ABCDEF");
+            int user = dictionary.encode("U01ABCDEF");
+
+            assertThat(channel).isNotEqualTo(user);
+            assertThat(dictionary.encode("C01ABCDEF")).isEqualTo(channel);
+            assertThat(dictionary.decode(channel)).isEqualTo("C01ABCDEF");
+            assertThat(dictionary.find("U01ABCDEF")).hasValue(user);
+            assertThat(dictionary.find("U-unknown")).isEmpty();
+            assertThat(dictionary.decode(9_999)).isNull();
+            assertThatThrownBy(() -> dictionary.encode(null)).isInstanceOf(SQLException.class);
+        }
+    }
+
+    @Test
+    void decode_afterReopen_loadsStoredKeys() throws Exception {
+        int channel;
+        int user;
+        try (TestDatabase database = TestDatabase.open(tempDir)) {
+            IdDictionary dictionary = database.get(IdDictionary.class);
+            channel = dictionary.encode("C01ABCDEF");
+            user = dictionary.encode("U01ABCDEF");
+        }
+
+        try (TestDatabase database = TestDatabase.open(tempDir)) {
+            IdDictionary dictionary = database.get(IdDictionary.class);
+
+            assertThat(dictionary.decode(channel)).isEqualTo("C01ABCDEF");
+            assertThat(dictionary.decode(user)).isEqualTo("U01ABCDEF");
+            assertThat(dictionary.size()).isEqualTo(2);
+            // Existing IDs keep their key; new ones do not reuse it
+            assertThat(dictionary.encode("U01ABCDEF")).isEqualTo(user);
+            assertThat(dictionary.encode("U02ABCDEF")).isNotIn(channel, user);
+        }
+    }
+
+    @Test
+    void start_legacyTextIds_areMigratedToKeys() throws Exception {
+        createLegacyDatabase();
+
+        try (TestDatabase database = TestDatabase.open(tempDir)) {
+            IdDictionary dictionary = database.get(IdDictionary.class);
+            MessageRepository messages = database.get(MessageRepository.class);
+
+            assertThat(messageColumns(database)).contains("channel_key", "user_key").doesNotContain("channel_id", "user_id");
+            assertThat(dictionary.find("C01LEGACY")).isPresent();
+            assertThat(dictionary.find("U01LEGACY")).isPresent();
+            assertThat(dictionary.find("U02LEGACY")).isPresent();
+
+            SlackMessage migrated = messages.getMessage("1700000000.000100").orElseThrow();
+            assertThat(migrated.channelId()).isEqualTo("C01LEGACY");
+            assertThat(migrated.userId()).isEqualTo("U01LEGACY");
+            assertThat(migrated.text()).isEqualTo("legacy text");
+            assertThat(messages.getMessage("1700000001.000100").orElseThrow().userId()).isEqualTo("U02LEGACY");
+        }
+    }
+
+    /**
+     * Messages table as created before dictionary encoding
+     */
+    private void createLegacyDatabase() throws SQLException, java.io.IOException {
+        Path directory = tempDir.resolve("database");
+        Files.createDirectories(directory);
+        String url = "jdbc:sqlite:" + directory.resolve(DatabaseManager.DATABASE_FILE_NAME).toAbsolutePath();
+
+        try (Connection conn = DriverManager.getConnection(url);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE messages (
+                    id TEXT PRIMARY KEY,
+                    channel_id TEXT NOT NULL,
+                    user_id TEXT NOT NULL,
+                    text TEXT,
+                    timestamp REAL NOT NULL,
+                    thread_ts TEXT,
+                    has_attachments BOOLEAN DEFAULT FALSE,
+                    has_reactions BOOLEAN DEFAULT FALSE,
+                    importance_score REAL,
+                    importance_level TEXT,
+                    created_at INTEGER NOT NULL
+                )
+            """);
+            stmt.execute("""
+                INSERT INTO messages (id, channel_id, user_id, text, timestamp, created_at) VALUES
+                    ('1700000000.000100', 'C01LEGACY', 'U01LEGACY', 'legacy text', 1700000000.0001, 1700000000000),
+                    ('1700000001.000100', 'C01LEGACY', 'U02LEGACY', 'reply', 1700000001.0001, 1700000001000)
+            """);
+        }
+    }
+
+    private static List<String> messageColumns(TestDatabase database) throws SQLException {
+        List<String> columns = new ArrayList<>();
+        try (Connection conn = database.get(DatabaseManager.class).getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA main.table_info(messages)")) {
+            while (rs.next()) {
+                columns.add(rs.getString("name"));
+            }
+        }
+        return columns;
+    }
+}
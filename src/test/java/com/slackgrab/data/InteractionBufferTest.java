@@ -0,0 +1,136 @@
+package com.slackgrab.data;
+
+import com.slackgrab.core.ErrorHandler;
+import com.slackgrab.data.model.InteractionEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for InteractionBuffer
+ */
+class InteractionBufferTest {
+
+    private static final int CAPACITY = 4096;
+
+    private InteractionRepository interactionRepository;
+    private InteractionBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        interactionRepository = mock(InteractionRepository.class);
+        when(interactionRepository.recordInteractions(anyList()))
+            .thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        buffer = new InteractionBuffer(interactionRepository, mock(ErrorHandler.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_sameMessageAndType_coalescesAndSumsDwellTime() {
+        buffer.record("m1", "READ", 1_000L);
+        buffer.record("m1", "READ", 2_500L);
+        buffer.record("m1", "REPLY");
+        buffer.record("m2", "READ");
+
+        int recorded = buffer.flush();
+
+        ArgumentCaptor<List<InteractionEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(interactionRepository).recordInteractions(captor.capture());
+        List<InteractionEvent> events = captor.getValue();
+
+        assertThat(recorded).isEqualTo(3);
+        assertThat(events).extracting(InteractionEvent::messageId, InteractionEvent::interactionType)
+            .containsExactly(
+                tuple("m1", "READ"),
+                tuple("m1", "REPLY"),
+                tuple("m2", "READ"));
+        assertThat(events.get(0).readingTimeMs()).isEqualTo(3_500L);
+        assertThat(events.get(0).eventCount()).isEqualTo(2);
+        assertThat(events.get(1).readingTimeMs()).isNull();
+        assertThat(buffer.getPendingCount()).isZero();
+    }
+
+    @Test
+    void flush_empty_writesNothing() {
+        assertThat(buffer.flush()).isZero();
+
+        verify(interactionRepository, never()).recordInteractions(anyList());
+    }
+
+    @Test
+    void record_full_dropsAndCountsUntilFlushed() {
+        for (int i = 0; i < CAPACITY; i++) {
+            assertThat(buffer.record("m" + i, "READ")).isTrue();
+        }
+
+        assertThat(buffer.record("overflow", "READ")).isFalse();
+        assertThat(buffer.record("overflow", "READ")).isFalse();
+        assertThat(buffer.getDroppedCount()).isEqualTo(2);
+        assertThat(buffer.getPendingCount()).isEqualTo(CAPACITY);
+
+        assertThat(buffer.flush()).isEqualTo(CAPACITY);
+        assertThat(buffer.record("after", "READ")).isTrue();
+        assertThat(buffer.getDroppedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void flush_notifiesListenersWithCoalescedEvents() {
+        List<InteractionEvent> received = new ArrayList<>();
+        buffer.addFlushListener(received::addAll);
+
+        buffer.record("m1", "REACTION");
+        buffer.record("m1", "REACTION");
+        buffer.flush();
+
+        assertThat(received).hasSize(1);
+        assertThat(received.get(0).eventCount()).isEqualTo(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_failedWrite_retriesWithNextFlush() {
+        when(interactionRepository.recordInteractions(anyList())).thenReturn(0).thenAnswer(
+            invocation -> ((List<?>) invocation.getArgument(0)).size());
+        List<InteractionEvent> received = new ArrayList<>();
+        buffer.addFlushListener(received::addAll);
+
+        buffer.record("m1", "READ", 1_000L);
+        assertThat(buffer.flush()).isZero();
+        assertThat(received).isEmpty();
+
+        buffer.record("m1", "READ", 500L);
+        buffer.flush();
+
+        ArgumentCaptor<List<InteractionEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(interactionRepository, times(2)).recordInteractions(captor.capture());
+        InteractionEvent retried = captor.getAllValues().get(1).get(0);
+        assertThat(retried.eventCount()).isEqualTo(2);
+        assertThat(retried.readingTimeMs()).isEqualTo(1_500L);
+        assertThat(received).containsExactly(retried);
+        assertThat(buffer.getDroppedCount()).isZero();
+    }
+
+    @Test
+    void stop_failedWrite_reportsDroppedEvents() throws Exception {
+        ErrorHandler errorHandler = mock(ErrorHandler.class);
+        buffer = new InteractionBuffer(interactionRepository, errorHandler);
+        when(interactionRepository.recordInteractions(anyList())).thenReturn(0);
+
+        buffer.record("m1", "READ");
+        buffer.record("m1", "READ");
+        buffer.stop();
+
+        assertThat(buffer.getDroppedCount()).isEqualTo(2);
+        verify(errorHandler).handleWarning(anyString());
+    }
+}
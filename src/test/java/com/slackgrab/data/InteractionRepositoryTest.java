@@ -0,0 +1,135 @@
+package com.slackgrab.data;
+
+import com.slackgrab.data.model.InteractionEvent;
+import com.slackgrab.data.model.SlackMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for InteractionRepository against a real database
+ */
+class InteractionRepositoryTest {
+
+    private static final String TS = "1700000000.000100";
+
+    @TempDir
+    Path tempDir;
+
+    private TestDatabase database;
+    private InteractionRepository repository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        database = TestDatabase.open(tempDir);
+        repository = database.get(InteractionRepository.class);
+        database.get(MessageRepository.class).saveMessage(
+            SlackMessage.createNew(TS, "C1", "U1", "deploy done", TS, null, false, false));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        database.close();
+    }
+
+    @Test
+    void recordInteractions_coalescedEvent_storesOneRowCountingEveryCapture() {
+        int recorded = repository.recordInteractions(List.of(
+            new InteractionEvent(TS, "READ", System.currentTimeMillis(), 30_000L, 4),
+            new InteractionEvent(TS, "REPLY", System.currentTimeMillis(), null, 1)));
+
+        assertThat(recorded).isEqualTo(5);
+        assertThat(repository.getMessageInteractions(TS))
+            .filteredOn(interaction -> interaction.interactionType().equals("READ"))
+            .singleElement()
+            .satisfies(read -> {
+                assertThat(read.readingTimeMs()).isEqualTo(30_000L);
+                assertThat(read.eventCount()).isEqualTo(4);
+            });
+        assertThat(repository.getMessageInteractions(TS)).hasSize(2);
+
+        assertThat(repository.getInteractionCount(TS)).isEqualTo(5);
+        assertThat(repository.getTotalInteractionCount()).isEqualTo(5);
+        assertThat(database.get(CounterRepository.class).getInteractionCount("READ")).isEqualTo(4);
+
+        StatisticsRepository statistics = database.get(StatisticsRepository.class);
+        statistics.refresh();
+        assertThat(statistics.getSenderStats("U1").interactionCount()).isEqualTo(5);
+    }
+
+    @Test
+    void deleteOldInteractions_subtractsEveryCapture() {
+        repository.recordInteractions(List.of(
+            new InteractionEvent(TS, "READ", System.currentTimeMillis() - 40L * 86_400_000L, 1_000L, 3)));
+        repository.recordInteraction(TS, "REPLY", null);
+
+        assertThat(repository.deleteOldInteractions(30)).isEqualTo(1);
+
+        assertThat(repository.getTotalInteractionCount()).isEqualTo(1);
+        StatisticsRepository statistics = database.get(StatisticsRepository.class);
+        statistics.refresh();
+        assertThat(statistics.getSenderStats("U1").interactionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void archiveOldMessages_detachesEveryCaptureFromStatistics() {
+        repository.recordInteractions(List.of(
+            new InteractionEvent(TS, "READ", System.currentTimeMillis(), 1_000L, 3)));
+
+        assertThat(database.get(TieringService.class).archiveOldMessages()).isEqualTo(1);
+
+        StatisticsRepository statistics = database.get(StatisticsRepository.class);
+        statistics.refresh();
+        assertThat(statistics.getSenderStats("U1").interactionCount()).isZero();
+    }
+
+    @Test
+    void recordInteractions_archivedMessage_feedsSenderSketches() {
+        String recent = TestDatabase.currentTs();
+        database.get(MessageRepository.class).saveMessage(
+            SlackMessage.createNew(recent, "C1", "U1", "release is out", recent, null, false, false));
+        assertThat(database.get(TieringService.class).archiveOldMessages()).isEqualTo(1);
+
+        ActivitySketches sketches = database.get(ActivitySketches.class);
+        assertThat(sketches.getSenderInteractionRate("U1")).isZero();
+
+        repository.recordInteractions(List.of(
+            new InteractionEvent(TS, "READ", System.currentTimeMillis(), 1_000L, 1)));
+
+        assertThat(sketches.getSenderInteractionRate("U1")).isPositive();
+    }
+
+    @Test
+    void streamInteractions_sinceBound_returnsNewerOldestFirst() {
+        long now = System.currentTimeMillis();
+        repository.recordInteractions(List.of(
+            new InteractionEvent(TS, "REPLY", now - 1_000L, null, 1),
+            new InteractionEvent(TS, "READ", now - 2_000L, 500L, 1),
+            new InteractionEvent(TS, "REACTION", now, null, 1)));
+
+        try (Stream<InteractionRepository.UserInteraction> all = repository.streamInteractions(null, 1)) {
+            assertThat(all.map(InteractionRepository.UserInteraction::interactionType))
+                .containsExactly("READ", "REPLY", "REACTION");
+        }
+
+        try (Stream<InteractionRepository.UserInteraction> recent =
+                 repository.streamInteractions(Instant.ofEpochMilli(now - 1_000L), 0)) {
+            assertThat(recent.map(InteractionRepository.UserInteraction::interactionType))
+                .containsExactly("REPLY", "REACTION");
+        }
+
+        List<Long> readingTimes = new ArrayList<>();
+        assertThat(repository.forEachInteraction(null, 0,
+            interaction -> readingTimes.add(interaction.readingTimeMs()))).isEqualTo(3);
+        assertThat(readingTimes).containsExactly(500L, null, null);
+    }
+}
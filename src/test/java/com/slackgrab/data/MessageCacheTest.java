@@ -0,0 +1,100 @@
+package com.slackgrab.data;
+
+import com.slackgrab.data.model.SlackMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for MessageCache
+ */
+class MessageCacheTest {
+
+    private static final String TS = "1700000000.000100";
+    private static final int ROUNDS = 2_000;
+
+    @Test
+    void putMessage_afterWrite_isSkipped() {
+        MessageCache cache = new MessageCache();
+        long generation = cache.generation();
+
+        cache.invalidate(TS, "C1");
+        cache.putMessage(message("old"), generation);
+
+        assertThat(cache.getMessage(TS)).isEmpty();
+    }
+
+    @Test
+    void putChannelPage_afterWrite_isSkipped() {
+        MessageCache cache = new MessageCache();
+        long generation = cache.generation();
+
+        cache.invalidate(TS, "C1");
+        cache.putChannelPage("C1", 10, List.of(message("old")), generation);
+
+        assertThat(cache.getChannelPage("C1", 10)).isEmpty();
+    }
+
+    @Test
+    void putMessage_racingWrite_neverLeavesStaleRowCached() throws Exception {
+        MessageCache cache = new MessageCache();
+        AtomicReference<SlackMessage> stored = new AtomicReference<>();
+        CyclicBarrier start = new CyclicBarrier(2);
+        CyclicBarrier end = new CyclicBarrier(3);
+
+        // Reader: capture the generation, read the "database", populate the cache
+        Thread reader = new Thread(() -> race(start, end, () -> {
+            long generation = cache.generation();
+            SlackMessage read = stored.get();
+            cache.putMessage(read, generation);
+            cache.putChannelPage("C1", 10, List.of(read), generation);
+        }));
+
+        // Writer: update the "database", then invalidate (as MessageRepository does)
+        Thread writer = new Thread(() -> race(start, end, () -> {
+            stored.set(message("new"));
+            cache.invalidate(TS, "C1");
+        }));
+
+        reader.start();
+        writer.start();
+
+        for (int round = 0; round < ROUNDS; round++) {
+            stored.set(message("old"));
+            cache.invalidateAll();
+
+            end.await();   // Round runs
+            end.await();   // Round finished
+
+            cache.getMessage(TS).ifPresent(cached -> assertThat(cached.text()).isEqualTo("new"));
+            cache.getChannelPage("C1", 10).ifPresent(page ->
+                assertThat(page).extracting(SlackMessage::text).containsExactly("new"));
+        }
+
+        reader.interrupt();
+        writer.interrupt();
+        reader.join();
+        writer.join();
+    }
+
+    private static void race(CyclicBarrier start, CyclicBarrier end, Runnable step) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                end.await();
+                start.await();
+                step.run();
+                end.await();
+            }
+        } catch (Exception e) {
+            // Test finished
+        }
+    }
+
+    private static SlackMessage message(String text) {
+        return SlackMessage.createNew(TS, "C1", "U1", text, TS, null, false, false);
+    }
+}
@@ -0,0 +1,302 @@
+package com.slackgrab.data;
+
+import com.slackgrab.data.model.InboxCursor;
+import com.slackgrab.data.model.InboxPage;
+import com.slackgrab.data.model.InboxQuery;
+import com.slackgrab.data.model.SlackMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static com.slackgrab.data.TestDatabase.currentTs;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Tests for MessageRepository against a real database
+ */
+class MessageRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TestDatabase database;
+    private MessageRepository repository;
+    private ThreadIndex threadIndex;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        database = TestDatabase.open(tempDir);
+        repository = database.get(MessageRepository.class);
+        threadIndex = database.get(ThreadIndex.class);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        database.close();
+    }
+
+    @Test
+    void saveMessage_resave_updatesWithoutRecountingActivity() {
+        SlackMessage reply = SlackMessage.createNew(
+            "1700000050.000200", "C1", "U2", "on it", "1700000050.000200", "1700000000.000100", true, false);
+
+        assertThat(repository.saveMessage(reply)).isTrue();
+        // Same createdAt, as when a scored copy is written back
+        assertThat(repository.saveMessage(reply.withImportance(0.8, "HIGH"))).isTrue();
+
+        assertThat(threadIndex.getThreadStats("C1", "1700000000.000100").replyCount()).isEqualTo(1);
+        assertThat(threadIndex.getThreadStats("C1", "1700000000.000100").attachmentCount()).isEqualTo(1);
+        assertThat(repository.getMessage(reply.id()))
+            .hasValueSatisfying(stored -> assertThat(stored.importanceScore()).isEqualTo(0.8));
+    }
+
+    @Test
+    void saveMessage_newReplies_areEachRecorded() {
+        String root = "1700000000.000100";
+        repository.saveMessage(SlackMessage.createNew(root, "C1", "U1", "release?", root, root, false, false));
+        repository.saveMessage(SlackMessage.createNew("1700000060.000100", "C1", "U2", "yes", "1700000060.000100", root, false, false));
+        repository.saveMessage(SlackMessage.createNew("1700000070.000100", "C1", "U3", "+1", "1700000070.000100", root, false, false));
+
+        assertThat(threadIndex.getThreadStats("C1", root).replyCount()).isEqualTo(2);
+        assertThat(threadIndex.getThreadStats("C1", root).participantCount()).isEqualTo(3);
+    }
+
+    @Test
+    void deleteOldMessages_countsBothTiers() {
+        Instant old = Instant.now().minus(Duration.ofDays(40));
+        repository.saveMessage(new SlackMessage(
+            "1700000000.000100", "C1", "U1", "archived", "1700000000.000100", null, false, false, null, null, old));
+        repository.saveMessage(new SlackMessage(
+            "hot-old", "C1", "U1", "hot but stale", currentTs(), null, false, false, null, null, old));
+        repository.saveMessage(SlackMessage.createNew("hot-new", "C1", "U1", "fresh", currentTs(), null, false, false));
+        assertThat(database.get(TieringService.class).archiveOldMessages()).isEqualTo(1);
+
+        assertThat(repository.deleteOldMessages(30)).isEqualTo(2);
+
+        assertThat(repository.getMessage("1700000000.000100")).isEmpty();
+        assertThat(repository.getMessage("hot-old")).isEmpty();
+        assertThat(repository.getMessage("hot-new")).isPresent();
+    }
+
+    @Test
+    void updateImportanceScore_rescore_recordsOnlyTheFirstScore() {
+        String ts = currentTs();
+        repository.saveMessage(SlackMessage.createNew(ts, "C1", "U1", "deploy?", ts, null, false, false));
+
+        assertThat(repository.updateImportanceScore(ts, 0.9, "HIGH")).isTrue();
+        assertThat(repository.updateImportanceScores(Map.of(ts, 0.1), "v2")).isEqualTo(1);
+        assertThat(repository.updateImportanceScore(ts, 0.2, "LOW")).isTrue();
+
+        ActivitySketches sketches = database.get(ActivitySketches.class);
+        assertThat(sketches.getSenderImportanceMean("U1")).isCloseTo(0.9, within(1e-6));
+        assertThat(sketches.getSenderImportanceVariance("U1")).isCloseTo(0.0, within(1e-6));
+        assertThat(repository.getMessage(ts))
+            .hasValueSatisfying(stored -> assertThat(stored.importanceScore()).isEqualTo(0.2));
+    }
+
+    @Test
+    void updateImportanceScores_acrossChunks_writesEveryScoreAndVersion() {
+        Map<String, Double> scores = new HashMap<>();
+        for (int i = 0; i < 1_200; i++) {
+            String id = "m" + i;
+            repository.saveMessage(SlackMessage.createNew(id, "C1", "U1", "text " + i, currentTs(), null, false, false));
+            if (i < 1_100) {
+                scores.put(id, i % 2 == 0 ? 0.9 : 0.1);
+            }
+        }
+        scores.put("missing", 0.5);
+
+        assertThat(repository.updateImportanceScores(scores, "v2")).isEqualTo(1_100);
+
+        assertThat(repository.getMessage("m0"))
+            .hasValueSatisfying(stored -> assertThat(stored.importanceLevel()).isEqualTo("HIGH"));
+        assertThat(repository.getMessage("m1"))
+            .hasValueSatisfying(stored -> assertThat(stored.importanceLevel()).isEqualTo("LOW"));
+        assertThat(repository.getMessageIdsWithStaleScores("v2", 1_000)).hasSize(100)
+            .allSatisfy(id -> assertThat(Integer.parseInt(id.substring(1))).isGreaterThanOrEqualTo(1_100));
+        assertThat(repository.getMessageIdsWithStaleScores("v3", 10)).hasSize(10);
+    }
+
+    @Test
+    void streamMessages_acrossTiers_returnsRangeOldestFirst() {
+        long now = Instant.now().getEpochSecond();
+        String yesterday = (now - 86_400) + ".000100";
+        repository.saveMessage(SlackMessage.createNew("archived", "C1", "U1", "old", "1700000000.000100", null, false, false));
+        assertThat(database.get(TieringService.class).archiveOldMessages()).isEqualTo(1);
+        repository.saveMessage(SlackMessage.createNew("today", "C1", "U1", "new", currentTs(), null, false, false));
+        repository.saveMessage(SlackMessage.createNew("yesterday", "C1", "U2", "mid", yesterday, null, false, false));
+
+        try (Stream<SlackMessage> all = repository.streamMessages(null, null, 1)) {
+            assertThat(all.map(SlackMessage::id)).containsExactly("archived", "yesterday", "today");
+        }
+
+        try (Stream<SlackMessage> recent = repository.streamMessages(Instant.ofEpochSecond(now - 2 * 86_400), null, 0)) {
+            assertThat(recent.map(SlackMessage::id)).containsExactly("yesterday", "today");
+        }
+
+        try (Stream<SlackMessage> archived = repository.streamMessages(
+                Instant.ofEpochSecond(1_699_999_999), Instant.ofEpochSecond(1_700_000_001), 0)) {
+            assertThat(archived).singleElement()
+                .satisfies(message -> assertThat(message.text()).isEqualTo("old"));
+        }
+    }
+
+    @Test
+    void forEachMessage_releasesItsConnectionOnEveryPass() {
+        repository.saveMessage(SlackMessage.createNew("m1", "C1", "U1", "deploy done", currentTs(), null, false, false));
+        repository.saveMessage(SlackMessage.createNew("m2", "C1", "U1", "thanks", currentTs(), null, false, false));
+
+        // More passes than the pool has connections; a leak would exhaust it
+        for (int pass = 0; pass < ConnectionPool.MAX_POOL_SIZE * 2; pass++) {
+            assertThat(repository.forEachMessage(null, null, 1, message -> { })).isEqualTo(2);
+
+            try (Stream<SlackMessage> partial = repository.streamMessages(null, null, 1)) {
+                assertThat(partial.findFirst()).isPresent();
+            }
+        }
+    }
+
+    @Test
+    void saveMessage_afterTiering_updatesTheArchivedCopy() {
+        String ts = "1700000000.000100";
+        repository.saveMessage(SlackMessage.createNew(ts, "C1", "U1", "original", ts, null, false, false));
+        assertThat(database.get(TieringService.class).archiveOldMessages()).isEqualTo(1);
+
+        // A collection re-run saves the same history again
+        assertThat(repository.saveMessage(
+            SlackMessage.createNew(ts, "C1", "U1", "edited", ts, null, true, false))).isTrue();
+
+        assertThat(repository.getTotalMessageCount()).isEqualTo(1);
+        assertThat(database.get(CounterRepository.class).get(CounterRepository.MESSAGES)).isZero();
+        assertThat(repository.getMessage(ts)).hasValueSatisfying(message -> {
+            assertThat(message.text()).isEqualTo("edited");
+            assertThat(message.hasAttachments()).isTrue();
+        });
+        try (Stream<SlackMessage> all = repository.streamMessages(null, null, 0)) {
+            assertThat(all).hasSize(1);
+        }
+    }
+
+    @Test
+    void rescore_afterTiering_updatesTheArchivedCopy() {
+        String ts = "1700000000.000100";
+        repository.saveMessage(SlackMessage.createNew(ts, "C1", "U1", "old news", ts, null, false, false));
+        assertThat(repository.updateImportanceScores(Map.of(ts, 0.7), "v1")).isEqualTo(1);
+        assertThat(database.get(TieringService.class).archiveOldMessages()).isEqualTo(1);
+
+        assertThat(repository.getMessageIdsWithStaleScores("v2", 10)).containsExactly(ts);
+        assertThat(repository.updateImportanceScores(Map.of(ts, 0.3), "v2")).isEqualTo(1);
+
+        assertThat(repository.getMessageIdsWithStaleScores("v2", 10)).isEmpty();
+        assertThat(repository.getMessage(ts))
+            .hasValueSatisfying(stored -> assertThat(stored.importanceScore()).isEqualTo(0.3));
+    }
+
+    @Test
+    void getInbox_keysetPages_coverEveryScoredMessageOnce() {
+        saveScoredInbox();
+
+        List<String> ids = readInbox(new InboxQuery.Builder().withLimit(4).build());
+
+        // Score descending; equal scores newest first, equal timestamps by id descending
+        assertThat(ids).containsExactly("m9", "m8", "m7b", "m7a", "m6", "m5", "m4", "m3", "m2", "m1");
+        assertThat(ids).doesNotContain("unscored");
+    }
+
+    @Test
+    void getInbox_channelAndScoreFilters_useTheSameOrder() {
+        Map<String, String> channelOf = saveScoredInbox();
+
+        List<String> ids = readInbox(new InboxQuery.Builder()
+            .withChannels(Set.of("C1", "C3", "C-none"))
+            .withMinScore(0.3)
+            .withLimit(2)
+            .build());
+
+        assertThat(ids).containsExactly("m9", "m7b", "m7a", "m6", "m4", "m3");
+        assertThat(ids).allSatisfy(id -> assertThat(channelOf.get(id)).isIn("C1", "C3"));
+
+        assertThat(repository.getInbox(new InboxQuery.Builder().withChannels(Set.of("C-none")).build()))
+            .isEqualTo(InboxPage.empty());
+    }
+
+    @Test
+    void getInbox_wideChannelFilter_matchesPerChannelRanges() {
+        saveScoredInbox();
+        Set<String> channels = new HashSet<>(Set.of("C1", "C3"));
+        for (int i = 0; i < 40; i++) {
+            String channel = "W" + i;
+            channels.add(channel);
+            repository.saveMessage(SlackMessage.createNew("w" + i, channel, "U1", "noise", currentTs(), null, false, false));
+        }
+
+        List<String> ids = readInbox(new InboxQuery.Builder().withChannels(channels).withMinScore(0.3).withLimit(3).build());
+
+        assertThat(ids).containsExactly("m9", "m7b", "m7a", "m6", "m4", "m3");
+    }
+
+    /**
+     * Ten scored messages over three channels (m7a/m7b tie on score and
+     * timestamp) plus one unscored message
+     *
+     * @return Channel of each saved message
+     */
+    private Map<String, String> saveScoredInbox() {
+        double now = Instant.now().getEpochSecond();
+        String[][] rows = {
+            // id, channel, score, seconds before now
+            {"m1", "C2", "0.1", "10"},
+            {"m2", "C2", "0.2", "9"},
+            {"m3", "C1", "0.3", "8"},
+            {"m4", "C3", "0.4", "7"},
+            {"m5", "C2", "0.5", "6"},
+            {"m6", "C1", "0.6", "5"},
+            {"m7a", "C1", "0.7", "4"},
+            {"m7b", "C3", "0.7", "4"},
+            {"m8", "C2", "0.8", "3"},
+            {"m9", "C1", "0.9", "2"},
+        };
+
+        Map<String, String> channelOf = new HashMap<>();
+        for (String[] row : rows) {
+            String ts = String.format(Locale.ROOT, "%.6f", now - Double.parseDouble(row[3]));
+            repository.saveMessage(SlackMessage.createNew(row[0], row[1], "U1", "text", ts, null, false, false));
+            assertThat(repository.updateImportanceScore(row[0], Double.parseDouble(row[2]), "MEDIUM")).isTrue();
+            channelOf.put(row[0], row[1]);
+        }
+        repository.saveMessage(SlackMessage.createNew("unscored", "C1", "U1", "text", currentTs(), null, false, false));
+        return channelOf;
+    }
+
+    /**
+     * Read every page of a query, passing each cursor through its token form
+     */
+    private List<String> readInbox(InboxQuery query) {
+        List<String> ids = new ArrayList<>();
+        InboxPage page = repository.getInbox(query);
+        while (true) {
+            assertThat(page.messages()).hasSizeLessThanOrEqualTo(query.limit());
+            page.messages().forEach(message -> ids.add(message.id()));
+            if (!page.hasMore()) {
+                return ids;
+            }
+
+            InboxCursor cursor = InboxCursor.decode(page.nextCursor().encode()).orElseThrow();
+            page = repository.getInbox(query.withCursor(cursor));
+        }
+    }
+}
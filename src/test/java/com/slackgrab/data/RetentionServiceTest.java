@@ -0,0 +1,132 @@
+package com.slackgrab.data;
+
+import com.slackgrab.data.model.InteractionEvent;
+import com.slackgrab.data.model.RetentionReport;
+import com.slackgrab.data.model.SlackMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.slackgrab.data.TestDatabase.currentTs;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for RetentionService and chunked deletes against a real database
+ */
+class RetentionServiceTest {
+
+    private static final int VACUUM_PAGES_PER_STEP = 256;
+
+    @TempDir
+    Path tempDir;
+
+    private TestDatabase database;
+    private MessageRepository messageRepository;
+    private InteractionRepository interactionRepository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        database = TestDatabase.open(tempDir);
+        messageRepository = database.get(MessageRepository.class);
+        interactionRepository = database.get(InteractionRepository.class);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        database.close();
+    }
+
+    @Test
+    void deleteInChunks_deletesEveryOldRowAcrossChunks() throws Exception {
+        long old = Instant.now().minus(Duration.ofDays(40)).toEpochMilli();
+        List<InteractionEvent> events = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            events.add(new InteractionEvent("m" + i, "READ", old + i, null, 1));
+        }
+        events.add(new InteractionEvent("recent", "READ", System.currentTimeMillis(), null, 1));
+        interactionRepository.recordInteractions(events);
+
+        int deleted = database.get(DatabaseManager.class).deleteInChunks(
+            "user_interactions", "interaction_timestamp", old + 10, 2, 0);
+
+        assertThat(deleted).isEqualTo(5);
+    }
+
+    @Test
+    void runRetention_removesOnlyExpiredRows() {
+        Instant old = Instant.now().minus(Duration.ofDays(40));
+        messageRepository.saveMessage(new SlackMessage(
+            "old", "C1", "U1", "expired", currentTs(), null, false, false, null, null, old));
+        messageRepository.saveMessage(SlackMessage.createNew("new", "C1", "U1", "kept", currentTs(), null, false, false));
+        interactionRepository.recordInteractions(List.of(
+            new InteractionEvent("old", "READ", old.toEpochMilli(), 1_000L, 1),
+            new InteractionEvent("new", "READ", System.currentTimeMillis(), 1_000L, 1)));
+
+        RetentionReport report = database.get(RetentionService.class).runRetention();
+
+        assertThat(report.messagesDeleted()).isEqualTo(1);
+        assertThat(report.interactionsDeleted()).isEqualTo(1);
+        assertThat(report.totalRowsDeleted()).isEqualTo(2);
+        assertThat(messageRepository.getMessage("old")).isEmpty();
+        assertThat(messageRepository.getMessage("new")).isPresent();
+        assertThat(database.get(RetentionService.class).getLastReport()).contains(report);
+    }
+
+    @Test
+    void runRetention_reclaimsEveryFreePage() throws Exception {
+        Instant old = Instant.now().minus(Duration.ofDays(40));
+        for (int i = 0; i < 3_000; i++) {
+            messageRepository.saveMessage(new SlackMessage(
+                "m" + i, "C1", "U1", ("message " + i + " ").repeat(35), currentTs(), null, false, false, null, null, old));
+        }
+        messageRepository.deleteOldMessages(30);
+
+        long freePages = freelistCount("main") + freelistCount(DatabaseManager.ARCHIVE_SCHEMA);
+        assertThat(freePages).isGreaterThan(VACUUM_PAGES_PER_STEP);
+
+        RetentionReport report = database.get(RetentionService.class).runRetention();
+
+        assertThat(report.pagesReclaimed()).isEqualTo(freePages);
+        assertThat(freelistCount("main")).isZero();
+    }
+
+    @Test
+    void runRetention_removesInteractionCountsOfDeletedMessages() {
+        Instant old = Instant.now().minus(Duration.ofDays(40));
+        messageRepository.saveMessage(new SlackMessage(
+            "old", "C1", "U1", "expired", currentTs(), null, false, false, null, null, old));
+        messageRepository.saveMessage(SlackMessage.createNew("new", "C1", "U2", "kept", currentTs(), null, false, false));
+        interactionRepository.recordInteractions(List.of(
+            new InteractionEvent("old", "READ", old.toEpochMilli(), 1_000L, 1),
+            new InteractionEvent("new", "READ", System.currentTimeMillis(), 1_000L, 1)));
+
+        database.get(RetentionService.class).runRetention();
+
+        StatisticsRepository statistics = database.get(StatisticsRepository.class);
+        statistics.refresh();
+        assertThat(statistics.getSenderStats("U1").messageCount()).isZero();
+        assertThat(statistics.getSenderStats("U1").interactionCount()).isZero();
+        assertThat(statistics.getSenderStats("U2").interactionCount()).isEqualTo(1);
+        assertThat(statistics.getChannelStats("C1").messageCount()).isEqualTo(1);
+        assertThat(statistics.getChannelStats("C1").interactionCount()).isEqualTo(1);
+    }
+
+    private long freelistCount(String schema) throws SQLException {
+        try (Connection conn = database.get(DatabaseManager.class).getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA " + schema + ".freelist_count")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.slackgrab.data;
+
+import com.slackgrab.core.ConfigurationManager;
+import com.slackgrab.data.model.SlackMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.slackgrab.data.TestDatabase.currentTs;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for SnapshotService against a real database
+ */
+class SnapshotServiceTest {
+
+    private static final String OLD_TS = "1700000000.000100";
+
+    @TempDir
+    Path tempDir;
+
+    private Path liveDir;
+    private Path restoreDir;
+    private TestDatabase database;
+    private MessageRepository messageRepository;
+    private SnapshotService snapshotService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        liveDir = tempDir.resolve("live");
+        restoreDir = tempDir.resolve("restored");
+        database = TestDatabase.open(liveDir);
+        messageRepository = database.get(MessageRepository.class);
+        snapshotService = database.get(SnapshotService.class);
+
+        messageRepository.saveMessage(SlackMessage.createNew("archived", "C1", "U1", "old", OLD_TS, null, false, false));
+        database.get(TieringService.class).archiveOldMessages();
+        messageRepository.saveMessage(SlackMessage.createNew("hot", "C1", "U1", "new", currentTs(), null, false, false));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (database != null) {
+            database.close();
+        }
+    }
+
+    @Test
+    void createSnapshot_writesCompleteSnapshotOfBothFiles() {
+        Path snapshot = snapshotService.createSnapshot();
+
+        assertThat(snapshot).isNotNull();
+        assertThat(snapshot.resolve(DatabaseManager.DATABASE_FILE_NAME)).isRegularFile();
+        assertThat(snapshot.resolve(DatabaseManager.ARCHIVE_FILE_NAME)).isRegularFile();
+        assertThat(snapshotService.listSnapshots()).containsExactly(snapshot);
+    }
+
+    @Test
+    void restoreInto_freshDirectory_containsHotAndArchivedMessages() throws Exception {
+        Path snapshot = snapshotService.createSnapshot();
+
+        SnapshotService.restoreInto(snapshot, new ConfigurationManager(restoreDir).getDatabasePath());
+
+        try (TestDatabase restored = TestDatabase.open(restoreDir)) {
+            MessageRepository restoredMessages = restored.get(MessageRepository.class);
+            assertThat(restoredMessages.getMessage("hot")).isPresent();
+            assertThat(restoredMessages.getMessage("archived")).isPresent();
+        }
+    }
+
+    @Test
+    void restoreOnNextStart_rollsBackWritesMadeAfterTheSnapshot() throws Exception {
+        Path snapshot = snapshotService.createSnapshot();
+        messageRepository.saveMessage(SlackMessage.createNew("later", "C1", "U1", "later", currentTs(), null, false, false));
+
+        assertThat(snapshotService.restoreOnNextStart(snapshot)).isTrue();
+        database.close();
+
+        database = TestDatabase.open(liveDir);
+        MessageRepository reopened = database.get(MessageRepository.class);
+        assertThat(reopened.getMessage("hot")).isPresent();
+        assertThat(reopened.getMessage("archived")).isPresent();
+        assertThat(reopened.getMessage("later")).isEmpty();
+    }
+
+    @Test
+    void restoreInto_directoryWithoutDatabase_isRejected() throws Exception {
+        Path notASnapshot = Files.createDirectories(restoreDir.resolve("empty"));
+
+        assertThatThrownBy(() -> SnapshotService.restoreInto(notASnapshot, restoreDir.resolve("target")))
+            .isInstanceOf(IOException.class);
+        assertThat(snapshotService.restoreOnNextStart(notASnapshot)).isFalse();
+    }
+}
@@ -0,0 +1,160 @@
+package com.slackgrab.data;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for StatementCache over a real SQLite connection
+ *
+ * The pooled connection is a mock that unwraps to the physical one, so
+ * closing the caching wrapper does not close SQLite.
+ */
+class StatementCacheTest {
+
+    private static final String SELECT = "SELECT v FROM t WHERE k = ?";
+
+    @TempDir
+    Path tempDir;
+
+    private Connection physical;
+    private Connection pooled;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        physical = DriverManager.getConnection("jdbc:sqlite:" + tempDir.resolve("cache.db"));
+        try (Statement stmt = physical.createStatement()) {
+            stmt.execute("CREATE TABLE t (k INTEGER PRIMARY KEY, v TEXT)");
+            stmt.execute("INSERT INTO t VALUES (1, 'one'), (2, 'two')");
+        }
+
+        pooled = mock(Connection.class);
+        when(pooled.unwrap(Connection.class)).thenReturn(physical);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        physical.close();
+    }
+
+    @Test
+    void prepareStatement_sameSql_reusesPhysicalStatement() throws Exception {
+        StatementCache cache = new StatementCache(8);
+
+        assertThat(query(cache.wrap(pooled), 1)).isEqualTo("one");
+        assertThat(query(cache.wrap(pooled), 2)).isEqualTo("two");
+
+        assertThat(cache.getMisses()).isEqualTo(1);
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getCachedCount()).isEqualTo(1);
+        assertThat(cache.getHitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    void close_resetsStatementAndRejectsFurtherUse() throws Exception {
+        StatementCache cache = new StatementCache(8);
+        Connection conn = cache.wrap(pooled);
+
+        PreparedStatement stmt = conn.prepareStatement(SELECT);
+        stmt.setInt(1, 1);
+        ResultSet rs = stmt.executeQuery();
+        assertThat(rs.next()).isTrue();
+        stmt.close();
+
+        assertThat(rs.isClosed()).isTrue();
+        assertThat(stmt.isClosed()).isTrue();
+        assertThatThrownBy(stmt::executeQuery).isInstanceOf(SQLException.class);
+
+        // The reused statement starts without the previous parameters
+        try (PreparedStatement reused = conn.prepareStatement(SELECT)) {
+            reused.setInt(1, 2);
+            try (ResultSet second = reused.executeQuery()) {
+                assertThat(second.next()).isTrue();
+                assertThat(second.getString(1)).isEqualTo("two");
+            }
+        }
+        assertThat(cache.getHits()).isEqualTo(1);
+    }
+
+    @Test
+    void prepareStatement_sameSqlOpenTwice_secondIsUncached() throws Exception {
+        StatementCache cache = new StatementCache(8);
+        Connection conn = cache.wrap(pooled);
+
+        try (PreparedStatement first = conn.prepareStatement(SELECT);
+             PreparedStatement second = conn.prepareStatement(SELECT)) {
+            first.setInt(1, 1);
+            second.setInt(1, 2);
+            try (ResultSet a = first.executeQuery(); ResultSet b = second.executeQuery()) {
+                assertThat(a.next()).isTrue();
+                assertThat(b.next()).isTrue();
+                assertThat(a.getString(1)).isEqualTo("one");
+                assertThat(b.getString(1)).isEqualTo("two");
+            }
+        }
+
+        assertThat(cache.getMisses()).isEqualTo(2);
+        assertThat(cache.getCachedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void connectionClose_returnsStatementsLeftOpen() throws Exception {
+        StatementCache cache = new StatementCache(8);
+
+        Connection conn = cache.wrap(pooled);
+        PreparedStatement leaked = conn.prepareStatement(SELECT);
+        conn.close();
+
+        assertThat(leaked.isClosed()).isTrue();
+        assertThat(query(cache.wrap(pooled), 1)).isEqualTo("one");
+        assertThat(cache.getHits()).isEqualTo(1);
+    }
+
+    @Test
+    void overflow_evictsLeastRecentlyUsedIdleStatementOnly() throws Exception {
+        StatementCache cache = new StatementCache(2);
+        Connection conn = cache.wrap(pooled);
+
+        PreparedStatement held = conn.prepareStatement("SELECT 1");
+        conn.prepareStatement("SELECT 2").close();
+        conn.prepareStatement("SELECT 3").close();
+
+        // "SELECT 1" is the eldest but in use, so "SELECT 2" goes
+        assertThat(cache.getEvictions()).isEqualTo(1);
+        assertThat(cache.getCachedCount()).isEqualTo(2);
+
+        try (ResultSet rs = held.executeQuery()) {
+            assertThat(rs.next()).isTrue();
+            assertThat(rs.getInt(1)).isEqualTo(1);
+        }
+        held.close();
+
+        conn.prepareStatement("SELECT 1").close();
+        conn.prepareStatement("SELECT 2").close();
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getEvictions()).isEqualTo(2);
+    }
+
+    private static String query(Connection conn, int key) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT)) {
+            stmt.setInt(1, key);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.slackgrab.data;
+
+import com.slackgrab.data.model.ActivityStats;
+import com.slackgrab.data.model.SlackMessage;
+import com.slackgrab.ml.model.FeedbackType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static com.slackgrab.data.TestDatabase.currentTs;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Tests for StatisticsRepository and the triggers that maintain its tables
+ */
+class StatisticsRepositoryTest {
+
+    // Outside the recent activity window
+    private static final String OLD_TS = "1700000000.000100";
+
+    @TempDir
+    Path tempDir;
+
+    private TestDatabase database;
+    private MessageRepository messageRepository;
+    private StatisticsRepository statistics;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        database = TestDatabase.open(tempDir);
+        messageRepository = database.get(MessageRepository.class);
+        statistics = database.get(StatisticsRepository.class);
+
+        messageRepository.saveMessage(SlackMessage.createNew("m1", "C1", "U1", "deploy done", currentTs(), null, false, false));
+        messageRepository.saveMessage(SlackMessage.createNew("m2", "C1", "U1", "old news", OLD_TS, null, false, false));
+        messageRepository.saveMessage(SlackMessage.createNew("m3", "C1", "U2", "lunch?", currentTs(), null, false, false));
+        messageRepository.updateImportanceScore("m1", 0.8, "HIGH");
+        messageRepository.updateImportanceScore("m2", 0.4, "LOW");
+        database.get(InteractionRepository.class).recordInteraction("m1", "READ", 1_000L);
+        database.get(FeedbackRepository.class).recordFeedback("m2", FeedbackType.GOOD, 0.4);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        database.close();
+    }
+
+    @Test
+    void refresh_reflectsMessagesScoresInteractionsAndFeedback() {
+        statistics.refresh();
+
+        ActivityStats sender = statistics.getSenderStats("U1");
+        assertThat(sender.messageCount()).isEqualTo(2);
+        assertThat(sender.recentMessageCount()).isEqualTo(1);
+        assertThat(sender.interactionCount()).isEqualTo(1);
+        assertThat(sender.feedbackCount()).isEqualTo(1);
+        assertThat(sender.scoredCount()).isEqualTo(2);
+        assertThat(sender.averageImportance()).isCloseTo(0.6, within(1e-9));
+
+        ActivityStats channel = statistics.getChannelStats("C1");
+        assertThat(channel.messageCount()).isEqualTo(3);
+        assertThat(channel.recentMessageCount()).isEqualTo(2);
+        assertThat(channel.interactionCount()).isEqualTo(1);
+        assertThat(channel.feedbackCount()).isEqualTo(1);
+        assertThat(channel.scoredCount()).isEqualTo(2);
+
+        ActivityStats unscored = statistics.getSenderStats("U2");
+        assertThat(unscored.messageCount()).isEqualTo(1);
+        assertThat(unscored.averageImportance()).isEqualTo(0.5);
+
+        assertThat(statistics.getSenderStats("U-unknown")).isEqualTo(ActivityStats.EMPTY);
+    }
+
+    @Test
+    void rescore_replacesThePreviousScore() {
+        messageRepository.updateImportanceScore("m1", 0.2, "LOW");
+        statistics.refresh();
+
+        ActivityStats sender = statistics.getSenderStats("U1");
+        assertThat(sender.scoredCount()).isEqualTo(2);
+        assertThat(sender.importanceSum()).isCloseTo(0.6, within(1e-9));
+    }
+
+    @Test
+    void deleteFeedback_decrementsFeedbackCount() {
+        FeedbackRepository feedbackRepository = database.get(FeedbackRepository.class);
+        long feedbackId = feedbackRepository.recordFeedback("m3", FeedbackType.TOO_HIGH, 0.5);
+
+        statistics.refresh();
+        assertThat(statistics.getChannelStats("C1").feedbackCount()).isEqualTo(2);
+
+        assertThat(feedbackRepository.deleteFeedback(feedbackId)).isTrue();
+        statistics.refresh();
+        assertThat(statistics.getChannelStats("C1").feedbackCount()).isEqualTo(1);
+        assertThat(statistics.getSenderStats("U2").feedbackCount()).isZero();
+    }
+
+    @Test
+    void start_existingDatabaseWithoutStatistics_backfillsTables() throws Exception {
+        statistics.refresh();
+        ActivityStats sender = statistics.getSenderStats("U1");
+        ActivityStats channel = statistics.getChannelStats("C1");
+
+        // Database from before the statistics tables existed
+        try (Connection conn = database.get(DatabaseManager.class).getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String table : new String[] {"sender_stats", "channel_stats", "sender_activity", "channel_activity"}) {
+                stmt.execute("DROP TABLE " + table);
+            }
+        }
+        database.close();
+
+        database = TestDatabase.open(tempDir);
+        statistics = database.get(StatisticsRepository.class);
+
+        assertSameStats(statistics.getSenderStats("U1"), sender);
+        assertSameStats(statistics.getChannelStats("C1"), channel);
+    }
+
+    private static void assertSameStats(ActivityStats actual, ActivityStats expected) {
+        assertThat(actual.messageCount()).isEqualTo(expected.messageCount());
+        assertThat(actual.recentMessageCount()).isEqualTo(expected.recentMessageCount());
+        assertThat(actual.interactionCount()).isEqualTo(expected.interactionCount());
+        assertThat(actual.feedbackCount()).isEqualTo(expected.feedbackCount());
+        assertThat(actual.scoredCount()).isEqualTo(expected.scoredCount());
+        assertThat(actual.importanceSum()).isCloseTo(expected.importanceSum(), within(1e-9));
+    }
+}
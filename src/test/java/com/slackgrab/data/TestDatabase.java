@@ -0,0 +1,61 @@
+package com.slackgrab.data;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.util.Modules;
+import com.slackgrab.core.ApplicationModule;
+import com.slackgrab.core.ConfigurationManager;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Real data layer over a SQLite database in a test directory
+ *
+ * Wires ApplicationModule against the given directory and starts the
+ * database and statistics services; other services are left stopped.
+ * The caller owns the directory (typically a JUnit @TempDir).
+ */
+public final class TestDatabase implements AutoCloseable {
+
+    private final Injector injector;
+
+    private TestDatabase(Path directory) {
+        ConfigurationManager config = new ConfigurationManager(directory);
+        this.injector = Guice.createInjector(Modules.override(new ApplicationModule()).with(binder ->
+            binder.bind(ConfigurationManager.class).toInstance(config)));
+    }
+
+    /**
+     * Create (or reopen) the database in a directory
+     *
+     * @param directory Application data directory
+     * @return Started database; close it to release the connection pool
+     */
+    public static TestDatabase open(Path directory) throws Exception {
+        TestDatabase database = new TestDatabase(directory);
+        database.get(DatabaseManager.class).start();
+        database.get(StatisticsRepository.class).start();
+        return database;
+    }
+
+    /**
+     * Slack timestamp for the current second
+     *
+     * Messages stamped with it stay in the hot tier and inside every retention window.
+     */
+    public static String currentTs() {
+        return String.format(Locale.ROOT, "%.6f", Instant.now().getEpochSecond() + 0.0001);
+    }
+
+    public <T> T get(Class<T> type) {
+        return injector.getInstance(type);
+    }
+
+    @Override
+    public void close() throws Exception {
+        get(StatisticsRepository.class).stop();
+        get(DatabaseManager.class).stop();
+    }
+}
@@ -0,0 +1,86 @@
+package com.slackgrab.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for TextCodec
+ */
+class TextCodecTest {
+
+    private static final String LONG_TEXT = ("Could you please take a look when you get a chance? "
+        + "The deploy pipeline failed again on the release build :eyes: <https://github.com/acme/api/pull/42> "
+        + "Ünïcödé ✓ 日本語 ").repeat(8);
+
+    @Test
+    void encodeForStorage_shortText_staysRaw() {
+        assertThat(TextCodec.encodeForStorage("Lunch?")).isEqualTo("Lunch?");
+        assertThat(TextCodec.encodeForStorage(null)).isNull();
+    }
+
+    @Test
+    void encodeForStorage_longText_isCompressedAndRoundTrips() {
+        Object stored = TextCodec.encodeForStorage(LONG_TEXT);
+
+        assertThat(stored).isInstanceOf(byte[].class);
+        assertThat(((byte[]) stored).length).isLessThan(LONG_TEXT.getBytes(StandardCharsets.UTF_8).length);
+        assertThat(TextCodec.decodeValue(stored)).isEqualTo(LONG_TEXT);
+    }
+
+    @Test
+    void compress_decompress_roundTripsAnyText() {
+        for (String text : new String[] {"", "a", "Thanks for the update.", LONG_TEXT, "\u0000 emoji 🎉 done"}) {
+            assertThat(TextCodec.decompress(TextCodec.compress(text))).isEqualTo(text);
+        }
+        assertThat(TextCodec.compress(null)).isNull();
+        assertThat(TextCodec.decompress(null)).isNull();
+    }
+
+    @Test
+    void compressValue_incompressibleText_staysRaw() {
+        String random = "q8Zx";
+
+        assertThat(TextCodec.compressValue(random)).isEqualTo(random);
+        assertThat(TextCodec.compressValue(null)).isNull();
+
+        byte[] compressed = TextCodec.compress(LONG_TEXT);
+        assertThat(TextCodec.compressValue(compressed)).isSameAs(compressed);
+    }
+
+    @Test
+    void decompress_dataWithoutDictionary_inflates() {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(LONG_TEXT.getBytes(StandardCharsets.UTF_8));
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        while (!deflater.finished()) {
+            out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+
+        assertThat(TextCodec.decompress(out.toByteArray())).isEqualTo(LONG_TEXT);
+    }
+
+    @Test
+    void decompress_truncatedData_throws() {
+        byte[] compressed = TextCodec.compress(LONG_TEXT);
+        byte[] truncated = Arrays.copyOf(compressed, compressed.length / 2);
+
+        assertThatThrownBy(() -> TextCodec.decompress(truncated))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void decompress_corruptData_throws() {
+        assertThatThrownBy(() -> TextCodec.decompress(new byte[] {(byte) 0xFF, (byte) 0xFF, 0x00, 0x12}))
+            .isInstanceOf(IllegalStateException.class);
+    }
+}
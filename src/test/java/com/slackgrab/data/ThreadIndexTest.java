@@ -0,0 +1,120 @@
+package com.slackgrab.data;
+
+import com.slackgrab.core.ConfigurationManager;
+import com.slackgrab.core.ErrorHandler;
+import com.slackgrab.data.model.SlackMessage;
+import com.slackgrab.data.model.ThreadStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for ThreadIndex
+ *
+ * Recording and lookups never touch the database, so its collaborators
+ * are mocks.
+ */
+class ThreadIndexTest {
+
+    private static final String ROOT_TS = "1700000000.000100";
+
+    private ThreadIndex threadIndex;
+
+    @BeforeEach
+    void setUp() {
+        threadIndex = new ThreadIndex(
+            mock(ConfigurationManager.class),
+            mock(DatabaseManager.class),
+            mock(IdDictionary.class),
+            mock(ErrorHandler.class));
+    }
+
+    @Test
+    void recordMessage_rootAndReplies_buildStats() {
+        threadIndex.recordMessage(message("U1", ROOT_TS, true));
+        threadIndex.recordMessage(message("U2", "1700000060.000200", false));
+        threadIndex.recordMessage(message("U1", "1700000120.000300", true));
+
+        assertThat(threadIndex.getThreadStats("C1", ROOT_TS))
+            .isEqualTo(new ThreadStats(2, 2, false, 1_700_000_120_000L, 2));
+        assertThat(threadIndex.size()).isEqualTo(1);
+    }
+
+    @Test
+    void recordMessage_outsideThread_isIgnored() {
+        threadIndex.recordMessage(SlackMessage.createNew("m1", "C1", "U1", "hi", ROOT_TS, null, true, false));
+
+        assertThat(threadIndex.size()).isZero();
+        assertThat(threadIndex.getThreadStats("C1", null)).isSameAs(ThreadStats.EMPTY);
+        assertThat(threadIndex.getThreadStats("C2", ROOT_TS)).isSameAs(ThreadStats.EMPTY);
+    }
+
+    @Test
+    void recordThreadSummary_reportedCountAboveObserved_wins() {
+        threadIndex.recordMessage(message("U1", ROOT_TS, false));
+        threadIndex.recordMessage(message("U2", "1700000060.000200", false));
+
+        threadIndex.recordThreadSummary("C1", ROOT_TS, 7, List.of("U2", "U3"), "1700000500.000900");
+
+        ThreadStats stats = threadIndex.getThreadStats("C1", ROOT_TS);
+        assertThat(stats.replyCount()).isEqualTo(7);
+        assertThat(stats.participantCount()).isEqualTo(3);
+        assertThat(stats.lastActivityMillis()).isEqualTo(1_700_000_500_000L);
+        assertThat(stats.attachmentCount()).isZero();
+    }
+
+    @Test
+    void recordThreadSummary_staleSummary_neverLowersStats() {
+        threadIndex.recordThreadSummary("C1", ROOT_TS, 5, List.of("U2"), "1700000500.000900");
+        for (int i = 1; i <= 6; i++) {
+            threadIndex.recordMessage(message("U" + i, "17000006" + i + "0.000000", false));
+        }
+
+        threadIndex.recordThreadSummary("C1", ROOT_TS, 3, null, "1700000100.000000");
+
+        ThreadStats stats = threadIndex.getThreadStats("C1", ROOT_TS);
+        assertThat(stats.replyCount()).isEqualTo(6);
+        assertThat(stats.participantCount()).isEqualTo(6);
+        assertThat(stats.lastActivityMillis()).isEqualTo(1_700_000_660_000L);
+    }
+
+    @Test
+    void recordThreadSummary_unknownThread_createsEntry() {
+        threadIndex.recordThreadSummary("C1", ROOT_TS, 2, List.of("U2", "U3"), "1700000300.000000");
+        threadIndex.recordThreadSummary("C1", null, 4, List.of("U4"), null);
+
+        assertThat(threadIndex.getThreadStats("C1", ROOT_TS))
+            .isEqualTo(new ThreadStats(2, 2, false, 1_700_000_300_000L, 0));
+        assertThat(threadIndex.size()).isEqualTo(1);
+    }
+
+    @Test
+    void setSelfUserId_reevaluatesExistingThreads() {
+        threadIndex.recordMessage(message("U1", ROOT_TS, false));
+        threadIndex.recordThreadSummary("C1", ROOT_TS, 1, List.of("U_SELF"), null);
+        threadIndex.recordThreadSummary("C1", "1700000999.000000", 1, List.of("U2"), null);
+
+        assertThat(threadIndex.getThreadStats("C1", ROOT_TS).selfParticipant()).isFalse();
+
+        threadIndex.setSelfUserId("U_SELF");
+
+        assertThat(threadIndex.getThreadStats("C1", ROOT_TS).selfParticipant()).isTrue();
+        assertThat(threadIndex.getThreadStats("C1", "1700000999.000000").selfParticipant()).isFalse();
+
+        // Later activity keeps tracking the same user
+        threadIndex.recordMessage(message("U_SELF", "1700001000.000000", "1700000999.000000", false));
+        assertThat(threadIndex.getThreadStats("C1", "1700000999.000000").selfParticipant()).isTrue();
+    }
+
+    private static SlackMessage message(String userId, String ts, boolean hasAttachments) {
+        return message(userId, ts, ROOT_TS, hasAttachments);
+    }
+
+    private static SlackMessage message(String userId, String ts, String threadTs, boolean hasAttachments) {
+        return SlackMessage.createNew(ts, "C1", userId, "text", ts, threadTs, hasAttachments, false);
+    }
+}
@@ -0,0 +1,75 @@
+package com.slackgrab.data;
+
+import com.slackgrab.data.model.SlackMessage;
+import com.slackgrab.data.model.ThreadStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Tests for TieringService and the in-memory indexes rebuilt over both tiers
+ */
+class TieringServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TestDatabase database;
+    private MessageRepository messageRepository;
+    private String rootTs;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        database = TestDatabase.open(tempDir);
+        messageRepository = database.get(MessageRepository.class);
+
+        // Past the 14-day hot horizon but within the 30-day retention window
+        long root = Instant.now().minus(Duration.ofDays(20)).getEpochSecond();
+        rootTs = root + ".000100";
+        String replyTs = (root + 60) + ".000200";
+        messageRepository.saveMessage(SlackMessage.createNew(rootTs, "C1", "U1", "release?", rootTs, rootTs, false, false));
+        messageRepository.saveMessage(SlackMessage.createNew(replyTs, "C1", "U2", "shipped", replyTs, rootTs, true, false));
+        messageRepository.updateImportanceScore(rootTs, 0.8, "HIGH");
+
+        assertThat(database.get(TieringService.class).archiveOldMessages()).isEqualTo(2);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        database.close();
+    }
+
+    @Test
+    void threadIndexRebuild_includesArchivedThreads() throws Exception {
+        ThreadIndex threadIndex = database.get(ThreadIndex.class);
+        threadIndex.start();
+        try {
+            ThreadStats stats = threadIndex.getThreadStats("C1", rootTs);
+            assertThat(stats.replyCount()).isEqualTo(1);
+            assertThat(stats.participantCount()).isEqualTo(2);
+            assertThat(stats.attachmentCount()).isEqualTo(1);
+        } finally {
+            threadIndex.stop();
+        }
+    }
+
+    @Test
+    void activitySketchRebuild_includesArchivedMessages() throws Exception {
+        ActivitySketches sketches = database.get(ActivitySketches.class);
+        sketches.start();
+        try {
+            assertThat(sketches.getChannelMessageRate("C1")).isPositive();
+            assertThat(sketches.getSenderImportanceMean("U1")).isCloseTo(0.8, within(1e-6));
+        } finally {
+            sketches.stop();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.slackgrab.data;
+
+import com.slackgrab.data.model.SlackMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static com.slackgrab.data.TestDatabase.currentTs;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for VacuumConversionJob against a real database
+ */
+class VacuumConversionJobTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TestDatabase database;
+    private VacuumConversionJob job;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        database = TestDatabase.open(tempDir);
+        job = database.get(VacuumConversionJob.class);
+        database.get(MessageRepository.class).saveMessage(
+            SlackMessage.createNew("m1", "C1", "U1", "deploy done", currentTs(), null, false, false));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        database.close();
+    }
+
+    @Test
+    void start_newDatabase_isAlreadyIncremental() throws Exception {
+        assertThat(autoVacuumMode("main")).isEqualTo(DatabaseManager.AUTO_VACUUM_INCREMENTAL);
+        assertThat(autoVacuumMode(DatabaseManager.ARCHIVE_SCHEMA)).isEqualTo(DatabaseManager.AUTO_VACUUM_INCREMENTAL);
+        assertThat(job.convertAll()).isZero();
+    }
+
+    @Test
+    void convertAll_legacyDatabase_convertsOnceAndKeepsData() throws Exception {
+        // Database from before incremental auto-vacuum
+        try (Connection conn = database.get(DatabaseManager.class).getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA auto_vacuum = NONE");
+            stmt.execute("VACUUM");
+        }
+        assertThat(autoVacuumMode("main")).isZero();
+
+        assertThat(job.convertAll()).isEqualTo(1);
+
+        assertThat(autoVacuumMode("main")).isEqualTo(DatabaseManager.AUTO_VACUUM_INCREMENTAL);
+        assertThat(database.get(MessageRepository.class).getMessage("m1")).isPresent();
+        assertThat(job.convertAll()).isZero();
+    }
+
+    private long autoVacuumMode(String schema) throws Exception {
+        try (Connection conn = database.get(DatabaseManager.class).getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA " + schema + ".auto_vacuum")) {
+            return rs.next() ? rs.getLong(1) : -1;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.slackgrab.ml;
+
+import com.slackgrab.core.ErrorHandler;
+import com.slackgrab.data.IdDictionary;
+import com.slackgrab.data.StatisticsRepository;
+import com.slackgrab.data.model.ActivityStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.OptionalInt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ScoringContextProvider
+ */
+class ScoringContextProviderTest {
+
+    private StatisticsRepository statisticsRepository;
+    private IdDictionary idDictionary;
+    private ScoringContextProvider provider;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        statisticsRepository = mock(StatisticsRepository.class);
+        // Model scores are present but must not be learned from
+        when(statisticsRepository.getAllSenderStats()).thenReturn(Map.of(
+            "U1", new ActivityStats(20, 5, 12, 3, 2.0, 15),   // 15 of 20 engaged
+            "U2", new ActivityStats(3, 0, 0, 0, 2.7, 3)));    // Never engaged
+        when(statisticsRepository.getAllChannelStats()).thenReturn(Map.of(
+            "C1", new ActivityStats(10, 2, 1, 0, 9.0, 10)));  // 1 of 10 engaged
+
+        idDictionary = mock(IdDictionary.class);
+        when(idDictionary.find(anyString())).thenReturn(OptionalInt.empty());
+        when(idDictionary.find("U1")).thenReturn(OptionalInt.of(1));
+        when(idDictionary.find("U2")).thenReturn(OptionalInt.of(2));
+        when(idDictionary.find("C1")).thenReturn(OptionalInt.of(3));
+        when(idDictionary.find("U9")).thenReturn(OptionalInt.of(9));
+        when(idDictionary.encode("U9")).thenReturn(9);
+
+        provider = new ScoringContextProvider(statisticsRepository, idDictionary, mock(ErrorHandler.class));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        provider.stop();
+    }
+
+    @Test
+    void current_beforeStart_isNeutral() {
+        assertThat(provider.current().getSenderImportance("U1")).isEqualTo(0.5);
+        assertThat(provider.current().getChannelImportance("C1")).isEqualTo(0.5);
+    }
+
+    @Test
+    void start_learnedImportance_followsEngagementWithShrinkage() throws Exception {
+        provider.start();
+
+        // (15 + 5 * 0.5) / (20 + 5) and (1 + 5 * 0.5) / (10 + 5)
+        assertThat(provider.current().getSenderImportance("U1")).isCloseTo(0.7, within(1e-9));
+        assertThat(provider.current().getChannelImportance("C1")).isCloseTo(3.5 / 15, within(1e-9));
+        assertThat(provider.current().getSenderImportance("U2")).isEqualTo(0.5);
+        assertThat(provider.current().getSenderImportance("unknown")).isEqualTo(0.5);
+    }
+
+    @Test
+    void setSenderImportance_visibleAfterPublishOnly() throws Exception {
+        provider.start();
+
+        provider.setSenderImportance("U9", 1.5);
+        assertThat(provider.current().getSenderImportance("U9")).isEqualTo(0.5);
+
+        provider.publish();
+        assertThat(provider.current().getSenderImportance("U9")).isEqualTo(1.0);
+    }
+
+    @Test
+    void publish_unchanged_keepsSnapshot() throws Exception {
+        provider.start();
+        var before = provider.current().getSenderImportance("U1");
+
+        provider.publish();
+
+        assertThat(provider.current().getSenderImportance("U1")).isEqualTo(before);
+        verify(statisticsRepository, times(1)).getAllSenderStats();
+    }
+}
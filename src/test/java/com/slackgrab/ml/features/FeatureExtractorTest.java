@@ -0,0 +1,259 @@
+package com.slackgrab.ml.features;
+
+import com.slackgrab.data.ActivitySketches;
+import com.slackgrab.data.model.SlackMessage;
+import com.slackgrab.ml.model.FeatureSchema;
+import com.slackgrab.ml.model.ScoringContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for FeatureExtractor
+ */
+class FeatureExtractorTest {
+
+    private static final int LARGE_BATCH = 3_000;   // Above the parallel threshold
+
+    private FeatureExtractor extractor;
+    private ScoringContext context;
+
+    @BeforeEach
+    void setUp() {
+        extractor = extractorWith(new TextLengthPlugin());
+        context = ScoringContext.createDefault().at(1_700_100_000_000L);
+    }
+
+    @Test
+    void schema_blocksFollowRegistrationOrder() {
+        FeatureSchema schema = extractor.getSchema();
+
+        assertThat(schema.blocks()).extracting(FeatureSchema.Block::name)
+            .containsExactly("channel", "temporal", "length");
+        assertThat(schema.block("temporal")).hasValueSatisfying(block -> {
+            assertThat(block.offset()).isEqualTo(ChannelFeatureExtractor.FEATURE_NAMES.size());
+            assertThat(block.size()).isEqualTo(TemporalFeatureExtractor.FEATURE_NAMES.size());
+        });
+        assertThat(extractor.getFeatureDimension()).isEqualTo(schema.dimension());
+    }
+
+    @Test
+    void extractInto_arraySlice_writesOnlyItsRow() {
+        SlackMessage message = messages(1)[0];
+        int dimension = extractor.getFeatureDimension();
+        float[] out = new float[dimension + 5];
+        Arrays.fill(out, -1.0f);
+
+        extractor.extractInto(message, context, out, 3);
+
+        assertThat(Arrays.copyOfRange(out, 3, 3 + dimension))
+            .containsExactly(extractor.extractFeatures(message, context).getValues());
+        assertThat(Arrays.copyOf(out, 3)).containsOnly(-1.0f);
+        assertThat(Arrays.copyOfRange(out, 3 + dimension, out.length)).containsOnly(-1.0f);
+    }
+
+    @Test
+    void extractInto_floatBuffer_heapSlicedAndDirect_matchArrayExtraction() {
+        SlackMessage message = messages(1)[0];
+        int dimension = extractor.getFeatureDimension();
+        float[] expected = extractor.extractFeatures(message, context).getValues();
+        int capacity = extractor.getSchema().rowOffset(3);
+
+        FloatBuffer heap = FloatBuffer.allocate(capacity);
+        FloatBuffer sliced = FloatBuffer.wrap(new float[capacity + 2]).position(2).slice();
+        FloatBuffer direct = ByteBuffer.allocateDirect(capacity * Float.BYTES)
+            .order(ByteOrder.nativeOrder())
+            .asFloatBuffer();
+
+        for (FloatBuffer buffer : List.of(heap, sliced, direct)) {
+            extractor.extractInto(message, context, buffer, 1);
+
+            float[] row = new float[dimension];
+            buffer.get(extractor.getSchema().rowOffset(1), row);
+            assertThat(row).containsExactly(expected);
+            assertThat(buffer.position()).isZero();
+            assertThat(buffer.limit()).isEqualTo(capacity);
+
+            float[] first = new float[dimension];
+            buffer.get(0, first);
+            assertThat(first).containsOnly(0.0f);
+        }
+    }
+
+    @Test
+    void extractInto_floatBuffer_rowPastLimit_isRejected() {
+        SlackMessage message = messages(1)[0];
+        FloatBuffer buffer = FloatBuffer.allocate(extractor.getSchema().rowOffset(2) - 1);
+
+        assertThatThrownBy(() -> extractor.extractInto(message, context, buffer, 1))
+            .isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void extractBatch_rowMajor_matchesPerMessageVectors() {
+        SlackMessage[] messages = messages(5);
+        FeatureSchema schema = extractor.getSchema();
+
+        float[] matrix = extractor.extractBatch(List.of(messages), context);
+
+        assertThat(matrix).hasSize(schema.rowOffset(messages.length));
+        float[] expected = new float[matrix.length];
+        for (int i = 0; i < messages.length; i++) {
+            extractor.extractFeatures(messages[i], context).copyInto(expected, schema.rowOffset(i));
+        }
+        assertThat(matrix).containsExactly(expected);
+
+        assertThatThrownBy(() -> extractor.extractBatch(messages, context, new float[matrix.length - 1]))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void pluginExtract_atOffset_matchesItsSchemaBlock() {
+        SlackMessage message = messages(1)[0];
+        TemporalFeatureExtractor temporal = new TemporalFeatureExtractor(new UserTimeZones(ZoneOffset.UTC));
+        FeatureSchema.Block block = extractor.getSchema().block("temporal").orElseThrow();
+        float[] full = extractor.extractFeatures(message, context).getValues();
+        float[] out = new float[block.size() + 4];
+
+        temporal.extract(message, context, out, 4);
+
+        assertThat(Arrays.copyOfRange(out, 4, out.length))
+            .containsExactly(Arrays.copyOfRange(full, block.offset(), block.offset() + block.size()));
+        assertThat(Arrays.copyOf(out, 4)).containsOnly(0.0f);
+    }
+
+    @Test
+    void extractBatchParallel_largeBatch_matchesSequentialExtraction() {
+        SlackMessage[] messages = messages(LARGE_BATCH);
+        int dimension = extractor.getFeatureDimension();
+        float[] matrix = new float[extractor.getSchema().rowOffset(messages.length)];
+        int[] terms = new int[FeatureSchema.termRowOffset(messages.length)];
+
+        extractor.extractBatchParallel(messages, context, matrix, terms);
+
+        float[] row = new float[dimension];
+        for (int i = 0; i < messages.length; i++) {
+            extractor.extractInto(messages[i], context, row, 0);
+            int offset = extractor.getSchema().rowOffset(i);
+            assertThat(Arrays.copyOfRange(matrix, offset, offset + dimension)).as("row %d", i).containsExactly(row);
+
+            int termOffset = FeatureSchema.termRowOffset(i);
+            assertThat(Arrays.copyOfRange(terms, termOffset, termOffset + FeatureSchema.MAX_TERMS))
+                .as("terms %d", i)
+                .containsExactly(extractor.extractTerms(messages[i]));
+        }
+    }
+
+    @Test
+    void extractBatchParallel_smallBatch_matchesExtractBatch() {
+        SlackMessage[] messages = messages(10);
+        float[] parallel = new float[extractor.getSchema().rowOffset(messages.length)];
+
+        extractor.extractBatchParallel(messages, context, parallel);
+
+        assertThat(parallel).containsExactly(extractor.extractBatch(List.of(messages), context));
+    }
+
+    @Test
+    void extractBatchParallel_undersizedBuffers_areRejected() {
+        SlackMessage[] messages = messages(4);
+        float[] matrix = new float[extractor.getSchema().rowOffset(messages.length)];
+
+        assertThatThrownBy(() -> extractor.extractBatchParallel(messages, context, new float[matrix.length - 1]))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> extractor.extractBatchParallel(messages, context, matrix,
+                new int[FeatureSchema.termRowOffset(messages.length) - 1]))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void extractInto_failingPlugin_fillsOnlyItsBlockWithDefault() {
+        FeatureExtractor failing = extractorWith(new FailingPlugin());
+        FeatureSchema schema = failing.getSchema();
+        SlackMessage message = messages(1)[0];
+        float[] expected = new float[schema.dimension()];
+        float[] out = new float[schema.dimension()];
+
+        extractor.extractInto(message, context, expected, 0);
+        failing.extractInto(message, context, out, 0);
+
+        FeatureSchema.Block block = schema.block("failing").orElseThrow();
+        assertThat(Arrays.copyOfRange(out, block.offset(), block.offset() + block.size())).containsOnly(0.5f);
+        assertThat(Arrays.copyOf(out, block.offset())).containsExactly(Arrays.copyOf(expected, block.offset()));
+        assertThat(failing.getPluginStats())
+            .filteredOn(stats -> stats.name().equals("failing"))
+            .singleElement()
+            .satisfies(stats -> {
+                assertThat(stats.calls()).isEqualTo(1);
+                assertThat(stats.failures()).isEqualTo(1);
+            });
+    }
+
+    private static FeatureExtractor extractorWith(FeaturePlugin last) {
+        Set<FeaturePlugin> plugins = new LinkedHashSet<>();
+        plugins.add(new ChannelFeatureExtractor(mock(ActivitySketches.class)));
+        plugins.add(new TemporalFeatureExtractor(new UserTimeZones(ZoneOffset.UTC)));
+        plugins.add(last);
+        return new FeatureExtractor(plugins, new HashedNGramExtractor());
+    }
+
+    private static SlackMessage[] messages(int count) {
+        SlackMessage[] messages = new SlackMessage[count];
+        for (int i = 0; i < count; i++) {
+            String ts = String.format(Locale.ROOT, "%d.%06d", 1_700_000_000L + i * 97L, i);
+            messages[i] = SlackMessage.createNew(
+                "m" + i, (i % 3 == 0 ? "D" : "C") + (i % 7), "U" + (i % 11),
+                "message " + i + " about release " + (i % 13), ts, null, false, false);
+        }
+        return messages;
+    }
+
+    /**
+     * Deterministic plugin over the message text
+     */
+    private static class TextLengthPlugin implements FeaturePlugin {
+
+        @Override
+        public String name() {
+            return "length";
+        }
+
+        @Override
+        public List<String> featureNames() {
+            return List.of("text_length", "text_hash");
+        }
+
+        @Override
+        public void extract(SlackMessage message, ScoringContext context, float[] out, int offset) {
+            out[offset] = message.text().length() / 100.0f;
+            out[offset + 1] = Math.floorMod(message.text().hashCode(), 1000) / 1000.0f;
+        }
+    }
+
+    private static final class FailingPlugin extends TextLengthPlugin {
+
+        @Override
+        public String name() {
+            return "failing";
+        }
+
+        @Override
+        public void extract(SlackMessage message, ScoringContext context, float[] out, int offset) {
+            out[offset] = 42.0f;   // Partial write must be overwritten
+            throw new IllegalStateException("boom");
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.slackgrab.ml.features;
+
+import com.slackgrab.data.FeatureRepository;
+import com.slackgrab.data.TestDatabase;
+import com.slackgrab.data.model.SlackMessage;
+import com.slackgrab.data.model.StoredFeatures;
+import com.slackgrab.ml.model.FeatureSchema;
+import com.slackgrab.ml.model.FeatureVector;
+import com.slackgrab.ml.model.ScoringContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for FeatureStore validity checks against a real database
+ */
+class FeatureStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TestDatabase database;
+    private FeatureRepository featureRepository;
+    private FeatureStore featureStore;
+    private FeatureSchema schema;
+    private ScoringContext context;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        database = TestDatabase.open(tempDir);
+        featureRepository = database.get(FeatureRepository.class);
+        featureStore = database.get(FeatureStore.class);
+        schema = database.get(FeatureExtractor.class).getSchema();
+        context = ScoringContext.createDefault();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        database.close();
+    }
+
+    @Test
+    void getFeatures_storesVectorForLaterLookups() {
+        SlackMessage message = message("m1", "Can you review the release notes?");
+
+        FeatureVector extracted = featureStore.getFeatures(message, context);
+
+        assertThat(featureRepository.getFeatureCount()).isEqualTo(1);
+        assertThat(featureStore.getStoredFeatures(List.of(message)))
+            .hasEntrySatisfying("m1", stored -> assertThat(stored.getValues()).containsExactly(extracted.getValues()));
+    }
+
+    @Test
+    void getStoredFeatures_returnsPersistedTerms() {
+        SlackMessage message = message("m1", "Can you review the release notes?");
+        int[] expected = new int[FeatureSchema.MAX_TERMS];
+        featureStore.getFeatures(message, context).copyTermsInto(expected, 0);
+
+        assertThat(featureRepository.getFeatures(List.of("m1"), schema.version()))
+            .hasEntrySatisfying("m1", row -> assertThat(row.terms()).containsExactly(expected));
+
+        int[] stored = new int[FeatureSchema.MAX_TERMS];
+        featureStore.getStoredFeatures(List.of(message)).get("m1").copyTermsInto(stored, 0);
+        assertThat(stored).containsExactly(expected);
+    }
+
+    @Test
+    void getStoredFeatures_rowWithoutTerms_isInvalid() {
+        SlackMessage message = message("m1", "Lunch?");
+        featureRepository.saveFeatures(List.of(new StoredFeatures(
+            "m1", schema.version(), FeatureStore.inputHash(message),
+            new float[schema.dimension()], null, System.currentTimeMillis())));
+
+        assertThat(featureStore.getStoredFeatures(List.of(message))).isEmpty();
+    }
+
+    @Test
+    void getStoredFeatures_editedText_isInvalid() {
+        featureStore.getFeatures(message("m1", "Deploy at noon"), context);
+
+        assertThat(featureStore.getStoredFeatures(List.of(message("m1", "Deploy at 3pm")))).isEmpty();
+        assertThat(FeatureStore.inputHash(message("m1", "Deploy at noon")))
+            .isNotEqualTo(FeatureStore.inputHash(message("m1", "Deploy at 3pm")));
+    }
+
+    @Test
+    void getStoredFeatures_otherSchemaVersion_isInvalidAndPurged() {
+        SlackMessage message = message("m1", "Lunch?");
+        featureRepository.saveFeatures(List.of(new StoredFeatures(
+            "m1", schema.version() + 1, FeatureStore.inputHash(message),
+            new float[schema.dimension()], new int[FeatureSchema.MAX_TERMS], System.currentTimeMillis())));
+
+        assertThat(featureStore.getStoredFeatures(List.of(message))).isEmpty();
+        assertThat(featureRepository.getFeatureCount()).isZero();
+    }
+
+    private static SlackMessage message(String id, String text) {
+        return SlackMessage.createNew(id, "C1", "U1", text, "1700000000.000100", null, false, false);
+    }
+}
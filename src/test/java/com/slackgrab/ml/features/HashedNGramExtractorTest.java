@@ -0,0 +1,59 @@
+package com.slackgrab.ml.features;
+
+import com.slackgrab.ml.model.FeatureSchema;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for HashedNGramExtractor
+ */
+class HashedNGramExtractorTest {
+
+    private HashedNGramExtractor extractor;
+
+    @BeforeEach
+    void setUp() {
+        extractor = new HashedNGramExtractor();
+    }
+
+    @Test
+    void extractInto_fourWords_writesUnigramsAndBigrams() {
+        int[] terms = new int[FeatureSchema.MAX_TERMS];
+
+        int count = extractor.extractInto("Deploy the API now!", terms, 0);
+
+        // 4 unigrams + 3 bigrams
+        assertThat(count).isEqualTo(7);
+        assertThat(Arrays.copyOf(terms, count)).doesNotContain(FeatureSchema.EMPTY_TERM);
+        assertThat(Arrays.copyOfRange(terms, count, terms.length)).containsOnly(FeatureSchema.EMPTY_TERM);
+        for (int i = 0; i < count; i++) {
+            int bucket = terms[i] >= 0 ? terms[i] : ~terms[i];
+            assertThat(bucket).isBetween(0, FeatureSchema.TERM_BUCKETS - 1);
+        }
+    }
+
+    @Test
+    void extractTerms_caseAndPunctuation_areIgnored() {
+        assertThat(extractor.extractTerms("Deploy the API now!"))
+            .isEqualTo(extractor.extractTerms("deploy THE api, now"));
+    }
+
+    @Test
+    void extractInto_longText_isCappedAtMaxTerms() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            text.append("word").append(i).append(' ');
+        }
+        int[] terms = new int[FeatureSchema.MAX_TERMS + 4];
+
+        int count = extractor.extractInto(text.toString(), terms, 4);
+
+        assertThat(count).isEqualTo(FeatureSchema.MAX_TERMS);
+        assertThat(extractor.extractInto(null, terms, 0)).isZero();
+        assertThat(Arrays.copyOf(terms, FeatureSchema.MAX_TERMS)).containsOnly(FeatureSchema.EMPTY_TERM);
+    }
+}
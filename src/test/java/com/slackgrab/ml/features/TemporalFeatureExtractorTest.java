@@ -0,0 +1,139 @@
+package com.slackgrab.ml.features;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for TemporalFeatureExtractor and UserTimeZones
+ */
+class TemporalFeatureExtractorTest {
+
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+    private static final ZoneId TOKYO = ZoneId.of("Asia/Tokyo");
+
+    private UserTimeZones userTimeZones;
+    private TemporalFeatureExtractor extractor;
+
+    @BeforeEach
+    void setUp() {
+        userTimeZones = new UserTimeZones(NEW_YORK);
+        extractor = new TemporalFeatureExtractor(userTimeZones);
+    }
+
+    @Test
+    void parseSlackTimestamp_slackFormats_parseToMillis() {
+        assertThat(TemporalFeatureExtractor.parseSlackTimestamp("1700000000.123456")).isEqualTo(1_700_000_000_123L);
+        assertThat(TemporalFeatureExtractor.parseSlackTimestamp("1700000000.5")).isEqualTo(1_700_000_000_500L);
+        assertThat(TemporalFeatureExtractor.parseSlackTimestamp("1700000000.")).isEqualTo(1_700_000_000_000L);
+        assertThat(TemporalFeatureExtractor.parseSlackTimestamp("1700000000")).isEqualTo(1_700_000_000_000L);
+    }
+
+    @Test
+    void parseSlackTimestamp_otherNumericForms_fallBackToDouble() {
+        assertThat(TemporalFeatureExtractor.parseSlackTimestamp("1.7e9")).isEqualTo(1_700_000_000_000L);
+        assertThat(TemporalFeatureExtractor.parseSlackTimestamp("-1.5")).isEqualTo(-1_500L);
+    }
+
+    @Test
+    void parseSlackTimestamp_malformed_throws() {
+        assertThatThrownBy(() -> TemporalFeatureExtractor.parseSlackTimestamp(null))
+            .isInstanceOf(NumberFormatException.class);
+        assertThatThrownBy(() -> TemporalFeatureExtractor.parseSlackTimestamp("abc"))
+            .isInstanceOf(NumberFormatException.class);
+        assertThatThrownBy(() -> TemporalFeatureExtractor.parseSlackTimestamp("1700000000.12x"))
+            .isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    void extractInto_calendarFields_matchJavaTimeAcrossDst() {
+        // Every 37 minutes through 2024, so both DST transitions and all hours are covered
+        long start = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+        long end = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+        float[] out = new float[TemporalFeatureExtractor.FEATURE_NAMES.size()];
+
+        for (long time = start; time < end; time += 37 * 60 * 1000L) {
+            extractor.extractInto(time, end, out, 0);
+            assertCalendarFields(out, Instant.ofEpochMilli(time).atZone(NEW_YORK));
+        }
+    }
+
+    @Test
+    void extractInto_springForward_skipsTwoAm() {
+        float[] out = new float[5];
+
+        // 01:30 EST, then one hour later 03:30 EDT (Sunday 2024-03-10)
+        extractor.extractInto(Instant.parse("2024-03-10T06:30:00Z").toEpochMilli(), 0L, out, 0);
+        assertThat(out[0]).isEqualTo(1 / 24.0f);
+        assertThat(out[4]).isEqualTo(1.0f);
+
+        extractor.extractInto(Instant.parse("2024-03-10T07:30:00Z").toEpochMilli(), 0L, out, 0);
+        assertThat(out[0]).isEqualTo(3 / 24.0f);
+    }
+
+    @Test
+    void extractInto_sender_usesSenderTimeZone() {
+        userTimeZones.setTimeZone("U_TOKYO", TOKYO);
+        long monday = Instant.parse("2024-03-11T13:30:00Z").toEpochMilli();
+        float[] local = new float[5];
+        float[] tokyo = new float[5];
+
+        // 09:30 Monday in New York, 22:30 Monday in Tokyo
+        extractor.extractInto("U_OTHER", monday, monday, local, 0);
+        extractor.extractInto("U_TOKYO", monday, monday, tokyo, 0);
+
+        assertCalendarFields(local, Instant.ofEpochMilli(monday).atZone(NEW_YORK));
+        assertCalendarFields(tokyo, Instant.ofEpochMilli(monday).atZone(TOKYO));
+        assertThat(local[2]).isEqualTo(1.0f);
+        assertThat(tokyo[2]).isEqualTo(0.0f);
+    }
+
+    @Test
+    void extractInto_recency_decaysOverSevenDaysAndClampsFutureTimestamps() {
+        long now = Instant.parse("2024-06-01T12:00:00Z").toEpochMilli();
+        long day = 24 * 60 * 60 * 1000L;
+        float[] out = new float[5];
+
+        extractor.extractInto(now, now, out, 0);
+        assertThat(out[3]).isEqualTo(1.0f);
+
+        extractor.extractInto(now - 7 * day / 2, now, out, 0);
+        assertThat(out[3]).isEqualTo(0.5f);
+
+        extractor.extractInto(now - 8 * day, now, out, 0);
+        assertThat(out[3]).isEqualTo(0.0f);
+
+        extractor.extractInto(now + day, now, out, 0);
+        assertThat(out[3]).isEqualTo(1.0f);
+    }
+
+    @Test
+    void setTimeZone_unknownOrBlankName_fallsBackToDefault() {
+        assertThat(userTimeZones.setTimeZone("U1", "Europe/Paris")).isTrue();
+        assertThat(userTimeZones.getTimeZone("U1")).isEqualTo(ZoneId.of("Europe/Paris"));
+
+        assertThat(userTimeZones.setTimeZone("U2", "Mars/Olympus_Mons")).isFalse();
+        assertThat(userTimeZones.getTimeZone("U2")).isEqualTo(NEW_YORK);
+
+        assertThat(userTimeZones.setTimeZone("U1", " ")).isFalse();
+        assertThat(userTimeZones.getTimeZone("U1")).isEqualTo(NEW_YORK);
+        assertThat(userTimeZones.getTimeZone(null)).isEqualTo(NEW_YORK);
+    }
+
+    private static void assertCalendarFields(float[] out, ZonedDateTime expected) {
+        int dayOfWeek = expected.getDayOfWeek().getValue() - 1;   // Monday=0
+        boolean weekend = dayOfWeek >= 5;
+        boolean businessHour = expected.getHour() >= 9 && expected.getHour() < 17;
+
+        assertThat(out[0]).as("hour at %s", expected).isEqualTo(expected.getHour() / 24.0f);
+        assertThat(out[1]).as("day at %s", expected).isEqualTo(dayOfWeek / 6.0f);
+        assertThat(out[2]).as("business at %s", expected).isEqualTo(!weekend && businessHour ? 1.0f : 0.0f);
+        assertThat(out[4]).as("weekend at %s", expected).isEqualTo(weekend ? 1.0f : 0.0f);
+    }
+}
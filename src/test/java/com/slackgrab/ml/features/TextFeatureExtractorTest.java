@@ -4,6 +4,8 @@ import com.slackgrab.ml.model.ScoringContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -111,4 +113,48 @@ class TextFeatureExtractorTest {
         // Feature 9: No urgent keywords
         assertThat(features[9]).isEqualTo(0.0f);
     }
+
+    @Test
+    void extractFeatures_contextKeyword_matchesIgnoringCase() {
+        ScoringContext withKeywords = new ScoringContext.Builder()
+            .withUrgentKeywords(List.of("Prod Down"))
+            .build();
+
+        float[] features = extractor.extractFeatures("heads up: PROD DOWN in eu-west", withKeywords);
+
+        // Feature 9: Context keyword match
+        assertThat(features[9]).isEqualTo(1.0f);
+        assertThat(extractor.extractFeatures("prod is fine", withKeywords)[9]).isEqualTo(0.0f);
+    }
+
+    @Test
+    void extractFeatures_overlappingKeywordPrefix_stillMatches() {
+        ScoringContext withKeywords = new ScoringContext.Builder()
+            .withUrgentKeywords(List.of("outage"))
+            .build();
+
+        // "ou" starts a partial match that must fall back to find "outage"
+        float[] features = extractor.extractFeatures("our outage report", withKeywords);
+
+        assertThat(features[9]).isEqualTo(1.0f);
+    }
+
+    @Test
+    void extractFeatures_leadingWhitespace_countsWordsLikeSplit() {
+        String text = "  two words ";
+        float[] features = extractor.extractFeatures(text, context);
+
+        float expectedWords = text.split("\\s+").length;
+        assertThat(features[1]).isEqualTo(expectedWords / 500.0f);
+        assertThat(features[8]).isEqualTo(Math.min(1.0f, (float) text.length() / expectedWords / 20.0f));
+    }
+
+    @Test
+    void extractFeatures_incompleteMarkup_notDetected() {
+        float[] features = extractor.extractFeatures("see https:// or <@> or :not closed", context);
+
+        assertThat(features[3]).isEqualTo(0.0f);
+        assertThat(features[4]).isEqualTo(0.0f);
+        assertThat(features[5]).isEqualTo(0.0f);
+    }
 }
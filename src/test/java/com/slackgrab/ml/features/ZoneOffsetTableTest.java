@@ -0,0 +1,104 @@
+package com.slackgrab.ml.features;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ZoneOffsetTable against java.time zone rules
+ */
+class ZoneOffsetTableTest {
+
+    private static final List<ZoneId> ZONES = List.of(
+        ZoneId.of("UTC"),
+        ZoneId.of("America/New_York"),
+        ZoneId.of("Europe/London"),
+        ZoneId.of("Australia/Lord_Howe"),    // 30-minute DST shift
+        ZoneId.of("Asia/Kolkata"),           // No transitions in the table range
+        ZoneId.of("America/Sao_Paulo")       // DST abolished in 2019
+    );
+
+    @Test
+    void offsetSecondsAt_matchesZoneRulesAroundEveryTransition() {
+        for (ZoneId zone : ZONES) {
+            ZoneOffsetTable table = ZoneOffsetTable.forZone(zone);
+            ZoneRules rules = zone.getRules();
+
+            ZoneOffsetTransition transition = rules.nextTransition(Instant.parse("2015-01-01T00:00:00Z"));
+            while (transition != null && transition.getInstant().isBefore(Instant.parse("2030-01-01T00:00:00Z"))) {
+                long at = transition.toEpochSecond();
+                for (long second : new long[] {at - 3_600, at - 1, at, at + 1, at + 3_600}) {
+                    assertThat(table.offsetSecondsAt(second))
+                        .as("%s at %s", zone, Instant.ofEpochSecond(second))
+                        .isEqualTo(rules.getOffset(Instant.ofEpochSecond(second)).getTotalSeconds());
+                }
+                transition = rules.nextTransition(transition.getInstant());
+            }
+        }
+    }
+
+    @Test
+    void offsetSecondsAt_matchesZoneRulesHourlyThroughAYear() {
+        long start = Instant.parse("2024-01-01T00:30:00Z").getEpochSecond();
+        for (ZoneId zone : ZONES) {
+            ZoneOffsetTable table = ZoneOffsetTable.forZone(zone);
+            for (long second = start; second < start + 366 * ZoneOffsetTable.SECONDS_PER_DAY; second += 3_600) {
+                assertThat(table.offsetSecondsAt(second))
+                    .as("%s at %s", zone, Instant.ofEpochSecond(second))
+                    .isEqualTo(zone.getRules().getOffset(Instant.ofEpochSecond(second)).getTotalSeconds());
+            }
+        }
+    }
+
+    @Test
+    void offsetSecondsAt_outsideTable_fallsBackToZoneRules() {
+        ZoneOffsetTable table = ZoneOffsetTable.forZone(ZoneId.of("America/New_York"));
+
+        for (String instant : List.of("1985-07-01T12:00:00Z", "1985-01-01T12:00:00Z",
+                                      "2070-07-01T12:00:00Z", "2070-01-01T12:00:00Z")) {
+            Instant at = Instant.parse(instant);
+            assertThat(table.offsetSecondsAt(at.getEpochSecond()))
+                .as(instant)
+                .isEqualTo(ZoneId.of("America/New_York").getRules().getOffset(at).getTotalSeconds());
+        }
+    }
+
+    @Test
+    void localEpochSecond_matchesLocalDateTimeAcrossSpringForward() {
+        ZoneId zone = ZoneId.of("America/New_York");
+        ZoneOffsetTable table = ZoneOffsetTable.forZone(zone);
+
+        // 2024-03-10 02:00 local does not exist; clocks jump from 01:59:59 EST to 03:00 EDT
+        Instant transition = Instant.parse("2024-03-10T07:00:00Z");
+        for (long deltaMillis : new long[] {-1_000, -1, 0, 999, 1_000}) {
+            Instant at = transition.plusMillis(deltaMillis);
+            long expected = LocalDateTime.ofInstant(at, zone).toEpochSecond(ZoneOffset.UTC);
+            assertThat(table.localEpochSecond(at.toEpochMilli())).as("%s", at).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void localEpochSecond_beforeEpoch_floorsMillis() {
+        ZoneOffsetTable table = ZoneOffsetTable.forZone(ZoneId.of("UTC"));
+
+        assertThat(table.localEpochSecond(-1)).isEqualTo(-1);
+        assertThat(table.localEpochSecond(-1_000)).isEqualTo(-1);
+        assertThat(table.localEpochSecond(-1_001)).isEqualTo(-2);
+    }
+
+    @Test
+    void forZone_sharesTablePerZone() {
+        ZoneOffsetTable table = ZoneOffsetTable.forZone(ZoneId.of("Europe/London"));
+
+        assertThat(ZoneOffsetTable.forZone(ZoneId.of("Europe/London"))).isSameAs(table);
+        assertThat(table.getZone()).isEqualTo(ZoneId.of("Europe/London"));
+    }
+}
@@ -0,0 +1,83 @@
+package com.slackgrab.ml.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for FeatureSchema layout and version stability
+ */
+class FeatureSchemaTest {
+
+    private static final List<String> TEXT = List.of("length", "question");
+    private static final List<String> USER = List.of("sender_importance");
+
+    @Test
+    void build_assignsBlockOffsetsAndColumnIndices() {
+        FeatureSchema schema = schema("text", TEXT, 1, "user", USER, 1);
+
+        assertThat(schema.dimension()).isEqualTo(3);
+        assertThat(schema.names()).containsExactly("length", "question", "sender_importance");
+        assertThat(schema.indices()).containsEntry("question", 1).containsEntry("sender_importance", 2);
+        assertThat(schema.blocks()).containsExactly(
+            new FeatureSchema.Block("text", 0, 2, 1),
+            new FeatureSchema.Block("user", 2, 1, 1));
+        assertThat(schema.block("user")).contains(new FeatureSchema.Block("user", 2, 1, 1));
+        assertThat(schema.block("media")).isEmpty();
+        assertThat(schema.rowOffset(4)).isEqualTo(12);
+        assertThat(FeatureSchema.termRowOffset(2)).isEqualTo(2 * FeatureSchema.MAX_TERMS);
+    }
+
+    @Test
+    void version_sameLayout_isStable() {
+        FeatureSchema first = schema("text", TEXT, 1, "user", USER, 1);
+        FeatureSchema second = schema("text", List.copyOf(TEXT), 1, "user", List.copyOf(USER), 1);
+
+        assertThat(second.version()).isEqualTo(first.version());
+        assertThat(first.version()).isNotNegative();
+    }
+
+    @Test
+    void version_anyLayoutChange_changesVersion() {
+        int base = schema("text", TEXT, 1, "user", USER, 1).version();
+
+        assertThat(schema("text", TEXT, 2, "user", USER, 1).version()).as("plugin version").isNotEqualTo(base);
+        assertThat(schema("text", List.of("length", "questions"), 1, "user", USER, 1).version())
+            .as("feature name").isNotEqualTo(base);
+        assertThat(schema("words", TEXT, 1, "user", USER, 1).version()).as("block name").isNotEqualTo(base);
+        assertThat(schema("user", USER, 1, "text", TEXT, 1).version()).as("block order").isNotEqualTo(base);
+        assertThat(FeatureSchema.builder().addBlock("text", TEXT, 1).build().version())
+            .as("removed block").isNotEqualTo(base);
+    }
+
+    @Test
+    void version_columnsMovedBetweenBlocks_changesVersion() {
+        // Same names in the same order, split differently
+        int base = schema("a", List.of("x", "y"), 1, "b", List.of("z"), 1).version();
+
+        assertThat(schema("a", List.of("x"), 1, "b", List.of("y", "z"), 1).version()).isNotEqualTo(base);
+    }
+
+    @Test
+    void build_duplicateBlockOrFeatureNames_areRejected() {
+        assertThatThrownBy(() -> FeatureSchema.builder().addBlock("text", TEXT, 1).addBlock("text", USER, 1))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("text");
+        assertThatThrownBy(() -> schema("text", TEXT, 1, "user", List.of("length"), 1))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("length");
+        assertThatThrownBy(() -> FeatureSchema.builder().addBlock("empty", List.of(), 1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static FeatureSchema schema(String first, List<String> firstNames, int firstVersion,
+                                        String second, List<String> secondNames, int secondVersion) {
+        return FeatureSchema.builder()
+            .addBlock(first, firstNames, firstVersion)
+            .addBlock(second, secondNames, secondVersion)
+            .build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.slackgrab.ml.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for HashedTermEmbedding
+ */
+class HashedTermEmbeddingTest {
+
+    @TempDir
+    Path tempDir;
+
+    private HashedTermEmbedding embedding;
+    private int[] terms;
+    private float[] gradient;
+
+    @BeforeEach
+    void setUp() {
+        embedding = new HashedTermEmbedding(0.1f);
+        terms = new int[FeatureSchema.MAX_TERMS];
+        Arrays.fill(terms, FeatureSchema.EMPTY_TERM);
+        terms[0] = 17;
+        terms[1] = ~42;   // Negative sign
+        gradient = new float[HashedTermEmbedding.SIZE];
+        Arrays.fill(gradient, 1.0f);
+    }
+
+    @Test
+    void project_newEmbedding_isZero() {
+        float[] out = new float[HashedTermEmbedding.SIZE];
+        Arrays.fill(out, 9.0f);
+
+        embedding.project(terms, 0, out, 0);
+
+        assertThat(out).containsOnly(0.0f);
+    }
+
+    @Test
+    void update_movesProjectionAgainstGradient() {
+        float[] out = new float[HashedTermEmbedding.SIZE];
+
+        embedding.update(terms, 0, gradient, 0);
+        embedding.project(terms, 0, out, 0);
+
+        for (float value : out) {
+            assertThat(value).isLessThan(0.0f);
+        }
+    }
+
+    @Test
+    void save_load_roundTrips() throws Exception {
+        embedding.update(terms, 0, gradient, 0);
+        float[] expected = new float[HashedTermEmbedding.SIZE];
+        embedding.project(terms, 0, expected, 0);
+
+        File file = tempDir.resolve("terms.bin").toFile();
+        embedding.save(file);
+        HashedTermEmbedding restored = new HashedTermEmbedding(0.1f);
+        restored.load(file);
+
+        float[] out = new float[HashedTermEmbedding.SIZE];
+        restored.project(terms, 0, out, 0);
+        assertThat(out).containsExactly(expected);
+    }
+
+    @Test
+    void project_duringUpdates_seesWholeSteps() throws Exception {
+        // Every step moves all outputs of this row by the same amount, so a
+        // projection that saw a partial step would have unequal outputs
+        ExecutorService trainer = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> training = trainer.submit(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    embedding.update(terms, 0, gradient, 0);
+                }
+            });
+
+            float[] out = new float[HashedTermEmbedding.SIZE];
+            while (!training.isDone()) {
+                embedding.project(terms, 0, out, 0);
+                assertThat(out).containsOnly(out[0]);
+            }
+            training.get();
+        } finally {
+            trainer.shutdown();
+            trainer.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+}
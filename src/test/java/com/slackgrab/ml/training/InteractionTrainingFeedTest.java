@@ -0,0 +1,106 @@
+package com.slackgrab.ml.training;
+
+import com.slackgrab.core.ErrorHandler;
+import com.slackgrab.data.InteractionBuffer;
+import com.slackgrab.data.InteractionRepository;
+import com.slackgrab.data.MessageRepository;
+import com.slackgrab.data.model.SlackMessage;
+import com.slackgrab.ml.ScoringContextProvider;
+import com.slackgrab.ml.features.FeatureStore;
+import com.slackgrab.ml.model.FeatureVector;
+import com.slackgrab.ml.model.ScoringContext;
+import com.slackgrab.ml.model.TrainingExample;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for InteractionTrainingFeed
+ */
+class InteractionTrainingFeedTest {
+
+    private InteractionBuffer interactionBuffer;
+    private MessageRepository messageRepository;
+    private FeatureStore featureStore;
+    private OnlineTrainer onlineTrainer;
+    private InteractionTrainingFeed feed;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        InteractionRepository interactionRepository = mock(InteractionRepository.class);
+        when(interactionRepository.recordInteractions(anyList()))
+            .thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+        ErrorHandler errorHandler = mock(ErrorHandler.class);
+        interactionBuffer = new InteractionBuffer(interactionRepository, errorHandler);
+
+        messageRepository = mock(MessageRepository.class);
+        when(messageRepository.getMessage(any())).thenReturn(Optional.empty());
+        when(messageRepository.getMessage("m1")).thenReturn(Optional.of(
+            SlackMessage.createNew("m1", "C1", "U1", "deploy failed", "1700000000.000100", null, false, false)));
+
+        featureStore = mock(FeatureStore.class);
+        when(featureStore.getFeatures(anyList(), any())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0))
+            .stream()
+            .map(message -> new FeatureVector(new float[] {0.5f}, Map.of("f", 0)))
+            .toList());
+
+        ScoringContextProvider contextProvider = mock(ScoringContextProvider.class);
+        when(contextProvider.current()).thenReturn(ScoringContext.createDefault());
+
+        onlineTrainer = mock(OnlineTrainer.class);
+        when(onlineTrainer.enqueueExample(any())).thenReturn(true);
+
+        feed = new InteractionTrainingFeed(
+            interactionBuffer, messageRepository, featureStore, contextProvider, onlineTrainer, errorHandler);
+        feed.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        feed.stop();
+    }
+
+    @Test
+    void flush_storedMessage_reachesTrainerWithMergedDwellTime() {
+        interactionBuffer.record("m1", "READ", 6_000L);
+        interactionBuffer.record("m1", "READ", 6_000L);
+
+        interactionBuffer.flush();
+
+        ArgumentCaptor<TrainingExample> captor = ArgumentCaptor.forClass(TrainingExample.class);
+        verify(onlineTrainer, timeout(2_000)).enqueueExample(captor.capture());
+        // 12 s of merged dwell time counts as a long read
+        assertThat(captor.getValue().targetScore()).isEqualTo(0.9);
+    }
+
+    @Test
+    void flush_unknownMessage_isSkipped() {
+        interactionBuffer.record("missing", "READ");
+        interactionBuffer.record("m1", "REPLY");
+
+        interactionBuffer.flush();
+
+        verify(onlineTrainer, timeout(2_000).times(1)).enqueueExample(any());
+        verify(messageRepository, timeout(2_000)).getMessage("missing");
+    }
+
+    @Test
+    void stop_detachesFromBuffer() throws Exception {
+        feed.stop();
+
+        interactionBuffer.record("m1", "READ");
+        interactionBuffer.flush();
+
+        verify(onlineTrainer, after(200).never()).enqueueExample(any());
+    }
+}